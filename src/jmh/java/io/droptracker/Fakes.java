@@ -0,0 +1,107 @@
+package io.droptracker;
+
+import net.runelite.api.Client;
+import net.runelite.client.callback.ClientThread;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+/**
+ * Stand-ins for the RuneLite client the benchmarks run without: no game,
+ * no Guice, no network.
+ *
+ * <p>{@link #of} answers an interface's methods by name from a map; anything
+ * not in it falls back to the method's default body, if it has one (so
+ * {@link DropTrackerConfig} keeps its configured defaults), and otherwise to
+ * the zero value of its return type.
+ */
+public final class Fakes {
+
+    private Fakes() {
+    }
+
+    public static <T> T of(Class<T> type, Map<String, ?> answers) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (answers.containsKey(method.getName())) {
+                return answers.get(method.getName());
+            }
+            if (method.getDeclaringClass() == Object.class) {
+                return objectMethod(proxy, method, args);
+            }
+            if (method.isDefault()) {
+                return MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup())
+                    .unreflectSpecial(method, method.getDeclaringClass())
+                    .bindTo(proxy)
+                    .invokeWithArguments(args != null ? args : new Object[0]);
+            }
+            return zero(method.getReturnType());
+        }));
+    }
+
+    /** A logged-in client: the account hash is set and every varbit reads 1. */
+    public static Client client(long accountHash) {
+        return of(Client.class, Map.of("getAccountHash", accountHash, "getVarbitValue", 1));
+    }
+
+    /** A config on its defaults, except for {@code answers}. */
+    public static DropTrackerConfig config(Map<String, ?> answers) {
+        return of(DropTrackerConfig.class, answers);
+    }
+
+    /**
+     * Drops whatever is queued on it. Work deferred to the client thread is
+     * what the game tick would run, not the chat or loot path being measured.
+     */
+    public static ClientThread clientThread() {
+        return new ClientThread() {
+            @Override
+            public void invokeLater(Runnable r) {
+            }
+
+            @Override
+            public void invokeAtTickEnd(Runnable r) {
+            }
+        };
+    }
+
+    private static Object objectMethod(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                return "Fake" + proxy.getClass().getInterfaces()[0].getSimpleName();
+        }
+    }
+
+    private static Object zero(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == double.class) {
+            return 0d;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        return 0;
+    }
+}
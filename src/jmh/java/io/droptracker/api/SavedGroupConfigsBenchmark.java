@@ -0,0 +1,101 @@
+package io.droptracker.api;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpServer;
+import io.droptracker.service.PluginExecutors;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Restoring the group configs at login: a fresh {@link ResponseCache} reading
+ * and parsing the /panel_data response saved by the last session, in a
+ * temporary directory. Login waits on this before the first submission can
+ * qualify. The response is saved once, from a local stub server, in setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SavedGroupConfigsBenchmark {
+
+    @Param({"1", "10"})
+    int groups;
+
+    private final Gson gson = new Gson();
+    private final PluginExecutors executors = new PluginExecutors();
+    private Path dir;
+    private HttpUrl url;
+
+    @Setup
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("droptracker-bench");
+        StringBuilder configs = new StringBuilder();
+        for (int i = 0; i < groups; i++) {
+            configs.append(i == 0 ? "" : ",").append("{\"group_id\":\"").append(i + 2)
+                .append("\",\"group_name\":\"Group ").append(i).append("\",\"min_value\":0,")
+                .append("\"minimum_drop_value\":100000,\"send_drops\":true,\"send_stacked_items\":true,")
+                .append("\"send_pbs\":true,\"send_clogs\":true,\"send_pets\":true,\"send_cas\":true}");
+        }
+        byte[] body = ("{\"player_found\":true,\"configs\":[" + configs + "]}").getBytes(StandardCharsets.UTF_8);
+
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/panel_data", exchange -> {
+            exchange.getResponseHeaders().set("ETag", "\"v1\"");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+            exchange.close();
+        });
+        server.start();
+        try {
+            url = HttpUrl.parse("http://127.0.0.1:" + server.getAddress().getPort()
+                + "/panel_data?player_name=Zezima&acc_hash=123456789");
+            new ResponseCache(dir, gson, executors).fetch(new OkHttpClient(), url, 5_000, DropTrackerApi.PanelData.class)
+                .get(5, TimeUnit.SECONDS);
+        } finally {
+            server.stop(0);
+        }
+        // The write trails the response on the io pool.
+        executors.shutDown();
+        executors.awaitTermination(5, TimeUnit.SECONDS);
+        executors.startUp();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        executors.shutDown();
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Revalidating.Saved<DropTrackerApi.PanelData> restore() {
+        return new ResponseCache(dir, gson, executors).saved(url, DropTrackerApi.PanelData.class).join();
+    }
+}
@@ -0,0 +1,45 @@
+package io.droptracker.api;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The bookkeeping {@link SingleFlight} adds to a read: {@code callers} panels
+ * asking for the same key while its call is in flight, then the call
+ * completing. The call itself is a bare future; the network it stands for is
+ * what coalescing saves, and is not timed here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SingleFlightBenchmark {
+
+    @Param({"1", "8"})
+    int callers;
+
+    private final SingleFlight flights = new SingleFlight();
+
+    @Benchmark
+    public void coalesce(Blackhole blackhole) {
+        CompletableFuture<String> call = new CompletableFuture<>();
+        for (int i = 0; i < callers; i++) {
+            blackhole.consume(flights.run("group-configs", () -> call));
+        }
+        call.complete("{}");
+    }
+}
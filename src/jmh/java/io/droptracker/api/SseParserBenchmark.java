@@ -0,0 +1,57 @@
+package io.droptracker.api;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Framing a burst of the event stream: a hundred {@code event_state} patches,
+ * each with its id, interleaved with the server's keep-alive comments, as the
+ * stream delivers them after a busy minute in a large event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SseParserBenchmark {
+
+    private final List<String> lines = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        lines.add("retry: 5000");
+        for (int i = 0; i < 100; i++) {
+            if (i % 10 == 0) {
+                lines.add(": keep-alive");
+            }
+            lines.add("event: event_state");
+            lines.add("id: " + (1_000 + i));
+            lines.add("data: {\"base_version\":" + (1_000 + i) + ",\"version\":" + (1_001 + i) + ",\"patch\":["
+                + "{\"op\":\"replace\",\"path\":\"/events/0/team/score\",\"value\":" + (40 + i) + "},"
+                + "{\"op\":\"replace\",\"path\":\"/events/0/tasks/3/have\",\"value\":" + i + "}]}");
+            lines.add("");
+        }
+    }
+
+    @Benchmark
+    public void burst(Blackhole blackhole) {
+        SseParser parser = new SseParser();
+        for (String line : lines) {
+            blackhole.consume(parser.line(line));
+        }
+    }
+}
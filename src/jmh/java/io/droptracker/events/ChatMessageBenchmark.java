@@ -0,0 +1,128 @@
+package io.droptracker.events;
+
+import io.droptracker.DropTrackerConfig;
+import io.droptracker.DropTrackerPlugin;
+import io.droptracker.Fakes;
+import io.droptracker.service.SubmissionManager;
+import io.droptracker.util.NpcUtilities;
+import net.runelite.api.Client;
+import net.runelite.client.callback.ClientThread;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One pass of a recorded-style game chat corpus through every chat handler,
+ * in the order {@code DropTrackerPlugin.onChatMessage} dispatches a
+ * {@code GAMEMESSAGE}: sanitising, each handler's patterns, and the boss kill
+ * count parse {@code KCService} runs on every line.
+ *
+ * <p>Most lines are noise that every handler must reject, as in real play.
+ * Work the handlers hand to the client thread is dropped, and no line here
+ * completes a submission, so nothing is sent anywhere.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatMessageBenchmark {
+
+    private static final String[] CORPUS = {
+        "Welcome to Old School RuneScape.",
+        "<col=ef1020>Your Zulrah kill count is: <col=ff0000>1,234</col>.</col>",
+        "Fight duration: <col=ff0000>1:02.40</col>. Personal best: 0:58.20",
+        "<col=ef1020>Valuable drop: Tanzanite fang (4,120,000 coins)</col>",
+        "New item added to your collection log: <col=ef1020>Tanzanite fang</col>",
+        "You eat the shark.",
+        "It heals some health.",
+        "Your Magic fang has 12,000 charges left.",
+        "<col=ef1020>Untradeable drop: Jar of swamp</col>",
+        "You catch a raw shark.",
+        "You catch 2 raw lobsters!",
+        "Congratulations, you've completed a hard combat task: <col=06600c>Snake. Snake!? Snaaaaaake!</col> (4 points).",
+        "Your Theatre of Blood completion count is: <col=ff0000>412</col>.",
+        "Wave: 3 Duration: 1:15",
+        "Your reward is: <col=ff0000>1</col> x <col=ff0000>Tanzanite fang</col>.",
+        "You have been frozen!",
+        "Your Barrows chest count is: <col=ff0000>201</col>.",
+        "The bank PIN is correct.",
+        "You've completed a total of 542 quests.",
+        "<col=0000ff>Your Slayer task is complete.</col>",
+        "You've completed 180 tasks and received 15 points, giving you a total of 1,245.",
+        "Your Wintertodt success count is: <col=ff0000>300</col>.",
+        "You need to be at least level 70 Agility to use this shortcut.",
+        "Team size: <col=ff0000>Solo</col> Fight duration: <col=ff0000>2:14.60</col> (new personal best)",
+        "Your Vorkath kill count is: <col=ff0000>88</col>.",
+        "You have a funny feeling like you're being followed.",
+        "Nothing interesting happens.",
+        "You feel a slight sense of unease.",
+    };
+
+    private final SubmissionManager submissionManager =
+        new SubmissionManager(null, null, null, null, null, null, null, null, null, null);
+    private final DropTrackerPlugin plugin = new DropTrackerPlugin();
+    private final PbHandler pbHandler = new PbHandler();
+    private final CaHandler caHandler = new CaHandler();
+    private final ClogHandler clogHandler = new ClogHandler(null, null, null, null, null);
+    private final PetHandler petHandler = new PetHandler();
+    private final DiaryHandler diaryHandler = new DiaryHandler();
+    private final TrawlingHandler trawlingHandler = new TrawlingHandler(new DropHandler());
+
+    @Setup
+    public void setUp() {
+        Client client = Fakes.client(123456789L);
+        ClientThread clientThread = Fakes.clientThread();
+        DropTrackerConfig config = Fakes.config(Map.of("pbEmbeds", true, "clogEmbeds", true, "diaryEmbeds", true,
+            "trackActivities", true, "trackTrawling", true));
+        for (BaseEventHandler handler : new BaseEventHandler[]{
+            pbHandler, caHandler, clogHandler, petHandler, diaryHandler, trawlingHandler}) {
+            handler.plugin = plugin;
+            handler.client = client;
+            handler.clientThread = clientThread;
+            handler.config = config;
+            handler.submissionManager = submissionManager;
+        }
+    }
+
+    @Benchmark
+    public void gameMessages(Blackhole blackhole) {
+        for (String raw : CORPUS) {
+            String message = submissionManager.sanitize(raw);
+            if (pbHandler.isEnabled()) {
+                pbHandler.onGameMessage(message);
+            }
+            if (caHandler.isEnabled()) {
+                caHandler.onGameMessage(message);
+            }
+            if (clogHandler.isEnabled()) {
+                clogHandler.onChatMessage(message);
+            }
+            if (petHandler.isEnabled()) {
+                petHandler.onGameMessage(message);
+            }
+            if (diaryHandler.isEnabled()) {
+                diaryHandler.onGameMessage(message);
+            }
+            if (trawlingHandler.isEnabled()) {
+                trawlingHandler.onGameMessage(message);
+            }
+            blackhole.consume(NpcUtilities.parseBoss(message, plugin));
+        }
+        // Partial kill and pet state would otherwise carry into the next pass.
+        pbHandler.reset();
+        petHandler.reset();
+    }
+}
@@ -0,0 +1,99 @@
+package io.droptracker.events;
+
+import io.droptracker.Fakes;
+import io.droptracker.api.DropTrackerUrls;
+import io.droptracker.models.CustomWebhookBody;
+import io.droptracker.util.ItemStacks;
+import net.runelite.api.ItemComposition;
+import net.runelite.client.game.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-item part of {@link DropHandler}'s drop processing, as it runs on
+ * the client thread for every loot event: stacking, the screenshot checks
+ * against the untradeable id lists, and one embed per stacked item.
+ *
+ * <p>The handler is built without Guice, on a fake client and config; item
+ * prices and compositions come from a table instead of the {@code ItemManager}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DropHandlerBenchmark {
+
+    /** Size of each untradeable id list the server sends. */
+    private static final int LISTED_IDS = 400;
+
+    /** 4: an ordinary kill; 28: a full inventory of loot, as from a raid chest. */
+    @Param({"4", "28"})
+    int items;
+
+    private final DropHandler handler = new DropHandler();
+    private final List<Integer> valuedItemIds = new ArrayList<>();
+    private final List<Integer> untradeableItemIds = new ArrayList<>();
+    private final Set<Integer> eventItemIds = Collections.singleton(12934);
+    private final Map<Integer, ItemComposition> compositions = new HashMap<>();
+    private List<ItemStack> loot;
+
+    @Setup
+    public void setUp() {
+        handler.client = Fakes.client(123456789L);
+        handler.config = Fakes.config(Map.of("lastAccountName", "Zezima", "lastAccountHash", "123456789",
+            "screenshotUntradeables", true));
+        for (int i = 0; i < LISTED_IDS; i++) {
+            valuedItemIds.add(20_000 + i);
+            untradeableItemIds.add(30_000 + i);
+        }
+        loot = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            // Mostly ids on neither list, so each check scans both in full.
+            int id = i % 7 == 6 ? 20_000 + LISTED_IDS - 1 : 1_000 + i;
+            loot.add(new ItemStack(id, 1 + i));
+            compositions.put(id, Fakes.of(ItemComposition.class, Map.of("getId", id, "getName", "Item " + id)));
+        }
+    }
+
+    @Benchmark
+    public void processItems(Blackhole blackhole) {
+        List<ItemStack> stacked = new ArrayList<>(ItemStacks.stack(loot));
+        List<CustomWebhookBody.Embed> embeds = new ArrayList<>(stacked.size());
+        boolean screenshot = false;
+        long totalValue = 0;
+        for (ItemStack item : stacked) {
+            int itemId = item.getId();
+            screenshot |= DropHandler.forcesScreenshot(itemId, valuedItemIds, untradeableItemIds, true, eventItemIds);
+            int price = 1_000 + itemId;
+            totalValue += (long) item.getQuantity() * price;
+            CustomWebhookBody.Embed embed = handler.itemEmbed("Zezima", item, price, compositions.get(itemId),
+                "npc", "Zulrah", 1234);
+            // DropTrackerPlugin.itemImageUrl, without a plugin instance.
+            embed.setImage(DropTrackerUrls.itemCache("icon/" + itemId + ".png").toString());
+            embeds.add(embed);
+        }
+        blackhole.consume(screenshot);
+        blackhole.consume(totalValue);
+        blackhole.consume(embeds);
+    }
+}
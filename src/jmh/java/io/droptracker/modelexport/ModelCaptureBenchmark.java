@@ -0,0 +1,79 @@
+package io.droptracker.modelexport;
+
+import io.droptracker.Fakes;
+import net.runelite.api.Client;
+import net.runelite.api.Model;
+import net.runelite.api.TextureProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-thread time of a player model export. {@code capture} is what the
+ * tick pays now: copying the model's arrays and texture pixels into a {@link
+ * ModelCapture}. {@code captureAndExport} adds building the mesh, encoding
+ * the textures and writing the GLB, all of which the tick used to pay.
+ *
+ * <p>The model and client are fakes that answer from a {@link TestModels}
+ * capture, so both sides read the same arrays a real model would hand out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelCaptureBenchmark {
+
+    @Param({"40", "120"})
+    int cells;
+
+    private Client client;
+    private Model model;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        ModelCapture source = TestModels.grid(cells, true);
+        Map<String, Object> answers = new HashMap<>();
+        for (String getter : new String[]{"getFaceCount", "getVerticesX", "getVerticesY", "getVerticesZ",
+                "getFaceIndices1", "getFaceIndices2", "getFaceIndices3", "getFaceColors1", "getFaceColors2",
+                "getFaceColors3", "getFaceTextures", "getFaceTransparencies", "getFaceRenderPriorities",
+                "getTextureFaces", "getTexIndices1", "getTexIndices2", "getTexIndices3"}) {
+            Method method = ModelCapture.class.getDeclaredMethod(getter);
+            method.setAccessible(true);
+            answers.put(getter, method.invoke(source));
+        }
+        answers.put("getVerticesCount", source.getVerticesX().length);
+        model = Fakes.of(Model.class, answers);
+
+        // The grid uses a single texture, so every load can answer with its pixels.
+        TextureProvider textures = Fakes.of(TextureProvider.class,
+            Map.of("load", TestModels.texturePixels()));
+        client = Fakes.of(Client.class, Map.of("getRevision", TestModels.REVISION, "getTextureProvider", textures));
+    }
+
+    @Benchmark
+    public ModelCapture capture() {
+        return ModelCapture.of(client, model);
+    }
+
+    /** Textures are encoded afresh each time: the tick had no texture cache either. */
+    @Benchmark
+    public byte[] captureAndExport() throws IOException {
+        return GlbExporter.toBytes(ModelCapture.of(client, model), "player", new TextureCache(null));
+    }
+}
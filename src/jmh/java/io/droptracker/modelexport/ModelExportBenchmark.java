@@ -0,0 +1,89 @@
+package io.droptracker.modelexport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Player model export on the {@link TestModels} fixtures: building the mesh,
+ * writing the GLB into a byte array as before, streaming it as uploads do,
+ * and the compact (quantized, atlased) form. A player model is a few thousand
+ * faces; 120 cells is about 29k, the size of a busy outfit with its pet.
+ *
+ * <p>Textures are converted once and then served from the {@link
+ * TextureCache}, as across a session's exports; {@code coldTextures} pays for
+ * the conversion every time, as the first export after startup does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelExportBenchmark {
+
+    @Param({"40", "120"})
+    int cells;
+
+    private final TextureCache textures = new TextureCache(null);
+    private final GlbWriter.Options compact = new GlbWriter.Options().modelName("player").quantize().atlasTextures();
+    private ModelCapture capture;
+    private ModelCapture outfit;
+    private MeshData outfitMesh;
+
+    @Setup
+    public void setUp() throws IOException {
+        capture = TestModels.grid(cells, true);
+        outfit = TestModels.patchwork(15, 4, false);
+        outfitMesh = ModelMeshBuilder.build(outfit);
+        GlbExporter.toBytes(capture, "player", textures);
+        GlbExporter.toBytes(capture, compact, textures);
+    }
+
+    @Benchmark
+    public MeshData buildMesh() {
+        return ModelMeshBuilder.build(capture);
+    }
+
+    @Benchmark
+    public byte[] toBytes() throws IOException {
+        return GlbExporter.toBytes(capture, "player", textures);
+    }
+
+    @Benchmark
+    public int stream() throws IOException {
+        GlbWriter.Glb glb = GlbExporter.prepare(capture, "player", textures);
+        glb.writeTo(OutputStream.nullOutputStream());
+        return glb.length();
+    }
+
+    @Benchmark
+    public int streamCompact() throws IOException {
+        GlbWriter.Glb glb = GlbExporter.prepare(capture, compact, textures);
+        glb.writeTo(OutputStream.nullOutputStream());
+        return glb.length();
+    }
+
+    @Benchmark
+    public byte[] coldTextures() throws IOException {
+        return GlbExporter.toBytes(capture, "player", new TextureCache(null));
+    }
+
+    /** Packing a four-texture outfit into one atlas; independent of {@code cells}. */
+    @Benchmark
+    public TextureAtlas packAtlas() {
+        return TextureAtlas.pack(outfitMesh, outfit);
+    }
+}
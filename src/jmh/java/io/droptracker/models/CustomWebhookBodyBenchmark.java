@@ -0,0 +1,70 @@
+package io.droptracker.models;
+
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gson serialization of a drop submission's {@link CustomWebhookBody}, as
+ * {@code SubmissionManager} does for every submission it sends.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomWebhookBodyBenchmark {
+
+    @Param({"1", "28"})
+    int embeds;
+
+    private final Gson gson = new Gson();
+    private CustomWebhookBody drop;
+
+    @Setup
+    public void setUp() {
+        drop = dropWebhook(embeds);
+    }
+
+    /** A drop submission of {@code items} item embeds, shaped as {@code DropHandler} builds one. */
+    public static CustomWebhookBody dropWebhook(int items) {
+        CustomWebhookBody webhook = new CustomWebhookBody();
+        webhook.setContent("Zezima received some drops:");
+        for (int i = 0; i < items; i++) {
+            CustomWebhookBody.Embed embed = new CustomWebhookBody.Embed();
+            embed.setTitle("Zezima received some drops:");
+            embed.addField("type", "drop", true);
+            embed.addField("player_name", "Zezima", true);
+            embed.addField("acc_hash", "123456789", true);
+            embed.addField("p_v", "6.0", true);
+            embed.addField("guid", "0f8fad5b-d9cb-469f-a165-70867728950e", true);
+            embed.addField("source_type", "npc", true);
+            embed.addField("item", "Item " + i, true);
+            embed.addField("id", String.valueOf(1_000 + i), true);
+            embed.addField("quantity", String.valueOf(1 + i), true);
+            embed.addField("value", String.valueOf(250_000 + i), true);
+            embed.addField("source", "Chambers of Xeric", true);
+            embed.addField("killcount", "1234", true);
+            embed.setImage("https://www.droptracker.io/img/itemdb/icon/" + (1_000 + i) + ".png");
+            webhook.getEmbeds().add(embed);
+        }
+        return webhook;
+    }
+
+    @Benchmark
+    public String dropSubmission() {
+        return gson.toJson(drop);
+    }
+}
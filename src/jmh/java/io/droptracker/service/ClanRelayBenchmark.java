@@ -0,0 +1,99 @@
+package io.droptracker.service;
+
+import com.google.gson.Gson;
+import io.droptracker.models.ClanRelayBatch;
+import io.droptracker.models.CustomWebhookBody;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The clan relay's per-flush work for a busy channel: admitting each line
+ * through {@link ClanRelayPacer}, then serializing the flush as one {@link
+ * ClanRelayBatch}, against the same lines as one webhook payload each, the
+ * way they were sent before the batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClanRelayBenchmark {
+
+    /** A full batch, which flushes at once. */
+    private static final int LINES = 50;
+
+    private final Gson gson = new Gson();
+    private final String[] senders = new String[LINES];
+    private final String[] texts = new String[LINES];
+    private final ClanRelayBatch batch = new ClanRelayBatch();
+    private final List<CustomWebhookBody> perLine = new ArrayList<>(LINES);
+
+    @Setup
+    public void setUp() {
+        batch.setPlayerName("Zezima");
+        batch.setAccountHash("123456789");
+        batch.setPluginVersion("6.0");
+        batch.setClanName("Drop Party");
+        batch.setBatchId("1700000000-123456789-1");
+        for (int i = 0; i < LINES; i++) {
+            // Every fifth line a broadcast, as a raiding clan's chat runs.
+            senders[i] = i % 5 == 0 ? null : "Clanmate " + i % 7;
+            texts[i] = senders[i] == null ? "Clanmate " + i + " received a drop: Dragon bones" : "gz " + i;
+            batch.getLines().add(new ClanRelayBatch.Line(1_700_000_000L + i, senders[i], texts[i]));
+
+            CustomWebhookBody payload = new CustomWebhookBody();
+            CustomWebhookBody.Embed embed = new CustomWebhookBody.Embed();
+            embed.setTitle("Clan chat");
+            embed.addField("type", "clan_chat", true);
+            embed.addField("player_name", "Zezima", true);
+            embed.addField("acc_hash", "123456789", true);
+            embed.addField("p_v", "6.0", true);
+            embed.addField("guid", "0f8fad5b-d9cb-469f-a165-7086772895" + String.format("%02d", i), true);
+            embed.addField("clan_name", "Drop Party", true);
+            embed.addField("sender", senders[i] != null ? senders[i] : "", true);
+            embed.addField("message", texts[i], true);
+            payload.getEmbeds().add(embed);
+            perLine.add(payload);
+        }
+    }
+
+    /** Fifty fresh lines half a second apart, then the same fifty replayed, as after a world hop. */
+    @Benchmark
+    public long pace(Blackhole blackhole) {
+        ClanRelayPacer pacer = new ClanRelayPacer();
+        long nowMs = 0;
+        for (int replay = 0; replay < 2; replay++) {
+            for (int i = 0; i < LINES; i++) {
+                nowMs += 500;
+                blackhole.consume(pacer.admit("Drop Party", senders[i], texts[i], i / 2, nowMs));
+            }
+        }
+        return pacer.flushDelayMs(nowMs);
+    }
+
+    @Benchmark
+    public String serializeBatch() {
+        return gson.toJson(batch);
+    }
+
+    @Benchmark
+    public void serializePerLine(Blackhole blackhole) {
+        for (CustomWebhookBody payload : perLine) {
+            blackhole.consume(gson.toJson(payload));
+        }
+    }
+}
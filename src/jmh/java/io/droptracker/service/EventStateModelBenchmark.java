@@ -0,0 +1,83 @@
+package io.droptracker.service;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeping the event state current: a one-task patch applied to the copy
+ * {@link EventStateModel} holds, against taking the full document as the
+ * plugin did on every poll. {@code tasks} is the board size; a 5x5 bingo
+ * is 25, a large one 100.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventStateModelBenchmark {
+
+    @Param({"25", "100"})
+    int tasks;
+
+    private final Gson gson = new Gson();
+    private final EventStateModel patched = new EventStateModel(gson);
+    private final EventStateModel replaced = new EventStateModel(gson);
+    private JsonObject full;
+    private long have;
+
+    @Setup
+    public void setUp() {
+        StringBuilder board = new StringBuilder();
+        for (int i = 0; i < tasks; i++) {
+            board.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append(",\"label\":\"Task ").append(i)
+                .append("\",\"type\":\"item\",\"points\":5,\"have\":0,\"need\":10,\"completed\":false,")
+                .append("\"icon_path\":\"itemdb/icon/").append(1_000 + i).append(".png\"}");
+        }
+        full = JsonParser.parseString("{\"version\":1,\"events\":[{"
+            + "\"event\":{\"id\":7,\"name\":\"Autumn Bingo\",\"kind\":\"bingo\",\"has_bingo\":true},"
+            + "\"team\":{\"id\":3,\"name\":\"Red\",\"score\":10,\"rank\":2,\"team_count\":4},"
+            + "\"tasks_completed\":0,\"tasks_total\":" + tasks + ",\"tasks\":[" + board + "],"
+            + "\"members\":[{\"name\":\"Alpha\"},{\"name\":\"Bravo\"}],\"members_total\":2,"
+            + "\"standings\":[{\"team_id\":1,\"score\":15},{\"team_id\":3,\"score\":10}]}],"
+            + "\"screenshot_item_ids\":[536,12934]}").getAsJsonObject();
+        patched.apply(full);
+    }
+
+    /** One task's progress moving, as after a drop that counts toward it. */
+    @Benchmark
+    public EventStateModel.Outcome patch() {
+        long version = patched.getVersion();
+        JsonObject op = new JsonObject();
+        op.addProperty("op", "replace");
+        op.addProperty("path", "/events/0/tasks/" + tasks / 2 + "/have");
+        op.addProperty("value", ++have % 10);
+        JsonArray ops = new JsonArray();
+        ops.add(op);
+        JsonObject response = new JsonObject();
+        response.addProperty("base_version", version);
+        response.addProperty("version", version + 1);
+        response.add("patch", ops);
+        return patched.apply(response);
+    }
+
+    @Benchmark
+    public EventStateModel.Outcome fullDocument() {
+        return replaced.apply(full);
+    }
+}
@@ -0,0 +1,85 @@
+package io.droptracker.service;
+
+import io.droptracker.DropTrackerConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The task-pref reads the HUD and the Events tab make for one event on every
+ * frame and rebuild: from the parsed sets {@link EventTaskPrefs} keeps,
+ * against a config lookup and parse each time, as before it cached them.
+ * Config is a {@link Properties} keyed the way ConfigManager keys it;
+ * {@code hidden} is how many tasks the user has hidden.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventTaskPrefsBenchmark {
+
+    @Param({"0", "20"})
+    int hidden;
+
+    private final Properties config = new Properties();
+    private final EventTaskPrefs prefs = new EventTaskPrefs(null) {
+        @Override
+        String read(String key) {
+            return config.getProperty(DropTrackerConfig.GROUP + "." + key);
+        }
+
+        @Override
+        void write(String key, String value) {
+            config.setProperty(DropTrackerConfig.GROUP + "." + key, value);
+        }
+
+        @Override
+        void unset(String key) {
+            config.remove(DropTrackerConfig.GROUP + "." + key);
+        }
+    };
+
+    @Setup
+    public void setUp() {
+        StringBuilder ids = new StringBuilder();
+        for (int i = 1; i <= hidden; i++) {
+            ids.append(i == 1 ? "" : ",").append(100 + i);
+        }
+        if (hidden > 0) {
+            config.setProperty(DropTrackerConfig.GROUP + ".hiddenTasks_7", ids.toString());
+        }
+        config.setProperty(DropTrackerConfig.GROUP + ".pinnedTasks_7", "42,43");
+        config.setProperty(DropTrackerConfig.GROUP + ".trackedTask_7", "42");
+    }
+
+    @Benchmark
+    public void cached(Blackhole blackhole) {
+        read(blackhole);
+    }
+
+    @Benchmark
+    public void fromConfig(Blackhole blackhole) {
+        prefs.invalidateAll();
+        read(blackhole);
+    }
+
+    private void read(Blackhole blackhole) {
+        blackhole.consume(prefs.tracked(7));
+        blackhole.consume(prefs.pinned(7));
+        blackhole.consume(prefs.hidden(7));
+    }
+}
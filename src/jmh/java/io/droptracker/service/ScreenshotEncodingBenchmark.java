@@ -0,0 +1,84 @@
+package io.droptracker.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SubmissionManager#encodeScreenshot} on a synthetic game frame: a
+ * fixed-mode client and a 1080p resizable one. {@code png} is compression off
+ * (lossless, whatever the size); {@code jpeg} is a threshold the PNG misses,
+ * so the frame is encoded both ways, as the plugin does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScreenshotEncodingBenchmark {
+
+    @Param({"765x503", "1920x1080"})
+    String frame;
+
+    @Param({"png", "jpeg"})
+    String format;
+
+    private BufferedImage image;
+    private int thresholdBytes;
+
+    @Setup
+    public void setUp() {
+        String[] size = frame.split("x");
+        image = gameFrame(Integer.parseInt(size[0]), Integer.parseInt(size[1]));
+        thresholdBytes = "png".equals(format) ? Integer.MAX_VALUE : 1;
+    }
+
+    /**
+     * Flat-shaded patches with some noise over them, and a chatbox-like band
+     * of text, so both encoders see something like a game frame rather than
+     * a blank or random image.
+     */
+    private static BufferedImage gameFrame(int width, int height) {
+        BufferedImage frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        Graphics2D g = frame.createGraphics();
+        for (int i = 0; i < 400; i++) {
+            g.setColor(new Color(40 + random.nextInt(80), 60 + random.nextInt(90), 20 + random.nextInt(60)));
+            g.fillRect(random.nextInt(width), random.nextInt(height), 20 + random.nextInt(160), 20 + random.nextInt(120));
+        }
+        g.setColor(new Color(0xd8ccb4));
+        g.fillRect(0, height - 165, 519, 165);
+        g.setColor(Color.BLACK);
+        for (int line = 0; line < 8; line++) {
+            g.drawString("Zezima: Valuable drop: Tanzanite fang (4,120,000 coins)", 8, height - 150 + line * 15);
+        }
+        g.dispose();
+        for (int i = 0; i < width * height / 8; i++) {
+            int x = random.nextInt(width);
+            int y = random.nextInt(height - 165);
+            frame.setRGB(x, y, frame.getRGB(x, y) ^ random.nextInt(0x101010));
+        }
+        return frame;
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return SubmissionManager.encodeScreenshot(image, thresholdBytes);
+    }
+}
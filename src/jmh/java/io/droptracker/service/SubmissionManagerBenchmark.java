@@ -0,0 +1,87 @@
+package io.droptracker.service;
+
+import com.google.gson.Gson;
+import io.droptracker.models.CustomWebhookBody;
+import io.droptracker.models.CustomWebhookBodyBenchmark;
+import io.droptracker.models.api.GroupConfig;
+import io.droptracker.models.submissions.SubmissionType;
+import io.droptracker.models.submissions.ValidSubmission;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What {@link SubmissionManager} does with every submission before it is
+ * sent: the scans over its embed fields, and qualification against each of
+ * the player's group configs. A raid chest is up to 28 item embeds of a
+ * dozen fields each, checked against every group the player is in.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SubmissionManagerBenchmark {
+
+    @Param({"1", "28"})
+    int embeds;
+
+    @Param({"1", "10"})
+    int groups;
+
+    private final Gson gson = new Gson();
+    private final List<GroupConfig> groupConfigs = new ArrayList<>();
+    private CustomWebhookBody webhook;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < groups; i++) {
+            // Every other group sets a minimum the drop misses, so both outcomes are timed.
+            groupConfigs.add(gson.fromJson("{\"group_id\":\"" + (i + 2) + "\",\"min_value\":0,"
+                + "\"minimum_drop_value\":" + (i % 2 == 0 ? 100_000 : 10_000_000)
+                + ",\"send_drops\":true,\"send_stacked_items\":true,\"send_pbs\":true}", GroupConfig.class));
+        }
+        webhook = CustomWebhookBodyBenchmark.dropWebhook(embeds);
+    }
+
+    @Benchmark
+    public void fieldScans(Blackhole blackhole) {
+        blackhole.consume(SubmissionManager.hasUnidentifiedEmbed(webhook));
+        blackhole.consume(SubmissionManager.extractSourceName(webhook));
+        blackhole.consume(SubmissionManager.maxNewLevelIn(webhook));
+        // Absent from drop embeds, so this one reads every field.
+        blackhole.consume(SubmissionManager.isFieldTrue(webhook, "is_personal_best"));
+    }
+
+    /** The loop in {@code createSubmissionIfQualified}, without its debug logging. */
+    @Benchmark
+    public ValidSubmission qualify() {
+        ValidSubmission submission = null;
+        for (GroupConfig groupConfig : groupConfigs) {
+            if (SubmissionManager.getQualificationFailureReason(SubmissionType.DROP, groupConfig, true,
+                    5_000_000, 250_000) != null) {
+                continue;
+            }
+            if (submission == null) {
+                submission = new ValidSubmission(webhook, groupConfig.getGroupId(), SubmissionType.DROP);
+            } else {
+                submission.addGroupId(groupConfig.getGroupId());
+            }
+        }
+        return submission;
+    }
+}
@@ -0,0 +1,112 @@
+package io.droptracker.ui.overlays;
+
+import com.google.gson.Gson;
+import io.droptracker.DropTrackerConfig;
+import io.droptracker.Fakes;
+import io.droptracker.models.EventDisplayMode;
+import io.droptracker.models.api.EventNotification;
+import io.droptracker.models.api.EventState;
+import io.droptracker.service.EventNotificationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One frame of the event HUD (card plus three nudges) and of the stand-alone
+ * pop-ups, painted into an off-screen image: drawn from the cached images as
+ * on almost every frame, and with the cache thrown away first — the HUD by a
+ * config edit bumping the display version, the pop-ups by the font render
+ * context flipping — which is what every frame cost before the caching.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventOverlayBenchmark {
+
+    private final Gson gson = new Gson();
+    private EventNotificationService hudService;
+    private EventNotificationService toastService;
+    private EventHudOverlay hud;
+    private EventToastOverlay toasts;
+    private Graphics2D screen;
+    private Graphics2D fractionalScreen;
+    private int flip;
+
+    @Setup
+    public void setUp() {
+        EventState.Entry entry = gson.fromJson("{\"event\":{\"id\":7,\"name\":\"Bingo\",\"kind\":\"bingo\"},"
+            + "\"team\":{\"id\":3,\"name\":\"Red\",\"score\":40,\"rank\":1,\"team_count\":4},"
+            + "\"tasks_completed\":3,\"tasks_total\":25}", EventState.Entry.class);
+        DropTrackerConfig hudConfig = Fakes.config(Map.of("eventDisplayMode", EventDisplayMode.ENHANCED));
+        hudService = new EventNotificationService(hudConfig, null, null, null, null, null, null, null, gson) {
+            @Override
+            public EventState.Entry hudEntry() {
+                return entry;
+            }
+        };
+        hud = new EventHudOverlay(hudConfig, hudService, null, null);
+
+        DropTrackerConfig toastConfig = Fakes.config(Map.of("eventDisplayMode", EventDisplayMode.POPUP));
+        toastService = new EventNotificationService(toastConfig, null, null, null, null, null, null, null, gson);
+        toasts = new EventToastOverlay(toastConfig, toastService, null);
+
+        screen = new BufferedImage(800, 600, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        fractionalScreen = new BufferedImage(800, 600, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        fractionalScreen.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS,
+            RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+    }
+
+    /** Fresh pop-ups each iteration, so none expires mid-measurement. */
+    @Setup(Level.Iteration)
+    public void queueToasts() {
+        long now = System.currentTimeMillis();
+        for (EventNotificationService service : new EventNotificationService[]{hudService, toastService}) {
+            service.getToasts().clear();
+            service.getToasts().add(new EventNotificationService.Toast("Task complete",
+                "Red finished Vorkath heads and took the lead", null, now, EventNotification.Priority.HIGH, null));
+            service.getToasts().add(new EventNotificationService.Toast("Progress",
+                "Vorkath heads 4/10", null, now, EventNotification.Priority.NORMAL, null));
+            service.getToasts().add(new EventNotificationService.Toast("Progress",
+                "Dragon bones 61/100", null, now, EventNotification.Priority.LOW, null));
+        }
+    }
+
+    @Benchmark
+    public Dimension cachedHud() {
+        return hud.render(screen);
+    }
+
+    @Benchmark
+    public Dimension repaintedHud() {
+        hudService.onConfigChanged("eventHudDetail");
+        return hud.render(screen);
+    }
+
+    @Benchmark
+    public Dimension cachedToasts() {
+        return toasts.render(screen);
+    }
+
+    @Benchmark
+    public Dimension repaintedToasts() {
+        return toasts.render(flip++ % 2 == 0 ? screen : fractionalScreen);
+    }
+}
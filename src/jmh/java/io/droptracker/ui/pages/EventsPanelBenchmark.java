@@ -0,0 +1,88 @@
+package io.droptracker.ui.pages;
+
+import com.google.gson.Gson;
+import io.droptracker.models.api.EventState;
+import io.droptracker.models.submissions.SubmissionStatus;
+import io.droptracker.models.submissions.ValidSubmission;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The work the side panel does on each refresh before touching Swing: diffing
+ * an event card and its task rows against what is shown, and bringing the
+ * Activity feed's model up to the submission list with one status changed.
+ * No listeners are attached, so no components are built or repainted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventsPanelBenchmark {
+
+    @Param({"25", "100"})
+    int tasks;
+
+    @Param({"200"})
+    int submissions;
+
+    private final Gson gson = new Gson();
+    private final SubmissionFeedModel feed = new SubmissionFeedModel();
+    private final List<ValidSubmission> received = new ArrayList<>();
+    private EventState.Entry entry;
+    private int flip;
+
+    @Setup
+    public void setUp() {
+        StringBuilder board = new StringBuilder();
+        for (int i = 0; i < tasks; i++) {
+            board.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append(",\"label\":\"Task ").append(i)
+                .append("\",\"icon_path\":\"itemdb/icon/").append(1_000 + i).append(".png\",\"have\":").append(i % 10)
+                .append(",\"need\":10,\"requirements\":[{\"name\":\"Item ").append(i).append("\"}]}");
+        }
+        entry = gson.fromJson("{\"event\":{\"id\":7,\"name\":\"Bingo\",\"kind\":\"bingo\"},"
+            + "\"team\":{\"id\":3,\"score\":40,\"rank\":1,\"team_count\":4},"
+            + "\"tasks_completed\":0,\"tasks_total\":" + tasks + ",\"tasks\":[" + board + "],"
+            + "\"standings\":[{\"team_id\":3,\"name\":\"Red\",\"score\":40,\"rank\":1},"
+            + "{\"team_id\":1,\"name\":\"Blue\",\"score\":35,\"rank\":2}]}", EventState.Entry.class);
+
+        for (int i = 0; i < submissions; i++) {
+            ValidSubmission submission = new ValidSubmission();
+            submission.setItemName("Item " + i);
+            submission.setStatus(SubmissionStatus.SENT);
+            received.add(submission);
+        }
+        feed.sync(received);
+    }
+
+    @Benchmark
+    public void diffEventCard(Blackhole blackhole) {
+        blackhole.consume(EventCardDiff.shape(entry));
+        for (EventState.TaskInfo task : entry.getTasks()) {
+            blackhole.consume(EventCardDiff.rowState(task));
+        }
+    }
+
+    /** The newest submission going from pending to sent, or back, as a retry settles. */
+    @Benchmark
+    public int syncFeed() {
+        received.get(submissions - 1).setStatus(flip++ % 2 == 0 ? SubmissionStatus.PENDING : SubmissionStatus.SENT);
+        feed.sync(received);
+        return feed.getSize();
+    }
+}
@@ -0,0 +1,73 @@
+package io.droptracker.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opening a lootboard: {@link BoardImageDecoder} decoding straight to the
+ * dialog's size against reading the full image with {@link ImageIO} as the
+ * dialog did before. Boards are generated as PNGs; {@code 3000x4000} is a
+ * large group's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BoardImageDecodeBenchmark {
+
+    @Param({"1500x2000", "3000x4000"})
+    String board;
+
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        String[] size = board.split("x");
+        int width = Integer.parseInt(size[0]);
+        int height = Integer.parseInt(size[1]);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(new Color(0x2b2b2b));
+        g.fillRect(0, 0, width, height);
+        for (int row = 0; row * 60 < height; row++) {
+            g.setColor(row % 2 == 0 ? new Color(0x3c3c3c) : new Color(0x333333));
+            g.fillRect(0, row * 60, width, 60);
+            g.setColor(Color.WHITE);
+            g.drawString((row + 1) + ". Clanmate " + row + "  " + (120_000_000 - row * 997_001) + " gp", 20, row * 60 + 36);
+        }
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        encoded = out.toByteArray();
+    }
+
+    @Benchmark
+    public BufferedImage subsampled() throws IOException {
+        return BoardImageDecoder.decode(encoded, 800, 600, null);
+    }
+
+    @Benchmark
+    public BufferedImage fullRead() throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(encoded));
+    }
+}
@@ -0,0 +1,72 @@
+package io.droptracker.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The image lookups behind a panel repaint: fifty visible rows each asking
+ * the decoded cache for its icon's scaled variant, all hits; scaling one icon,
+ * as a miss does; and a cache at its budget taking new icons, as a long
+ * scroll through the feed does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImageCacheBenchmark {
+
+    private static final int ROWS = 50;
+    private static final int ICONS = 400;
+    private static final int SIZE = 24;
+
+    private final DecodedImageCache warm = new DecodedImageCache(8L * 1024 * 1024);
+    /** Room for a hundred icons at a time. */
+    private final DecodedImageCache full = new DecodedImageCache(100L * 36 * 32 * 4);
+    private final String[] paths = new String[ICONS];
+    private BufferedImage icon;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        // An item icon's size and type, as the image server sends them.
+        icon = new BufferedImage(36, 32, BufferedImage.TYPE_INT_ARGB);
+        for (int i = 0; i < ICONS; i++) {
+            paths[i] = "itemdb/icon/" + (1_000 + i) + ".png";
+            warm.put(paths[i], icon);
+            warm.put(DecodedImageCache.variantKey(paths[i], SIZE), RemoteImageCache.fit(icon, SIZE));
+            full.put(paths[i], icon);
+        }
+    }
+
+    @Benchmark
+    public void repaintHits(Blackhole blackhole) {
+        for (int row = 0; row < ROWS; row++) {
+            blackhole.consume(warm.get(DecodedImageCache.variantKey(paths[row], SIZE)));
+        }
+    }
+
+    @Benchmark
+    public BufferedImage fit() {
+        return RemoteImageCache.fit(icon, SIZE);
+    }
+
+    @Benchmark
+    public long evict() {
+        full.put(paths[next++ % ICONS], icon);
+        return full.usedBytes();
+    }
+}
@@ -0,0 +1,89 @@
+package io.droptracker.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ItemNameIndex} over a synthetic corpus the size of the live
+ * names.json (about 30k names, with a noted copy of every tenth): building
+ * the index once the item lists land, and the prefix and fuzzy queries the
+ * panels' search boxes and event requirement icons run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemNameIndexBenchmark {
+
+    private static final String[] WORDS = {"Abyssal", "Dragon", "Rune", "Adamant", "Mithril", "Bronze", "Iron",
+        "Steel", "Black", "White", "Ancient", "Armadyl", "Bandos", "Zamorak", "Saradomin", "Guthix", "Twisted",
+        "Toxic", "Crystal", "Eternal"};
+    private static final String[] NOUNS = {"whip", "dagger", "sword", "scimitar", "platebody", "platelegs", "helm",
+        "shield", "boots", "gloves", "bow", "crossbow", "staff", "wand", "ring", "amulet", "cape", "axe",
+        "pickaxe", "hammer"};
+
+    /** A short prefix with many hits, a long one with few, a typo and a near miss. */
+    @Param({"drag", "abyssal wh", "armadl godswrd", "toxic staf"})
+    String query;
+
+    private final Map<Integer, String> names = new HashMap<>();
+    private final Map<Integer, Integer> notes = new HashMap<>();
+    private ItemNameIndex index;
+
+    @Setup
+    public void setUp() {
+        int id = 0;
+        for (int variant = 0; variant < 75; variant++) {
+            for (String word : WORDS) {
+                for (String noun : NOUNS) {
+                    String name = word + " " + noun + (variant == 0 ? "" : " (" + variant + ")");
+                    names.put(id, name);
+                    if (id % 10 == 0) {
+                        names.put(1_000_000 + id, name);
+                        notes.put(1_000_000 + id, id);
+                    }
+                    id++;
+                }
+            }
+        }
+        index = ItemNameIndex.build(names, notes);
+    }
+
+    /** Independent of {@code query}. */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ItemNameIndex build() {
+        return ItemNameIndex.build(names, notes);
+    }
+
+    @Benchmark
+    public List<ItemNameIndex.Match> prefix() {
+        return index.prefix(query, 10);
+    }
+
+    @Benchmark
+    public List<ItemNameIndex.Match> fuzzy() {
+        return index.fuzzy(query, 10, 0.3);
+    }
+
+    @Benchmark
+    public Integer ignoreCase() {
+        return index.ignoreCase(query);
+    }
+}
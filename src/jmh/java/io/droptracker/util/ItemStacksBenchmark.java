@@ -0,0 +1,57 @@
+package io.droptracker.util;
+
+import net.runelite.client.game.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ItemStacks} over loot bundles of increasing size, every id split
+ * across two stacks as split loot events deliver them. {@code signature}
+ * runs twice per raid chest, for the dedup of its re-loot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemStacksBenchmark {
+
+    /** 4: an ordinary kill; 28: a full inventory; 120: a barbarian assault or clue stack. */
+    @Param({"4", "28", "120"})
+    int items;
+
+    private List<ItemStack> bundle;
+
+    @Setup
+    public void setUp() {
+        bundle = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            bundle.add(new ItemStack(560 + i % Math.max(items / 2, 1), 1 + i * 7));
+        }
+    }
+
+    @Benchmark
+    public Collection<ItemStack> stack() {
+        return ItemStacks.stack(bundle);
+    }
+
+    @Benchmark
+    public String signature() {
+        return ItemStacks.signature(bundle);
+    }
+}
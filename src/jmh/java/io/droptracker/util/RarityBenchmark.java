@@ -0,0 +1,82 @@
+package io.droptracker.util;
+
+import com.google.gson.Gson;
+import io.droptracker.Fakes;
+import net.runelite.api.ItemComposition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * {@link Rarity#getRarity} for a Zulrah kill, against the bundled drop table
+ * and fake item compositions in place of the {@code ItemManager}. Loot
+ * rarity is looked up per item of every drop.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RarityBenchmark {
+
+    private static final String NPC = "Zulrah";
+    private static final int TANZANITE_FANG = 12922;
+    private static final int ZULRAHS_SCALES = 12934;
+
+    private final Gson gson = new Gson();
+    private final Rarity rarity = new Rarity();
+    private IntFunction<ItemComposition> compositions;
+
+    @Setup
+    public void setUp() {
+        rarity.load(gson);
+        Map<Integer, ItemComposition> items = new HashMap<>();
+        items.put(TANZANITE_FANG, item(TANZANITE_FANG, "Tanzanite fang"));
+        items.put(ZULRAHS_SCALES, item(ZULRAHS_SCALES, "Zulrah's scales"));
+        ItemComposition unknown = item(-1, "null");
+        compositions = id -> items.getOrDefault(id, unknown);
+    }
+
+    private static ItemComposition item(int id, String name) {
+        return Fakes.of(ItemComposition.class, Map.of(
+            "getId", id, "getName", name, "getMembersName", name, "getNote", -1, "getLinkedNoteId", -1));
+    }
+
+    @Benchmark
+    public OptionalDouble uniqueDrop() {
+        return rarity.getRarity(NPC, TANZANITE_FANG, 1, compositions);
+    }
+
+    @Benchmark
+    public OptionalDouble stackableDrop() {
+        return rarity.getRarity(NPC, ZULRAHS_SCALES, 500, compositions);
+    }
+
+    @Benchmark
+    public OptionalDouble unknownSource() {
+        return rarity.getRarity("Not an npc", TANZANITE_FANG, 1, compositions);
+    }
+
+    /** Reads and transforms the whole table, as plugin startup does. */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Rarity load() {
+        Rarity fresh = new Rarity();
+        fresh.load(gson);
+        return fresh;
+    }
+}
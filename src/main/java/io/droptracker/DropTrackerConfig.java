@@ -419,12 +419,26 @@ public interface DropTrackerConfig extends Config {
         return true;
     }
 
+    @ConfigItem(
+        keyName = "compactModelUploads",
+        name = "Compact character models",
+        description = "<html>Send character models quantized, with worn textures packed into one atlas:<br>"
+            + "smaller uploads, but they need a viewer that supports<br>"
+            + "KHR_mesh_quantization and KHR_texture_transform.<br>"
+            + "Leave off unless the DropTracker site says it supports them.</html>",
+        position = 6,
+        section = advancedSection
+    )
+    default boolean compactModelUploads() {
+        return false;
+    }
+
     @ConfigItem(
         keyName = "showSidePanel",
         name = "Show Side Panel",
         description = "<html>Do you want to render the <br>side-panel to lookup players, etc?<br>"
             + "<b>Note</b>: Requires the API to be enabled.</html>",
-        position = 6,
+        position = 7,
         section = advancedSection
     )
     default boolean showSidePanel() {
@@ -435,7 +449,7 @@ public interface DropTrackerConfig extends Config {
         keyName = "debugLogging",
         name = "Debug Logging",
         description = "Do you want the DropTracker to log data locally to your machine for debugging purposes?",
-        position = 7,
+        position = 8,
         section = advancedSection
     )
     default boolean debugLogging() {
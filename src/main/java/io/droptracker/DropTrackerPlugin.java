@@ -32,10 +32,9 @@ package io.droptracker;
 import io.droptracker.api.DropTrackerUrls;
 import com.google.inject.Provides;
 import java.awt.image.BufferedImage;
-import java.io.IOException;
 import java.util.ArrayList;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -63,6 +62,7 @@ import io.droptracker.service.KCService;
 import io.droptracker.service.ManifestService;
 import io.droptracker.service.CollectionLogScraper;
 import io.droptracker.service.PlayerModelService;
+import io.droptracker.service.PluginExecutors;
 import io.droptracker.service.StateSyncScheduler;
 import io.droptracker.service.StateSyncService;
 import io.droptracker.service.NearbyPlayerTracker;
@@ -83,6 +83,7 @@ import net.runelite.client.callback.ClientThread;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.events.ConfigChanged;
+import net.runelite.client.events.ProfileChanged;
 import net.runelite.client.events.NpcLootReceived;
 import net.runelite.client.events.PlayerLootReceived;
 import net.runelite.client.events.ServerNpcLoot;
@@ -184,7 +185,7 @@ public class DropTrackerPlugin extends Plugin {
 	private AtomicBoolean justLoggedIn = new AtomicBoolean(false);
 
 	@Inject
-	private ScheduledExecutorService executor;
+	private PluginExecutors executors;
 
 	@Inject
 	private DebugLogger debugLogger;
@@ -221,29 +222,44 @@ public class DropTrackerPlugin extends Plugin {
 
 	private final AtomicReference<GameState> gameState = new AtomicReference<>();
 
-	public ArrayList<Integer> valuedItemIds;
+	/* Both lists are filled by HTTP callbacks and read on the client thread,
+	   so they are volatile, and only ever replaced through the setters below
+	   with an unmodifiable copy - never mutated in place. */
+	public volatile List<Integer> valuedItemIds;
 	/** Curated notable untradeables (champion scrolls, boss heads, raid kits, ...);
 	 * screenshotted when the "Screenshot untradeables" config is on. */
-	public ArrayList<Integer> untradeableItemIds;
+	public volatile List<Integer> untradeableItemIds;
 
 	@Override
 	protected void startUp() {
-		api.setOnGroupConfigsLoadedCallback(() -> submissionManager.onGroupConfigsLoaded());
+		executors.startUp();
+		api.setOnGroupConfigsPendingCallback(submissionManager::onGroupConfigsPending);
+		api.setOnGroupConfigsLoadedCallback(() -> {
+			submissionManager.onGroupConfigsLoaded();
+			// The panel shows which groups each submission went to.
+			DropTrackerPanel current = panel;
+			if (current != null) {
+				SwingUtilities.invokeLater(current::updateSentSubmissions);
+			}
+		});
 		if(config.showSidePanel()) {
 			createSidePanel();
 		}
 		// Preload webhook URLs asynchronously
-		executor.submit(() -> urlManager.loadEndpoints());
+		urlManager.loadEndpointsAsync();
 		// Load untradeable item IDs on startup for screenshotting purposes
-		executor.submit(() -> loadUntradeables());
+		loadUntradeables();
 
 		// Server-controlled reference data. Fetched in the background; nothing
 		// blocks on it, and consumers fall back to built-in defaults until it
 		// lands (or if it never does).
 		manifestService.startUp();
+		// Group configs come from a saved copy at login, then one refresh task.
+		api.startUp();
 
 		// Scheduling only; nothing is sent until the manifest has loaded and the
 		// player is logged in, and nothing at all if the user has not opted in.
+		stateSyncService.startUp();
 		stateSyncScheduler.startUp();
 		collectionLogScraper.startUp();
 
@@ -267,13 +283,27 @@ public class DropTrackerPlugin extends Plugin {
 	}
 
 	private void loadUntradeables() {
-		this.valuedItemIds = api.getValuedUntradeables();
-		this.untradeableItemIds = api.getNotableUntradeables();
+		api.getValuedUntradeablesAsync().thenAccept(this::setValuedItemIds);
+		api.getNotableUntradeablesAsync().thenAccept(this::setUntradeableItemIds);
 		// Published server-loot npc ids. Must be loaded before the first kill of
 		// the session, not lazily on first drop like the item lists: this list
 		// gates whether a drop is submitted at all, so a late load would lose
 		// the very drops it exists to capture.
-		NpcUtilities.setRemoteServerLootNpcIds(api.getServerLootNpcIds());
+		api.getServerLootNpcIdsAsync().thenAccept(NpcUtilities::setRemoteServerLootNpcIds);
+	}
+
+	/** Publishes a fetched valued-untradeables list; a failed fetch (null) keeps the current one. */
+	public void setValuedItemIds(@Nullable List<Integer> ids) {
+		if (ids != null) {
+			this.valuedItemIds = Collections.unmodifiableList(new ArrayList<>(ids));
+		}
+	}
+
+	/** Publishes a fetched notable-untradeables list; a failed fetch (null) keeps the current one. */
+	public void setUntradeableItemIds(@Nullable List<Integer> ids) {
+		if (ids != null) {
+			this.untradeableItemIds = Collections.unmodifiableList(new ArrayList<>(ids));
+		}
 	}
 
 
@@ -330,9 +360,10 @@ public class DropTrackerPlugin extends Plugin {
 
 		collectionLogScraper.shutDown();
 		stateSyncScheduler.shutDown();
-		stateSyncService.reset();
+		stateSyncService.shutDown();
 		playerModelService.reset();
 		manifestService.shutDown();
+		api.shutDown();
 		eventNotificationService.stop();
 		overlayManager.remove(eventToastOverlay);
 		overlayManager.remove(eventHudOverlay);
@@ -350,7 +381,9 @@ public class DropTrackerPlugin extends Plugin {
 		if (debugLogger != null) {
 			debugLogger.close();
 		}
-		this.resetAll();	
+		this.resetAll();
+		// Last, so the services above can still hand off their final work.
+		executors.shutDown();
 	}
 
 	@Provides
@@ -367,6 +400,7 @@ public class DropTrackerPlugin extends Plugin {
 	@Subscribe
 	public void onConfigChanged(ConfigChanged configChanged) {
 		if (configChanged.getGroup().equalsIgnoreCase(DropTrackerConfig.GROUP)) {
+			eventNotificationService.onConfigChanged(configChanged.getKey());
 			if (configChanged.getKey().equals("useApi")) {
 				// Recreate the side panel which will reset the callback
 				if (panel != null) {
@@ -381,15 +415,10 @@ public class DropTrackerPlugin extends Plugin {
 					createSidePanel();
 				}
 				if (client.getAccountHash() != -1 && client.getLocalPlayer() != null) {
-					// Run off the calling thread; config changes can fire on the EDT and
-					// lookupPlayer performs blocking network I/O.
-					final String localName = client.getLocalPlayer().getName();
-					executor.submit(() -> {
-						try {
-							api.lookupPlayer(localName);
-						} catch (Exception e) {
-							log.debug("Couldn't look the current player up in the DropTracker database");
-						}
+					// Async; config changes can fire on the EDT.
+					api.lookupPlayerAsync(client.getLocalPlayer().getName()).exceptionally(e -> {
+						log.debug("Couldn't look the current player up in the DropTracker database");
+						return null;
 					});
 				}
 			} else if (configChanged.getKey().equals("showSidePanel")) {
@@ -411,6 +440,11 @@ public class DropTrackerPlugin extends Plugin {
 		}
 	}
 
+	@Subscribe
+	public void onProfileChanged(ProfileChanged profileChanged) {
+		eventNotificationService.onProfileChanged();
+	}
+
 	@Subscribe
 	public void onCommandExecuted(CommandExecuted command) {
 		chatMessageUtil.onCommandExecuted(command);
@@ -497,23 +531,13 @@ public class DropTrackerPlugin extends Plugin {
 					to load/refresh configurations respective to the current player logged in
 				*/
 				if (config.useApi()) {
-					try {
-						api.loadGroupConfigs(getLocalPlayerName());
-						// Refresh the API panel to show updated group configs
-						// Since loading is async, we need to delay the refresh
-						if (panel != null) {
-							// Initial refresh to show loading state
-							SwingUtilities.invokeLater(() -> {
-								panel.updateSentSubmissions();
-							});
-
-							// Schedule a panel submission update on the executor instead of directly waiting on the thread
-
-							executor.schedule(() -> { panel.updateSentSubmissions(); }, 2, TimeUnit.SECONDS); // Wait 2 seconds for async load
-
-						}
-					} catch (IOException e) {
-						log.debug("Couldn't refresh api Panel");
+					api.loadGroupConfigs(getLocalPlayerName());
+					// Show the loading state now; the loaded-configs callback
+					// refreshes the panel again once they arrive.
+					if (panel != null) {
+						SwingUtilities.invokeLater(() -> {
+							panel.updateSentSubmissions();
+						});
 					}
 				}
 				break;
@@ -552,13 +576,13 @@ public class DropTrackerPlugin extends Plugin {
                 // Clan-broadcast relay (group feature): CLAN_MESSAGE only —
                 // GIM broadcasts are a different channel and stay local.
                 if (message.getType() == ChatMessageType.CLAN_MESSAGE) {
-                    clanRelayService.onClanBroadcast(chatMessage);
+                    clanRelayService.onClanBroadcast(chatMessage, message.getTimestamp());
                 }
                 break;
 			case CLAN_CHAT:
 				// Player lines feed only the Discord chat bridge (opt-in);
 				// nothing else in the plugin reads clanmates' chatter.
-				clanRelayService.onClanChat(message.getName(), chatMessage);
+				clanRelayService.onClanChat(message.getName(), chatMessage, message.getTimestamp());
 				break;
 			default:
 				break;
@@ -617,7 +641,7 @@ public class DropTrackerPlugin extends Plugin {
 				// The update check talks to our API, so it only runs once the user
 				// has enabled the integration (or pointed us at their own endpoint).
 				if (config.useApi() || !config.customApiEndpoint().equalsIgnoreCase("")) {
-					executor.submit(this::checkForPluginUpdates);
+					api.fetchVersionInfoAsync().thenAccept(this::checkForPluginUpdates);
 				}
 			}
 
@@ -715,12 +739,11 @@ public class DropTrackerPlugin extends Plugin {
 	}
 
 	/**
-	 * Best-effort update check against GET /plugin_version (runs on the executor).
-	 * Below the server's minimum version: warn every login. Behind the latest
-	 * version: prompt once per new version (tracked via lastVersionNotified).
+	 * Best-effort update check against GET /plugin_version (runs when the call
+	 * completes). Below the server's minimum version: warn every login. Behind the
+	 * latest version: prompt once per new version (tracked via lastVersionNotified).
 	 */
-	private void checkForPluginUpdates() {
-		DropTrackerApi.VersionInfo info = api.fetchVersionInfo();
+	private void checkForPluginUpdates(DropTrackerApi.VersionInfo info) {
 		if (info == null) {
 			return;
 		}
@@ -1,42 +1,61 @@
 package io.droptracker.api;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.annotations.SerializedName;
 
 import io.droptracker.DropTrackerConfig;
 import io.droptracker.DropTrackerPlugin;
+import io.droptracker.modelexport.GlbWriter;
+import io.droptracker.models.ClanRelayBatch;
+import io.droptracker.models.api.ClanRelayResult;
 import io.droptracker.models.api.GroupConfig;
 import io.droptracker.models.api.GroupSearchResult;
 import io.droptracker.models.StateSnapshot;
 import io.droptracker.models.api.Manifest;
 import io.droptracker.models.api.PlayerSearchResult;
+import io.droptracker.models.api.StateSyncResult;
 import io.droptracker.models.api.TopGroupResult;
 import io.droptracker.models.api.TopPlayersResult;
+import io.droptracker.service.PluginExecutors;
 import io.droptracker.util.DebugLogger;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
+import okio.BufferedSink;
 import net.runelite.api.Client;
+import net.runelite.client.RuneLite;
 import org.jetbrains.annotations.NotNull;
 
 import javax.annotation.Nullable;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.io.FilterReader;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Slf4j
 @Singleton
 public class DropTrackerApi {
     private static final int GROUP_CONFIG_REFRESH_INTERVAL_SECONDS = 120;
     private static final int GROUP_CONFIG_RETRY_INTERVAL_SECONDS = 60;
+    /** How often the refresh task checks whether either interval above is up. */
+    private static final int GROUP_CONFIG_CHECK_INTERVAL_SECONDS = 15;
     /** How long an aggregate /panel_data snapshot stays fresh for top-list reads. */
     private static final int PANEL_DATA_TTL_SECONDS = 60;
     /** After an aggregate fetch fails, skip further attempts for this long. */
@@ -49,9 +68,22 @@ public class DropTrackerApi {
      * open that long on an empty inbox) plus headroom for the response itself.
      */
     private static final int LONG_POLL_READ_TIMEOUT_SECONDS = 40;
+    /**
+     * Whole-call caps for async GETs, on top of the per-read timeouts of
+     * {@link #panelHttpClient}: a server trickling bytes can otherwise keep a
+     * panel spinner up indefinitely. The id lists come from GitHub Pages and
+     * get a little longer.
+     */
+    private static final long PANEL_CALL_TIMEOUT_MS = 15_000;
+    private static final long ITEM_LIST_CALL_TIMEOUT_MS = 20_000;
+    /** Model uploads carry the whole GLB over the submission client, so they get longer. */
+    private static final long MODEL_UPLOAD_CALL_TIMEOUT_MS = 60_000;
 
     private final DropTrackerConfig config;
     private final Gson gson;
+    private final PluginExecutors executors;
+    /** Timers only; the work they start runs on OkHttp's threads or {@link #executors}. */
+    private final ScheduledExecutorService scheduler;
     private final OkHttpClient httpClient;
 
     /**
@@ -73,13 +105,16 @@ public class DropTrackerApi {
 
     private final Client client;
 
-    public List<GroupConfig> groupConfigs = new ArrayList<>();
-
-    private int lastGroupConfigUpdateUnix = 0;
-    private int lastGroupConfigLoadAttemptUnix = 0;
-    private boolean isLoadingGroupConfigs = false;
-    private long lastGroupConfigAccountHash = -1L;
-    private String lastGroupConfigPlayerName = null;
+    /**
+     * The current account's group configs. Replaced whole, never modified, so
+     * qualification reads it without locking while a refresh is under way.
+     */
+    private final AtomicReference<GroupConfigSnapshot> groupConfigs = new AtomicReference<>(GroupConfigSnapshot.NONE);
+    private final AtomicBoolean groupConfigsLoading = new AtomicBoolean();
+    private volatile long lastGroupConfigAttemptMs = 0;
+    /** Last time the API answered with configs for the current account; 0 until it has. */
+    private volatile long lastGroupConfigLoadMs = 0;
+    private ScheduledFuture<?> groupConfigRefreshTask;
 
     public int lastCommunicationTime = (int) (System.currentTimeMillis() / 1000);
 
@@ -94,14 +129,29 @@ public class DropTrackerApi {
     /** Last time an aggregate fetch failed; used to briefly stop retrying old endpoints. */
     private long lastPanelDataFailureAtMs = 0;
 
+    /**
+     * Shares one network call between identical GETs that overlap: the panel
+     * opening, a tab switch and the activity timer can all ask for the same
+     * URL at once.
+     */
+    private final SingleFlight inFlightReads = new SingleFlight();
+
+    /** Last good panel lookups on disk, served while the network catches up. */
+    private final ResponseCache responseCache;
+
     /** Optional callback invoked after group configs are successfully loaded */
     private Runnable onGroupConfigsLoadedCallback;
+    /** Optional callback invoked when another account's configs start loading */
+    private Runnable onGroupConfigsPendingCallback;
     
    
 
     @Inject
-    public DropTrackerApi(DropTrackerConfig config, Gson gson, OkHttpClient httpClient, DropTrackerPlugin plugin, Client client) {
+    public DropTrackerApi(DropTrackerConfig config, Gson gson, OkHttpClient httpClient, DropTrackerPlugin plugin, Client client,
+                          PluginExecutors executors, ScheduledExecutorService scheduler) {
             this.config = config;
+            this.executors = executors;
+            this.scheduler = scheduler;
             this.gson = gson;
             this.httpClient = httpClient;
             this.plugin = plugin;
@@ -110,6 +160,8 @@ public class DropTrackerApi {
                 .connectTimeout(5, TimeUnit.SECONDS)
                 .readTimeout(10, TimeUnit.SECONDS)
                 .build();
+            this.responseCache = new ResponseCache(
+                RuneLite.RUNELITE_DIR.toPath().resolve("droptracker").resolve("responses"), gson, executors);
             this.longPollHttpClient = httpClient.newBuilder()
                 .connectTimeout(5, TimeUnit.SECONDS)
                 .readTimeout(LONG_POLL_READ_TIMEOUT_SECONDS, TimeUnit.SECONDS)
@@ -123,6 +175,14 @@ public class DropTrackerApi {
         this.onGroupConfigsLoadedCallback = callback;
     }
 
+    /**
+     * Set a callback to be invoked, on the caller's thread, when a different
+     * account logs in and its group configs have not loaded yet.
+     */
+    public void setOnGroupConfigsPendingCallback(Runnable callback) {
+        this.onGroupConfigsPendingCallback = callback;
+    }
+
     /* ===================== Aggregate panel data (GET /panel_data) ===================== */
 
     /**
@@ -149,41 +209,31 @@ public class DropTrackerApi {
     /**
      * Fetches the aggregate panel data snapshot, caching it on success. Both query
      * params are optional; without them the response simply omits player configs.
-     * Returns null on any failure (network error, non-200 from an older custom API
-     * endpoint that doesn't have the route yet, malformed body) so callers can fall
-     * back to the individual endpoints. Performs blocking I/O - never call on the EDT.
+     * Completes with null on any failure (network error, non-200 from an older custom
+     * API endpoint that doesn't have the route yet, malformed body) so callers can
+     * fall back to the individual endpoints. Never completes exceptionally.
      */
-    private PanelData fetchPanelData(String playerName, Long accountHash) {
+    private CompletableFuture<PanelData> fetchPanelDataAsync(String playerName, Long accountHash) {
         if (!config.useApi()) {
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
         // Back off briefly after a failure so custom endpoints that predate the
         // route aren't hit with a doomed extra request on every panel load.
         synchronized (panelDataLock) {
             if (lastPanelDataFailureAtMs > 0
                 && (System.currentTimeMillis() - lastPanelDataFailureAtMs) < PANEL_DATA_FAILURE_BACKOFF_SECONDS * 1000L) {
-                return null;
+                return CompletableFuture.completedFuture(null);
             }
         }
-        HttpUrl base = HttpUrl.parse(getApiUrl() + "/panel_data");
-        if (base == null) {
-            return null;
-        }
-        HttpUrl.Builder urlBuilder = base.newBuilder();
-        if (playerName != null && !playerName.isEmpty()) {
-            urlBuilder.addQueryParameter("player_name", playerName);
-        }
-        if (accountHash != null && accountHash != -1L) {
-            urlBuilder.addQueryParameter("acc_hash", String.valueOf(accountHash));
+        HttpUrl url = panelDataUrl(playerName, accountHash);
+        if (url == null) {
+            return CompletableFuture.completedFuture(null);
         }
 
-        Request request = new Request.Builder().url(urlBuilder.build()).build();
-        try (Response response = panelHttpClient.newCall(request).execute()) {
-            lastCommunicationTime = (int) (System.currentTimeMillis() / 1000);
-            if (!response.isSuccessful() || response.body() == null) {
-                return recordPanelDataFailure("HTTP " + response.code());
+        return getJsonRevalidatedAsync(url, PanelData.class).handle((data, error) -> {
+            if (error != null) {
+                return recordPanelDataFailure(error.getMessage());
             }
-            PanelData data = gson.fromJson(response.body().string(), PanelData.class);
             if (data == null) {
                 return recordPanelDataFailure("empty body");
             }
@@ -193,9 +243,23 @@ public class DropTrackerApi {
                 lastPanelDataFailureAtMs = 0;
             }
             return data;
-        } catch (IOException | JsonSyntaxException e) {
-            return recordPanelDataFailure(e.getMessage());
+        });
+    }
+
+    @Nullable
+    private HttpUrl panelDataUrl(String playerName, Long accountHash) {
+        HttpUrl base = HttpUrl.parse(getApiUrl() + "/panel_data");
+        if (base == null) {
+            return null;
+        }
+        HttpUrl.Builder urlBuilder = base.newBuilder();
+        if (playerName != null && !playerName.isEmpty()) {
+            urlBuilder.addQueryParameter("player_name", playerName);
+        }
+        if (accountHash != null && accountHash != -1L) {
+            urlBuilder.addQueryParameter("acc_hash", String.valueOf(accountHash));
         }
+        return urlBuilder.build();
     }
 
     private PanelData recordPanelDataFailure(String reason) {
@@ -214,172 +278,221 @@ public class DropTrackerApi {
     }
 
     /**
-     * Returns a fresh aggregate snapshot, fetching one if the cache is stale. The
-     * fetch happens under the lock so concurrent panel loaders share one request.
-     * Returns null when the aggregate endpoint is unavailable. Blocking - off-EDT only.
+     * Returns a fresh aggregate snapshot, fetching one if the cache is stale.
+     * Concurrent panel loaders share one request through {@link #inFlightReads}.
+     * Completes with null when the aggregate endpoint is unavailable.
      */
-    private PanelData getPanelDataFreshOrFetch() {
+    private CompletableFuture<PanelData> getPanelDataFreshOrFetchAsync() {
         synchronized (panelDataLock) {
             if (cachedPanelData != null
                 && (System.currentTimeMillis() - cachedPanelDataAtMs) < PANEL_DATA_TTL_SECONDS * 1000L) {
-                return cachedPanelData;
+                return CompletableFuture.completedFuture(cachedPanelData);
             }
-            return fetchPanelData(null, null);
         }
+        return fetchPanelDataAsync(null, null);
     }
     
 
 
     /* Group Configs */
-    @SuppressWarnings({ "null" })
-    public synchronized void loadGroupConfigs(String playerName) throws IOException {
+
+    /** Starts the one task that keeps the group configs fresh. */
+    public synchronized void startUp() {
+        if (groupConfigRefreshTask == null) {
+            groupConfigRefreshTask = scheduler.scheduleWithFixedDelay(this::refreshGroupConfigs,
+                GROUP_CONFIG_CHECK_INTERVAL_SECONDS, GROUP_CONFIG_CHECK_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    public synchronized void shutDown() {
+        if (groupConfigRefreshTask != null) {
+            groupConfigRefreshTask.cancel(false);
+            groupConfigRefreshTask = null;
+        }
+    }
+
+    /**
+     * Switches the group configs to the account that just logged in. The
+     * configs from its last saved response, if any, are installed first so
+     * qualification has something to go on before the API answers; the API is
+     * then asked for the current ones. After that the refresh task keeps them
+     * up to date.
+     */
+    public void loadGroupConfigs(String playerName) {
         if (!config.useApi()) {
             return;
         }
-        
         long accountHash = client.getAccountHash();
         if (accountHash == -1 || playerName == null || playerName.isEmpty()) {
             return;
         }
+        GroupConfigSnapshot current = groupConfigs.get();
+        if (current.isFor(accountHash, playerName)) {
+            // Relogging the same account; the refresh task has this covered.
+            refreshGroupConfigs();
+            return;
+        }
 
-        int nowUnix = (int) (System.currentTimeMillis() / 1000);
-        boolean accountOrPlayerChanged = accountHash != lastGroupConfigAccountHash
-            || !playerName.equals(lastGroupConfigPlayerName);
+        GroupConfigSnapshot pending = GroupConfigSnapshot.pending(accountHash, playerName);
+        groupConfigs.set(pending);
+        lastGroupConfigLoadMs = 0;
+        // Run here rather than on a pool, so it lands before any loaded callback for this account.
+        Runnable pendingCallback = onGroupConfigsPendingCallback;
+        if (pendingCallback != null) {
+            pendingCallback.run();
+        }
+        savedGroupConfigs(playerName, accountHash).thenAccept(saved -> {
+            // Only if nothing newer, saved or fresh, has been installed meanwhile.
+            if (saved != null && groupConfigs.compareAndSet(pending,
+                new GroupConfigSnapshot(accountHash, playerName, saved.getValue(), saved.getStoredAtMs()))) {
+                log.debug("Restored {} saved group configs", saved.getValue().size());
+                notifyGroupConfigsLoaded();
+            }
+            // Straight to the API, whatever the interval says.
+            lastGroupConfigAttemptMs = 0;
+            refreshGroupConfigs();
+        });
+    }
 
-        // If we changed account/player, allow an immediate refresh to avoid stale data.
-        if (accountOrPlayerChanged) {
-            groupConfigs = new ArrayList<>();
-            lastGroupConfigUpdateUnix = 0;
-        } else {
-            int minInterval = lastGroupConfigUpdateUnix > 0
-                ? GROUP_CONFIG_REFRESH_INTERVAL_SECONDS
-                : GROUP_CONFIG_RETRY_INTERVAL_SECONDS;
-            if ((nowUnix - lastGroupConfigLoadAttemptUnix) < minInterval) {
-                return;
+    /**
+     * The account's configs from the last saved /panel_data response, or the
+     * legacy /load_config one for endpoints without the aggregate route. Both
+     * are kept by {@link #responseCache} as they are fetched, so nothing else
+     * is written for this. Completes with null when neither is saved.
+     */
+    private CompletableFuture<Revalidating.Saved<List<GroupConfig>>> savedGroupConfigs(String playerName, long accountHash) {
+        return responseCache.saved(panelDataUrl(playerName, accountHash), PanelData.class).thenCompose(panelData -> {
+            if (panelData != null && panelData.getValue().configs != null
+                && !Boolean.FALSE.equals(panelData.getValue().playerFound)) {
+                return CompletableFuture.completedFuture(
+                    new Revalidating.Saved<>(panelData.getValue().configs, panelData.getStoredAtMs()));
             }
+            return responseCache.saved(loadConfigUrl(playerName, accountHash), GroupConfig[].class)
+                .thenApply(legacy -> legacy != null
+                    ? new Revalidating.Saved<>(Arrays.asList(legacy.getValue()), legacy.getStoredAtMs())
+                    : null);
+        });
+    }
+
+    @Nullable
+    private HttpUrl loadConfigUrl(String playerName, long accountHash) {
+        HttpUrl baseUrl = HttpUrl.parse(getApiUrl() + "/load_config");
+        if (baseUrl == null) {
+            return null;
         }
+        return baseUrl.newBuilder()
+            .addQueryParameter("player_name", playerName)
+            .addQueryParameter("acc_hash", String.valueOf(accountHash))
+            .build();
+    }
 
-        // Prevent concurrent loading
-        if (isLoadingGroupConfigs) {
+    /**
+     * Fetches the group configs for the account of the current snapshot if the
+     * refresh interval (or, while nothing has loaded, the retry interval) is up.
+     * Never blocks; the request and everything after it run off this thread.
+     */
+    private void refreshGroupConfigs() {
+        if (!config.useApi()) {
+            return;
+        }
+        GroupConfigSnapshot current = groupConfigs.get();
+        long accountHash = current.getAccountHash();
+        String playerName = current.getPlayerName();
+        if (accountHash == -1 || playerName == null) {
+            return;
+        }
+        long nowMs = System.currentTimeMillis();
+        long minIntervalMs = (lastGroupConfigLoadMs > 0
+            ? GROUP_CONFIG_REFRESH_INTERVAL_SECONDS
+            : GROUP_CONFIG_RETRY_INTERVAL_SECONDS) * 1000L;
+        if (nowMs - lastGroupConfigAttemptMs < minIntervalMs) {
+            return;
+        }
+        if (!groupConfigsLoading.compareAndSet(false, true)) {
             return;
         }
+        lastGroupConfigAttemptMs = nowMs;
 
-        lastGroupConfigLoadAttemptUnix = nowUnix;
-        lastGroupConfigAccountHash = accountHash;
-        lastGroupConfigPlayerName = playerName;
-        isLoadingGroupConfigs = true;
-        
-        CompletableFuture.runAsync(() -> {
-            String responseData = null;
-            try {
-                // Prefer the aggregate /panel_data endpoint: one round-trip refreshes the
-                // configs plus the top lists, welcome/news text and version info.
-                PanelData panelData = fetchPanelData(playerName, accountHash);
-                if (panelData != null) {
-                    if (panelData.configs != null && !Boolean.FALSE.equals(panelData.playerFound)) {
-                        groupConfigs = new ArrayList<>(panelData.configs);
-                        lastGroupConfigUpdateUnix = (int) (System.currentTimeMillis() / 1000);
-                        if (onGroupConfigsLoadedCallback != null) {
-                            try {
-                                onGroupConfigsLoadedCallback.run();
-                            } catch (Exception callbackEx) {
-                                log.debug("Error in group config loaded callback: " + callbackEx.getMessage());
-                            }
-                        }
-                    } else {
-                        // Unknown player: same as the old /load_config 404 - leave
-                        // lastGroupConfigUpdateUnix unset so the retry schedule applies.
-                        log.debug("/panel_data returned no configs for {}; will retry", playerName);
-                    }
-                    return;
+        // Prefer the aggregate /panel_data endpoint: one round-trip refreshes the
+        // configs plus the top lists, welcome/news text and version info.
+        fetchPanelDataAsync(playerName, accountHash).thenCompose(panelData -> {
+            if (panelData != null) {
+                if (panelData.configs != null && !Boolean.FALSE.equals(panelData.playerFound)) {
+                    installGroupConfigs(current, panelData.configs);
+                } else {
+                    // Unknown player: same as the old /load_config 404 - nothing
+                    // is installed, so the retry schedule applies.
+                    log.debug("/panel_data returned no configs for {}; will retry", playerName);
                 }
+                return CompletableFuture.completedFuture(null);
+            }
 
-                // Fallback: the legacy per-purpose /load_config endpoint.
-                String apiUrl = getApiUrl();
-                HttpUrl baseUrl = HttpUrl.parse(apiUrl + "/load_config");
-                if (baseUrl == null) {
-                    return;
-                }
-                HttpUrl url = baseUrl.newBuilder()
-                    .addQueryParameter("player_name", playerName)
-                    .addQueryParameter("acc_hash", String.valueOf(accountHash))
-                    .build();
-                
-                Request request = new Request.Builder().url(url).build();
-
-                try (Response response = panelHttpClient.newCall(request).execute()) {
-                    lastCommunicationTime = (int) (System.currentTimeMillis() / 1000);
-
-                    if (!response.isSuccessful()) {
-                        throw new IOException("API request failed with status: " + response.code());
-                    }
-                    
-                    if (response.body() == null) {
-                        throw new IOException("Empty response body");
-                    }
-                    
-                    responseData = response.body().string();
-                    
-                    GroupConfig[] configArray = gson.fromJson(responseData, GroupConfig[].class);
-                    List<GroupConfig> parsedConfigs = new ArrayList<>(Arrays.asList(configArray));
-                    
-                    if (parsedConfigs != null) {
-                        groupConfigs = parsedConfigs;
-                    }
-                    
-                    lastGroupConfigUpdateUnix = (int) (System.currentTimeMillis() / 1000);
-                    
-                    // Notify listeners that group configs are now available
-                    if (onGroupConfigsLoadedCallback != null) {
-                        try {
-                            onGroupConfigsLoadedCallback.run();
-                        } catch (Exception callbackEx) {
-                            log.debug("Error in group config loaded callback: " + callbackEx.getMessage());
-                        }
-                    }
-                    
-                } catch (IOException e) {
-                    log.debug("Couldn't load group config in side panel (IOException) " + e);
-                } catch (JsonSyntaxException e) {
-                    log.debug("Couldn't load group config in side panel (JsonSyntaxException) " + e);
-                } catch (Exception e) {
-                    log.debug("Couldn't load group config in side panel (Exception) " + e);
-                }
-            } finally {
-                isLoadingGroupConfigs = false;
+            // Fallback: the legacy per-purpose /load_config endpoint.
+            HttpUrl url = loadConfigUrl(playerName, accountHash);
+            if (url == null) {
+                return CompletableFuture.completedFuture(null);
             }
-        }).exceptionally(ex -> {
-            log.debug(ex.getMessage());
-            isLoadingGroupConfigs = false;
-            return null;
+            return getJsonRevalidatedAsync(url, GroupConfig[].class).thenAccept(configArray ->
+                installGroupConfigs(current, configArray != null ? Arrays.asList(configArray) : current.getConfigs()));
+        }).whenComplete((ignored, e) -> {
+            if (e != null) {
+                log.debug("Couldn't load group config in side panel " + e);
+            }
+            groupConfigsLoading.set(false);
         });
     }
 
     /**
-     * Returns the most recently loaded group configs from memory. This never performs
-     * any network I/O, so it is safe to call from the Swing EDT. Callers that want
-     * fresher data should invoke {@link #refreshGroupConfigsAsync()} first.
+     * Publishes freshly fetched configs, unless the account changed while they
+     * were being fetched. The response they came in is what the next login
+     * restores from.
      */
-    public List<GroupConfig> getGroupConfigs() {
-        if (!config.useApi()) {
-            return null;
-        }
-        return groupConfigs;
+    private void installGroupConfigs(GroupConfigSnapshot requestedFor, List<GroupConfig> configs) {
+        long accountHash = requestedFor.getAccountHash();
+        String playerName = requestedFor.getPlayerName();
+        GroupConfigSnapshot fresh = new GroupConfigSnapshot(accountHash, playerName, configs, System.currentTimeMillis());
+        GroupConfigSnapshot current;
+        do {
+            current = groupConfigs.get();
+            if (!current.isFor(accountHash, playerName)) {
+                return;
+            }
+        } while (!groupConfigs.compareAndSet(current, fresh));
+        lastGroupConfigLoadMs = fresh.getLoadedAtMs();
+        notifyGroupConfigsLoaded();
     }
 
     /**
-     * Schedules a rate-limited asynchronous refresh of the group configs. The actual
-     * network request runs off the calling thread, so this is safe to call from the EDT.
+     * Hands the loaded-configs callback to the io pool: it replays held
+     * submissions, which is plugin work that has no place on an OkHttp
+     * callback thread.
      */
-    public void refreshGroupConfigsAsync() {
-        if (!config.useApi()) {
+    private void notifyGroupConfigsLoaded() {
+        Runnable callback = onGroupConfigsLoadedCallback;
+        if (callback == null) {
             return;
         }
-        try {
-            loadGroupConfigs(plugin.getLocalPlayerName());
-        } catch (IOException e) {
-            log.debug("Couldn't refresh group configs " + e);
+        executors.runIo(callback).exceptionally(e -> {
+            log.debug("Error in group config loaded callback: " + e.getMessage());
+            return null;
+        });
+    }
+
+    /**
+     * Returns the current account's group configs as an unmodifiable list. This never
+     * performs any I/O, so it is safe to call from any thread, the Swing EDT included.
+     * Empty until the saved or fetched configs for the account have loaded.
+     */
+    public List<GroupConfig> getGroupConfigs() {
+        if (!config.useApi()) {
+            return null;
         }
+        return groupConfigs.get().getConfigs();
+    }
+
+    /** The snapshot {@link #getGroupConfigs()} reads from, for callers that need its account or age. */
+    public GroupConfigSnapshot getGroupConfigSnapshot() {
+        return groupConfigs.get();
     }
 
     /* Submissions */
@@ -392,34 +505,184 @@ public class DropTrackerApi {
     
 
 
+    /** Reads an OkHttp response once it has arrived; the response is closed afterwards. */
+    interface ResponseReader<T> {
+        T read(Response response) throws IOException;
+    }
+
     /**
-     * Blocking GET + JSON parse via {@link #panelHttpClient}. Records the
-     * communication time on a completed round-trip and throws IOException on an
-     * unsuccessful status, empty body, or malformed JSON. Callers that want a
-     * silent fallback catch IOException and return null. Performs blocking I/O -
-     * never call on the EDT.
+     * Runs {@code request} on OkHttp's dispatcher and completes with whatever
+     * {@code reader} makes of the response. No plugin thread waits on the
+     * network meanwhile.
+     *
+     * <p>{@code timeoutMs} bounds the whole call, reading the body included,
+     * on top of the client's own connect and read timeouts. Cancelling the
+     * returned future cancels the call. The future completes on an OkHttp
+     * thread, so anything chained onto it must not block.
      */
-    private <T> T getJson(HttpUrl url, Class<T> type) throws IOException {
-        Request request = new Request.Builder().url(url).build();
-        try (Response response = panelHttpClient.newCall(request).execute()) {
-            lastCommunicationTime = (int) (System.currentTimeMillis() / 1000);
-            if (!response.isSuccessful()) {
-                throw new IOException("API request to " + url + " failed with status: " + response.code());
+    static <T> CompletableFuture<T> call(OkHttpClient httpClient, Request request, long timeoutMs,
+                                         ResponseReader<T> reader) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Call call = httpClient.newCall(request);
+        call.timeout().timeout(timeoutMs, TimeUnit.MILLISECONDS);
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(@NotNull Call call, @NotNull IOException e) {
+                future.completeExceptionally(e);
             }
-            ResponseBody body = response.body();
-            if (body == null) {
-                throw new IOException("Empty response body from " + url);
+
+            @Override
+            public void onResponse(@NotNull Call call, @NotNull Response response) {
+                try (Response closing = response) {
+                    future.complete(reader.read(closing));
+                } catch (IOException | RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
             }
-            try {
-                return gson.fromJson(body.string(), type);
-            } catch (JsonSyntaxException e) {
-                throw new IOException("Malformed response from " + url, e);
+        });
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                call.cancel();
             }
+        });
+        return future;
+    }
+
+    /**
+     * Parses a JSON response straight from the body stream, so no copy of the
+     * whole body is held as a string first. Throws IOException on an
+     * unsuccessful status, empty body, or malformed JSON.
+     */
+    static <T> T readJson(Gson gson, Response response, Class<T> type) throws IOException {
+        return readJson(gson, response, type, null);
+    }
+
+    /** As {@link #readJson(Gson, Response, Class)}, also copying the body text into {@code copy}. */
+    static <T> T readJson(Gson gson, Response response, Class<T> type, @Nullable StringBuilder copy) throws IOException {
+        HttpUrl url = response.request().url();
+        if (!response.isSuccessful()) {
+            throw new IOException("API request to " + url + " failed with status: " + response.code());
+        }
+        ResponseBody body = response.body();
+        if (body == null) {
+            throw new IOException("Empty response body from " + url);
+        }
+        try {
+            Reader reader = body.charStream();
+            return gson.fromJson(copy != null ? new CopyingReader(reader, copy) : reader, type);
+        } catch (JsonParseException e) {
+            // Gson wraps a failed read (a timeout mid-body, say) as well as bad JSON.
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Malformed response from " + url, e);
+        }
+    }
+
+    /** Passes a body through to the parser while keeping its text, for saving. */
+    private static final class CopyingReader extends FilterReader {
+        private final StringBuilder copy;
+
+        CopyingReader(Reader in, StringBuilder copy) {
+            super(in);
+            this.copy = copy;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int c = super.read();
+            if (c >= 0) {
+                copy.append((char) c);
+            }
+            return c;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                copy.append(buffer, offset, read);
+            }
+            return read;
+        }
+    }
+
+    /**
+     * Waits for an async call, for the blocking adapters. Failures come back
+     * as the IOException (or unchecked exception) the call failed with, and an
+     * interrupted wait cancels the call.
+     */
+    static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for the DropTracker API");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * {@link #await} for calls that report failure as a value rather than
+     * failing, such as {@link #postStateSnapshotAsync}; an interrupted wait
+     * gives {@code failure}.
+     */
+    private static <T> T awaitOr(CompletableFuture<T> future, T failure) {
+        try {
+            return await(future);
+        } catch (IOException e) {
+            return failure;
         }
     }
 
     /**
-     * Fetches the server-controlled manifest. Blocking; call off the client thread.
+     * GET + JSON parse via {@link #panelHttpClient}. Records the communication
+     * time on a completed round-trip and fails with IOException on an
+     * unsuccessful status, empty body, or malformed JSON. Identical GETs in
+     * flight at the same time share one call and one parsed result, so
+     * callers must not modify what they get back.
+     */
+    private <T> CompletableFuture<T> getJsonAsync(HttpUrl url, Class<T> type) {
+        return getJsonAsync(new Request.Builder().url(url).build(), type);
+    }
+
+    private <T> CompletableFuture<T> getJsonAsync(Request request, Class<T> type) {
+        return inFlightReads.run(type.getName() + " " + request.url(),
+            () -> call(panelHttpClient, request, PANEL_CALL_TIMEOUT_MS, response -> {
+                lastCommunicationTime = (int) (System.currentTimeMillis() / 1000);
+                return readJson(gson, response, type);
+            }));
+    }
+
+    /**
+     * As {@link #getJsonAsync(HttpUrl, Class)}, but revalidating against and
+     * updating the copy saved in {@link #responseCache}, which is what the
+     * {@code ...Revalidating} reads serve from.
+     */
+    private <T> CompletableFuture<T> getJsonRevalidatedAsync(HttpUrl url, Class<T> type) {
+        CompletableFuture<T> future = inFlightReads.run("saved " + type.getName() + " " + url,
+            () -> responseCache.fetch(panelHttpClient, url, PANEL_CALL_TIMEOUT_MS, type));
+        future.whenComplete((result, error) -> {
+            if (error == null) {
+                lastCommunicationTime = (int) (System.currentTimeMillis() / 1000);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Fetches the server-controlled manifest. Completes with null if it is
+     * unavailable — callers fall back to their built-in defaults rather than
+     * failing.
      *
      * <p>Bypasses the HTTP cache with {@link CacheControl#FORCE_NETWORK}. This is
      * not optional: {@code panelHttpClient} is derived from RuneLite's injected
@@ -428,93 +691,205 @@ public class DropTrackerApi {
      * client would keep re-reading a cached manifest across restarts for as long
      * as the entry lived — so a server-side fix would appear not to work, which
      * defeats the entire reason the manifest is server-side.
-     *
-     * @return the manifest, or null if unavailable — callers fall back to their
-     *         built-in defaults rather than failing.
      */
-    public Manifest getManifest() {
+    public CompletableFuture<Manifest> getManifestAsync() {
         if (!config.useApi()) {
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
         HttpUrl url = HttpUrl.parse(getApiUrl() + "/manifest");
         if (url == null) {
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
         Request request = new Request.Builder()
                 .url(url)
                 .cacheControl(CacheControl.FORCE_NETWORK)
                 .build();
-        try (Response response = panelHttpClient.newCall(request).execute()) {
-            lastCommunicationTime = (int) (System.currentTimeMillis() / 1000);
-            if (!response.isSuccessful()) {
-                log.debug("Manifest request failed with status {}", response.code());
-                return null;
-            }
-            ResponseBody body = response.body();
-            if (body == null) {
-                return null;
-            }
-            return gson.fromJson(body.string(), Manifest.class);
-        } catch (IOException | JsonSyntaxException e) {
+        return getJsonAsync(request, Manifest.class).exceptionally(e -> {
             log.debug("Couldn't fetch the manifest: {}", e.toString());
             return null;
-        }
+        });
+    }
+
+    /** Blocking form of {@link #getManifestAsync()}; call off the client thread. */
+    public Manifest getManifest() {
+        return getManifestAsync().join();
+    }
+
+    /** Status the server answers a delta with when it no longer holds its baseline. */
+    private static final int STATE_BASELINE_REJECTED = 409;
+
+    /** Body of a successful POST /state/sync; empty from servers without delta support. */
+    private static class StateSyncResponse {
+        @SerializedName("baseline_id")
+        String baselineId;
     }
 
     /**
-     * Posts a full account state snapshot to {@code /state/sync}. Blocking; call
-     * off the client thread.
+     * Posts an account state snapshot to {@code /state/sync}. Never completes
+     * exceptionally: any failure completes with {@link StateSyncResult#failed()}.
      *
      * <p>Sent as plain JSON rather than through the webhook envelope the rest of
      * the plugin uses: a snapshot is maps of thousands of ids, which does not
      * fit the embed-fields shape and would be lossy to squeeze into it.
      *
+     * <p>The snapshot may be a delta (see {@link StateSnapshot#getBaselineId()}).
+     * A 409 means its baseline is gone and is reported separately from other
+     * failures, since only a full snapshot can recover from it.
+     *
      * <p>The endpoint is idempotent, so a caller that cannot tell whether a
      * request landed is free to send it again.
-     *
-     * @return true when the server accepted the snapshot.
      */
-    public boolean postStateSnapshot(StateSnapshot snapshot) {
+    public CompletableFuture<StateSyncResult> postStateSnapshotAsync(StateSnapshot snapshot) {
         if (!config.useApi() || snapshot == null) {
-            return false;
+            return CompletableFuture.completedFuture(StateSyncResult.failed());
         }
         HttpUrl url = HttpUrl.parse(getApiUrl() + "/state/sync");
         if (url == null) {
-            return false;
+            return CompletableFuture.completedFuture(StateSyncResult.failed());
         }
         RequestBody body = RequestBody.create(
                 MediaType.parse("application/json; charset=utf-8"), gson.toJson(snapshot));
         Request request = new Request.Builder().url(url).post(body).build();
-        try (Response response = panelHttpClient.newCall(request).execute()) {
+        return call(panelHttpClient, request, PANEL_CALL_TIMEOUT_MS, response -> {
             lastCommunicationTime = (int) (System.currentTimeMillis() / 1000);
+            if (response.code() == STATE_BASELINE_REJECTED && snapshot.getBaselineId() != null) {
+                log.debug("State sync baseline {} rejected", snapshot.getBaselineId());
+                return StateSyncResult.baselineRejected();
+            }
             if (!response.isSuccessful()) {
                 log.debug("State sync rejected with status {}", response.code());
-                return false;
+                return StateSyncResult.failed();
             }
-            return true;
-        } catch (IOException e) {
+            ResponseBody responseBody = response.body();
+            String json = responseBody != null ? responseBody.string() : "";
+            try {
+                StateSyncResponse parsed = json.isEmpty() ? null : gson.fromJson(json, StateSyncResponse.class);
+                return StateSyncResult.accepted(parsed != null ? parsed.baselineId : null);
+            } catch (JsonSyntaxException e) {
+                // Accepted, but by a server that answers with something other than a
+                // baseline; treat it like one without delta support.
+                return StateSyncResult.accepted(null);
+            }
+        }).exceptionally(e -> {
             log.debug("State sync failed: {}", e.toString());
-            return false;
+            return StateSyncResult.failed();
+        });
+    }
+
+    /** Blocking form of {@link #postStateSnapshotAsync}; call off the client thread. */
+    public StateSyncResult postStateSnapshot(StateSnapshot snapshot) {
+        return awaitOr(postStateSnapshotAsync(snapshot), StateSyncResult.failed());
+    }
+
+    /** Body of a successful POST /clan_relay; empty when the server has nothing to ask. */
+    private static class ClanRelayResponse {
+        @SerializedName("standby_seconds")
+        int standbySeconds;
+    }
+
+    /**
+     * Posts a batch of relayed clan lines to {@code /clan_relay} as plain
+     * JSON. Completes with {@link ClanRelayResult#unsupported()} when the
+     * server predates the endpoint (404/405), so the caller can fall back to
+     * webhook submissions, and never completes exceptionally.
+     */
+    public CompletableFuture<ClanRelayResult> postClanRelayAsync(ClanRelayBatch batch) {
+        if (!config.useApi() || batch == null || batch.getLines().isEmpty()) {
+            return CompletableFuture.completedFuture(ClanRelayResult.failed());
+        }
+        HttpUrl url = HttpUrl.parse(getApiUrl() + "/clan_relay");
+        if (url == null) {
+            return CompletableFuture.completedFuture(ClanRelayResult.failed());
+        }
+        RequestBody body = RequestBody.create(
+                MediaType.parse("application/json; charset=utf-8"), gson.toJson(batch));
+        Request request = new Request.Builder().url(url).post(body).build();
+        return call(panelHttpClient, request, PANEL_CALL_TIMEOUT_MS, response -> {
+            lastCommunicationTime = (int) (System.currentTimeMillis() / 1000);
+            if (response.code() == 404 || response.code() == 405) {
+                return ClanRelayResult.unsupported();
+            }
+            if (!response.isSuccessful()) {
+                log.debug("Clan relay rejected with status {}", response.code());
+                return ClanRelayResult.failed();
+            }
+            ResponseBody responseBody = response.body();
+            String json = responseBody != null ? responseBody.string() : "";
+            try {
+                ClanRelayResponse parsed = json.isEmpty() ? null : gson.fromJson(json, ClanRelayResponse.class);
+                return ClanRelayResult.accepted(parsed != null ? parsed.standbySeconds : 0);
+            } catch (JsonSyntaxException e) {
+                return ClanRelayResult.accepted(0);
+            }
+        }).exceptionally(e -> {
+            log.debug("Clan relay failed: {}", e.toString());
+            return ClanRelayResult.failed();
+        });
+    }
+
+    /**
+     * Whether the server already holds exactly this model content for the
+     * account, asked before exporting or uploading an outfit again. HEAD
+     * /player/model answers 200 when it does. Anything else, including a
+     * server that predates the route, means the model should be uploaded.
+     */
+    public CompletableFuture<Boolean> hasPlayerModelAsync(String fingerprint, String contentHash) {
+        if (!config.useApi()) {
+            return CompletableFuture.completedFuture(false);
+        }
+        HttpUrl base = HttpUrl.parse(getApiUrl() + "/player/model");
+        if (base == null) {
+            return CompletableFuture.completedFuture(false);
         }
+        HttpUrl url = base.newBuilder()
+                .addQueryParameter("acc_hash", String.valueOf(client.getAccountHash()))
+                .addQueryParameter("fingerprint", fingerprint)
+                .addQueryParameter("sha256", contentHash)
+                .build();
+        return headFoundAsync(panelHttpClient, url);
+    }
+
+    /** Blocking form of {@link #hasPlayerModelAsync}; call off the client thread. */
+    public boolean hasPlayerModel(String fingerprint, String contentHash) {
+        return awaitOr(hasPlayerModelAsync(fingerprint, contentHash), false);
+    }
+
+    /** True only for a 200 to a HEAD of {@code url}; every failure reads as absent. */
+    static CompletableFuture<Boolean> headFoundAsync(OkHttpClient httpClient, HttpUrl url) {
+        Request request = new Request.Builder().url(url).head().build();
+        return call(httpClient, request, PANEL_CALL_TIMEOUT_MS, response -> response.code() == 200)
+            .exceptionally(e -> {
+                log.debug("Have-check failed: {}", e.toString());
+                return false;
+            });
+    }
+
+    /** Blocking form of {@link #headFoundAsync}. */
+    static boolean headFound(OkHttpClient httpClient, HttpUrl url) {
+        return awaitOr(headFoundAsync(httpClient, url), false);
     }
 
     /**
-     * Uploads the player's character model as binary glTF. Blocking; call off
-     * the client thread.
+     * Uploads the player's character model as binary glTF. Never completes
+     * exceptionally: any failure completes with false.
      *
      * <p>Keyed by an outfit fingerprint so the server can skip work it has
      * already done: the same character in the same gear renders identically, so
      * one upload per distinct outfit is enough.
      *
-     * @return true when the server accepted (or already had) the model.
+     * @param contentHash SHA-256 of the model and pet GLBs, as passed to
+     *                    {@link #hasPlayerModel}, so the server can answer
+     *                    later have-checks without hashing uploads itself
+     * @return completes with true when the server accepted (or already had) the model.
      */
-    public boolean uploadPlayerModel(String fingerprint, byte[] model, @Nullable byte[] petModel) {
-        if (!config.useApi() || model == null || model.length == 0) {
-            return false;
+    public CompletableFuture<Boolean> uploadPlayerModelAsync(String fingerprint, String contentHash,
+                                                             GlbWriter.Glb model, @Nullable GlbWriter.Glb petModel) {
+        if (!config.useApi() || model == null || model.length() == 0) {
+            return CompletableFuture.completedFuture(false);
         }
         HttpUrl url = HttpUrl.parse(getApiUrl() + "/player/model");
         if (url == null) {
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
 
         MediaType glb = MediaType.parse("model/gltf-binary");
@@ -522,95 +897,205 @@ public class DropTrackerApi {
                 .setType(MultipartBody.FORM)
                 .addFormDataPart("acc_hash", String.valueOf(client.getAccountHash()))
                 .addFormDataPart("fingerprint", fingerprint)
-                .addFormDataPart("model", "model.glb", RequestBody.create(glb, model));
-        if (petModel != null && petModel.length > 0) {
-            body.addFormDataPart("pet_model", "pet.glb", RequestBody.create(glb, petModel));
+                .addFormDataPart("sha256", contentHash)
+                .addFormDataPart("model", "model.glb", glbBody(glb, model));
+        if (petModel != null && petModel.length() > 0) {
+            body.addFormDataPart("pet_model", "pet.glb", glbBody(glb, petModel));
         }
 
         Request request = new Request.Builder().url(url).post(body.build()).build();
-        try (Response response = httpClient.newCall(request).execute()) {
+        return call(httpClient, request, MODEL_UPLOAD_CALL_TIMEOUT_MS, response -> {
             lastCommunicationTime = (int) (System.currentTimeMillis() / 1000);
             if (!response.isSuccessful()) {
                 log.debug("Model upload rejected with status {}", response.code());
                 return false;
             }
             return true;
-        } catch (IOException e) {
+        }).exceptionally(e -> {
             log.debug("Model upload failed: {}", e.toString());
             return false;
-        }
+        });
     }
 
-    public TopGroupResult getTopGroups() {
+    /** Blocking form of {@link #uploadPlayerModelAsync}; call off the client thread. */
+    public boolean uploadPlayerModel(String fingerprint, String contentHash, GlbWriter.Glb model,
+                                     @Nullable GlbWriter.Glb petModel) {
+        return awaitOr(uploadPlayerModelAsync(fingerprint, contentHash, model, petModel), false);
+    }
+
+    /**
+     * A request body that writes the GLB into the connection as it is sent.
+     * The length is known up front, so it goes out with a Content-Length and
+     * can be written again if OkHttp retries.
+     */
+    private static RequestBody glbBody(MediaType type, GlbWriter.Glb glb) {
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return type;
+            }
+
+            @Override
+            public long contentLength() {
+                return glb.length();
+            }
+
+            @Override
+            public void writeTo(@NotNull BufferedSink sink) throws IOException {
+                glb.writeTo(sink.outputStream());
+            }
+        };
+    }
+
+    public CompletableFuture<TopGroupResult> getTopGroupsAsync() {
         if (!config.useApi()) {
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
         // Prefer the aggregate snapshot; one /panel_data request serves both top lists.
-        PanelData panelData = getPanelDataFreshOrFetch();
-        if (panelData != null && panelData.topGroups != null && panelData.topGroups.getGroups() != null) {
-            return panelData.topGroups;
-        }
-        try {
-            return getJson(HttpUrl.parse(getApiUrl() + "/top_groups"), TopGroupResult.class);
-        } catch (IOException e) {
-            log.debug("Couldn't get top groups (IOException) " + e);
+        return getPanelDataFreshOrFetchAsync().thenCompose(panelData -> {
+            if (panelData != null && panelData.topGroups != null && panelData.topGroups.getGroups() != null) {
+                return CompletableFuture.completedFuture(panelData.topGroups);
+            }
+            return getJsonRevalidatedAsync(HttpUrl.parse(getApiUrl() + "/top_groups"), TopGroupResult.class);
+        }).exceptionally(e -> {
+            log.debug("Couldn't get top groups " + e);
             return null;
-        }
+        });
     }
 
-    public TopPlayersResult getTopPlayers() {
+    public TopGroupResult getTopGroups() {
+        return getTopGroupsAsync().join();
+    }
+
+    /**
+     * The top groups as last saved, from the aggregate snapshot or the
+     * per-list endpoint, alongside {@link #getTopGroupsAsync()}.
+     */
+    public Revalidating<TopGroupResult> getTopGroupsRevalidating() {
         if (!config.useApi()) {
-            return null;
+            return new Revalidating<>(CompletableFuture.completedFuture(null), CompletableFuture.completedFuture(null));
+        }
+        CompletableFuture<Revalidating.Saved<TopGroupResult>> saved = responseCache
+            .saved(panelDataUrl(null, null), PanelData.class)
+            .thenCompose(panelData -> {
+                if (panelData != null && panelData.getValue().topGroups != null
+                    && panelData.getValue().topGroups.getGroups() != null) {
+                    return CompletableFuture.completedFuture(
+                        new Revalidating.Saved<>(panelData.getValue().topGroups, panelData.getStoredAtMs()));
+                }
+                return responseCache.saved(HttpUrl.parse(getApiUrl() + "/top_groups"), TopGroupResult.class);
+            });
+        return new Revalidating<>(saved, getTopGroupsAsync());
+    }
+
+    public CompletableFuture<TopPlayersResult> getTopPlayersAsync() {
+        if (!config.useApi()) {
+            return CompletableFuture.completedFuture(null);
         }
         // Prefer the aggregate snapshot; one /panel_data request serves both top lists.
-        PanelData panelData = getPanelDataFreshOrFetch();
-        if (panelData != null && panelData.topPlayers != null && panelData.topPlayers.getPlayers() != null) {
-            return panelData.topPlayers;
-        }
-        try {
-            return getJson(HttpUrl.parse(getApiUrl() + "/top_players"), TopPlayersResult.class);
-        } catch (IOException e) {
-            log.debug("Couldn't get top players (IOException) " + e);
+        return getPanelDataFreshOrFetchAsync().thenCompose(panelData -> {
+            if (panelData != null && panelData.topPlayers != null && panelData.topPlayers.getPlayers() != null) {
+                return CompletableFuture.completedFuture(panelData.topPlayers);
+            }
+            return getJsonRevalidatedAsync(HttpUrl.parse(getApiUrl() + "/top_players"), TopPlayersResult.class);
+        }).exceptionally(e -> {
+            log.debug("Couldn't get top players " + e);
             return null;
-        }
+        });
+    }
+
+    public TopPlayersResult getTopPlayers() {
+        return getTopPlayersAsync().join();
+    }
+
+    /** As {@link #getTopGroupsRevalidating()}, for the top players. */
+    public Revalidating<TopPlayersResult> getTopPlayersRevalidating() {
+        if (!config.useApi()) {
+            return new Revalidating<>(CompletableFuture.completedFuture(null), CompletableFuture.completedFuture(null));
+        }
+        CompletableFuture<Revalidating.Saved<TopPlayersResult>> saved = responseCache
+            .saved(panelDataUrl(null, null), PanelData.class)
+            .thenCompose(panelData -> {
+                if (panelData != null && panelData.getValue().topPlayers != null
+                    && panelData.getValue().topPlayers.getPlayers() != null) {
+                    return CompletableFuture.completedFuture(
+                        new Revalidating.Saved<>(panelData.getValue().topPlayers, panelData.getStoredAtMs()));
+                }
+                return responseCache.saved(HttpUrl.parse(getApiUrl() + "/top_players"), TopPlayersResult.class);
+            });
+        return new Revalidating<>(saved, getTopPlayersAsync());
     }
 
     /**
-     * Sends a request to the API to search for a group and returns the GroupSearchResult.
+     * Searches the API for a group. Completes with null when the API is
+     * disabled, and fails with an IOException whose message carries the
+     * status (e.g. {@code status: 404}) when the search is rejected.
      */
-    public GroupSearchResult searchGroup(String groupName) throws IOException {
+    public CompletableFuture<GroupSearchResult> searchGroupAsync(String groupName) {
         if (!config.useApi()) {
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
 
         HttpUrl baseUrl = HttpUrl.parse(getApiUrl() + "/group_search");
         if (baseUrl == null) {
-            throw new IllegalArgumentException("Invalid URL");
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Invalid URL"));
         }
         HttpUrl url = baseUrl.newBuilder()
             .addQueryParameter("name", groupName)
             .build();
 
-        return getJson(url, GroupSearchResult.class);
+        return getJsonRevalidatedAsync(url, GroupSearchResult.class);
     }
 
     /**
-     * Sends a request to the API to look up a player's data and returns the PlayerSearchResult.
+     * Sends a request to the API to search for a group and returns the GroupSearchResult.
      */
-    public PlayerSearchResult lookupPlayer(String playerName) throws IOException {
+    public GroupSearchResult searchGroup(String groupName) throws IOException {
+        return await(searchGroupAsync(groupName));
+    }
+
+    /** The last saved result of this search, alongside {@link #searchGroupAsync}. */
+    public Revalidating<GroupSearchResult> searchGroupRevalidating(String groupName) {
+        HttpUrl baseUrl = HttpUrl.parse(getApiUrl() + "/group_search");
+        HttpUrl url = baseUrl != null && config.useApi()
+            ? baseUrl.newBuilder().addQueryParameter("name", groupName).build()
+            : null;
+        return new Revalidating<>(responseCache.saved(url, GroupSearchResult.class), searchGroupAsync(groupName));
+    }
+
+    /**
+     * Looks a player up in the API; completes and fails like {@link #searchGroupAsync}.
+     */
+    public CompletableFuture<PlayerSearchResult> lookupPlayerAsync(String playerName) {
         if (!config.useApi()) {
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
 
         HttpUrl baseUrl = HttpUrl.parse(getApiUrl() + "/player_search");
         if (baseUrl == null) {
-            throw new IllegalArgumentException("Invalid URL");
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Invalid URL"));
         }
         HttpUrl url = baseUrl.newBuilder()
             .addQueryParameter("name", playerName)
             .build();
 
-        return getJson(url, PlayerSearchResult.class);
+        return getJsonRevalidatedAsync(url, PlayerSearchResult.class);
+    }
+
+    /**
+     * Sends a request to the API to look up a player's data and returns the PlayerSearchResult.
+     */
+    public PlayerSearchResult lookupPlayer(String playerName) throws IOException {
+        return await(lookupPlayerAsync(playerName));
+    }
+
+    /** The last saved result of this lookup, alongside {@link #lookupPlayerAsync}. */
+    public Revalidating<PlayerSearchResult> lookupPlayerRevalidating(String playerName) {
+        HttpUrl baseUrl = HttpUrl.parse(getApiUrl() + "/player_search");
+        HttpUrl url = baseUrl != null && config.useApi()
+            ? baseUrl.newBuilder().addQueryParameter("name", playerName).build()
+            : null;
+        return new Revalidating<>(responseCache.saved(url, PlayerSearchResult.class), lookupPlayerAsync(playerName));
     }
 
     public String getApiUrl() {
@@ -652,51 +1137,49 @@ public class DropTrackerApi {
      * {@link DropTrackerConfig#useApi()} like every other call to our hosts: the
      * endpoint needs no auth, but a user who has not enabled the API integration
      * must not have their client contact us at all, so the check is skipped rather
-     * than falling back to the default host. Returns null on any failure — the
-     * version check is best-effort and must never break startup.
+     * than falling back to the default host. Completes with null on any failure —
+     * the version check is best-effort and must never break startup.
      */
-    public VersionInfo fetchVersionInfo() {
+    public CompletableFuture<VersionInfo> fetchVersionInfoAsync() {
         // Prefer version info already delivered by the aggregate /panel_data snapshot.
         PanelData panelData = getCachedPanelData();
         if (panelData != null && panelData.version != null && panelData.version.latestVersion != null) {
-            return panelData.version;
+            return CompletableFuture.completedFuture(panelData.version);
         }
         // Empty means "API off and no user-supplied endpoint" — make no request.
         String apiUrl = getApiUrl();
         if (apiUrl == null || apiUrl.isEmpty()) {
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
         HttpUrl url = HttpUrl.parse(apiUrl + "/plugin_version");
         if (url == null) {
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
         Request request = new Request.Builder().url(url).build();
-        try (Response response = panelHttpClient.newCall(request).execute()) {
-            if (!response.isSuccessful() || response.body() == null) {
-                return null;
-            }
-            return gson.fromJson(response.body().string(), VersionInfo.class);
-        } catch (Exception e) {
+        return call(panelHttpClient, request, PANEL_CALL_TIMEOUT_MS,
+            response -> readJson(gson, response, VersionInfo.class)
+        ).exceptionally(e -> {
             log.debug("Version check failed: {}", e.getMessage());
             return null;
-        }
+        });
     }
 
 
     /**
      * Check whether a submission with the given uuid has been processed by the API.
-     * Sends a JSON body {"uuid": "..."} to {apiUrl}/check via POST.
-     * Returns true if the API explicitly reports the submission as processed.
+     * Sends a JSON body {"uuid": "..."} to {apiUrl}/check via POST. Completes with
+     * true if the API explicitly reports the submission as processed, and fails
+     * with IOException when the request itself fails.
      */
-    public boolean checkSubmissionProcessed(String uuid) throws IOException {
+    public CompletableFuture<Boolean> checkSubmissionProcessedAsync(String uuid) {
         if (!config.useApi() || uuid == null || uuid.isEmpty()) {
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
 
         String apiUrl = getApiUrl();
         HttpUrl url = HttpUrl.parse(apiUrl + "/check");
         if (url == null) {
-            throw new IllegalArgumentException("Invalid URL");
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Invalid URL"));
         }
 
         String jsonBody = gson.toJson(java.util.Collections.singletonMap("uuid", uuid));
@@ -707,40 +1190,28 @@ public class DropTrackerApi {
             .post(body)
             .build();
 
-        try (Response response = httpClient.newCall(request).execute()) {
+        return call(httpClient, request, PANEL_CALL_TIMEOUT_MS, response -> {
             lastCommunicationTime = (int) (System.currentTimeMillis() / 1000);
-            
-            if (!response.isSuccessful()) {
-                return false;
-            }
-            ResponseBody responseBody = response.body();
-            if (responseBody == null) {
+
+            if (!response.isSuccessful() || response.body() == null) {
                 return false;
             }
-            String responseData = responseBody.string();
-            
+            java.util.Map<?, ?> map;
             try {
                 // Response is expected to contain at least { processed: boolean } for the given uuid
-                @SuppressWarnings("unchecked")
-                java.util.Map<String, Object> map = gson.fromJson(responseData, java.util.Map.class);
-                Object processedVal = map != null ? map.get("processed") : null;
-                
-                if (processedVal instanceof Boolean) {
-                    return (Boolean) processedVal;
-                }
-                // Some APIs might return status: "processed"
-                Object statusVal = map != null ? map.get("status") : null;
-                
-                if (statusVal instanceof String) {
-                    return "processed".equalsIgnoreCase((String) statusVal);
-                }
-            } catch (Exception e) {
+                map = readJson(gson, response, java.util.Map.class);
+            } catch (IOException e) {
                 // If parsing fails, consider it not processed
                 return false;
             }
-        }
-
-        return false;
+            Object processedVal = map != null ? map.get("processed") : null;
+            if (processedVal instanceof Boolean) {
+                return (Boolean) processedVal;
+            }
+            // Some APIs might return status: "processed"
+            Object statusVal = map != null ? map.get("status") : null;
+            return statusVal instanceof String && "processed".equalsIgnoreCase((String) statusVal);
+        });
     }
 
     /** One entry in the batch POST /check response. */
@@ -760,18 +1231,18 @@ public class DropTrackerApi {
     }
 
     /**
-     * Batch form of {@link #checkSubmissionProcessed(String)}: checks up to
+     * Batch form of {@link #checkSubmissionProcessedAsync(String)}: checks up to
      * {@value #CHECK_BATCH_LIMIT} submission uuids in a single POST /check request
-     * ({"uuids": [...]}). Returns a map of uuid to processed-state for the uuids the
-     * API reported on. "pending" is a normal long-lived state, not an error.
+     * ({"uuids": [...]}). Completes with a map of uuid to processed-state for the
+     * uuids the API reported on. "pending" is a normal long-lived state, not an error.
      *
-     * @throws IOException when the request fails or the body is unparseable (e.g. an
-     *         older custom endpoint that only supports the single-uuid form) so the
-     *         caller can fall back to per-uuid checks for this poll tick.
+     * <p>Fails with IOException when the request fails or the body is unparseable
+     * (e.g. an older custom endpoint that only supports the single-uuid form) so the
+     * caller can fall back to per-uuid checks for this poll tick.
      */
-    public Map<String, Boolean> checkSubmissionsProcessed(List<String> uuids) throws IOException {
+    public CompletableFuture<Map<String, Boolean>> checkSubmissionsProcessedAsync(List<String> uuids) {
         if (!config.useApi() || uuids == null || uuids.isEmpty()) {
-            return java.util.Collections.emptyMap();
+            return CompletableFuture.completedFuture(java.util.Collections.emptyMap());
         }
 
         List<String> capped = uuids.size() > CHECK_BATCH_LIMIT
@@ -780,7 +1251,7 @@ public class DropTrackerApi {
 
         HttpUrl url = HttpUrl.parse(getApiUrl() + "/check");
         if (url == null) {
-            throw new IllegalArgumentException("Invalid URL");
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Invalid URL"));
         }
 
         String jsonBody = gson.toJson(java.util.Collections.singletonMap("uuids", capped));
@@ -790,23 +1261,10 @@ public class DropTrackerApi {
             .post(body)
             .build();
 
-        try (Response response = panelHttpClient.newCall(request).execute()) {
+        return call(panelHttpClient, request, PANEL_CALL_TIMEOUT_MS, response -> {
             lastCommunicationTime = (int) (System.currentTimeMillis() / 1000);
 
-            if (!response.isSuccessful()) {
-                throw new IOException("Batch /check failed with status: " + response.code());
-            }
-            ResponseBody responseBody = response.body();
-            if (responseBody == null) {
-                throw new IOException("Empty batch /check response body");
-            }
-
-            BatchCheckResponse parsed;
-            try {
-                parsed = gson.fromJson(responseBody.string(), BatchCheckResponse.class);
-            } catch (JsonSyntaxException e) {
-                throw new IOException("Malformed batch /check response", e);
-            }
+            BatchCheckResponse parsed = readJson(gson, response, BatchCheckResponse.class);
             if (parsed == null || parsed.results == null) {
                 throw new IOException("Batch /check response missing results");
             }
@@ -821,7 +1279,7 @@ public class DropTrackerApi {
                 results.put(entry.uuid, processed);
             }
             return results;
-        }
+        });
     }
 
     private static final String WELCOME_FALLBACK = "Welcome to the DropTracker!";
@@ -955,8 +1413,12 @@ public class DropTrackerApi {
      * For example, a bludgeon axon should be worth 1/3 the price of a bludgeon.
      * Since this list should be updated infrequently, we can simply load only if not present.
      */
+    public CompletableFuture<ArrayList<Integer>> getValuedUntradeablesAsync() {
+        return fetchItemIdListAsync(DropTrackerUrls.content("valued_items.txt"), "untradeables");
+    }
+
     public ArrayList<Integer> getValuedUntradeables() {
-        return fetchItemIdList(DropTrackerUrls.content("valued_items.txt"), "untradeables");
+        return getValuedUntradeablesAsync().join();
     }
 
     /**
@@ -965,8 +1427,12 @@ public class DropTrackerApi {
      * "Screenshot untradeables" config is enabled. Unlike the valued list these
      * carry no server-side value override — the screenshot is the point.
      */
+    public CompletableFuture<ArrayList<Integer>> getNotableUntradeablesAsync() {
+        return fetchItemIdListAsync(DropTrackerUrls.content("untradeable_items.txt"), "notable-untradeables");
+    }
+
     public ArrayList<Integer> getNotableUntradeables() {
-        return fetchItemIdList(DropTrackerUrls.content("untradeable_items.txt"), "notable-untradeables");
+        return getNotableUntradeablesAsync().join();
     }
 
     /**
@@ -980,44 +1446,71 @@ public class DropTrackerApi {
      * static file on GitHub Pages, so webhook-only clients get it too.
      * Returns null on any failure, which leaves the compiled-in list in force.
      */
+    public CompletableFuture<ArrayList<Integer>> getServerLootNpcIdsAsync() {
+        return fetchItemIdListAsync(DropTrackerUrls.content("server_loot_npc_ids.txt"), "server-loot-npcs");
+    }
+
     public ArrayList<Integer> getServerLootNpcIds() {
-        return fetchItemIdList(DropTrackerUrls.content("server_loot_npc_ids.txt"), "server-loot-npcs");
+        return getServerLootNpcIdsAsync().join();
     }
 
-    private ArrayList<Integer> fetchItemIdList(HttpUrl url, String tag) {
-        String valued;
+    /** Completes with null on any failure; never exceptionally. */
+    private CompletableFuture<ArrayList<Integer>> fetchItemIdListAsync(HttpUrl url, String tag) {
         /* Only use github pages URL, as our API is sometimes not responding fast enough currently... */
-        try {
-            Request request = new Request.Builder().url(url).build();
-            try (Response response = panelHttpClient.newCall(request).execute()) {
-                lastCommunicationTime = (int) (System.currentTimeMillis() / 1000);
-                if (!response.isSuccessful()) {
-                    throw new IOException("API request failed with status: " + response.code());
-                }
-                ResponseBody responseBody = response.body();
-                if (responseBody == null) {
-                    throw new IOException("Empty response body");
-                } else {
-                    valued = responseBody.string();
-                    String[] valuedList = valued.split(",");
-                    ArrayList<Integer> itemIdList = new ArrayList<>();
-                    for (String itemIdString : valuedList) {
-                        try {
-                            String idStripped = itemIdString.replace("\"", "").replace("[", "").replace("]", "");
-                            int itemId = Integer.parseInt(idStripped.trim());
-                            itemIdList.add(itemId);
-                        } catch (NumberFormatException e) {
-                            // Handle cases where a part of the string isn't a valid integer
-                            DebugLogger.log("[DropTrackerApi][" + tag + "] skipped invalid itemId token=" + itemIdString);
-                        }
-                    }
-                    DebugLogger.log("[DropTrackerApi][" + tag + "] loaded itemId count=" + itemIdList.size());
-                    return itemIdList;
-                }
+        Request request = new Request.Builder().url(url).build();
+        return inFlightReads.run("ids " + url, () -> call(panelHttpClient, request, ITEM_LIST_CALL_TIMEOUT_MS, response -> {
+            lastCommunicationTime = (int) (System.currentTimeMillis() / 1000);
+            if (!response.isSuccessful()) {
+                throw new IOException("API request failed with status: " + response.code());
             }
-        } catch (IOException e) {
+            ResponseBody responseBody = response.body();
+            if (responseBody == null) {
+                throw new IOException("Empty response body");
+            }
+            ArrayList<Integer> itemIdList = readIdList(responseBody.charStream(), tag);
+            DebugLogger.log("[DropTrackerApi][" + tag + "] loaded itemId count=" + itemIdList.size());
+            return itemIdList;
+        })).exceptionally(e -> {
             DebugLogger.log("[DropTrackerApi][" + tag + "] failed to load from GitHub; reason=" + e.getMessage());
             return null;
+        });
+    }
+
+    /**
+     * Parses a comma-separated id list such as {@code [1, "2", 3]} as it
+     * streams in. Quotes and brackets are ignored; tokens that still aren't
+     * integers are skipped.
+     */
+    static ArrayList<Integer> readIdList(Reader reader, String tag) throws IOException {
+        ArrayList<Integer> itemIdList = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        char[] buffer = new char[4096];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                char c = buffer[i];
+                if (c == ',') {
+                    addIdToken(itemIdList, token, tag);
+                } else if (c != '"' && c != '[' && c != ']') {
+                    token.append(c);
+                }
+            }
+        }
+        addIdToken(itemIdList, token, tag);
+        return itemIdList;
+    }
+
+    private static void addIdToken(List<Integer> itemIdList, StringBuilder token, String tag) {
+        String idStripped = token.toString().trim();
+        token.setLength(0);
+        if (idStripped.isEmpty()) {
+            return;
+        }
+        try {
+            itemIdList.add(Integer.parseInt(idStripped));
+        } catch (NumberFormatException e) {
+            // Handle cases where a part of the string isn't a valid integer
+            DebugLogger.log("[DropTrackerApi][" + tag + "] skipped invalid itemId token=" + idStripped);
         }
     }
 
@@ -1083,6 +1576,65 @@ public class DropTrackerApi {
         return callClient.newCall(request);
     }
 
+    /** First message on the event stream: which message types this server pushes. */
+    public static class StreamHello {
+        @SerializedName("types")
+        public List<String> types;
+    }
+
+    /** A {@code submission_status} stream message: submissions the server has finished processing. */
+    public static class SubmissionStatusMessage {
+        @SerializedName("processed")
+        public List<String> processed;
+    }
+
+    /**
+     * Opens the player's event stream (GET /stream), not yet connected;
+     * {@link EventStream#start} connects it. {@code resumeToken} is the id of
+     * the last message received on a previous connection, sent back as
+     * {@code Last-Event-ID} so the server replays only what was missed.
+     * {@code clanName} is the chat-bridge presence, as for
+     * {@link #newNotificationsCall(String, long, int, String)}. Returns null
+     * when the API is disabled or the identity/URL is unusable.
+     */
+    @Nullable
+    public EventStream newEventStream(String playerName, long accountHash, @Nullable String clanName,
+                                      @Nullable String resumeToken) {
+        if (!config.useApi() || playerName == null || playerName.isEmpty() || accountHash == -1L) {
+            return null;
+        }
+        HttpUrl base = HttpUrl.parse(getApiUrl() + "/stream");
+        if (base == null) {
+            return null;
+        }
+        HttpUrl.Builder url = base.newBuilder()
+            .addQueryParameter("player_name", playerName)
+            .addQueryParameter("acc_hash", String.valueOf(accountHash));
+        if (clanName != null && !clanName.isEmpty()) {
+            url.addQueryParameter("clan", clanName);
+        }
+        Request.Builder request = new Request.Builder()
+            .url(url.build())
+            .header("Accept", EventStream.CONTENT_TYPE);
+        if (resumeToken != null) {
+            request.header("Last-Event-ID", resumeToken);
+        }
+        // The long-poll client's read timeout outlasts the server's keep-alive interval.
+        return new EventStream(longPollHttpClient.newCall(request.build()));
+    }
+
+    /** Parses a stream message's payload; null when it is malformed. */
+    @Nullable
+    public <T> T parseStreamMessage(EventStream.Message message, Class<T> type) {
+        lastCommunicationTime = (int) (System.currentTimeMillis() / 1000);
+        try {
+            return gson.fromJson(message.getData(), type);
+        } catch (JsonParseException e) {
+            log.debug("Stream message {} parse failed: {}", message.getType(), e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Parses a successful /notifications response body. Returns null on an
      * empty or malformed body. Closing the response stays with the caller.
@@ -1123,32 +1675,28 @@ public class DropTrackerApi {
 
     /**
      * Fetches the HUD / Events-tab state for every active event the player
-     * is in. Returns null on any failure. Blocking — off-EDT only.
+     * is in, as the raw document. With {@code sinceVersion >= 0} a versioning
+     * server may answer with just the changes since that version instead;
+     * see {@code EventStateModel}. Completes with null on any failure.
      */
-    @Nullable
-    public io.droptracker.models.api.EventState fetchEventState(String playerName, long accountHash) {
+    public CompletableFuture<JsonObject> fetchEventStateAsync(String playerName, long accountHash, long sinceVersion) {
         if (!config.useApi() || playerName == null || playerName.isEmpty() || accountHash == -1L) {
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
         HttpUrl base = HttpUrl.parse(getApiUrl() + "/event_state");
         if (base == null) {
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
-        HttpUrl url = base.newBuilder()
+        HttpUrl.Builder url = base.newBuilder()
             .addQueryParameter("player_name", playerName)
-            .addQueryParameter("acc_hash", String.valueOf(accountHash))
-            .build();
-        Request request = new Request.Builder().url(url).build();
-        try (Response response = panelHttpClient.newCall(request).execute()) {
-            lastCommunicationTime = (int) (System.currentTimeMillis() / 1000);
-            if (!response.isSuccessful() || response.body() == null) {
-                return null;
-            }
-            return gson.fromJson(response.body().string(), io.droptracker.models.api.EventState.class);
-        } catch (IOException | JsonSyntaxException e) {
+            .addQueryParameter("acc_hash", String.valueOf(accountHash));
+        if (sinceVersion >= 0) {
+            url.addQueryParameter("since", String.valueOf(sinceVersion));
+        }
+        return getJsonAsync(url.build(), JsonObject.class).exceptionally(e -> {
             log.debug("/event_state fetch failed: {}", e.getMessage());
             return null;
-        }
+        });
     }
 
     /**
@@ -1172,11 +1720,7 @@ public class DropTrackerApi {
 
     /** True when any loaded group config reports a live event tracking this player. */
     public boolean hasActiveEvent() {
-        List<GroupConfig> configs = groupConfigs;
-        if (configs == null) {
-            return false;
-        }
-        for (GroupConfig groupConfig : configs) {
+        for (GroupConfig groupConfig : groupConfigs.get().getConfigs()) {
             if (groupConfig != null && groupConfig.isActiveEvent()) {
                 return true;
             }
@@ -0,0 +1,135 @@
+package io.droptracker.api;
+
+import lombok.Value;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+
+/**
+ * One connection to the server's {@code GET /stream} channel: a long-lived
+ * server-sent-events response carrying typed messages (notification batches,
+ * submission statuses, event state, clan bridge lines) as they happen,
+ * instead of the plugin polling for each of them.
+ *
+ * <p>Every message may carry an id; passing the last one back when
+ * reconnecting (see {@link DropTrackerApi#newEventStream}) resumes the channel
+ * where it broke off. The server sends keep-alive comments well inside the
+ * client's read timeout, so a silent connection is a dead one.
+ *
+ * <p>The response is read on the OkHttp dispatcher thread that received it,
+ * and the listener is called on that thread, one message at a time.
+ */
+public final class EventStream {
+
+    static final String CONTENT_TYPE = "text/event-stream";
+
+    /** One event off the stream; {@code type} is "message" when the server names none. */
+    @Value
+    public static class Message {
+        @Nullable
+        String id;
+        String type;
+        String data;
+    }
+
+    public interface Listener {
+        /** The server accepted the stream; messages follow. */
+        void onOpen();
+
+        /** Must not throw; a failure handling one message should not end the stream. */
+        void onMessage(Message message);
+
+        /**
+         * The server has no stream to offer (an older server, or one with
+         * the channel switched off): it answered 404, 405 or 501. Nothing
+         * else is called afterwards.
+         */
+        void onUnsupported(int httpCode);
+
+        /**
+         * The stream ended: with null after the server closed it cleanly,
+         * or with the failure. {@code retryMs} is the reconnect delay the
+         * server asked for, or -1. Not called once {@link #close()} has been.
+         */
+        void onClosed(@Nullable IOException error, long retryMs);
+    }
+
+    private final Call call;
+    private volatile boolean closed;
+
+    EventStream(Call call) {
+        this.call = call;
+    }
+
+    /** Connects; everything from here on reaches {@code listener}. */
+    public void start(Listener listener) {
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call c, IOException e) {
+                if (!closed) {
+                    listener.onClosed(e, -1);
+                }
+            }
+
+            @Override
+            public void onResponse(Call c, Response response) {
+                SseParser parser = new SseParser();
+                try (Response r = response) {
+                    ResponseBody body = r.body();
+                    MediaType type = body != null ? body.contentType() : null;
+                    boolean isStream = type != null && CONTENT_TYPE.equals(type.type() + "/" + type.subtype());
+                    if (isUnsupported(r.code())) {
+                        if (!closed) {
+                            listener.onUnsupported(r.code());
+                        }
+                        return;
+                    }
+                    if (!r.isSuccessful() || !isStream) {
+                        // Auth, rate limits, outages and stray pages are all worth retrying.
+                        throw new IOException(r.isSuccessful()
+                            ? "Event stream answered with " + type
+                            : "Event stream refused with status: " + r.code());
+                    }
+                    listener.onOpen();
+                    BufferedSource source = body.source();
+                    String line;
+                    while (!closed && (line = source.readUtf8Line()) != null) {
+                        Message message = parser.line(line);
+                        if (message != null) {
+                            listener.onMessage(message);
+                        }
+                    }
+                    if (!closed) {
+                        listener.onClosed(null, parser.getRetryMs());
+                    }
+                } catch (IOException e) {
+                    if (!closed) {
+                        listener.onClosed(e, parser.getRetryMs());
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Only these statuses mean the server has no stream route at all: not
+     * found, method not allowed, not implemented. Anything else (401, 403,
+     * 429, 5xx, a 200 that is not an event stream) is a failure of this
+     * connection, not a verdict on the server.
+     */
+    static boolean isUnsupported(int httpCode) {
+        return httpCode == 404 || httpCode == 405 || httpCode == 501;
+    }
+
+    /** Disconnects. The listener hears nothing further. */
+    public void close() {
+        closed = true;
+        call.cancel();
+    }
+}
@@ -0,0 +1,51 @@
+package io.droptracker.api;
+
+import io.droptracker.models.api.GroupConfig;
+import lombok.Value;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * One account's group configs as of a single load. Never changes once built;
+ * {@link DropTrackerApi} swaps in a whole new snapshot on every refresh, so a
+ * reader iterating {@link #getConfigs()} always sees one consistent load.
+ *
+ * <p>The next login restores the configs from the saved response they came
+ * in (see {@link ResponseCache}), so submissions qualify before the API has
+ * answered, or when it does not answer at all.
+ */
+@Value
+public class GroupConfigSnapshot {
+
+    /** Nothing loaded and no account yet. */
+    static final GroupConfigSnapshot NONE = new GroupConfigSnapshot(-1L, null, Collections.emptyList(), 0L);
+
+    long accountHash;
+    @Nullable
+    String playerName;
+    /** Unmodifiable. */
+    List<GroupConfig> configs;
+    /** When the server answered with these configs; 0 while none have loaded yet. */
+    long loadedAtMs;
+
+    GroupConfigSnapshot(long accountHash, @Nullable String playerName, Collection<GroupConfig> configs, long loadedAtMs) {
+        this.accountHash = accountHash;
+        this.playerName = playerName;
+        this.configs = Collections.unmodifiableList(new ArrayList<>(configs));
+        this.loadedAtMs = loadedAtMs;
+    }
+
+    /** An account just logged in, with nothing loaded for it yet. */
+    static GroupConfigSnapshot pending(long accountHash, String playerName) {
+        return new GroupConfigSnapshot(accountHash, playerName, Collections.emptyList(), 0L);
+    }
+
+    boolean isFor(long accountHash, @Nullable String playerName) {
+        return this.accountHash == accountHash && Objects.equals(this.playerName, playerName);
+    }
+}
@@ -0,0 +1,293 @@
+package io.droptracker.api;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.annotations.SerializedName;
+import io.droptracker.service.PluginExecutors;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Last good responses of the panel's lookups, kept on disk so the side panel
+ * can show something the moment it opens and keep showing it while the API
+ * is unreachable.
+ *
+ * <p>Entries are keyed by the full request URL (endpoint and query) and hold
+ * the raw JSON body and the server's ETag. {@link #fetch} revalidates with
+ * {@code If-None-Match}, so an unchanged response costs a bodiless 304.
+ *
+ * <p>This is separate from the HTTP cache RuneLite's OkHttpClient carries: that
+ * one follows the server's {@code max-age} and is gone once it expires, where
+ * a stale copy here is still worth showing, marked as stale.
+ *
+ * <p>Recently used entries stay in memory; disk reads and writes go through
+ * the io pool. A saved copy is as fresh as its file's last-modified time, so
+ * a 304 only touches the file rather than rewriting the body. The directory
+ * is trimmed to the newest {@link #MAX_FILES} entries the first time this
+ * session writes to it.
+ */
+@Slf4j
+final class ResponseCache {
+
+    static final int MAX_FILES = 256;
+    private static final int MAX_MEMORY = 32;
+    private static final int HTTP_NOT_MODIFIED = 304;
+
+    @Value
+    static class Entry {
+        String key;
+        @Nullable
+        String etag;
+        long storedAtMs;
+        String body;
+    }
+
+    /**
+     * Persisted form. Field names are on-disk format; keep them stable.
+     * {@code stored_at} is when the body was written; freshness comes from the
+     * file's last-modified time, which a revalidation moves on.
+     */
+    private static final class Stored {
+        @SerializedName("key")
+        String key;
+        @SerializedName("etag")
+        String etag;
+        @SerializedName("stored_at")
+        long storedAtMs;
+        @SerializedName("body")
+        String body;
+    }
+
+    private final Path dir;
+    private final Gson gson;
+    private final PluginExecutors executors;
+    private final Map<String, Entry> memory = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_MEMORY;
+        }
+    };
+    private volatile boolean trimmed;
+
+    ResponseCache(Path dir, Gson gson, PluginExecutors executors) {
+        this.dir = dir;
+        this.gson = gson;
+        this.executors = executors;
+    }
+
+    /**
+     * The saved response for {@code url}, parsed. Completes with null when
+     * there is none or it can no longer be read; never fails.
+     */
+    <T> CompletableFuture<Revalidating.Saved<T>> saved(@Nullable HttpUrl url, Class<T> type) {
+        if (url == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return entry(url.toString()).thenApply(entry -> {
+            T value = entry != null ? parse(entry, type) : null;
+            return value != null ? new Revalidating.Saved<>(value, entry.getStoredAtMs()) : null;
+        });
+    }
+
+    /**
+     * GETs {@code url}, conditionally when a copy is saved. A 200 replaces the
+     * saved copy; a 304 answers with it and marks it fresh again. Fails like
+     * {@link DropTrackerApi#call} otherwise, leaving the saved copy in place.
+     */
+    <T> CompletableFuture<T> fetch(OkHttpClient httpClient, HttpUrl url, long timeoutMs, Class<T> type) {
+        String key = url.toString();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        entry(key).thenAccept(entry -> {
+            if (result.isDone()) {
+                return;
+            }
+            Request.Builder request = new Request.Builder().url(url);
+            if (entry != null && entry.getEtag() != null) {
+                request.header("If-None-Match", entry.getEtag());
+            }
+            CompletableFuture<T> call = DropTrackerApi.call(httpClient, request.build(), timeoutMs, response -> {
+                if (response.code() == HTTP_NOT_MODIFIED && entry != null) {
+                    T value = parse(entry, type);
+                    if (value == null) {
+                        throw new IOException("Saved response for " + url + " is unreadable");
+                    }
+                    refresh(entry);
+                    return value;
+                }
+                StringBuilder body = new StringBuilder();
+                T value = DropTrackerApi.readJson(gson, response, type, body);
+                if (value != null) {
+                    put(key, response.header("ETag"), body.toString());
+                }
+                return value;
+            });
+            // Wired by hand rather than with thenCompose, so cancelling the
+            // result still reaches the call.
+            result.whenComplete((value, error) -> {
+                if (result.isCancelled()) {
+                    call.cancel(true);
+                }
+            });
+            call.whenComplete((value, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+        }).exceptionally(e -> {
+            result.completeExceptionally(e);
+            return null;
+        });
+        return result;
+    }
+
+    private CompletableFuture<Entry> entry(String key) {
+        Entry loaded;
+        synchronized (memory) {
+            loaded = memory.get(key);
+        }
+        if (loaded != null) {
+            return CompletableFuture.completedFuture(loaded);
+        }
+        return executors.supplyIo(() -> read(key)).exceptionally(e -> null);
+    }
+
+    @Nullable
+    private <T> T parse(Entry entry, Class<T> type) {
+        try {
+            return gson.fromJson(entry.getBody(), type);
+        } catch (JsonParseException e) {
+            log.debug("Discarding unreadable saved response for {}", entry.getKey());
+            return null;
+        }
+    }
+
+    /**
+     * Saves a response. Memory is updated at once; the disk copy follows on
+     * the io pool, and if that write is dropped the next response saves it.
+     */
+    private void put(String key, @Nullable String etag, String body) {
+        Entry entry = new Entry(key, etag, System.currentTimeMillis(), body);
+        synchronized (memory) {
+            memory.put(key, entry);
+        }
+        executors.runIo(() -> write(entry));
+    }
+
+    /**
+     * Marks a saved response fresh after a 304. The body is unchanged, so only
+     * the file's timestamp is moved on; it is written out in full only if the
+     * file has gone missing.
+     */
+    private void refresh(Entry saved) {
+        Entry entry = new Entry(saved.getKey(), saved.getEtag(), System.currentTimeMillis(), saved.getBody());
+        synchronized (memory) {
+            memory.put(entry.getKey(), entry);
+        }
+        executors.runIo(() -> {
+            try {
+                Files.setLastModifiedTime(file(entry.getKey()), FileTime.fromMillis(entry.getStoredAtMs()));
+            } catch (IOException e) {
+                write(entry);
+            }
+        });
+    }
+
+    @Nullable
+    private Entry read(String key) {
+        Path file = file(key);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            Stored stored = gson.fromJson(new String(Files.readAllBytes(file), StandardCharsets.UTF_8), Stored.class);
+            if (stored == null || !key.equals(stored.key) || stored.body == null) {
+                return null;
+            }
+            long freshAtMs = Files.getLastModifiedTime(file).toMillis();
+            Entry entry = new Entry(key, stored.etag, freshAtMs, stored.body);
+            synchronized (memory) {
+                memory.putIfAbsent(key, entry);
+            }
+            return entry;
+        } catch (IOException | JsonParseException e) {
+            log.debug("Discarding unreadable saved response {}: {}", file, e.toString());
+            return null;
+        }
+    }
+
+    private void write(Entry entry) {
+        Stored stored = new Stored();
+        stored.key = entry.getKey();
+        stored.etag = entry.getEtag();
+        stored.storedAtMs = entry.getStoredAtMs();
+        stored.body = entry.getBody();
+        try {
+            Files.createDirectories(dir);
+            if (!trimmed) {
+                trimmed = true;
+                trim();
+            }
+            Path file = file(entry.getKey());
+            // A temp file of its own, so two writes of one key cannot interleave.
+            Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+            try {
+                Files.write(tmp, gson.toJson(stored).getBytes(StandardCharsets.UTF_8));
+                Files.setLastModifiedTime(tmp, FileTime.fromMillis(entry.getStoredAtMs()));
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            log.debug("Failed to save response for {}: {}", entry.getKey(), e.toString());
+        }
+    }
+
+    /** Deletes all but the newest {@link #MAX_FILES} saved responses. */
+    private void trim() {
+        File[] files = dir.toFile().listFiles((d, name) -> name.endsWith(".json"));
+        if (files == null || files.length <= MAX_FILES) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified).reversed());
+        for (int i = MAX_FILES; i < files.length; i++) {
+            if (!files[i].delete()) {
+                log.debug("Couldn't delete old saved response {}", files[i]);
+            }
+        }
+    }
+
+    /** Names are hashed: URLs carry characters no file system accepts. */
+    private Path file(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder(digest.length * 2 + 5);
+            for (byte b : digest) {
+                name.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return dir.resolve(name.append(".json").toString());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package io.droptracker.api;
+
+import java.util.concurrent.CompletableFuture;
+
+import lombok.Value;
+
+/**
+ * A read served stale-while-revalidate: the last good response saved on disk,
+ * available at once, alongside the network request that replaces it.
+ *
+ * <p>{@link #getCached()} never fails; it completes with null when nothing has
+ * been saved for the request. {@link #getFresh()} fails like the plain async
+ * call does, so a caller showing the saved copy can say it is offline.
+ */
+@Value
+public class Revalidating<T> {
+    CompletableFuture<Saved<T>> cached;
+    CompletableFuture<T> fresh;
+
+    /** A saved response and when the server last vouched for it. */
+    @Value
+    public static class Saved<T> {
+        T value;
+        long storedAtMs;
+    }
+}
@@ -0,0 +1,112 @@
+package io.droptracker.api;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical reads that overlap in time. While a call for a key is
+ * in flight, further requests for that key wait on it instead of starting
+ * their own, and all of them get the one parsed result. Nothing is kept once
+ * the call completes; the next request after that goes to the network again.
+ *
+ * <p>Keys are compared with {@code equals} and must pin down the result type
+ * as well as the request: two calls sharing a key share a result.
+ *
+ * <p>Each caller gets its own future, completed with the call's own result or
+ * exception. Cancelling one detaches only that caller; the call itself is
+ * cancelled once every caller waiting on it has cancelled.
+ */
+final class SingleFlight {
+
+    private final ConcurrentHashMap<Object, Flight<?>> inFlight = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    <V> CompletableFuture<V> run(Object key, Supplier<CompletableFuture<V>> call) {
+        while (true) {
+            Flight<V> flight = new Flight<>();
+            Flight<V> existing = (Flight<V>) inFlight.putIfAbsent(key, flight);
+            if (existing == null) {
+                // Join before starting, so a call that completes at once still has a waiter.
+                CompletableFuture<V> waiter = flight.join();
+                flight.start(call, () -> inFlight.remove(key, flight));
+                return waiter;
+            }
+            CompletableFuture<V> waiter = existing.join();
+            if (waiter != null) {
+                return waiter;
+            }
+            // Every waiter cancelled that call; it is on its way out of the map.
+            inFlight.remove(key, existing);
+        }
+    }
+
+    /** Number of distinct calls in flight. */
+    int size() {
+        return inFlight.size();
+    }
+
+    private static final class Flight<V> {
+
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private CompletableFuture<V> source;
+        private int waiters;
+        private boolean abandoned;
+
+        void start(Supplier<CompletableFuture<V>> call, Runnable onDone) {
+            CompletableFuture<V> started;
+            try {
+                started = call.get();
+            } catch (RuntimeException e) {
+                started = CompletableFuture.failedFuture(e);
+            }
+            synchronized (this) {
+                source = started;
+            }
+            started.whenComplete((value, error) -> {
+                onDone.run();
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+        }
+
+        /** A new waiter on this call, or null if it has been abandoned. */
+        synchronized CompletableFuture<V> join() {
+            if (abandoned) {
+                return null;
+            }
+            waiters++;
+            CompletableFuture<V> waiter = new CompletableFuture<>();
+            result.whenComplete((value, error) -> {
+                if (error != null) {
+                    waiter.completeExceptionally(error);
+                } else {
+                    waiter.complete(value);
+                }
+            });
+            waiter.whenComplete((value, error) -> {
+                if (waiter.isCancelled()) {
+                    leave();
+                }
+            });
+            return waiter;
+        }
+
+        private void leave() {
+            CompletableFuture<V> toCancel;
+            synchronized (this) {
+                if (--waiters > 0 || result.isDone()) {
+                    return;
+                }
+                abandoned = true;
+                toCancel = source;
+            }
+            if (toCancel != null) {
+                toCancel.cancel(true);
+            }
+        }
+    }
+}
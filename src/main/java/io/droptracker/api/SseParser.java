@@ -0,0 +1,88 @@
+package io.droptracker.api;
+
+import javax.annotation.Nullable;
+
+/**
+ * Incremental {@code text/event-stream} parser: fed the stream one line at a
+ * time, it hands back each event as its terminating blank line arrives.
+ * Follows the HTML event-stream rules the plugin relies on — {@code event},
+ * {@code data}, {@code id} and {@code retry} fields, comment lines (the
+ * server's keep-alives) ignored, and the last id carried forward as the
+ * resume token of every later event until a new one is set.
+ */
+final class SseParser {
+
+    private final StringBuilder data = new StringBuilder();
+    private boolean hasData;
+    @Nullable
+    private String type;
+    @Nullable
+    private String lastId;
+    private long retryMs = -1;
+
+    /** The event this line completes, or null if it does not complete one. */
+    @Nullable
+    EventStream.Message line(String line) {
+        if (line.isEmpty()) {
+            return dispatch();
+        }
+        if (line.charAt(0) == ':') {
+            return null;
+        }
+        int colon = line.indexOf(':');
+        String field = colon < 0 ? line : line.substring(0, colon);
+        String value = "";
+        if (colon >= 0) {
+            int start = colon + 1;
+            if (start < line.length() && line.charAt(start) == ' ') {
+                start++;
+            }
+            value = line.substring(start);
+        }
+        switch (field) {
+            case "event":
+                type = value;
+                break;
+            case "data":
+                if (hasData) {
+                    data.append('\n');
+                }
+                data.append(value);
+                hasData = true;
+                break;
+            case "id":
+                if (value.indexOf('\0') < 0) {
+                    lastId = value.isEmpty() ? null : value;
+                }
+                break;
+            case "retry":
+                if (!value.isEmpty() && value.chars().allMatch(Character::isDigit) && value.length() < 10) {
+                    retryMs = Long.parseLong(value);
+                }
+                break;
+            default:
+                // Unknown fields are ignored, as the format requires.
+                break;
+        }
+        return null;
+    }
+
+    /** The reconnect delay the server last asked for, or -1 if it never did. */
+    long getRetryMs() {
+        return retryMs;
+    }
+
+    @Nullable
+    private EventStream.Message dispatch() {
+        if (!hasData) {
+            type = null;
+            return null;
+        }
+        EventStream.Message message = new EventStream.Message(lastId,
+            type == null || type.isEmpty() ? "message" : type, data.toString());
+        data.setLength(0);
+        hasData = false;
+        type = null;
+        return message;
+    }
+}
@@ -21,6 +21,7 @@ import com.google.gson.JsonElement;
 
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.client.callback.ClientThread;
+import io.droptracker.service.PluginExecutors;
 import io.droptracker.util.ChatMessageUtil;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
@@ -50,6 +51,9 @@ public class UrlManager {
     @Inject
     private ScheduledExecutorService executor;
 
+    @Inject
+    private PluginExecutors executors;
+
     @Inject
     private OkHttpClient httpClient;
 
@@ -292,19 +296,36 @@ public class UrlManager {
 			log.debug("Successfully loaded {} webhook endpoints from GitHub", endpoints.size());
 			endpointUrlsLoaded.complete(null);
 		} catch (Exception e) {
-			// A transient network failure at client startup used to permanently
-			// disable webhook-mode submissions (the future completed exceptionally
-			// and nothing ever retried). Retry with linear backoff instead.
-			int attempt = loadAttempts.incrementAndGet();
-			if (attempt < MAX_LOAD_ATTEMPTS) {
-				long delaySeconds = 30L * attempt;
-				log.warn("Failed to load webhook endpoints from GitHub (attempt {}/{}); retrying in {}s",
-					attempt, MAX_LOAD_ATTEMPTS, delaySeconds, e);
-				executor.schedule(this::loadEndpoints, delaySeconds, TimeUnit.SECONDS);
-			} else {
-				log.error("Failed to load webhook endpoints from GitHub after {} attempts; giving up", attempt, e);
-				endpointUrlsLoaded.completeExceptionally(e);
-			}
+			onLoadFailed(e);
+		}
+	}
+
+	/**
+	 * Runs {@link #loadEndpoints} on the io pool. A load the pool rejects
+	 * counts as a failed attempt, so it is retried like a network failure
+	 * rather than leaving {@code endpointUrlsLoaded} pending for good.
+	 */
+	public void loadEndpointsAsync() {
+		executors.runIo(this::loadEndpoints).exceptionally(e -> {
+			onLoadFailed(e);
+			return null;
+		});
+	}
+
+	private void onLoadFailed(Throwable e) {
+		// A transient network failure at client startup used to permanently
+		// disable webhook-mode submissions (the future completed exceptionally
+		// and nothing ever retried). Retry with linear backoff instead.
+		int attempt = loadAttempts.incrementAndGet();
+		if (attempt < MAX_LOAD_ATTEMPTS) {
+			long delaySeconds = 30L * attempt;
+			log.warn("Failed to load webhook endpoints from GitHub (attempt {}/{}); retrying in {}s",
+				attempt, MAX_LOAD_ATTEMPTS, delaySeconds, e);
+			// The timer only waits; the fetch itself blocks, so it goes to the io pool.
+			executor.schedule(this::loadEndpointsAsync, delaySeconds, TimeUnit.SECONDS);
+		} else {
+			log.error("Failed to load webhook endpoints from GitHub after {} attempts; giving up", attempt, e);
+			endpointUrlsLoaded.completeExceptionally(e);
 		}
 	}
 
@@ -7,11 +7,13 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 
 import com.google.common.cache.Cache;
@@ -24,6 +26,7 @@ import io.droptracker.service.KCService;
 import io.droptracker.util.ItemStacks;
 import io.droptracker.util.NpcUtilities;
 import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.VisibleForTesting;
 import net.runelite.api.ItemComposition;
 import net.runelite.api.NPC;
 import net.runelite.client.events.NpcLootReceived;
@@ -168,21 +171,15 @@ public class DropHandler extends BaseEventHandler {
 		   Kick a reload off-thread instead; the consumer loop below already
 		   null-guards both lists, so this drop simply goes un-flagged. */
 		if ((plugin.valuedItemIds == null || plugin.untradeableItemIds == null)
-				&& executor != null && untradeableReloadInFlight.compareAndSet(false, true)) {
-			executor.submit(() -> {
-				try {
-					if (plugin.valuedItemIds == null) {
-						plugin.valuedItemIds = api.getValuedUntradeables();
-					}
-					if (plugin.untradeableItemIds == null) {
-						plugin.untradeableItemIds = api.getNotableUntradeables();
-					}
-				} catch (Exception e) {
-					log.debug("Untradeable list reload failed: {}", e.getMessage());
-				} finally {
-					untradeableReloadInFlight.set(false);
-				}
-			});
+				&& untradeableReloadInFlight.compareAndSet(false, true)) {
+			CompletableFuture<Void> valued = plugin.valuedItemIds != null
+				? CompletableFuture.completedFuture(null)
+				: api.getValuedUntradeablesAsync().thenAccept(plugin::setValuedItemIds);
+			CompletableFuture<Void> notable = plugin.untradeableItemIds != null
+				? CompletableFuture.completedFuture(null)
+				: api.getNotableUntradeablesAsync().thenAccept(plugin::setUntradeableItemIds);
+			CompletableFuture.allOf(valued, notable)
+				.whenComplete((ignored, e) -> untradeableReloadInFlight.set(false));
 		}
 		/* Items required by one of the player's active events (from the last
 		/event_state snapshot) are always screenshotted for proof — this
@@ -209,38 +206,18 @@ public class DropHandler extends BaseEventHandler {
 			
 			for (ItemStack item : stackedItems) {
 				int itemId = item.getId();
-				/* Check if the itemId exists in the valued list we obtained */
-				if (plugin.valuedItemIds != null && plugin.valuedItemIds.contains(itemId)) {
-					untradeableScreenshot.set(true);
-				} else if (config.screenshotUntradeables() && plugin.untradeableItemIds != null
-						&& plugin.untradeableItemIds.contains(itemId)) {
-					/* Notable untradeable (0gp) drop — toggle-gated screenshot */
-					untradeableScreenshot.set(true);
-				} else if (eventItemIds.contains(itemId)) {
-					/* Event-required item — forced for proof, regardless of toggles */
+				if (forcesScreenshot(itemId, plugin.valuedItemIds, plugin.untradeableItemIds,
+						config.screenshotUntradeables(), eventItemIds)) {
 					untradeableScreenshot.set(true);
 				}
-				int qty = item.getQuantity();
 				int price = itemManager.getItemPrice(itemId);
 				ItemComposition itemComposition = itemManager.getItemComposition(itemId);
-				totalValue.addAndGet(qty * price);
+				totalValue.addAndGet(item.getQuantity() * price);
 				singleValue.addAndGet(price);
-				CustomWebhookBody.Embed itemEmbed = createEmbed(localPlayerName + " received some drops:", "drop");
+				Integer killCount = npcName != null ? kcService.getKillCountWithStorage(lootRecordType, npcName) : null;
+				CustomWebhookBody.Embed itemEmbed = itemEmbed(localPlayerName, item, price, itemComposition,
+					sourceType, npcName, killCount);
 				itemEmbed.setImage(plugin.itemImageUrl(itemId));
-				Map<String, Object> fieldData = new HashMap<>();
-				fieldData.put("source_type", sourceType);
-				fieldData.put("item", itemComposition.getName());
-				fieldData.put("id", itemComposition.getId());
-				fieldData.put("quantity", qty);
-				fieldData.put("value", price);
-				fieldData.put("source", npcName);
-				
-				if (npcName != null) {
-					Integer killCount = kcService.getKillCountWithStorage(lootRecordType, npcName);
-					fieldData.put("killcount", killCount != null ? killCount : 0);
-				}
-				
-				addFields(itemEmbed, fieldData);
 				embeds.add(itemEmbed);
 			}
 
@@ -262,4 +239,41 @@ public class DropHandler extends BaseEventHandler {
 		});
 	}
 
+	/**
+	 * Whether this item alone calls for a screenshot: a valued untradeable, a
+	 * notable (0gp) untradeable when that toggle is on, or an item one of the
+	 * player's events requires as proof, regardless of toggles.
+	 */
+	@VisibleForTesting
+	static boolean forcesScreenshot(int itemId, @Nullable Collection<Integer> valuedItemIds,
+									@Nullable Collection<Integer> untradeableItemIds,
+									boolean screenshotUntradeables, Set<Integer> eventItemIds) {
+		if (valuedItemIds != null && valuedItemIds.contains(itemId)) {
+			return true;
+		}
+		if (screenshotUntradeables && untradeableItemIds != null && untradeableItemIds.contains(itemId)) {
+			return true;
+		}
+		return eventItemIds.contains(itemId);
+	}
+
+	/** The embed for one stacked item of a drop; its image is set by the caller. */
+	@VisibleForTesting
+	CustomWebhookBody.Embed itemEmbed(String playerName, ItemStack item, int price, ItemComposition itemComposition,
+									  String sourceType, String npcName, @Nullable Integer killCount) {
+		CustomWebhookBody.Embed itemEmbed = createEmbed(playerName + " received some drops:", "drop");
+		Map<String, Object> fieldData = new HashMap<>();
+		fieldData.put("source_type", sourceType);
+		fieldData.put("item", itemComposition.getName());
+		fieldData.put("id", itemComposition.getId());
+		fieldData.put("quantity", item.getQuantity());
+		fieldData.put("value", price);
+		fieldData.put("source", npcName);
+		if (npcName != null) {
+			fieldData.put("killcount", killCount != null ? killCount : 0);
+		}
+		addFields(itemEmbed, fieldData);
+		return itemEmbed;
+	}
+
 }
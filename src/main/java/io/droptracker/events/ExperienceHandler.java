@@ -1,6 +1,5 @@
 package io.droptracker.events;
 
-import com.google.common.collect.ImmutableSet;
 import com.google.gson.Gson;
 
 import lombok.extern.slf4j.Slf4j;
@@ -22,7 +21,6 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -40,9 +38,14 @@ public class ExperienceHandler extends BaseEventHandler {
     public static final int LEVEL_FOR_MAX_XP = Experience.MAX_VIRT_LEVEL + 1; // 127
     static final @VisibleForTesting int INIT_GAME_TICKS = 16; // ~10s
     private static final Set<WorldType> SPECIAL_WORLDS = EnumSet.of(WorldType.PVP_ARENA, WorldType.QUEST_SPEEDRUNNING, WorldType.BETA_WORLD, WorldType.NOSAVE_MODE, WorldType.TOURNAMENT_WORLD, WorldType.DEADMAN, WorldType.SEASONAL);
-    private static final int SKILL_COUNT = Skill.values().length;
+    private static final Skill[] SKILLS = Skill.values();
+    private static final int SKILL_COUNT = SKILLS.length;
     private static final String COMBAT_NAME = "Combat";
-    private static final Set<String> COMBAT_COMPONENTS;
+    /** Pseudo-ordinal for the combat level in the level arrays and level-up queue. */
+    private static final int COMBAT_ORDINAL = SKILL_COUNT;
+    private static final int UNKNOWN = XpSnapshotTracker.UNKNOWN;
+    private static final Set<Skill> COMBAT_COMPONENTS = EnumSet.of(
+        Skill.ATTACK, Skill.STRENGTH, Skill.DEFENCE, Skill.HITPOINTS, Skill.MAGIC, Skill.RANGED, Skill.PRAYER);
     
     // Configuration constants
     private static final int XP_INTERVAL_MILLIONS = 1; // Track every 1M XP milestone
@@ -51,20 +54,26 @@ public class ExperienceHandler extends BaseEventHandler {
     private static final boolean TRACK_VIRTUAL_LEVELS = true; // Track levels above 99
     private static final boolean TRACK_COMBAT_LEVEL = true; // Track combat level increases
 
-    // How often (in game ticks) to submit a full XP snapshot while an active
+    // How often (in game ticks) to submit an XP snapshot while an active
     // event is tracking this player's experience (~2 minutes)
     private static final int PERIODIC_SNAPSHOT_TICKS = 200;
+    // Every Nth periodic snapshot is a full checkpoint (~20 minutes); the rest
+    // carry only skills changed since the last acknowledged snapshot
+    private static final int FULL_CHECKPOINT_EVERY = 10;
 
-    private final BlockingQueue<String> levelledSkills = new ArrayBlockingQueue<>(SKILL_COUNT + 1);
+    /* Skill ordinals (COMBAT_ORDINAL for the combat level); small Integers are
+       cached, so queueing them allocates nothing. */
+    private final BlockingQueue<Integer> levelledSkills = new ArrayBlockingQueue<>(SKILL_COUNT + 1);
     private final Set<Skill> xpReached = EnumSet.noneOf(Skill.class);
-    private final Map<String, Integer> currentLevels = new HashMap<>();
-    private final Map<Skill, Integer> currentXp = new EnumMap<>(Skill.class);
-    private final Map<String, Integer> previousLevels = new HashMap<>(); // Track previous levels for level increase calculation
-    private final Map<Skill, Integer> lastSnapshotXp = new EnumMap<>(Skill.class);
+    /* Indexed by Skill ordinal, with the combat level at COMBAT_ORDINAL; UNKNOWN until read */
+    private final int[] currentLevels = new int[SKILL_COUNT + 1];
+    private final int[] previousLevels = new int[SKILL_COUNT + 1]; // Track previous levels for level increase calculation
+    private final XpSnapshotTracker xpState = new XpSnapshotTracker(SKILL_COUNT);
 
     private int ticksWaited = 0;
     private int initTicks = 0;
     private int ticksSinceSnapshot = 0;
+    private int periodicSinceCheckpoint = 0;
     private boolean loginSnapshotSent = false;
     private Set<WorldType> specialWorldType = null;
 
@@ -74,6 +83,10 @@ public class ExperienceHandler extends BaseEventHandler {
     @Inject
     private Gson gson;
 
+    {
+        Arrays.fill(currentLevels, UNKNOWN);
+        Arrays.fill(previousLevels, UNKNOWN);
+    }
 
     @Override
     public boolean isEnabled() {
@@ -81,23 +94,25 @@ public class ExperienceHandler extends BaseEventHandler {
     }
 
     private void initLevels() {
-        for (Skill skill : Skill.values()) {
+        for (Skill skill : SKILLS) {
             int xp = client.getSkillExperience(skill);
             int level = client.getRealSkillLevel(skill); // O(1)
             if (level >= MAX_REAL_LEVEL) {
                 level = getLevel(xp);
             }
-            currentLevels.put(skill.getName(), level);
-            currentXp.put(skill, xp);
+            currentLevels[skill.ordinal()] = level;
+            xpState.set(skill.ordinal(), xp);
         }
-        currentLevels.put(COMBAT_NAME, calculateCombatLevel());
+        currentLevels[COMBAT_ORDINAL] = calculateCombatLevel();
         this.initTicks = 0;
         this.specialWorldType = getSpecialWorldTypes();
-        log.debug("Initialized current skill levels: {}", currentLevels);
+        if (log.isDebugEnabled()) {
+            log.debug("Initialized current skill levels: {}", Arrays.toString(currentLevels));
+        }
 
         if (!loginSnapshotSent) {
             loginSnapshotSent = true;
-            sendXpSnapshot("login");
+            sendXpSnapshot("login", true);
         }
     }
 
@@ -107,12 +122,12 @@ public class ExperienceHandler extends BaseEventHandler {
             this.initTicks = 0;
             this.ticksWaited = 0;
             this.ticksSinceSnapshot = 0;
+            this.periodicSinceCheckpoint = 0;
             this.loginSnapshotSent = false;
             xpReached.clear();
-            currentXp.clear();
-            currentLevels.clear();
-            previousLevels.clear();
-            lastSnapshotXp.clear();
+            xpState.clear();
+            Arrays.fill(currentLevels, UNKNOWN);
+            Arrays.fill(previousLevels, UNKNOWN);
             this.specialWorldType = null;
         });
     }
@@ -123,21 +138,18 @@ public class ExperienceHandler extends BaseEventHandler {
             return;
         }
 
-        if (currentLevels.size() < SKILL_COUNT) {
+        if (!xpState.isComplete()) {
             this.initTicks++;
             return;
         }
 
-        // Periodic full-XP snapshot while an active event tracks this player's
+        // Periodic XP snapshot while an active event tracks this player's
         // experience, so xp_target tasks progress without requiring level-ups
         if (++this.ticksSinceSnapshot >= PERIODIC_SNAPSHOT_TICKS) {
             this.ticksSinceSnapshot = 0;
-            if (config.useApi()) {
-                // rate-limited internally; picks up events activated mid-session
-                api.refreshGroupConfigsAsync();
-                if (isXpEventTrackingActive()) {
-                    sendXpSnapshot("periodic");
-                }
+            // Events activated mid-session show up with the api's next config refresh.
+            if (config.useApi() && isXpEventTrackingActive()) {
+                sendXpSnapshot("periodic", false);
             }
         }
 
@@ -164,10 +176,10 @@ public class ExperienceHandler extends BaseEventHandler {
     public void onGameStateChanged(GameStateChanged gameStateChanged) {
         if (gameStateChanged.getGameState() == GameState.LOGIN_SCREEN) {
             // flush session gains before the cached state is cleared
-            sendXpSnapshot("logout");
+            sendXpSnapshot("logout", false);
             this.reset();
         } else if (gameStateChanged.getGameState() == GameState.HOPPING) {
-            sendXpSnapshot("world_hop");
+            sendXpSnapshot("world_hop", false);
         } else if (gameStateChanged.getGameState() == GameState.LOGGED_IN && !getSpecialWorldTypes().equals(this.specialWorldType)) {
             // world switched where player may have different level profiles; re-initialize
             this.reset();
@@ -177,16 +189,17 @@ public class ExperienceHandler extends BaseEventHandler {
     private void handleStatChange(Skill skill, int level, int xp) {
         if (xp <= 0 || level <= 1 || !isEnabled()) return;
 
-        Integer previousXp = currentXp.put(skill, xp);
-        if (previousXp == null) {
+        final int ordinal = skill.ordinal();
+        int previousXp = xpState.set(ordinal, xp);
+        if (previousXp == UNKNOWN) {
             return;
         }
 
-        String skillName = skill.getName();
         int virtualLevel = level < MAX_REAL_LEVEL ? level : getLevel(xp); // avoid log(n) query when not needed
-        Integer previousLevel = currentLevels.put(skillName, virtualLevel);
+        int previousLevel = currentLevels[ordinal];
+        currentLevels[ordinal] = virtualLevel;
 
-        if (previousLevel == null) {
+        if (previousLevel == UNKNOWN) {
             this.initTicks = INIT_GAME_TICKS; // force init on next tick
             return;
         }
@@ -198,7 +211,7 @@ public class ExperienceHandler extends BaseEventHandler {
         }
 
         // Check normal skill level up
-        checkLevelUp(true, skillName, previousLevel, virtualLevel);
+        checkLevelUp(true, ordinal, previousLevel, virtualLevel);
 
         // Check if xp milestone reached (config-gated; the backend applies each
         // group's own post99_xp_interval on top of this 1M reporting granularity)
@@ -215,20 +228,22 @@ public class ExperienceHandler extends BaseEventHandler {
         // Skip combat level checking if no level up has occurred
         if (virtualLevel <= previousLevel) {
             // only return if we don't need to initialize combat level for the first time
-            if (currentLevels.containsKey(COMBAT_NAME))
+            if (currentLevels[COMBAT_ORDINAL] != UNKNOWN)
                 return;
         }
 
         // Check for combat level increase
-        if (COMBAT_COMPONENTS.contains(skillName) && currentLevels.size() >= SKILL_COUNT) {
+        if (COMBAT_COMPONENTS.contains(skill) && xpState.isComplete()) {
             int combatLevel = calculateCombatLevel();
-            Integer previousCombatLevel = currentLevels.put(COMBAT_NAME, combatLevel);
-            checkLevelUp(TRACK_COMBAT_LEVEL, COMBAT_NAME, previousCombatLevel, combatLevel);
+            int previousCombatLevel = currentLevels[COMBAT_ORDINAL];
+            currentLevels[COMBAT_ORDINAL] = combatLevel;
+            checkLevelUp(TRACK_COMBAT_LEVEL, COMBAT_ORDINAL, previousCombatLevel, combatLevel);
         }
     }
 
-    private void checkLevelUp(boolean configEnabled, String skill, Integer previousLevel, int currentLevel) {
-        if (previousLevel == null || currentLevel <= previousLevel) {
+    private void checkLevelUp(boolean configEnabled, int ordinal, int previousLevel, int currentLevel) {
+        String skill = nameOf(ordinal);
+        if (previousLevel == UNKNOWN || currentLevel <= previousLevel) {
             log.trace("Ignoring non-level-up for {}: {}", skill, currentLevel);
             return;
         }
@@ -238,16 +253,16 @@ public class ExperienceHandler extends BaseEventHandler {
             return;
         }
 
-        if (!checkLevelInterval(previousLevel, currentLevel, COMBAT_NAME.equals(skill))) {
+        if (!checkLevelInterval(previousLevel, currentLevel, ordinal == COMBAT_ORDINAL)) {
             log.trace("Ignoring level up of {} from {} to {} that does not align with config interval", skill, previousLevel, currentLevel);
             return;
         }
 
-        if (levelledSkills.offer(skill)) {
+        if (levelledSkills.offer(ordinal)) {
             log.debug("Observed level up for {} to {}", skill, currentLevel);
             
             // Track previous level for level increase calculation
-            previousLevels.put(skill, previousLevel);
+            previousLevels[ordinal] = previousLevel;
 
             // allow more accumulation of level ups into single notification
             this.ticksWaited = 0;
@@ -264,10 +279,10 @@ public class ExperienceHandler extends BaseEventHandler {
      * tasks, per the API-provided group configs. Requires the API integration.
      */
     private boolean isXpEventTrackingActive() {
-        if (!config.useApi() || api == null || api.groupConfigs == null) {
+        if (!config.useApi() || api == null) {
             return false;
         }
-        for (GroupConfig groupConfig : api.groupConfigs) {
+        for (GroupConfig groupConfig : api.getGroupConfigSnapshot().getConfigs()) {
             if (groupConfig != null && groupConfig.isTrackXpEvents()) {
                 return true;
             }
@@ -276,22 +291,27 @@ public class ExperienceHandler extends BaseEventHandler {
     }
 
     /**
-     * Submits a full snapshot of the player's current XP and levels across all
-     * skills as an {@code experience_update}. The backend uses these to update
-     * stored experience and advance event XP baselines/deltas; they never
-     * produce Discord notifications. Sent on login, logout and world-hop, and
-     * periodically while an event is tracking this player's XP. Skipped when
-     * nothing changed since the last snapshot.
+     * Submits a snapshot of the player's XP and levels as an
+     * {@code experience_update}. The backend uses these to update stored
+     * experience and advance event XP baselines/deltas; they never produce
+     * Discord notifications. Sent on login, logout and world-hop, and
+     * periodically while an event is tracking this player's XP.
+     *
+     * <p>A {@code full} snapshot carries every skill. Otherwise only skills
+     * whose XP differs from the last server-acknowledged snapshot are sent
+     * ({@code snapshot_kind=delta}); totals always describe the whole account.
+     * It is promoted to full when no acknowledged baseline exists yet or a
+     * periodic checkpoint is due, and skipped entirely when nothing changed.
      */
-    private void sendXpSnapshot(String reason) {
-        if (!isEnabled() || currentXp.size() < SKILL_COUNT) {
+    private void sendXpSnapshot(String reason, boolean full) {
+        if (!isEnabled() || !xpState.isComplete()) {
             return;
         }
         if (specialWorldType != null && !specialWorldType.isEmpty()) {
             // temporary level profiles (deadman, speedrunning, ...) are not synced
             return;
         }
-        if (currentXp.equals(lastSnapshotXp)) {
+        if (!xpState.hasChanges()) {
             return;
         }
         /* Before any state is consumed below: skipping without a name has to
@@ -304,37 +324,52 @@ public class ExperienceHandler extends BaseEventHandler {
             return;
         }
 
+        if ("periodic".equals(reason) && ++periodicSinceCheckpoint >= FULL_CHECKPOINT_EVERY) {
+            full = true;
+        }
+        full |= !xpState.hasBaseline();
+
         Map<String, List<Integer>> skillsData = new LinkedHashMap<>();
         long totalXp = 0;
         int totalLevel = 0;
-        for (Skill skill : Skill.values()) {
-            Integer xp = currentXp.get(skill);
-            Integer level = currentLevels.get(skill.getName());
-            if (xp == null || level == null) {
+        for (Skill skill : SKILLS) {
+            int ordinal = skill.ordinal();
+            int xp = xpState.get(ordinal);
+            int level = currentLevels[ordinal];
+            if (level == UNKNOWN) {
                 return; // not fully initialized yet; a later snapshot will cover it
             }
-            skillsData.put(skill.getName().toLowerCase(), Arrays.asList(xp, level));
+            if (full || xpState.isChanged(ordinal)) {
+                skillsData.put(skill.getName().toLowerCase(), Arrays.asList(xp, level));
+            }
             totalXp += xp;
             totalLevel += Math.min(level, MAX_REAL_LEVEL);
         }
+        if (full) {
+            periodicSinceCheckpoint = 0;
+        }
 
-        Integer combatLevel = currentLevels.get(COMBAT_NAME);
+        int combatLevel = currentLevels[COMBAT_ORDINAL];
 
         CustomWebhookBody webhook = createWebhookBody(playerName + " experience update");
         CustomWebhookBody.Embed embed = createEmbed("Experience Update", "experience_update");
         embed.addField("snapshot_reason", reason, true);
+        embed.addField("snapshot_kind", full ? "full" : "delta", true);
         embed.addField("total_level", String.valueOf(totalLevel), true);
         embed.addField("total_xp", String.valueOf(totalXp), true);
-        embed.addField("combat_level", String.valueOf(combatLevel != null ? combatLevel : calculateCombatLevel()), true);
+        embed.addField("combat_level", String.valueOf(combatLevel != UNKNOWN ? combatLevel : calculateCombatLevel()), true);
         embed.addField("skills_data", gson.toJson(skillsData), false);
         webhook.getEmbeds().add(embed);
 
-        lastSnapshotXp.clear();
-        lastSnapshotXp.putAll(currentXp);
+        final int sequence = xpState.markSent();
+        final boolean sentFull = full;
         this.ticksSinceSnapshot = 0;
 
-        log.debug("Sending XP snapshot (reason={}, totalXp={})", reason, totalXp);
-        sendData(webhook, SubmissionType.EXPERIENCE_UPDATE);
+        log.debug("Sending {} XP snapshot (reason={}, skills={}, totalXp={})",
+            sentFull ? "full" : "delta", reason, skillsData.size(), totalXp);
+        // The ack arrives on an OkHttp thread; the tracker lives on the client thread.
+        submissionManager.sendExperienceSnapshot(webhook,
+            () -> clientThread.invoke(() -> xpState.acknowledge(sequence, sentFull)));
     }
 
     /**
@@ -353,7 +388,8 @@ public class ExperienceHandler extends BaseEventHandler {
         // General player stats
         fieldData.put("total_level", client.getTotalLevel());
         fieldData.put("total_xp", client.getOverallExperience());
-        fieldData.put("combat_level", currentLevels.get(COMBAT_NAME));
+        int combatLevel = currentLevels[COMBAT_ORDINAL];
+        fieldData.put("combat_level", combatLevel != UNKNOWN ? combatLevel : null);
         
         // Skills data - flatten to simple fields
         fieldData.put("skills_trained", String.join(",", skillsTrainedList));
@@ -397,7 +433,7 @@ public class ExperienceHandler extends BaseEventHandler {
         boolean first = true;
         
         for (Skill skill : xpReached) {
-            int xp = currentXp.getOrDefault(skill, 0);
+            int xp = Math.max(xpState.get(skill.ordinal()), 0);
             xp -= xp % interval;
             milestones.add(skill.getName());
             
@@ -416,15 +452,16 @@ public class ExperienceHandler extends BaseEventHandler {
         experienceData.put("xp_milestone_interval", interval);
         
         for (Skill skill : xpReached) {
-            int xp = currentXp.getOrDefault(skill, 0);
+            int xpTotal = xpState.get(skill.ordinal());
+            int xp = Math.max(xpTotal, 0);
             xp -= xp % interval; // Get the milestone XP amount
             String skillName = skill.getName().toLowerCase();
             Map<String, Object> skillData = new HashMap<>();
             skillData.put("xp_milestone", xp);
-            skillData.put("xp_total", currentXp.get(skill));
+            skillData.put("xp_total", xpTotal != UNKNOWN ? xpTotal : null);
             // Virtual level for nicer embeds server-side (99+ skills only).
-            Integer level = currentLevels.get(skill.getName());
-            if (level != null) {
+            int level = currentLevels[skill.ordinal()];
+            if (level != UNKNOWN) {
                 skillData.put("new_level", level);
             }
             experienceData.put(skillName, skillData);
@@ -457,19 +494,16 @@ public class ExperienceHandler extends BaseEventHandler {
         }
 
         // Prepare level state
-        List<String> levelled = new ArrayList<>(n);
+        List<Integer> levelled = new ArrayList<>(n);
         int count = levelledSkills.drainTo(levelled);
         if (count == 0) return;
 
-        Map<String, Integer> lSkills = new HashMap<>(count);
-        Map<String, Integer> currentLevels = new HashMap<>(this.currentLevels);
-
         // Build skill message and collect skills involved
-        Set<Skill> skillsInvolved = EnumSet.noneOf(Skill.class);
         StringBuilder skillMessage = new StringBuilder();
+        boolean combatLevelUp = false;
         
         for (int index = 0; index < count; index++) {
-            String skill = levelled.get(index);
+            int ordinal = levelled.get(index);
             if (index > 0) {
                 if (count > 2) {
                     skillMessage.append(",");
@@ -479,27 +513,18 @@ public class ExperienceHandler extends BaseEventHandler {
                     skillMessage.append("and ");
                 }
             }
-            Integer level = currentLevels.get(skill);
-            skillMessage.append(skill)
+            int level = currentLevels[ordinal];
+            skillMessage.append(nameOf(ordinal))
                         .append(" to ")
-                        .append(level < LEVEL_FOR_MAX_XP ? level : "Max XP (200M)");
-            lSkills.put(skill, level);
-            
-            // Add skill to involved skills if it's not combat
-            if (!COMBAT_NAME.equals(skill)) {
-                for (Skill s : Skill.values()) {
-                    if (s.getName().equals(skill)) {
-                        skillsInvolved.add(s);
-                        break;
-                    }
-                }
+                        .append(level < LEVEL_FOR_MAX_XP ? String.valueOf(level) : "Max XP (200M)");
+            if (ordinal == COMBAT_ORDINAL) {
+                combatLevelUp = true;
             }
         }
 
         // Check for combat level increase
-        Boolean combatLevelUp = lSkills.remove(COMBAT_NAME) != null;
-        Integer combatLevel = currentLevels.get(COMBAT_NAME);
-        if (combatLevel == null) {
+        int combatLevel = currentLevels[COMBAT_ORDINAL];
+        if (combatLevel == UNKNOWN) {
             combatLevel = calculateCombatLevel();
         }
 
@@ -508,28 +533,24 @@ public class ExperienceHandler extends BaseEventHandler {
         List<String> skillsTrainedList = new ArrayList<>();
         Map<String, Object> experienceData = new HashMap<>();
         
-        for (String skill : levelled) {
-            if (!COMBAT_NAME.equals(skill)) {
+        for (int ordinal : levelled) {
+            if (ordinal != COMBAT_ORDINAL) {
+                String skill = nameOf(ordinal);
                 skillsTrainedList.add(skill);
                 skillsLeveledList.add(skill);
                 
-                Integer previousLevel = previousLevels.get(skill);
-                Integer currentLevel = currentLevels.get(skill);
-                if (previousLevel != null && currentLevel != null) {
+                int previousLevel = previousLevels[ordinal];
+                int currentLevel = currentLevels[ordinal];
+                if (previousLevel != UNKNOWN && currentLevel != UNKNOWN) {
                     String skillName = skill.toLowerCase();
                     Map<String, Object> skillData = new HashMap<>();
                     skillData.put("level_gained", currentLevel - previousLevel);
                     skillData.put("new_level", currentLevel);
                     
                     // Add XP data if available
-                    for (Skill s : Skill.values()) {
-                        if (s.getName().equals(skill)) {
-                            Integer skillXp = currentXp.get(s);
-                            if (skillXp != null) {
-                                skillData.put("xp_total", skillXp);
-                            }
-                            break;
-                        }
+                    int skillXp = xpState.get(ordinal);
+                    if (skillXp != UNKNOWN) {
+                        skillData.put("xp_total", skillXp);
                     }
                     
                     experienceData.put(skillName, skillData);
@@ -538,7 +559,7 @@ public class ExperienceHandler extends BaseEventHandler {
         }
         
         // Handle combat level separately
-        if (combatLevelUp != null && combatLevelUp) {
+        if (combatLevelUp) {
             skillsLeveledList.add("Combat");
             Map<String, Object> combatData = new HashMap<>();
             combatData.put("level_gained", 1); // Assume +1 for combat level increases
@@ -549,7 +570,7 @@ public class ExperienceHandler extends BaseEventHandler {
         Map<String, Object> fieldData = createLevelUpFieldData(skillsTrainedList, skillsLeveledList, experienceData);
         
         // Update combat level if it leveled up
-        if (combatLevelUp != null && combatLevelUp) {
+        if (combatLevelUp) {
             fieldData.put("combat_level", combatLevel);
         }
         
@@ -592,12 +613,16 @@ public class ExperienceHandler extends BaseEventHandler {
     }
 
     private int getRealLevel(Skill skill) {
-        Integer cachedLevel = currentLevels.get(skill.getName());
-        return cachedLevel != null
+        int cachedLevel = currentLevels[skill.ordinal()];
+        return cachedLevel != UNKNOWN
             ? Math.min(cachedLevel, MAX_REAL_LEVEL)
             : client.getRealSkillLevel(skill);
     }
 
+    private static String nameOf(int ordinal) {
+        return ordinal == COMBAT_ORDINAL ? COMBAT_NAME : SKILLS[ordinal].getName();
+    }
+
     private int getLevel(int xp) {
         // treat 200M XP as level 127
         if (xp >= Experience.MAX_SKILL_XP)
@@ -612,16 +637,4 @@ public class ExperienceHandler extends BaseEventHandler {
         world.retainAll(SPECIAL_WORLDS); // O(1)
         return world;
     }
-
-    static {
-        COMBAT_COMPONENTS = ImmutableSet.of(
-            Skill.ATTACK.getName(),
-            Skill.STRENGTH.getName(),
-            Skill.DEFENCE.getName(),
-            Skill.HITPOINTS.getName(),
-            Skill.MAGIC.getName(),
-            Skill.RANGED.getName(),
-            Skill.PRAYER.getName()
-        );
-    }
 }
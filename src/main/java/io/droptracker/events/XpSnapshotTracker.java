@@ -0,0 +1,119 @@
+package io.droptracker.events;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-skill XP state for {@link ExperienceHandler}, held in ordinal-indexed
+ * int arrays, plus the bookkeeping for delta snapshots.
+ *
+ * <p>The baseline is the XP the server last <em>acknowledged</em> (a 2xx on the
+ * snapshot upload), not the XP last sent: a snapshot lost to a failed upload
+ * leaves the baseline untouched, so its skills ride along with the next delta.
+ * Values are absolute, so a skill sent twice is harmless. Acks that arrive
+ * after {@link #clear()} belong to a previous session and are ignored.
+ *
+ * <p>Not thread-safe; every call is expected on the client thread.
+ */
+final class XpSnapshotTracker {
+    static final int UNKNOWN = -1;
+
+    private final int[] xp;
+    private final int[] acked;
+    /** Sent-but-unacknowledged snapshots, by sequence number. */
+    private final Map<Integer, int[]> inFlight = new HashMap<>();
+    private int nextSequence = 1;
+    private int ackedSequence = 0;
+    private boolean hasBaseline = false;
+
+    XpSnapshotTracker(int skillCount) {
+        this.xp = new int[skillCount];
+        this.acked = new int[skillCount];
+        clear();
+    }
+
+    void clear() {
+        Arrays.fill(xp, UNKNOWN);
+        Arrays.fill(acked, UNKNOWN);
+        inFlight.clear();
+        // Sequence numbers keep counting across sessions so a late ack for a
+        // pre-logout snapshot can never match one issued after it.
+        ackedSequence = nextSequence - 1;
+        hasBaseline = false;
+    }
+
+    /** @return the previous XP for the skill, or {@link #UNKNOWN} */
+    int set(int ordinal, int value) {
+        int previous = xp[ordinal];
+        xp[ordinal] = value;
+        return previous;
+    }
+
+    int get(int ordinal) {
+        return xp[ordinal];
+    }
+
+    int skillCount() {
+        return xp.length;
+    }
+
+    boolean isComplete() {
+        for (int value : xp) {
+            if (value == UNKNOWN) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean hasBaseline() {
+        return hasBaseline;
+    }
+
+    /** True when a skill's XP differs from the acknowledged baseline (or there is none). */
+    boolean isChanged(int ordinal) {
+        return !hasBaseline || xp[ordinal] != acked[ordinal];
+    }
+
+    boolean hasChanges() {
+        for (int i = 0; i < xp.length; i++) {
+            if (isChanged(i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Records the current XP as sent under a new sequence number. Pass the
+     * number to {@link #acknowledge} once the server accepts the upload.
+     */
+    int markSent() {
+        int sequence = nextSequence++;
+        inFlight.put(sequence, xp.clone());
+        return sequence;
+    }
+
+    /**
+     * Moves the baseline to the state sent as {@code sequence}. Out-of-order
+     * acks for older snapshots than the current baseline are dropped.
+     *
+     * @param full whether that snapshot carried every skill; a delta can only
+     *             advance an existing baseline, never create one
+     */
+    void acknowledge(int sequence, boolean full) {
+        int[] sent = inFlight.remove(sequence);
+        if (sent == null || sequence <= ackedSequence) {
+            return;
+        }
+        if (!full && !hasBaseline) {
+            return;
+        }
+        // Drop anything older than this ack; it can no longer advance the baseline.
+        inFlight.keySet().removeIf(s -> s < sequence);
+        System.arraycopy(sent, 0, acked, 0, sent.length);
+        ackedSequence = sequence;
+        hasBaseline = true;
+    }
+}
@@ -8,24 +8,20 @@ package io.droptracker.modelexport;
 
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
-import net.runelite.api.Client;
-import net.runelite.api.Texture;
 
 import javax.annotation.Nullable;
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
- * Reads game textures out of the client as PNGs, along with the scroll rate
- * that makes animated ones (an inferno cape's fire, lava, water) move.
+ * Turns the textures held in a {@link ModelCapture} into PNGs, along with the
+ * scroll rate that makes animated ones (an inferno cape's fire, lava, water)
+ * move.
  * <p>
- * Encoded PNGs are cached for the life of the client: there are only a couple
- * of hundred textures in the game and a player uses a handful, but a profile
- * sync would otherwise re-encode the same cape every time.
+ * Works from captured pixels rather than the client, so nothing here touches
+ * the client thread. The PNGs themselves come from a {@link TextureCache}
+ * shared across exports, so a texture is encoded once rather than once per
+ * export; an instance only remembers what it already resolved for its model.
  */
 @Slf4j
 public final class GameTextures {
@@ -87,17 +83,21 @@ public final class GameTextures {
         }
     }
 
-    private final Client client;
+    private final Map<Integer, ModelCapture.RawTexture> raw;
+    private final int revision;
+    private final TextureCache pngs;
     private final Map<Integer, TextureData> cache = new HashMap<>();
 
-    public GameTextures(@NonNull Client client) {
-        this.client = client;
+    public GameTextures(@NonNull ModelCapture capture, @NonNull TextureCache pngs) {
+        this.raw = capture.getTextures();
+        this.revision = capture.getRevision();
+        this.pngs = pngs;
     }
 
     /**
-     * Returns the texture, or null when the client has not loaded it yet (its
-     * pixels are fetched lazily, so a texture the local player has never had
-     * on screen may genuinely be unavailable).
+     * Returns the texture, or null when the client had not loaded it at capture
+     * time (its pixels are fetched lazily, so a texture the local player has
+     * never had on screen may genuinely be unavailable).
      */
     @Nullable
     public TextureData get(int textureId) {
@@ -115,17 +115,11 @@ public final class GameTextures {
 
     @Nullable
     private TextureData load(int textureId) {
-        final int[] pixels;
-        try {
-            pixels = client.getTextureProvider().load(textureId);
-        } catch (RuntimeException e) {
-            log.debug("Could not load texture {}", textureId, e);
-            return null;
-        }
-
-        if (pixels == null || pixels.length == 0) {
+        final ModelCapture.RawTexture texture = raw.get(textureId);
+        if (texture == null) {
             return null;
         }
+        final int[] pixels = texture.getPixels();
 
         // Textures are square; the client uses 128x128 but deriving it keeps
         // this working if that ever changes.
@@ -135,21 +129,16 @@ public final class GameTextures {
             return null;
         }
 
-        byte[] png = null;
-        try {
-            png = encodePng(pixels, size);
-        } catch (IOException | RuntimeException e) {
-            // Still worth returning the average colour so the model renders as
-            // a plausible flat surface rather than grey.
-            log.debug("Could not encode texture {}", textureId, e);
-        }
+        // A null PNG still leaves the average colour, so the model renders as
+        // a plausible flat surface rather than grey.
+        final byte[] png = pngs.png(textureId, revision, pixels, size);
 
-        final float[] scroll = scrollOf(textureId);
+        final float[] scroll = scrollOf(texture);
         return new TextureData(textureId, png, averageColor(pixels), scroll[0], scroll[1]);
     }
 
     /** Mean of every texel the game actually draws, ignoring transparent ones. */
-    private static int averageColor(int[] pixels) {
+    static int averageColor(int[] pixels) {
         long red = 0;
         long green = 0;
         long blue = 0;
@@ -169,23 +158,9 @@ public final class GameTextures {
         return (int) ((red / counted) << 16 | (green / counted) << 8 | (blue / counted));
     }
 
-    /**
-     * A pixel of 0 is the game's transparent texel, which the renderer discards
-     * rather than drawing black, so it becomes a fully transparent PNG pixel.
-     */
-    private static byte[] encodePng(int[] pixels, int size) throws IOException {
-        final int[] argb = new int[pixels.length];
-        for (int i = 0; i < pixels.length; i++) {
-            final int rgb = pixels[i];
-            argb[i] = rgb == 0 ? 0 : 0xff000000 | rgb;
-        }
-
-        final BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
-        image.setRGB(0, 0, size, size, argb, 0, size);
-
-        final ByteArrayOutputStream out = new ByteArrayOutputStream();
-        ImageIO.write(image, "png", out);
-        return out.toByteArray();
+    static boolean isAnimated(ModelCapture.RawTexture texture) {
+        final float[] scroll = scrollOf(texture);
+        return scroll[0] != 0f || scroll[1] != 0f;
     }
 
     /**
@@ -193,13 +168,7 @@ public final class GameTextures {
      * from direction to axis matches the client's own
      * {@code TextureManager.computeTextureAnimations}.
      */
-    private float[] scrollOf(int textureId) {
-        final Texture[] textures = client.getTextureProvider().getTextures();
-        if (textures == null || textureId >= textures.length || textures[textureId] == null) {
-            return new float[]{0f, 0f};
-        }
-
-        final Texture texture = textures[textureId];
+    private static float[] scrollOf(ModelCapture.RawTexture texture) {
         float u = 0f;
         float v = 0f;
         switch (texture.getAnimationDirection()) {
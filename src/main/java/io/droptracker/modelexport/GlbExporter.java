@@ -16,31 +16,74 @@ import java.util.Map;
 
 /**
  * Exports a game {@link Model} as a binary glTF.
+ * <p>
+ * Split in two so the client thread only pays for the part that needs it:
+ * {@link ModelCapture#of} copies the model on the client thread, then
+ * {@link #toBytes(ModelCapture, String)} builds the file from that copy on
+ * whatever thread the caller likes.
  */
 public final class GlbExporter {
     private GlbExporter() {
     }
 
     /**
-     * Writes a self contained GLB with every texture embedded. One file, opens
-     * in any glTF viewer, no external requests.
+     * Captures and exports in one call, on the calling thread, which must be
+     * the client thread. Prefer capturing there and exporting elsewhere.
      */
     public static byte[] toBytes(@NonNull Client client, @NonNull Model model,
                                  @NonNull String name) throws IOException {
-        return toBytes(client, model, new GlbWriter.Options().embedTextures().modelName(name));
+        return toBytes(ModelCapture.of(client, model), name);
     }
 
-    public static byte[] toBytes(@NonNull Client client, @NonNull Model model,
-                                 @NonNull GlbWriter.Options options) throws IOException {
-        final MeshData mesh = ModelMeshBuilder.build(model);
-        final GameTextures textures = new GameTextures(client);
+    /**
+     * Writes a self contained GLB with every texture embedded. One file, opens
+     * in any glTF viewer, no external requests. Safe off the client thread.
+     * <p>
+     * Textures are encoded afresh; pass a long lived {@link TextureCache} to
+     * the overload below to reuse them across exports.
+     */
+    public static byte[] toBytes(@NonNull ModelCapture capture, @NonNull String name) throws IOException {
+        return toBytes(capture, name, new TextureCache(null));
+    }
+
+    public static byte[] toBytes(@NonNull ModelCapture capture, @NonNull String name,
+                                 @NonNull TextureCache textureCache) throws IOException {
+        return toBytes(capture, new GlbWriter.Options().embedTextures().modelName(name), textureCache);
+    }
+
+    public static byte[] toBytes(@NonNull ModelCapture capture, @NonNull GlbWriter.Options options,
+                                 @NonNull TextureCache textureCache) throws IOException {
+        return prepare(capture, options, textureCache).toByteArray();
+    }
+
+    /**
+     * Lays the file out without writing it, for callers that stream it
+     * straight to where it is going instead of holding a copy.
+     */
+    public static GlbWriter.Glb prepare(@NonNull ModelCapture capture, @NonNull String name,
+                                        @NonNull TextureCache textureCache) throws IOException {
+        return prepare(capture, new GlbWriter.Options().embedTextures().modelName(name), textureCache);
+    }
+
+    public static GlbWriter.Glb prepare(@NonNull ModelCapture capture, @NonNull GlbWriter.Options options,
+                                        @NonNull TextureCache textureCache) throws IOException {
+        MeshData mesh = ModelMeshBuilder.build(capture);
+        final GameTextures textures = new GameTextures(capture, textureCache);
+        GlbWriter.TextureLookup lookup = textures::get;
+        if (options.isAtlasTextures()) {
+            final TextureAtlas atlas = TextureAtlas.pack(mesh, capture);
+            if (atlas != null) {
+                mesh = atlas.getMesh();
+                lookup = id -> id == MeshData.ATLAS_TEXTURE ? atlas.getTexture() : textures.get(id);
+            }
+        }
 
         final Map<String, Object> extras = new LinkedHashMap<>();
         extras.put("source", "droptracker-plugin");
-        extras.put("faceCount", model.getFaceCount());
+        extras.put("faceCount", capture.getFaceCount());
         extras.put("vertexCount", mesh.getVertexCount());
         options.extras(extras);
 
-        return GlbWriter.write(mesh, textures::get, options);
+        return GlbWriter.prepare(mesh, lookup, options);
     }
 }
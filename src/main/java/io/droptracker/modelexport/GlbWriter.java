@@ -11,12 +11,15 @@ import com.google.gson.JsonObject;
 import lombok.NonNull;
 
 import javax.annotation.Nullable;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -31,6 +34,19 @@ import java.util.Map;
  * Textures are either embedded in the file, which makes a single self contained
  * model that any glTF viewer will open, or referenced by URL so they can be
  * served once from a CDN and shared across every profile.
+ * <p>
+ * Writing is two phase. {@link #prepare} lays the file out - the JSON, plus
+ * the offset and length of every buffer view - while only referencing the
+ * mesh arrays and PNGs. A {@link Glb} then writes itself in one pass, either
+ * into an exactly sized {@link ByteBuffer} or streamed through a small fixed
+ * buffer into an {@link OutputStream} such as an upload's request body, so the
+ * binary data is never copied into intermediate arrays.
+ * <p>
+ * {@link Options#quantize()} trades float precision nobody can see for size:
+ * positions and UVs become normalised or plain 16 bit integers, per
+ * {@code KHR_mesh_quantization}. Positions are undone by the node's transform;
+ * UVs that repeat the texture, and so run outside 0..1, by a
+ * {@code KHR_texture_transform} on each textured material.
  */
 public final class GlbWriter {
     private static final int GLB_MAGIC = 0x46546C67; // "glTF"
@@ -42,6 +58,7 @@ public final class GlbWriter {
     private static final int TARGET_ELEMENT_ARRAY_BUFFER = 34963;
 
     private static final int COMPONENT_UNSIGNED_BYTE = 5121;
+    private static final int COMPONENT_SHORT = 5122;
     private static final int COMPONENT_UNSIGNED_SHORT = 5123;
     private static final int COMPONENT_UNSIGNED_INT = 5125;
     private static final int COMPONENT_FLOAT = 5126;
@@ -60,12 +77,29 @@ public final class GlbWriter {
     /** UNSIGNED_SHORT indices stop here; 65535 is reserved as a restart value. */
     private static final int MAX_SHORT_INDEX = 65535;
 
+    /** Staging buffer size when streaming; large enough that stream writes are few. */
+    private static final int STREAM_CHUNK_BYTES = 64 * 1024;
+
+    /**
+     * Quantised positions use SHORT's symmetric range, so the model's centre
+     * lands on zero and its longest axis spans -32767..32767.
+     */
+    private static final int QUANTIZED_POSITION_STEPS = 65534;
+
+    /** Three shorts per position, padded to the four byte stride vertex attributes need. */
+    private static final int QUANTIZED_POSITION_STRIDE = 8;
+
+    private static final String KHR_MESH_QUANTIZATION = "KHR_mesh_quantization";
+    private static final String KHR_TEXTURE_TRANSFORM = "KHR_texture_transform";
+
     /** How the file should refer to its textures. */
     public static final class Options {
         private boolean embedTextures = true;
         private String textureUrlTemplate;
         private String modelName = "model";
         private Map<String, Object> extras;
+        private boolean quantize;
+        private boolean atlasTextures;
 
         /** Embed texture PNGs in the file. Self contained but not shared between models. */
         public Options embedTextures() {
@@ -94,6 +128,30 @@ public final class GlbWriter {
             this.extras = extras;
             return this;
         }
+
+        /**
+         * Writes positions and UVs as 16 bit integers. Needs a loader that
+         * supports {@code KHR_mesh_quantization} and, for repeating UVs,
+         * {@code KHR_texture_transform}; the file declares both as required.
+         */
+        public Options quantize() {
+            this.quantize = true;
+            return this;
+        }
+
+        /**
+         * Packs the textures that allow it into one atlas image, see
+         * {@link TextureAtlas}. Only applies to embedded textures: an atlas is
+         * specific to one model, so there is nothing to share by URL.
+         */
+        public Options atlasTextures() {
+            this.atlasTextures = true;
+            return this;
+        }
+
+        boolean isAtlasTextures() {
+            return atlasTextures && embedTextures;
+        }
     }
 
     private GlbWriter() {
@@ -101,11 +159,21 @@ public final class GlbWriter {
 
     public static byte[] write(@NonNull MeshData mesh, @NonNull TextureLookup textures,
                                @NonNull Options options) throws IOException {
+        return prepare(mesh, textures, options).toByteArray();
+    }
+
+    /**
+     * Lays out the file without writing any of it. The result holds on to
+     * {@code mesh}'s arrays and the texture PNGs, which must not change until
+     * it has been written.
+     */
+    public static Glb prepare(@NonNull MeshData mesh, @NonNull TextureLookup textures,
+                              @NonNull Options options) throws IOException {
         if (mesh.isEmpty()) {
             throw new IOException("Refusing to write an empty model");
         }
 
-        final BinaryChunk bin = new BinaryChunk();
+        final BinaryLayout bin = new BinaryLayout();
 
         final JsonArray bufferViews = new JsonArray();
         final JsonArray accessors = new JsonArray();
@@ -118,17 +186,36 @@ public final class GlbWriter {
         final Map<Integer, Integer> textureIndexById = new HashMap<>();
 
         // Vertex attributes, shared by every primitive.
-        final int positionAccessor = addAccessor(bufferViews, accessors, bin,
-                floatsToBytes(mesh.getPositions()), TARGET_ARRAY_BUFFER,
-                COMPONENT_FLOAT, "VEC3", mesh.getVertexCount(), mesh.getMin(), mesh.getMax(), false);
+        final PositionQuantization quantization = options.quantize ? new PositionQuantization(mesh) : null;
+        final int positionAccessor = quantization == null
+                ? addAccessor(bufferViews, accessors, bin,
+                        floats(mesh.getPositions()), TARGET_ARRAY_BUFFER, 0,
+                        COMPONENT_FLOAT, "VEC3", mesh.getVertexCount(), mesh.getMin(), mesh.getMax(), false)
+                : addAccessor(bufferViews, accessors, bin,
+                        quantization.section(mesh.getPositions()), TARGET_ARRAY_BUFFER, QUANTIZED_POSITION_STRIDE,
+                        COMPONENT_SHORT, "VEC3", mesh.getVertexCount(),
+                        quantization.quantize(mesh.getMin()), quantization.quantize(mesh.getMax()), false);
 
         final int colorAccessor = addAccessor(bufferViews, accessors, bin,
-                mesh.getColors(), TARGET_ARRAY_BUFFER,
+                bytes(mesh.getColors()), TARGET_ARRAY_BUFFER, 0,
                 COMPONENT_UNSIGNED_BYTE, "VEC4", mesh.getVertexCount(), null, null, true);
 
-        final int uvAccessor = mesh.getUvs() == null ? -1 : addAccessor(bufferViews, accessors, bin,
-                floatsToBytes(mesh.getUvs()), TARGET_ARRAY_BUFFER,
-                COMPONENT_FLOAT, "VEC2", mesh.getVertexCount(), null, null, false);
+        final UvQuantization uvQuantization = options.quantize && mesh.getUvs() != null
+                ? new UvQuantization(mesh.getUvs())
+                : null;
+        final int uvAccessor;
+        if (mesh.getUvs() == null) {
+            uvAccessor = -1;
+        } else if (uvQuantization == null) {
+            uvAccessor = addAccessor(bufferViews, accessors, bin,
+                    floats(mesh.getUvs()), TARGET_ARRAY_BUFFER, 0,
+                    COMPONENT_FLOAT, "VEC2", mesh.getVertexCount(), null, null, false);
+        } else {
+            uvAccessor = addAccessor(bufferViews, accessors, bin,
+                    uvQuantization.section(mesh.getUvs()), TARGET_ARRAY_BUFFER, 0,
+                    uvQuantization.componentType(), "VEC2", mesh.getVertexCount(), null, null, true);
+        }
+        final JsonObject uvTransform = uvQuantization == null ? null : uvQuantization.transform();
 
         // Face render priority travels per vertex under a custom attribute name,
         // so a renderer can offset by it without the exporter having to split
@@ -136,7 +223,7 @@ public final class GlbWriter {
         // share one mesh to be sorted.
         final int priorityAccessor = mesh.getPriorities() == null ? -1
                 : addAccessor(bufferViews, accessors, bin,
-                        floatsToBytes(mesh.getPriorities()), TARGET_ARRAY_BUFFER,
+                        floats(mesh.getPriorities()), TARGET_ARRAY_BUFFER, 0,
                         COMPONENT_FLOAT, "SCALAR", mesh.getVertexCount(), null, null, false);
 
         // One index buffer view for the whole mesh; each primitive gets an
@@ -145,7 +232,7 @@ public final class GlbWriter {
         final int indexComponentType = wideIndices ? COMPONENT_UNSIGNED_INT : COMPONENT_UNSIGNED_SHORT;
         final int indexStride = wideIndices ? 4 : 2;
         final int indexBufferView = addBufferView(bufferViews, bin,
-                indicesToBytes(mesh.getIndices(), wideIndices), TARGET_ELEMENT_ARRAY_BUFFER, 0);
+                indices(mesh.getIndices(), wideIndices), TARGET_ELEMENT_ARRAY_BUFFER, 0);
 
         final JsonArray primitives = new JsonArray();
 
@@ -199,18 +286,28 @@ public final class GlbWriter {
                 textureIndex = existing;
             }
 
-            materials.add(buildMaterial(primitive, texture, hasImage, textureIndex));
+            materials.add(buildMaterial(primitive, texture, hasImage, textureIndex, uvTransform));
         }
 
         final JsonObject mesh0 = new JsonObject();
         mesh0.add("primitives", primitives);
         mesh0.addProperty("name", options.modelName);
 
-        final float scale = 1f / UNITS_PER_METRE;
         final JsonObject node0 = new JsonObject();
         node0.addProperty("mesh", 0);
         node0.addProperty("name", options.modelName);
-        node0.add("scale", jsonArray(scale, scale, scale));
+        if (quantization == null) {
+            final float scale = 1f / UNITS_PER_METRE;
+            node0.add("scale", jsonArray(scale, scale, scale));
+        } else {
+            // Dequantisation is the node transform: centre + step * q, in metres.
+            final float scale = quantization.step / UNITS_PER_METRE;
+            node0.add("translation", jsonArray(
+                    quantization.center[0] / UNITS_PER_METRE,
+                    quantization.center[1] / UNITS_PER_METRE,
+                    quantization.center[2] / UNITS_PER_METRE));
+            node0.add("scale", jsonArray(scale, scale, scale));
+        }
 
         final JsonObject asset = new JsonObject();
         asset.addProperty("version", "2.0");
@@ -240,9 +337,20 @@ public final class GlbWriter {
 
         final JsonArray extensionsUsed = new JsonArray();
         extensionsUsed.add("KHR_materials_unlit");
+        if (options.quantize) {
+            // A loader without these would reject the SHORT positions or map
+            // the textures wrongly, so they are required, not merely used.
+            final JsonArray extensionsRequired = new JsonArray();
+            extensionsRequired.add(KHR_MESH_QUANTIZATION);
+            if (uvTransform != null && gltfTextures.size() > 0) {
+                extensionsRequired.add(KHR_TEXTURE_TRANSFORM);
+            }
+            extensionsUsed.addAll(extensionsRequired);
+            gltf.add("extensionsRequired", extensionsRequired);
+        }
         gltf.add("extensionsUsed", extensionsUsed);
 
-        return assemble(gltf.toString(), bin.toByteArray());
+        return new Glb(gltf.toString().getBytes(StandardCharsets.UTF_8), bin);
     }
 
     /**
@@ -285,12 +393,18 @@ public final class GlbWriter {
     private static JsonObject buildMaterial(MeshData.Primitive primitive,
                                             @Nullable GameTextures.TextureData texture,
                                             boolean hasImage,
-                                            int textureIndex) {
+                                            int textureIndex,
+                                            @Nullable JsonObject uvTransform) {
         final JsonObject pbr = new JsonObject();
         if (hasImage) {
             pbr.add("baseColorFactor", jsonArray(1f, 1f, 1f, 1f));
             final JsonObject baseColorTexture = new JsonObject();
             baseColorTexture.addProperty("index", textureIndex);
+            if (uvTransform != null) {
+                final JsonObject extensions = new JsonObject();
+                extensions.add(KHR_TEXTURE_TRANSFORM, uvTransform);
+                baseColorTexture.add("extensions", extensions);
+            }
             pbr.add("baseColorTexture", baseColorTexture);
         } else if (texture != null) {
             final int average = texture.getAverageColor();
@@ -308,7 +422,7 @@ public final class GlbWriter {
         final JsonObject material = new JsonObject();
         material.addProperty("name", texture == null
                 ? "untextured"
-                : "texture-" + texture.getId());
+                : textureName(texture));
         material.add("pbrMetallicRoughness", pbr);
         // The game does not light models, so an unlit material is not a
         // simplification here, it is the accurate one.
@@ -345,6 +459,10 @@ public final class GlbWriter {
         return material;
     }
 
+    private static String textureName(GameTextures.TextureData texture) {
+        return texture.getId() == MeshData.ATLAS_TEXTURE ? "atlas" : "texture-" + texture.getId();
+    }
+
     private static JsonObject unlitExtension() {
         final JsonObject extensions = new JsonObject();
         extensions.add("KHR_materials_unlit", new JsonObject());
@@ -359,11 +477,11 @@ public final class GlbWriter {
     }
 
     private static JsonObject buildImage(GameTextures.TextureData texture, Options options,
-                                         JsonArray bufferViews, BinaryChunk bin) throws IOException {
+                                         JsonArray bufferViews, BinaryLayout bin) {
         final JsonObject image = new JsonObject();
-        image.addProperty("name", "texture-" + texture.getId());
+        image.addProperty("name", textureName(texture));
         if (options.embedTextures) {
-            image.addProperty("bufferView", addBufferView(bufferViews, bin, texture.getPng(), -1, 0));
+            image.addProperty("bufferView", addBufferView(bufferViews, bin, bytes(texture.getPng()), -1, 0));
             image.addProperty("mimeType", "image/png");
         } else {
             image.addProperty("uri", String.format(options.textureUrlTemplate, texture.getId()));
@@ -383,11 +501,11 @@ public final class GlbWriter {
         return sampler;
     }
 
-    private static int addAccessor(JsonArray bufferViews, JsonArray accessors, BinaryChunk bin,
-                                   byte[] data, int target, int componentType, String type,
+    private static int addAccessor(JsonArray bufferViews, JsonArray accessors, BinaryLayout bin,
+                                   Section data, int target, int byteStride, int componentType, String type,
                                    int count, @Nullable float[] min, @Nullable float[] max,
-                                   boolean normalized) throws IOException {
-        final int bufferView = addBufferView(bufferViews, bin, data, target, 0);
+                                   boolean normalized) {
+        final int bufferView = addBufferView(bufferViews, bin, data, target, byteStride);
 
         final JsonObject accessor = new JsonObject();
         accessor.addProperty("bufferView", bufferView);
@@ -407,14 +525,14 @@ public final class GlbWriter {
         return accessors.size() - 1;
     }
 
-    private static int addBufferView(JsonArray bufferViews, BinaryChunk bin, byte[] data,
-                                     int target, int byteStride) throws IOException {
+    private static int addBufferView(JsonArray bufferViews, BinaryLayout bin, Section data,
+                                     int target, int byteStride) {
         final int offset = bin.append(data);
 
         final JsonObject bufferView = new JsonObject();
         bufferView.addProperty("buffer", 0);
         bufferView.addProperty("byteOffset", offset);
-        bufferView.addProperty("byteLength", data.length);
+        bufferView.addProperty("byteLength", data.length());
         if (byteStride > 0) {
             bufferView.addProperty("byteStride", byteStride);
         }
@@ -425,26 +543,175 @@ public final class GlbWriter {
         return bufferViews.size() - 1;
     }
 
-    private static byte[] floatsToBytes(float[] values) {
-        final ByteBuffer buffer = ByteBuffer.allocate(values.length * 4).order(ByteOrder.LITTLE_ENDIAN);
-        for (float value : values) {
-            buffer.putFloat(value);
+    /** A run of bytes in the binary chunk, known by length before it is written. */
+    private interface Section {
+        int length();
+
+        void write(Out out) throws IOException;
+    }
+
+    private static Section floats(float[] values) {
+        return new Section() {
+            @Override
+            public int length() {
+                return values.length * 4;
+            }
+
+            @Override
+            public void write(Out out) throws IOException {
+                out.putFloats(values);
+            }
+        };
+    }
+
+    private static Section bytes(byte[] values) {
+        return new Section() {
+            @Override
+            public int length() {
+                return values.length;
+            }
+
+            @Override
+            public void write(Out out) throws IOException {
+                out.put(values);
+            }
+        };
+    }
+
+    /**
+     * UVs as normalised 16 bit values. When they all fall in 0..1 they are
+     * stored as UNSIGNED_SHORT and read back directly. Otherwise each axis is
+     * centred and scaled into SHORT's range, and the materials carry the
+     * inverse as a texture transform: a few tiles of repeat still resolve to
+     * a small fraction of a texel.
+     */
+    private static final class UvQuantization {
+        private final float[] center = new float[2];
+        private final float[] halfExtent = {1f, 1f};
+        private final boolean unitRange;
+
+        UvQuantization(float[] uvs) {
+            final float[] min = {Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY};
+            final float[] max = {Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY};
+            for (int i = 0; i < uvs.length; i++) {
+                // A degenerate texture triangle projects to NaN; it has no
+                // meaningful UV to preserve, so it does not widen the range.
+                if (Float.isFinite(uvs[i])) {
+                    min[i % 2] = Math.min(min[i % 2], uvs[i]);
+                    max[i % 2] = Math.max(max[i % 2], uvs[i]);
+                }
+            }
+            this.unitRange = min[0] >= 0f && min[1] >= 0f && max[0] <= 1f && max[1] <= 1f;
+            for (int axis = 0; axis < 2 && !unitRange; axis++) {
+                if (min[axis] <= max[axis]) {
+                    center[axis] = (min[axis] + max[axis]) / 2f;
+                    halfExtent[axis] = Math.max((max[axis] - min[axis]) / 2f, Float.MIN_NORMAL);
+                }
+            }
+        }
+
+        int componentType() {
+            return unitRange ? COMPONENT_UNSIGNED_SHORT : COMPONENT_SHORT;
+        }
+
+        /** The texture transform undoing the centring and scaling, or null when there is none. */
+        @Nullable
+        JsonObject transform() {
+            if (unitRange) {
+                return null;
+            }
+            final JsonObject transform = new JsonObject();
+            transform.add("offset", jsonArray(center[0], center[1]));
+            transform.add("scale", jsonArray(halfExtent[0], halfExtent[1]));
+            return transform;
+        }
+
+        short quantize(float value, int axis) {
+            if (!Float.isFinite(value)) {
+                return 0;
+            }
+            if (unitRange) {
+                return (short) Math.round(value * 65535f);
+            }
+            final float normalized = (value - center[axis]) / halfExtent[axis];
+            return (short) Math.round(Math.max(-1f, Math.min(1f, normalized)) * 32767f);
+        }
+
+        Section section(float[] uvs) {
+            return new Section() {
+                @Override
+                public int length() {
+                    return uvs.length * 2;
+                }
+
+                @Override
+                public void write(Out out) throws IOException {
+                    for (int i = 0; i < uvs.length; i++) {
+                        out.putShort(quantize(uvs[i], i % 2));
+                    }
+                }
+            };
         }
-        return buffer.array();
     }
 
-    private static byte[] indicesToBytes(int[] indices, boolean wide) {
-        final ByteBuffer buffer = ByteBuffer
-                .allocate(indices.length * (wide ? 4 : 2))
-                .order(ByteOrder.LITTLE_ENDIAN);
-        for (int index : indices) {
-            if (wide) {
-                buffer.putInt(index);
-            } else {
-                buffer.putShort((short) index);
+    /**
+     * Maps positions onto SHORT with one uniform step, so the node can undo it
+     * with a uniform scale. Worst case error is half a step: for a character a
+     * few hundred units tall, well under a hundredth of a game unit.
+     */
+    private static final class PositionQuantization {
+        private final float[] center = new float[3];
+        private final float step;
+
+        PositionQuantization(MeshData mesh) {
+            float extent = 0f;
+            for (int axis = 0; axis < 3; axis++) {
+                center[axis] = (mesh.getMin()[axis] + mesh.getMax()[axis]) / 2f;
+                extent = Math.max(extent, mesh.getMax()[axis] - mesh.getMin()[axis]);
             }
+            this.step = extent > 0f ? extent / QUANTIZED_POSITION_STEPS : 1f;
         }
-        return buffer.array();
+
+        short quantize(float value, int axis) {
+            return (short) Math.round((value - center[axis]) / step);
+        }
+
+        float[] quantize(float[] point) {
+            return new float[]{quantize(point[0], 0), quantize(point[1], 1), quantize(point[2], 2)};
+        }
+
+        Section section(float[] positions) {
+            return new Section() {
+                @Override
+                public int length() {
+                    return positions.length / 3 * QUANTIZED_POSITION_STRIDE;
+                }
+
+                @Override
+                public void write(Out out) throws IOException {
+                    for (int i = 0; i < positions.length; i += 3) {
+                        out.putShort(quantize(positions[i], 0));
+                        out.putShort(quantize(positions[i + 1], 1));
+                        out.putShort(quantize(positions[i + 2], 2));
+                        out.putShort((short) 0);
+                    }
+                }
+            };
+        }
+    }
+
+    private static Section indices(int[] values, boolean wide) {
+        return new Section() {
+            @Override
+            public int length() {
+                return values.length * (wide ? 4 : 2);
+            }
+
+            @Override
+            public void write(Out out) throws IOException {
+                out.putIndices(values, wide);
+            }
+        };
     }
 
     private static JsonArray jsonArray(float... values) {
@@ -461,68 +728,201 @@ public final class GlbWriter {
         return array;
     }
 
+    private static int padding(int length) {
+        return (4 - (length % 4)) % 4;
+    }
+
     /**
-     * Wraps the JSON and binary payloads in the GLB container. Both chunks are
-     * padded to a four byte boundary, JSON with spaces and binary with zeroes,
-     * as the format requires.
+     * A laid out GLB, ready to be written any number of times.
+     * <p>
+     * Both chunks are padded to a four byte boundary, JSON with spaces and
+     * binary with zeroes, as the format requires.
      */
-    private static byte[] assemble(String json, byte[] binary) {
-        final byte[] jsonBytes = json.getBytes(StandardCharsets.UTF_8);
-        final int jsonPadding = padding(jsonBytes.length);
-        final int binaryPadding = padding(binary.length);
+    public static final class Glb {
+        private final byte[] json;
+        private final BinaryLayout bin;
+        private final int jsonChunkLength;
+        private final int binaryChunkLength;
+        private final int length;
+
+        private Glb(byte[] json, BinaryLayout bin) {
+            this.json = json;
+            this.bin = bin;
+            this.jsonChunkLength = json.length + padding(json.length);
+            this.binaryChunkLength = bin.size() + padding(bin.size());
+            this.length = 12 + 8 + jsonChunkLength + 8 + binaryChunkLength;
+        }
 
-        final int jsonChunkLength = jsonBytes.length + jsonPadding;
-        final int binaryChunkLength = binary.length + binaryPadding;
-        final int totalLength = 12 + 8 + jsonChunkLength + 8 + binaryChunkLength;
+        /** Exact size of the file in bytes. */
+        public int length() {
+            return length;
+        }
 
-        final ByteBuffer buffer = ByteBuffer.allocate(totalLength).order(ByteOrder.LITTLE_ENDIAN);
-        buffer.putInt(GLB_MAGIC);
-        buffer.putInt(GLB_VERSION);
-        buffer.putInt(totalLength);
+        public byte[] toByteArray() {
+            final ByteBuffer buffer = ByteBuffer.allocate(length);
+            writeTo(buffer);
+            return buffer.array();
+        }
 
-        buffer.putInt(jsonChunkLength);
-        buffer.putInt(CHUNK_JSON);
-        buffer.put(jsonBytes);
-        for (int i = 0; i < jsonPadding; i++) {
-            buffer.put((byte) ' ');
+        /**
+         * Writes the file at {@code target}'s position and advances it. The
+         * buffer's own byte order is left alone.
+         *
+         * @throws BufferOverflowException when fewer than
+         *                                 {@link #length()} bytes remain
+         */
+        public void writeTo(@NonNull ByteBuffer target) {
+            if (target.remaining() < length) {
+                throw new BufferOverflowException();
+            }
+            final ByteBuffer view = target.slice().order(ByteOrder.LITTLE_ENDIAN);
+            try {
+                write(new Out(view, null));
+            } catch (IOException e) {
+                // Only the stream variant can throw.
+                throw new IllegalStateException(e);
+            }
+            target.position(target.position() + length);
         }
 
-        buffer.putInt(binaryChunkLength);
-        buffer.putInt(CHUNK_BIN);
-        buffer.put(binary);
-        for (int i = 0; i < binaryPadding; i++) {
-            buffer.put((byte) 0);
+        /** Streams the file through a small staging buffer. Does not close {@code stream}. */
+        public void writeTo(@NonNull OutputStream stream) throws IOException {
+            final Out out = new Out(ByteBuffer.allocate(Math.min(length, STREAM_CHUNK_BYTES))
+                    .order(ByteOrder.LITTLE_ENDIAN), stream);
+            write(out);
+            out.flush();
         }
 
-        return buffer.array();
+        private void write(Out out) throws IOException {
+            out.putInt(GLB_MAGIC);
+            out.putInt(GLB_VERSION);
+            out.putInt(length);
+
+            out.putInt(jsonChunkLength);
+            out.putInt(CHUNK_JSON);
+            out.put(json);
+            out.fill((byte) ' ', jsonChunkLength - json.length);
+
+            out.putInt(binaryChunkLength);
+            out.putInt(CHUNK_BIN);
+            bin.write(out);
+            out.fill((byte) 0, binaryChunkLength - bin.size());
+        }
     }
 
-    private static int padding(int length) {
-        return (4 - (length % 4)) % 4;
+    /**
+     * Where every buffer view lives in the single binary buffer. Sections are
+     * kept four byte aligned, which every accessor component type we emit
+     * requires.
+     */
+    private static final class BinaryLayout {
+        private final List<Section> sections = new ArrayList<>();
+        private final List<Integer> padding = new ArrayList<>();
+        private int size;
+
+        int append(Section section) {
+            final int pad = padding(size);
+            sections.add(section);
+            padding.add(pad);
+            final int offset = size + pad;
+            size = offset + section.length();
+            return offset;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void write(Out out) throws IOException {
+            for (int i = 0; i < sections.size(); i++) {
+                out.fill((byte) 0, padding.get(i));
+                sections.get(i).write(out);
+            }
+        }
     }
 
     /**
-     * The single binary buffer every buffer view points into. Appends are kept
-     * four byte aligned, which every accessor component type we emit requires.
+     * Little endian output into a buffer. With a stream, the buffer is a
+     * staging area flushed whenever it fills; without one it is the final
+     * destination, sized by the caller to fit.
      */
-    private static final class BinaryChunk {
-        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private static final class Out {
+        private final ByteBuffer buffer;
+        @Nullable
+        private final OutputStream stream;
+
+        Out(ByteBuffer buffer, @Nullable OutputStream stream) {
+            this.buffer = buffer;
+            this.stream = stream;
+        }
 
-        int append(byte[] data) throws IOException {
-            for (int i = padding(out.size()); i > 0; i--) {
-                out.write(0);
+        private void ensure(int bytes) throws IOException {
+            if (stream != null && buffer.remaining() < bytes) {
+                flush();
             }
-            final int offset = out.size();
-            out.write(data);
-            return offset;
         }
 
-        int size() {
-            return out.size();
+        void flush() throws IOException {
+            if (stream == null || buffer.position() == 0) {
+                return;
+            }
+            stream.write(buffer.array(), buffer.arrayOffset(), buffer.position());
+            buffer.clear();
         }
 
-        byte[] toByteArray() {
-            return out.toByteArray();
+        void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        void putShort(short value) throws IOException {
+            ensure(2);
+            buffer.putShort(value);
+        }
+
+        void fill(byte value, int count) throws IOException {
+            for (int i = 0; i < count; i++) {
+                ensure(1);
+                buffer.put(value);
+            }
+        }
+
+        void put(byte[] values) throws IOException {
+            int offset = 0;
+            while (offset < values.length) {
+                ensure(1);
+                final int n = Math.min(buffer.remaining(), values.length - offset);
+                buffer.put(values, offset, n);
+                offset += n;
+            }
+        }
+
+        void putFloats(float[] values) throws IOException {
+            int offset = 0;
+            while (offset < values.length) {
+                ensure(4);
+                final int n = Math.min(buffer.remaining() / 4, values.length - offset);
+                buffer.asFloatBuffer().put(values, offset, n);
+                buffer.position(buffer.position() + n * 4);
+                offset += n;
+            }
+        }
+
+        void putIndices(int[] values, boolean wide) throws IOException {
+            if (wide) {
+                int offset = 0;
+                while (offset < values.length) {
+                    ensure(4);
+                    final int n = Math.min(buffer.remaining() / 4, values.length - offset);
+                    buffer.asIntBuffer().put(values, offset, n);
+                    buffer.position(buffer.position() + n * 4);
+                    offset += n;
+                }
+                return;
+            }
+            for (int value : values) {
+                putShort((short) value);
+            }
         }
     }
 }
@@ -36,6 +36,12 @@ public final class MeshData {
     /** Texture id used by {@link Primitive#getTextureId()} for untextured triangles. */
     public static final int NO_TEXTURE = -1;
 
+    /**
+     * Texture id of primitives whose textures were merged into one image by
+     * {@link TextureAtlas}. Counts as textured.
+     */
+    public static final int ATLAS_TEXTURE = -2;
+
     /**
      * One run of triangles sharing a texture. {@code indexOffset} and
      * {@code indexCount} address {@link MeshData#getIndices()}.
@@ -0,0 +1,273 @@
+package io.droptracker.modelexport;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Client;
+import net.runelite.api.Model;
+import net.runelite.api.Texture;
+import net.runelite.api.TextureProvider;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Everything an export reads from the client, copied out in one go.
+ * <p>
+ * Building the mesh, encoding texture PNGs and assembling the GLB take far
+ * longer than a game tick can spare, but only the reads have to happen on the
+ * client thread: the model's arrays are reused by the next animation frame and
+ * texture pixels come from the client's texture provider. Taking a capture is
+ * a handful of array copies; the rest of the export runs from it on any thread.
+ * <p>
+ * The arrays are private copies and never handed out for writing, so a capture
+ * is safe to share across threads once constructed. Getters follow
+ * {@link Model}'s names so the mesh builder reads the same either way.
+ */
+@Slf4j
+public final class ModelCapture {
+    /** A texture's pixels and animation, as read from the client. */
+    static final class RawTexture {
+        private final int[] pixels;
+        private final int animationDirection;
+        private final int animationSpeed;
+
+        RawTexture(@NonNull int[] pixels, int animationDirection, int animationSpeed) {
+            this.pixels = pixels;
+            this.animationDirection = animationDirection;
+            this.animationSpeed = animationSpeed;
+        }
+
+        int[] getPixels() {
+            return pixels;
+        }
+
+        int getAnimationDirection() {
+            return animationDirection;
+        }
+
+        int getAnimationSpeed() {
+            return animationSpeed;
+        }
+    }
+
+    private final int revision;
+    private final int faceCount;
+    private final float[] verticesX;
+    private final float[] verticesY;
+    private final float[] verticesZ;
+    private final int[] faceIndices1;
+    private final int[] faceIndices2;
+    private final int[] faceIndices3;
+    private final int[] faceColors1;
+    private final int[] faceColors2;
+    private final int[] faceColors3;
+    private final short[] faceTextures;
+    private final byte[] faceTransparencies;
+    private final byte[] faceRenderPriorities;
+    private final byte[] textureFaces;
+    private final int[] texIndices1;
+    private final int[] texIndices2;
+    private final int[] texIndices3;
+    private final Map<Integer, RawTexture> textures;
+
+    ModelCapture(int revision, int faceCount,
+                 float[] verticesX, float[] verticesY, float[] verticesZ,
+                 int[] faceIndices1, int[] faceIndices2, int[] faceIndices3,
+                 int[] faceColors1, int[] faceColors2, int[] faceColors3,
+                 @Nullable short[] faceTextures,
+                 @Nullable byte[] faceTransparencies,
+                 @Nullable byte[] faceRenderPriorities,
+                 @Nullable byte[] textureFaces,
+                 @Nullable int[] texIndices1, @Nullable int[] texIndices2, @Nullable int[] texIndices3,
+                 Map<Integer, RawTexture> textures) {
+        this.revision = revision;
+        this.faceCount = faceCount;
+        this.verticesX = verticesX;
+        this.verticesY = verticesY;
+        this.verticesZ = verticesZ;
+        this.faceIndices1 = faceIndices1;
+        this.faceIndices2 = faceIndices2;
+        this.faceIndices3 = faceIndices3;
+        this.faceColors1 = faceColors1;
+        this.faceColors2 = faceColors2;
+        this.faceColors3 = faceColors3;
+        this.faceTextures = faceTextures;
+        this.faceTransparencies = faceTransparencies;
+        this.faceRenderPriorities = faceRenderPriorities;
+        this.textureFaces = textureFaces;
+        this.texIndices1 = texIndices1;
+        this.texIndices2 = texIndices2;
+        this.texIndices3 = texIndices3;
+        this.textures = Collections.unmodifiableMap(textures);
+    }
+
+    /**
+     * Copies {@code model} and the pixels of every texture its faces use. Must
+     * run on the client thread; the result can go anywhere.
+     */
+    public static ModelCapture of(@NonNull Client client, @NonNull Model model) {
+        final int faceCount = model.getFaceCount();
+        final int vertexCount = model.getVerticesCount();
+        final short[] faceTextures = copy(model.getFaceTextures(), faceCount);
+        return new ModelCapture(
+                client.getRevision(),
+                faceCount,
+                Arrays.copyOf(model.getVerticesX(), vertexCount),
+                Arrays.copyOf(model.getVerticesY(), vertexCount),
+                Arrays.copyOf(model.getVerticesZ(), vertexCount),
+                Arrays.copyOf(model.getFaceIndices1(), faceCount),
+                Arrays.copyOf(model.getFaceIndices2(), faceCount),
+                Arrays.copyOf(model.getFaceIndices3(), faceCount),
+                Arrays.copyOf(model.getFaceColors1(), faceCount),
+                Arrays.copyOf(model.getFaceColors2(), faceCount),
+                Arrays.copyOf(model.getFaceColors3(), faceCount),
+                faceTextures,
+                copy(model.getFaceTransparencies(), faceCount),
+                copy(model.getFaceRenderPriorities(), faceCount),
+                copy(model.getTextureFaces(), faceCount),
+                copy(model.getTexIndices1()),
+                copy(model.getTexIndices2()),
+                copy(model.getTexIndices3()),
+                readTextures(client, faceTextures));
+    }
+
+    /**
+     * Reads each distinct texture once. A texture the client has not loaded is
+     * left out, which the export already treats as "no image".
+     */
+    private static Map<Integer, RawTexture> readTextures(Client client, @Nullable short[] faceTextures) {
+        if (faceTextures == null) {
+            return Collections.emptyMap();
+        }
+        final TextureProvider provider = client.getTextureProvider();
+        if (provider == null) {
+            return Collections.emptyMap();
+        }
+        final Texture[] definitions = provider.getTextures();
+
+        final Map<Integer, RawTexture> textures = new HashMap<>();
+        for (short id : faceTextures) {
+            if (id < 0 || textures.containsKey((int) id)) {
+                continue;
+            }
+            final int[] pixels;
+            try {
+                pixels = provider.load(id);
+            } catch (RuntimeException e) {
+                log.debug("Could not load texture {}", id, e);
+                continue;
+            }
+            if (pixels == null || pixels.length == 0) {
+                continue;
+            }
+            final Texture definition = definitions == null || id >= definitions.length ? null : definitions[id];
+            textures.put((int) id, new RawTexture(pixels.clone(),
+                    definition == null ? 0 : definition.getAnimationDirection(),
+                    definition == null ? 0 : definition.getAnimationSpeed()));
+        }
+        return textures;
+    }
+
+    @Nullable
+    private static short[] copy(@Nullable short[] source, int length) {
+        return source == null ? null : Arrays.copyOf(source, length);
+    }
+
+    @Nullable
+    private static byte[] copy(@Nullable byte[] source, int length) {
+        return source == null ? null : Arrays.copyOf(source, length);
+    }
+
+    @Nullable
+    private static int[] copy(@Nullable int[] source) {
+        return source == null ? null : source.clone();
+    }
+
+    /** Game cache revision the textures were read under; part of their cache key. */
+    int getRevision() {
+        return revision;
+    }
+
+    public int getFaceCount() {
+        return faceCount;
+    }
+
+    float[] getVerticesX() {
+        return verticesX;
+    }
+
+    float[] getVerticesY() {
+        return verticesY;
+    }
+
+    float[] getVerticesZ() {
+        return verticesZ;
+    }
+
+    int[] getFaceIndices1() {
+        return faceIndices1;
+    }
+
+    int[] getFaceIndices2() {
+        return faceIndices2;
+    }
+
+    int[] getFaceIndices3() {
+        return faceIndices3;
+    }
+
+    int[] getFaceColors1() {
+        return faceColors1;
+    }
+
+    int[] getFaceColors2() {
+        return faceColors2;
+    }
+
+    int[] getFaceColors3() {
+        return faceColors3;
+    }
+
+    @Nullable
+    short[] getFaceTextures() {
+        return faceTextures;
+    }
+
+    @Nullable
+    byte[] getFaceTransparencies() {
+        return faceTransparencies;
+    }
+
+    @Nullable
+    byte[] getFaceRenderPriorities() {
+        return faceRenderPriorities;
+    }
+
+    @Nullable
+    byte[] getTextureFaces() {
+        return textureFaces;
+    }
+
+    @Nullable
+    int[] getTexIndices1() {
+        return texIndices1;
+    }
+
+    @Nullable
+    int[] getTexIndices2() {
+        return texIndices2;
+    }
+
+    @Nullable
+    int[] getTexIndices3() {
+        return texIndices3;
+    }
+
+    /** Captured textures by id; absent when the client had not loaded one. */
+    Map<Integer, RawTexture> getTextures() {
+        return textures;
+    }
+}
@@ -7,17 +7,15 @@
 package io.droptracker.modelexport;
 
 import lombok.NonNull;
-import net.runelite.api.Model;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
 
 /**
- * Turns a game {@link Model} into a {@link MeshData}, keeping the texture
- * mapping the old PLY exporter threw away.
+ * Turns a {@link ModelCapture} of a game model into a {@link MeshData},
+ * keeping the texture mapping the old PLY exporter threw away. Works purely on
+ * the captured arrays, so it runs on any thread.
  * <p>
  * The game gives us, per face, either a colour or a texture id plus a "texture
  * triangle": three vertices of the model itself that define the texture's
@@ -50,6 +48,9 @@ public final class ModelMeshBuilder {
      */
     private static final int HIDDEN_FACE = -2;
 
+    /** Group key of a face that is not drawn. Below any real key, which is at least -2. */
+    private static final int SKIPPED = Integer.MIN_VALUE;
+
     /**
      * Game model space is X east, Y down, Z north. Since X cross Y equals Z it is
      * already right handed, same as glTF, so getting Y pointing up is a rotation
@@ -66,24 +67,29 @@ public final class ModelMeshBuilder {
     private ModelMeshBuilder() {
     }
 
-    public static MeshData build(@NonNull Model model) {
-        final Map<FaceGroup, List<Integer>> groups = groupFaces(model);
-        final boolean textured = groups.keySet().stream().anyMatch(FaceGroup::isTextured);
+    public static MeshData build(@NonNull ModelCapture model) {
+        final FaceGroups groups = groupFaces(model);
+        boolean textured = false;
+        for (int group = 0; group < groups.count(); group++) {
+            textured |= groups.isTextured(group);
+        }
 
         final VertexBuffer vertices = new VertexBuffer(model.getFaceCount(), textured,
                 model.getFaceRenderPriorities() != null);
-        final List<MeshData.Primitive> primitives = new ArrayList<>(groups.size());
+        final List<MeshData.Primitive> primitives = new ArrayList<>(groups.count());
+        final float[] u = new float[3];
+        final float[] v = new float[3];
 
-        for (Map.Entry<FaceGroup, List<Integer>> entry : groups.entrySet()) {
-            final FaceGroup group = entry.getKey();
+        for (int group = 0; group < groups.count(); group++) {
+            final boolean groupTextured = groups.isTextured(group);
             final int start = vertices.indexCount();
 
-            for (int face : entry.getValue()) {
-                appendFace(model, face, group.isTextured(), vertices);
+            for (int i = groups.offsets[group]; i < groups.offsets[group + 1]; i++) {
+                appendFace(model, groups.faces[i], groupTextured, vertices, u, v);
             }
 
-            primitives.add(new MeshData.Primitive(group.textureId, start,
-                    vertices.indexCount() - start, group.translucent));
+            primitives.add(new MeshData.Primitive(groups.textureId(group), start,
+                    vertices.indexCount() - start, groups.isTranslucent(group)));
         }
 
         return vertices.toMeshData(primitives);
@@ -92,16 +98,23 @@ public final class ModelMeshBuilder {
     /**
      * Buckets the faces the game would actually draw, one bucket per primitive.
      * <p>
-     * A {@link TreeMap} keeps the buckets in {@link FaceGroup}'s order, so the
-     * same model always exports byte for byte the same.
+     * Groups are sorted by key, so the same model always exports byte for byte
+     * the same, and faces keep model order within their group. A model uses a
+     * handful of groups, so distinct keys are found by linear scan and placed
+     * with a counting pass; nothing is boxed.
      */
-    private static Map<FaceGroup, List<Integer>> groupFaces(Model model) {
+    private static FaceGroups groupFaces(ModelCapture model) {
+        final int faceCount = model.getFaceCount();
         final int[] colors3 = model.getFaceColors3();
         final short[] faceTextures = model.getFaceTextures();
         final byte[] faceTransparencies = model.getFaceTransparencies();
 
-        final Map<FaceGroup, List<Integer>> groups = new TreeMap<>();
-        for (int face = 0; face < model.getFaceCount(); face++) {
+        final int[] faceKeys = new int[faceCount];
+        int[] keys = new int[8];
+        int groupCount = 0;
+        int lastKey = SKIPPED;
+        for (int face = 0; face < faceCount; face++) {
+            faceKeys[face] = SKIPPED;
             if (colors3[face] == HIDDEN_FACE) {
                 continue;
             }
@@ -112,58 +125,85 @@ public final class ModelMeshBuilder {
             }
 
             final int textureId = faceTextures == null ? MeshData.NO_TEXTURE : faceTextures[face];
-            groups.computeIfAbsent(new FaceGroup(textureId, alpha != 255),
-                    key -> new ArrayList<>()).add(face);
+            final int key = FaceGroups.key(textureId, alpha != 255);
+            faceKeys[face] = key;
+            if (key != lastKey && indexOf(keys, groupCount, key) < 0) {
+                if (groupCount == keys.length) {
+                    keys = Arrays.copyOf(keys, groupCount * 2);
+                }
+                keys[groupCount++] = key;
+            }
+            lastKey = key;
+        }
+        keys = Arrays.copyOf(keys, groupCount);
+        Arrays.sort(keys);
+
+        // Count, prefix-sum into offsets, then drop each face into its slot.
+        final int[] offsets = new int[groupCount + 1];
+        for (int face = 0; face < faceCount; face++) {
+            if (faceKeys[face] != SKIPPED) {
+                final int group = Arrays.binarySearch(keys, faceKeys[face]);
+                faceKeys[face] = group;
+                offsets[group + 1]++;
+            }
+        }
+        for (int group = 0; group < groupCount; group++) {
+            offsets[group + 1] += offsets[group];
+        }
+        final int[] faces = new int[offsets[groupCount]];
+        final int[] cursor = Arrays.copyOf(offsets, groupCount);
+        for (int face = 0; face < faceCount; face++) {
+            if (faceKeys[face] != SKIPPED) {
+                faces[cursor[faceKeys[face]]++] = face;
+            }
         }
-        return groups;
+        return new FaceGroups(keys, offsets, faces);
     }
 
-    /** Appends one face's three corners, in their original winding. */
-    private static void appendFace(Model model, int face, boolean textured, VertexBuffer vertices) {
-        final float[] verticesX = model.getVerticesX();
-        final float[] verticesY = model.getVerticesY();
-        final float[] verticesZ = model.getVerticesZ();
-
-        final int[] corners = {
-                model.getFaceIndices1()[face],
-                model.getFaceIndices2()[face],
-                model.getFaceIndices3()[face],
-        };
-
-        // A flat shaded face has one colour for the whole triangle rather than
-        // one per corner.
-        final int[] colors3 = model.getFaceColors3();
-        final boolean flat = colors3[face] == FLAT_SHADED;
-        final int[] cornerColors = {
-                model.getFaceColors1()[face],
-                flat ? model.getFaceColors1()[face] : model.getFaceColors2()[face],
-                flat ? model.getFaceColors1()[face] : colors3[face],
-        };
+    private static int indexOf(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
 
-        final float[] u = new float[3];
-        final float[] v = new float[3];
+    /** Appends one face's three corners, in their original winding. */
+    private static void appendFace(ModelCapture model, int face, boolean textured, VertexBuffer vertices,
+                                   float[] u, float[] v) {
         if (textured) {
             computeFaceUvs(model, face, u, v);
         }
 
+        // A flat shaded face has one colour for the whole triangle rather than
+        // one per corner.
+        final int color1 = model.getFaceColors1()[face];
+        final int color3 = model.getFaceColors3()[face];
+        final boolean flat = color3 == FLAT_SHADED;
+
         final int alpha = alphaOf(model.getFaceTransparencies(), face);
         final byte[] facePriorities = model.getFaceRenderPriorities();
         final int priority = facePriorities == null ? 0 : facePriorities[face] & 0xff;
 
-        for (int corner = 0; corner < 3; corner++) {
-            final int vertex = corners[corner];
-            vertices.add(
-                    verticesX[vertex] * AXIS_SIGNS[0],
-                    verticesY[vertex] * AXIS_SIGNS[1],
-                    verticesZ[vertex] * AXIS_SIGNS[2],
-                    textured
-                            ? lightnessToGrey(cornerColors[corner])
-                            : COLOR_PALETTE[cornerColors[corner] & 0xffff],
-                    alpha,
-                    textured ? u[corner] : 0f,
-                    textured ? v[corner] : 0f,
-                    priority);
-        }
+        appendCorner(model, model.getFaceIndices1()[face], color1, textured, alpha, u[0], v[0], priority, vertices);
+        appendCorner(model, model.getFaceIndices2()[face], flat ? color1 : model.getFaceColors2()[face],
+                textured, alpha, u[1], v[1], priority, vertices);
+        appendCorner(model, model.getFaceIndices3()[face], flat ? color1 : color3,
+                textured, alpha, u[2], v[2], priority, vertices);
+    }
+
+    private static void appendCorner(ModelCapture model, int vertex, int color, boolean textured, int alpha,
+                                     float u, float v, int priority, VertexBuffer vertices) {
+        vertices.add(
+                model.getVerticesX()[vertex] * AXIS_SIGNS[0],
+                model.getVerticesY()[vertex] * AXIS_SIGNS[1],
+                model.getVerticesZ()[vertex] * AXIS_SIGNS[2],
+                textured ? lightnessToGrey(color) : COLOR_PALETTE[color & 0xffff],
+                alpha,
+                textured ? u : 0f,
+                textured ? v : 0f,
+                priority);
     }
 
     /** Face transparency is 0 for opaque, 255 for invisible; alpha is the inverse. */
@@ -194,7 +234,7 @@ public final class ModelMeshBuilder {
      * origin, the other two are the ends of its U and V axes. Faces without one
      * fall back to mapping the triangle straight onto the texture's corner.
      */
-    static void computeFaceUvs(Model model, int face, float[] u, float[] v) {
+    static void computeFaceUvs(ModelCapture model, int face, float[] u, float[] v) {
         final byte[] textureFaces = model.getTextureFaces();
         if (textureFaces == null || textureFaces[face] == -1) {
             u[0] = 0f;
@@ -273,51 +313,49 @@ public final class ModelMeshBuilder {
     }
 
     /**
-     * Identifies which primitive a face belongs to: the two things that need a
-     * separate material. Ordering puts untextured before textured and opaque
-     * before translucent.
+     * Faces bucketed by primitive. Group {@code g} owns
+     * {@code faces[offsets[g]]} up to {@code faces[offsets[g + 1]]}, in model
+     * order.
      * <p>
-     * Nothing else belongs here. Splitting is not free - every extra primitive
-     * is another mesh, and translucent triangles can only be ordered against
-     * each other while they share one - so per face data a renderer needs is
-     * carried per vertex instead.
+     * A group is identified by the two things that need a separate material,
+     * packed into one sortable int: texture id, then translucency. Ordering
+     * puts untextured before textured and opaque before translucent.
+     * <p>
+     * Nothing else belongs in the key. Splitting is not free - every extra
+     * primitive is another mesh, and translucent triangles can only be ordered
+     * against each other while they share one - so per face data a renderer
+     * needs is carried per vertex instead.
      */
-    private static final class FaceGroup implements Comparable<FaceGroup> {
-        private final int textureId;
-        private final boolean translucent;
+    private static final class FaceGroups {
+        private final int[] keys;
+        private final int[] offsets;
+        private final int[] faces;
+
+        FaceGroups(int[] keys, int[] offsets, int[] faces) {
+            this.keys = keys;
+            this.offsets = offsets;
+            this.faces = faces;
+        }
 
-        FaceGroup(int textureId, boolean translucent) {
-            this.textureId = textureId;
-            this.translucent = translucent;
+        /** Texture id times two plus translucency: sorts as (textureId, translucent). */
+        static int key(int textureId, boolean translucent) {
+            return textureId * 2 + (translucent ? 1 : 0);
         }
 
-        boolean isTextured() {
-            return textureId != MeshData.NO_TEXTURE;
+        int count() {
+            return keys.length;
         }
 
-        @Override
-        public int compareTo(FaceGroup other) {
-            if (textureId != other.textureId) {
-                return Integer.compare(textureId, other.textureId);
-            }
-            return translucent == other.translucent ? 0 : (translucent ? 1 : -1);
+        int textureId(int group) {
+            return keys[group] >> 1;
         }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) {
-                return true;
-            }
-            if (!(o instanceof FaceGroup)) {
-                return false;
-            }
-            final FaceGroup other = (FaceGroup) o;
-            return textureId == other.textureId && translucent == other.translucent;
+        boolean isTranslucent(int group) {
+            return (keys[group] & 1) != 0;
         }
 
-        @Override
-        public int hashCode() {
-            return textureId * 2 + (translucent ? 1 : 0);
+        boolean isTextured(int group) {
+            return textureId(group) != MeshData.NO_TEXTURE;
         }
     }
 
@@ -327,6 +365,13 @@ public final class ModelMeshBuilder {
      * <p>
      * Sized for the worst case of three unshared vertices per face and trimmed
      * at the end, which avoids growing four parallel buffers as it goes.
+     * <p>
+     * Merging uses an open addressed table of vertex slots, compared against
+     * the output buffers themselves, so adding a corner allocates nothing. Two
+     * corners collapse into one vertex only when position, colour, alpha, UV
+     * and priority all agree, so flat shaded faces keep their hard colour edges
+     * and textured faces keep their seams. Which slot a vertex gets depends
+     * only on first occurrence, never on the hash.
      */
     private static final class VertexBuffer {
         private final float[] positions;
@@ -334,7 +379,11 @@ public final class ModelMeshBuilder {
         private final float[] uvs;
         private final float[] priorities;
         private final int[] indices;
-        private final Map<VertexKey, Integer> lookup;
+        /** Full packed RGB per vertex; {@link #colors} keeps only the low 24 bits. */
+        private final int[] rgbs;
+        /** Vertex slot + 1 per bucket, 0 when empty. */
+        private final int[] table;
+        private final int mask;
 
         private final float[] min = {Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE};
         private final float[] max = {-Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE};
@@ -349,7 +398,11 @@ public final class ModelMeshBuilder {
             this.uvs = textured ? new float[capacity * 2] : null;
             this.priorities = prioritised ? new float[capacity] : null;
             this.indices = new int[capacity];
-            this.lookup = new HashMap<>(capacity * 2);
+            this.rgbs = new int[capacity];
+            // At most half full, so probe runs stay short.
+            final int buckets = Math.max(16, Integer.highestOneBit(Math.max(1, capacity) * 2 - 1) << 1);
+            this.table = new int[buckets];
+            this.mask = buckets - 1;
         }
 
         int indexCount() {
@@ -357,37 +410,79 @@ public final class ModelMeshBuilder {
         }
 
         void add(float x, float y, float z, int rgb, int alpha, float u, float v, int priority) {
-            final VertexKey key = new VertexKey(x, y, z, rgb, alpha, u, v, priority);
-            Integer slot = lookup.get(key);
-            if (slot == null) {
-                slot = vertexCount++;
-                positions[slot * 3] = x;
-                positions[slot * 3 + 1] = y;
-                positions[slot * 3 + 2] = z;
-
-                colors[slot * 4] = (byte) ((rgb >> 16) & 0xff);
-                colors[slot * 4 + 1] = (byte) ((rgb >> 8) & 0xff);
-                colors[slot * 4 + 2] = (byte) (rgb & 0xff);
-                colors[slot * 4 + 3] = (byte) alpha;
-
-                if (uvs != null) {
-                    uvs[slot * 2] = u;
-                    uvs[slot * 2 + 1] = v;
+            int bucket = mix(hash(x, y, z, rgb, alpha, u, v, priority)) & mask;
+            while (table[bucket] != 0) {
+                final int existing = table[bucket] - 1;
+                if (matches(existing, x, y, z, rgb, alpha, u, v, priority)) {
+                    indices[indexCount++] = existing;
+                    return;
                 }
+                bucket = (bucket + 1) & mask;
+            }
 
-                if (priorities != null) {
-                    priorities[slot] = priority;
-                }
+            final int slot = vertexCount++;
+            table[bucket] = slot + 1;
 
-                grow(x, 0);
-                grow(y, 1);
-                grow(z, 2);
+            positions[slot * 3] = x;
+            positions[slot * 3 + 1] = y;
+            positions[slot * 3 + 2] = z;
 
-                lookup.put(key, slot);
+            colors[slot * 4] = (byte) ((rgb >> 16) & 0xff);
+            colors[slot * 4 + 1] = (byte) ((rgb >> 8) & 0xff);
+            colors[slot * 4 + 2] = (byte) (rgb & 0xff);
+            colors[slot * 4 + 3] = (byte) alpha;
+
+            if (uvs != null) {
+                uvs[slot * 2] = u;
+                uvs[slot * 2 + 1] = v;
+            }
+
+            if (priorities != null) {
+                priorities[slot] = priority;
             }
+
+            rgbs[slot] = rgb;
+
+            grow(x, 0);
+            grow(y, 1);
+            grow(z, 2);
             indices[indexCount++] = slot;
         }
 
+        /** Bitwise equality, as {@link Float#floatToIntBits} sees it, against an existing slot. */
+        private boolean matches(int slot, float x, float y, float z, int rgb, int alpha,
+                                float u, float v, int priority) {
+            return Float.floatToIntBits(positions[slot * 3]) == Float.floatToIntBits(x)
+                    && Float.floatToIntBits(positions[slot * 3 + 1]) == Float.floatToIntBits(y)
+                    && Float.floatToIntBits(positions[slot * 3 + 2]) == Float.floatToIntBits(z)
+                    && rgbs[slot] == rgb
+                    && (colors[slot * 4 + 3] & 0xff) == alpha
+                    // Without UV or priority buffers every vertex carries 0 for them.
+                    && (uvs == null || (Float.floatToIntBits(uvs[slot * 2]) == Float.floatToIntBits(u)
+                            && Float.floatToIntBits(uvs[slot * 2 + 1]) == Float.floatToIntBits(v)))
+                    && (priorities == null || priorities[slot] == priority);
+        }
+
+        private static int hash(float x, float y, float z, int rgb, int alpha, float u, float v, int priority) {
+            int h = Float.floatToIntBits(x);
+            h = h * 31 + Float.floatToIntBits(y);
+            h = h * 31 + Float.floatToIntBits(z);
+            h = h * 31 + rgb;
+            h = h * 31 + alpha;
+            h = h * 31 + Float.floatToIntBits(u);
+            h = h * 31 + Float.floatToIntBits(v);
+            h = h * 31 + priority;
+            return h;
+        }
+
+        /** Spreads the high bits down, since the table only looks at the low ones. */
+        private static int mix(int h) {
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            return h;
+        }
+
         private void grow(float value, int axis) {
             if (value < min[axis]) {
                 min[axis] = value;
@@ -441,61 +536,4 @@ public final class ModelMeshBuilder {
             return trimmed;
         }
     }
-
-    /**
-     * Identity of a vertex for merging. Two face corners collapse into one vertex
-     * only when position, colour and UV all agree, so flat shaded faces keep
-     * their hard colour edges and textured faces keep their seams.
-     */
-    private static final class VertexKey {
-        private final float x, y, z, u, v;
-        private final int rgb, alpha, priority;
-        private final int hash;
-
-        VertexKey(float x, float y, float z, int rgb, int alpha, float u, float v, int priority) {
-            this.x = x;
-            this.y = y;
-            this.z = z;
-            this.rgb = rgb;
-            this.alpha = alpha;
-            this.u = u;
-            this.v = v;
-            this.priority = priority;
-
-            int h = Float.floatToIntBits(x);
-            h = h * 31 + Float.floatToIntBits(y);
-            h = h * 31 + Float.floatToIntBits(z);
-            h = h * 31 + rgb;
-            h = h * 31 + alpha;
-            h = h * 31 + Float.floatToIntBits(u);
-            h = h * 31 + Float.floatToIntBits(v);
-            h = h * 31 + priority;
-            this.hash = h;
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) {
-                return true;
-            }
-            if (!(o instanceof VertexKey)) {
-                return false;
-            }
-            final VertexKey other = (VertexKey) o;
-            return hash == other.hash
-                    && Float.floatToIntBits(x) == Float.floatToIntBits(other.x)
-                    && Float.floatToIntBits(y) == Float.floatToIntBits(other.y)
-                    && Float.floatToIntBits(z) == Float.floatToIntBits(other.z)
-                    && rgb == other.rgb
-                    && alpha == other.alpha
-                    && Float.floatToIntBits(u) == Float.floatToIntBits(other.u)
-                    && Float.floatToIntBits(v) == Float.floatToIntBits(other.v)
-                    && priority == other.priority;
-        }
-
-        @Override
-        public int hashCode() {
-            return hash;
-        }
-    }
 }
@@ -0,0 +1,342 @@
+package io.droptracker.modelexport;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Packs a mesh's textures into one image, so the file carries a single PNG
+ * and every atlased texture shares one material: one primitive for the opaque
+ * faces and one for the translucent ones, instead of two per texture.
+ * <p>
+ * Not every texture can move into an atlas. One that repeats across a face
+ * has UVs outside 0..1, and one that scrolls relies on wrapping too; both keep
+ * their own image and primitive. Textures are only packed when at least two
+ * qualify, since an atlas of one saves nothing.
+ * <p>
+ * Each tile is surrounded by a gutter of repeated edge texels, so filtering at
+ * a tile's border does not pull in its neighbour.
+ */
+@Slf4j
+final class TextureAtlas {
+    private static final int GUTTER = 2;
+
+    /** UVs this close outside 0..1 are float error on a corner, not a repeat. */
+    private static final float UV_EPSILON = 1e-4f;
+
+    private static final int UNOWNED = -1;
+
+    /** Owner of a vertex used by a textured primitive that keeps its own image. */
+    private static final int OWN_IMAGE = -2;
+
+    private final Map<Integer, Integer> tileByTexture;
+    private final int tileSize;
+    private final int columns;
+    private final int width;
+    private final int height;
+    private final int[] pixels;
+    private MeshData mesh;
+    private GameTextures.TextureData texture;
+
+    private TextureAtlas(Map<Integer, Integer> tileByTexture, int tileSize, int columns, int rows) {
+        this.tileByTexture = tileByTexture;
+        this.tileSize = tileSize;
+        this.columns = columns;
+        this.width = columns * (tileSize + 2 * GUTTER);
+        this.height = rows * (tileSize + 2 * GUTTER);
+        this.pixels = new int[width * height];
+    }
+
+    /** The mesh with atlased primitives merged under {@link MeshData#ATLAS_TEXTURE}. */
+    MeshData getMesh() {
+        return mesh;
+    }
+
+    /** The atlas image, to be returned for {@link MeshData#ATLAS_TEXTURE}. */
+    GameTextures.TextureData getTexture() {
+        return texture;
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int getHeight() {
+        return height;
+    }
+
+    int[] getPixels() {
+        return pixels;
+    }
+
+    /** Where {@code (u, v)} of a packed texture lands in the atlas, or null if it was not packed. */
+    @Nullable
+    float[] map(int textureId, float u, float v) {
+        final Integer tile = tileByTexture.get(textureId);
+        return tile == null ? null : new float[]{mapU(tile, u), mapV(tile, v)};
+    }
+
+    private float mapU(int tile, float u) {
+        return (tileX(tile) + GUTTER + clamp(u) * tileSize) / width;
+    }
+
+    private float mapV(int tile, float v) {
+        return (tileY(tile) + GUTTER + clamp(v) * tileSize) / height;
+    }
+
+    private int tileX(int tile) {
+        return (tile % columns) * (tileSize + 2 * GUTTER);
+    }
+
+    private int tileY(int tile) {
+        return (tile / columns) * (tileSize + 2 * GUTTER);
+    }
+
+    /**
+     * @return the packed mesh and image, or null when fewer than two textures
+     * can be packed and the mesh should be written as it is
+     */
+    @Nullable
+    static TextureAtlas pack(@NonNull MeshData mesh, @NonNull ModelCapture capture) {
+        if (mesh.getUvs() == null) {
+            return null;
+        }
+        final List<Integer> packed = packableTextures(mesh, capture.getTextures());
+        if (packed.size() < 2) {
+            return null;
+        }
+
+        final Map<Integer, Integer> tileByTexture = new HashMap<>();
+        for (int tile = 0; tile < packed.size(); tile++) {
+            tileByTexture.put(packed.get(tile), tile);
+        }
+        final int columns = (int) Math.ceil(Math.sqrt(packed.size()));
+        final TextureAtlas atlas = new TextureAtlas(tileByTexture,
+                sizeOf(capture.getTextures().get(packed.get(0))), columns,
+                (packed.size() + columns - 1) / columns);
+        for (int tile = 0; tile < packed.size(); tile++) {
+            atlas.blit(capture.getTextures().get(packed.get(tile)).getPixels(), tile);
+        }
+
+        // Unlike single textures the atlas is not cached: it is specific to
+        // one combination of worn items.
+        byte[] png = null;
+        try {
+            png = TextureCache.encodePng(atlas.pixels, atlas.width, atlas.height);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Could not encode the texture atlas", e);
+        }
+        atlas.texture = new GameTextures.TextureData(MeshData.ATLAS_TEXTURE, png,
+                GameTextures.averageColor(atlas.pixels), 0f, 0f);
+        atlas.mesh = atlas.remap(mesh);
+        return atlas;
+    }
+
+    /**
+     * Textures the mesh uses that are present, square, still, the same size as
+     * the first such texture, and mapped entirely within 0..1. In id order.
+     */
+    private static List<Integer> packableTextures(MeshData mesh, Map<Integer, ModelCapture.RawTexture> raw) {
+        final Map<Integer, Boolean> candidates = new TreeMap<>();
+        final float[] uvs = mesh.getUvs();
+        final int[] indices = mesh.getIndices();
+        for (MeshData.Primitive primitive : mesh.getPrimitives()) {
+            if (!primitive.isTextured()) {
+                continue;
+            }
+            final int textureId = primitive.getTextureId();
+            final ModelCapture.RawTexture texture = raw.get(textureId);
+            boolean packable = texture != null && sizeOf(texture) > 0 && !GameTextures.isAnimated(texture)
+                    && candidates.getOrDefault(textureId, true);
+            final int end = primitive.getIndexOffset() + primitive.getIndexCount();
+            for (int i = primitive.getIndexOffset(); packable && i < end; i++) {
+                final int vertex = indices[i];
+                packable = inUnitRange(uvs[vertex * 2]) && inUnitRange(uvs[vertex * 2 + 1]);
+            }
+            candidates.put(textureId, packable);
+        }
+
+        final List<Integer> packed = new ArrayList<>();
+        int size = -1;
+        for (Map.Entry<Integer, Boolean> candidate : candidates.entrySet()) {
+            if (!candidate.getValue()) {
+                continue;
+            }
+            final int candidateSize = sizeOf(raw.get(candidate.getKey()));
+            if (size == -1) {
+                size = candidateSize;
+            }
+            if (candidateSize == size) {
+                packed.add(candidate.getKey());
+            }
+        }
+        return packed;
+    }
+
+    private static boolean inUnitRange(float value) {
+        return value >= -UV_EPSILON && value <= 1f + UV_EPSILON;
+    }
+
+    /** Side of a square texture, or 0 if it is not square. */
+    private static int sizeOf(ModelCapture.RawTexture texture) {
+        final int length = texture.getPixels().length;
+        final int size = (int) Math.round(Math.sqrt(length));
+        return size * size == length ? size : 0;
+    }
+
+    /** Copies a texture into its tile, extending its edges across the gutter. */
+    private void blit(int[] source, int tile) {
+        final int x0 = tileX(tile);
+        final int y0 = tileY(tile);
+        final int stride = tileSize + 2 * GUTTER;
+        for (int y = 0; y < stride; y++) {
+            final int sourceY = Math.max(0, Math.min(tileSize - 1, y - GUTTER));
+            for (int x = 0; x < stride; x++) {
+                final int sourceX = Math.max(0, Math.min(tileSize - 1, x - GUTTER));
+                pixels[(y0 + y) * width + x0 + x] = source[sourceY * tileSize + sourceX];
+            }
+        }
+    }
+
+    /**
+     * Rewrites atlased UVs into their tiles and merges the atlased primitives.
+     * <p>
+     * The mesh builder shares a vertex between any faces that agree on it, so
+     * one vertex can be used by two textures whose tiles now need different
+     * UVs. Such a vertex is copied for every texture after the first, so the
+     * original vertices keep their order and any copies go on the end.
+     */
+    private MeshData remap(MeshData mesh) {
+        final int vertexCount = mesh.getVertexCount();
+        final int[] owner = new int[vertexCount];
+        Arrays.fill(owner, UNOWNED);
+        final Copies copies = new Copies(mesh);
+        final Map<Long, Integer> copyOf = new HashMap<>();
+
+        // Merged groups in the mesh builder's key order: texture id, then
+        // translucency.
+        final Map<Integer, List<int[]>> groups = new TreeMap<>();
+        final int[] indices = mesh.getIndices();
+        for (MeshData.Primitive primitive : mesh.getPrimitives()) {
+            final Integer tile = primitive.isTextured() ? tileByTexture.get(primitive.getTextureId()) : null;
+            final int textureId = tile != null ? MeshData.ATLAS_TEXTURE : primitive.getTextureId();
+            final int ownerTag = tile != null ? tile : OWN_IMAGE;
+
+            final int[] remapped = new int[primitive.getIndexCount()];
+            for (int i = 0; i < remapped.length; i++) {
+                int vertex = indices[primitive.getIndexOffset() + i];
+                if (primitive.isTextured()) {
+                    if (owner[vertex] == UNOWNED) {
+                        owner[vertex] = ownerTag;
+                    } else if (owner[vertex] != ownerTag) {
+                        final long key = (long) vertex << 32 | (ownerTag & 0xffffffffL);
+                        final int source = vertex;
+                        vertex = copyOf.computeIfAbsent(key, k -> copies.add(source, ownerTag));
+                    }
+                }
+                remapped[i] = vertex;
+            }
+            groups.computeIfAbsent(textureId * 2 + (primitive.isTranslucent() ? 1 : 0), k -> new ArrayList<>())
+                    .add(remapped);
+        }
+
+        final int[] mergedIndices = new int[indices.length];
+        final List<MeshData.Primitive> primitives = new ArrayList<>(groups.size());
+        int offset = 0;
+        for (Map.Entry<Integer, List<int[]>> group : groups.entrySet()) {
+            final int start = offset;
+            for (int[] run : group.getValue()) {
+                System.arraycopy(run, 0, mergedIndices, offset, run.length);
+                offset += run.length;
+            }
+            // Floor division recovers the texture id for the negative keys too.
+            primitives.add(new MeshData.Primitive(Math.floorDiv(group.getKey(), 2), start, offset - start,
+                    (group.getKey() & 1) == 1));
+        }
+
+        final float[] uvs = copies.uvs();
+        final int[] owners = copies.owners(owner);
+        for (int vertex = 0; vertex < owners.length; vertex++) {
+            if (owners[vertex] >= 0) {
+                uvs[vertex * 2] = mapU(owners[vertex], uvs[vertex * 2]);
+                uvs[vertex * 2 + 1] = mapV(owners[vertex], uvs[vertex * 2 + 1]);
+            }
+        }
+
+        return new MeshData(copies.positions(), copies.colors(), copies.priorities(), uvs, mergedIndices,
+                primitives, mesh.getMin(), mesh.getMax());
+    }
+
+    private static float clamp(float value) {
+        return Math.max(0f, Math.min(1f, value));
+    }
+
+    /** The source mesh's vertex arrays, plus any vertices copied for a second owner. */
+    private static final class Copies {
+        private final MeshData mesh;
+        private final int vertexCount;
+        private int[] sources = new int[16];
+        private int[] owners = new int[16];
+        private int count;
+
+        Copies(MeshData mesh) {
+            this.mesh = mesh;
+            this.vertexCount = mesh.getVertexCount();
+        }
+
+        int add(int source, int owner) {
+            if (count == sources.length) {
+                sources = Arrays.copyOf(sources, count * 2);
+                owners = Arrays.copyOf(owners, count * 2);
+            }
+            sources[count] = source;
+            owners[count] = owner;
+            return vertexCount + count++;
+        }
+
+        int[] owners(int[] original) {
+            final int[] all = Arrays.copyOf(original, vertexCount + count);
+            System.arraycopy(owners, 0, all, vertexCount, count);
+            return all;
+        }
+
+        float[] positions() {
+            return extend(mesh.getPositions(), 3);
+        }
+
+        float[] uvs() {
+            return extend(mesh.getUvs(), 2);
+        }
+
+        @Nullable
+        float[] priorities() {
+            return mesh.getPriorities() == null ? null : extend(mesh.getPriorities(), 1);
+        }
+
+        byte[] colors() {
+            final byte[] source = mesh.getColors();
+            final byte[] all = Arrays.copyOf(source, (vertexCount + count) * 4);
+            for (int i = 0; i < count; i++) {
+                System.arraycopy(source, sources[i] * 4, all, (vertexCount + i) * 4, 4);
+            }
+            return all;
+        }
+
+        /** Always a fresh array, so the source mesh is left untouched. */
+        private float[] extend(float[] source, int width) {
+            final float[] all = Arrays.copyOf(source, (vertexCount + count) * width);
+            for (int i = 0; i < count; i++) {
+                System.arraycopy(source, sources[i] * width, all, (vertexCount + i) * width, width);
+            }
+            return all;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package io.droptracker.modelexport;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Encoded texture PNGs, shared by every export for the life of the process
+ * and optionally kept on disk between sessions.
+ * <p>
+ * Keyed by texture id and game cache revision, which is what identifies a
+ * texture's content. The pixels the client hands out also depend on the
+ * brightness setting, so each entry remembers a SHA-256 of the pixels it was
+ * encoded from and is re-encoded if they differ; hashing a 128x128 array
+ * costs far less than the PNG encode it saves.
+ * <p>
+ * On disk, each revision gets its own directory. The first use of a revision
+ * removes the directories of all others, so a game update never leaves stale
+ * textures behind, and the directory is trimmed oldest first whenever it
+ * grows past its budget. Disk errors only cost a re-encode.
+ * <p>
+ * Reads, encodes and writes run outside the map, so a slow texture never
+ * holds up lookups of others. Two exports racing on the same new texture may
+ * both encode it; they produce the same bytes and the later one is kept.
+ */
+@Slf4j
+public final class TextureCache {
+    /** A few hundred textures' worth; the game has fewer than that. */
+    private static final long DISK_BUDGET_BYTES = 16L * 1024 * 1024;
+
+    @Nullable
+    private final Path directory;
+    private final long diskBudgetBytes;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<Integer> preparedRevisions = ConcurrentHashMap.newKeySet();
+    private final AtomicLong diskBytes = new AtomicLong();
+    private final AtomicInteger encodes = new AtomicInteger();
+
+    private static final class Entry {
+        private final byte[] pixelDigest;
+        @Nullable
+        private final byte[] png;
+
+        Entry(byte[] pixelDigest, @Nullable byte[] png) {
+            this.pixelDigest = pixelDigest;
+            this.png = png;
+        }
+    }
+
+    /**
+     * @param directory where to persist PNGs, or null to keep them in memory
+     *                  only
+     */
+    public TextureCache(@Nullable Path directory) {
+        this(directory, DISK_BUDGET_BYTES);
+    }
+
+    TextureCache(@Nullable Path directory, long diskBudgetBytes) {
+        this.directory = directory;
+        this.diskBudgetBytes = diskBudgetBytes;
+    }
+
+    /**
+     * The PNG for a square texture, encoding it only if neither memory nor disk
+     * has it for these exact pixels.
+     *
+     * @return null if the pixels could not be encoded
+     */
+    @Nullable
+    byte[] png(int textureId, int revision, @NonNull int[] pixels, int size) {
+        final long key = (long) revision << 32 | (textureId & 0xffffffffL);
+        final byte[] digest = digest(pixels);
+        final Entry existing = entries.get(key);
+        if (existing != null && MessageDigest.isEqual(existing.pixelDigest, digest)) {
+            return existing.png;
+        }
+        if (directory != null && preparedRevisions.add(revision)) {
+            prepare(revision);
+        }
+        final Entry entry = load(textureId, revision, digest, pixels, size);
+        entries.put(key, entry);
+        return entry.png;
+    }
+
+    /** Number of PNG encodes performed, for tests and benchmarks. */
+    int encodeCount() {
+        return encodes.get();
+    }
+
+    private Entry load(int textureId, int revision, byte[] digest, int[] pixels, int size) {
+        final Path file = fileFor(textureId, revision, digest);
+        if (file != null && Files.isRegularFile(file)) {
+            try {
+                return new Entry(digest, Files.readAllBytes(file));
+            } catch (IOException e) {
+                log.debug("Could not read cached texture {}", file, e);
+            }
+        }
+
+        byte[] png = null;
+        try {
+            encodes.incrementAndGet();
+            png = encodePng(pixels, size, size);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Could not encode texture {}", textureId, e);
+        }
+        if (png != null && file != null) {
+            store(file, png);
+        }
+        return new Entry(digest, png);
+    }
+
+    @Nullable
+    private Path fileFor(int textureId, int revision, byte[] digest) {
+        if (directory == null) {
+            return null;
+        }
+        final StringBuilder name = new StringBuilder(textureId + "-");
+        for (byte b : digest) {
+            name.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return revisionDirectory(revision).resolve(name.append(".png").toString());
+    }
+
+    private Path revisionDirectory(int revision) {
+        return directory.resolve(Integer.toString(revision));
+    }
+
+    private void store(Path file, byte[] png) {
+        try {
+            Files.createDirectories(file.getParent());
+            final Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(tmp, png);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.debug("Could not persist texture {}", file, e);
+            return;
+        }
+        if (diskBytes.addAndGet(png.length) > diskBudgetBytes) {
+            trim(file.getParent());
+        }
+    }
+
+    /** Clears out other revisions and brings this one's directory within budget. */
+    private void prepare(int revision) {
+        try {
+            removeOtherRevisions(revision);
+        } catch (IOException e) {
+            log.debug("Could not remove old texture revisions", e);
+        }
+        trim(revisionDirectory(revision));
+    }
+
+    private void removeOtherRevisions(int revision) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        final String keep = Integer.toString(revision);
+        try (DirectoryStream<Path> revisions = Files.newDirectoryStream(directory)) {
+            for (Path old : revisions) {
+                if (!Files.isDirectory(old) || old.getFileName().toString().equals(keep)) {
+                    continue;
+                }
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(old)) {
+                    for (Path f : files) {
+                        Files.deleteIfExists(f);
+                    }
+                }
+                Files.deleteIfExists(old);
+            }
+        }
+    }
+
+    /**
+     * Deletes the oldest PNGs in {@code revisionDirectory} until it fits the
+     * budget, and resets the running total to what is left.
+     */
+    private synchronized void trim(Path revisionDirectory) {
+        final File[] files = revisionDirectory.toFile().listFiles((d, name) -> name.endsWith(".png"));
+        if (files == null) {
+            diskBytes.set(0);
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified).reversed());
+        long kept = 0;
+        for (File f : files) {
+            final long length = f.length();
+            if (kept + length <= diskBudgetBytes) {
+                kept += length;
+            } else if (!f.delete()) {
+                log.debug("Could not delete old texture {}", f);
+                kept += length;
+            }
+        }
+        diskBytes.set(kept);
+    }
+
+    static byte[] digest(int[] pixels) {
+        final MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(4096);
+        for (int pixel : pixels) {
+            if (!buffer.hasRemaining()) {
+                sha256.update(buffer.array(), 0, buffer.position());
+                buffer.clear();
+            }
+            buffer.putInt(pixel);
+        }
+        sha256.update(buffer.array(), 0, buffer.position());
+        return sha256.digest();
+    }
+
+    /**
+     * A pixel of 0 is the game's transparent texel, which the renderer discards
+     * rather than drawing black, so it becomes a fully transparent PNG pixel.
+     */
+    static byte[] encodePng(int[] pixels, int width, int height) throws IOException {
+        final int[] argb = new int[pixels.length];
+        for (int i = 0; i < pixels.length; i++) {
+            final int rgb = pixels[i];
+            argb[i] = rgb == 0 ? 0 : 0xff000000 | rgb;
+        }
+
+        final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(0, 0, width, height, argb, 0, width);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
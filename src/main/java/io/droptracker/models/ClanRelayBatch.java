@@ -0,0 +1,101 @@
+package io.droptracker.models;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import lombok.Data;
+import lombok.Value;
+
+/**
+ * One POST /clan_relay upload: the relayer's identity once, then every line
+ * relayed from one clan channel since the last flush.
+ *
+ * <p>Replaces sending each line as its own webhook embed, which repeated the
+ * identity, version and a fresh GUID on every line and travelled as a
+ * multipart submission. Each line here is a bare {@code [timestamp, sender,
+ * text]} tuple; a null sender marks a clan broadcast rather than a player's
+ * chat line.
+ *
+ * <p>The server dedupes lines across relayers by clan, sender and text within
+ * a few seconds of each other, so several clanmates relaying the same chat
+ * stays safe. The timestamp is when the relaying client received the line,
+ * by its own clock, which is why an exact match is not required.
+ */
+@Data
+public class ClanRelayBatch {
+
+	/** Relayer identity, resolved server-side exactly as submissions are. */
+	@SerializedName("player_name")
+	private String playerName;
+
+	@SerializedName("acc_hash")
+	private String accountHash;
+
+	/** Plugin version, matching the {@code p_v} field on submissions. */
+	@SerializedName("p_v")
+	private String pluginVersion;
+
+	@SerializedName("clan_name")
+	private String clanName;
+
+	/** Unique per upload, so a retried one is recognised. */
+	@SerializedName("batch_id")
+	private String batchId;
+
+	@SerializedName("lines")
+	private List<Line> lines = new ArrayList<>();
+
+	@Value
+	@JsonAdapter(LineAdapter.class)
+	public static class Line {
+		/** When the line appeared in game, in epoch seconds. */
+		long timestamp;
+		/** Null for a clan broadcast. */
+		String sender;
+		String text;
+	}
+
+	/** Writes a line as its tuple instead of an object with named fields. */
+	static final class LineAdapter extends TypeAdapter<Line> {
+		@Override
+		public void write(JsonWriter out, Line line) throws IOException {
+			if (line == null) {
+				out.nullValue();
+				return;
+			}
+			out.beginArray();
+			out.value(line.getTimestamp());
+			// A null inside an array is always written, keeping the tuple's shape.
+			out.value(line.getSender());
+			out.value(line.getText());
+			out.endArray();
+		}
+
+		@Override
+		public Line read(JsonReader in) throws IOException {
+			if (in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				return null;
+			}
+			in.beginArray();
+			long timestamp = in.nextLong();
+			String sender;
+			if (in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				sender = null;
+			} else {
+				sender = in.nextString();
+			}
+			String text = in.nextString();
+			in.endArray();
+			return new Line(timestamp, sender, text);
+		}
+	}
+}
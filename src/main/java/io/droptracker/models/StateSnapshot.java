@@ -30,6 +30,17 @@ import lombok.Data;
 @Data
 public class StateSnapshot {
 
+	/**
+	 * Baseline this snapshot is a delta against, as returned by the server for
+	 * an earlier sync; null for a full snapshot.
+	 *
+	 * <p>A delta carries only the map and list entries that changed since that
+	 * baseline, with the same absolute values and the same upsert semantics as
+	 * a full snapshot. Header fields are always present.
+	 */
+	@SerializedName("baseline_id")
+	private String baselineId;
+
 	/** Identity, resolved server-side exactly as submissions are. */
 	@SerializedName("player_name")
 	private String playerName;
@@ -0,0 +1,46 @@
+package io.droptracker.models.api;
+
+import lombok.Getter;
+
+/**
+ * Outcome of POST /clan_relay.
+ *
+ * <p>{@link Status#UNSUPPORTED} means the server predates the endpoint; the
+ * relay then goes back to sending lines as webhook submissions.
+ */
+@Getter
+public class ClanRelayResult {
+    public enum Status {
+        ACCEPTED,
+        UNSUPPORTED,
+        FAILED
+    }
+
+    private static final ClanRelayResult FAILED = new ClanRelayResult(Status.FAILED, 0);
+    private static final ClanRelayResult UNSUPPORTED = new ClanRelayResult(Status.UNSUPPORTED, 0);
+
+    private final Status status;
+
+    /**
+     * How long the server asks this relayer to stand by because another
+     * clanmate is already relaying the same channel; 0 to keep relaying.
+     */
+    private final int standbySeconds;
+
+    private ClanRelayResult(Status status, int standbySeconds) {
+        this.status = status;
+        this.standbySeconds = standbySeconds;
+    }
+
+    public static ClanRelayResult accepted(int standbySeconds) {
+        return new ClanRelayResult(Status.ACCEPTED, Math.max(0, standbySeconds));
+    }
+
+    public static ClanRelayResult unsupported() {
+        return UNSUPPORTED;
+    }
+
+    public static ClanRelayResult failed() {
+        return FAILED;
+    }
+}
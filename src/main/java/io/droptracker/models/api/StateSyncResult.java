@@ -0,0 +1,48 @@
+package io.droptracker.models.api;
+
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+
+/**
+ * Outcome of POST /state/sync.
+ *
+ * <p>{@link Status#BASELINE_REJECTED} is distinct from a plain failure: it
+ * means the server no longer has the baseline a delta was computed against,
+ * so retrying the same delta can never succeed and the next upload must be a
+ * full snapshot.
+ */
+@Getter
+public class StateSyncResult {
+    public enum Status {
+        ACCEPTED,
+        BASELINE_REJECTED,
+        FAILED
+    }
+
+    private static final StateSyncResult FAILED = new StateSyncResult(Status.FAILED, null);
+    private static final StateSyncResult REJECTED = new StateSyncResult(Status.BASELINE_REJECTED, null);
+
+    private final Status status;
+
+    /** New baseline to send the next delta against. Null from servers without delta support. */
+    @Nullable
+    private final String baselineId;
+
+    private StateSyncResult(Status status, @Nullable String baselineId) {
+        this.status = status;
+        this.baselineId = baselineId;
+    }
+
+    public static StateSyncResult accepted(@Nullable String baselineId) {
+        return new StateSyncResult(Status.ACCEPTED, baselineId);
+    }
+
+    public static StateSyncResult baselineRejected() {
+        return REJECTED;
+    }
+
+    public static StateSyncResult failed() {
+        return FAILED;
+    }
+}
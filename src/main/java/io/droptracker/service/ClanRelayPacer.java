@@ -0,0 +1,77 @@
+package io.droptracker.service;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decides when the clan relay flushes and which lines it skips.
+ *
+ * <p>The flush delay follows the chat rate: a quiet channel flushes after
+ * {@link #MIN_FLUSH_DELAY_MS}, so the Discord side of a conversation keeps
+ * up, while a busy one holds lines longer and sends them as fewer, larger
+ * uploads. The rate is an exponentially decaying count of lines, which
+ * settles on the true lines-per-second of steady chat.
+ *
+ * <p>A message already admitted is skipped when the client hands it over
+ * again, chat history replayed after a world hop being the common case. A
+ * message is told apart by the timestamp the client gave it as well as its
+ * clan, sender and text, so a clanmate saying "gz" twice is relayed twice;
+ * only exact replays are dropped.
+ *
+ * <p>Nothing here can see what other clanmates relay. The same message
+ * relayed by several of them is deduped by the server, which matches clan,
+ * sender and text within a few seconds: each relayer stamps the line with
+ * its own client clock, so their timestamps need not agree exactly.
+ *
+ * <p>Not thread-safe; {@link ClanRelayService} calls it under its own lock.
+ */
+final class ClanRelayPacer {
+
+    static final long MIN_FLUSH_DELAY_MS = 1000;
+    static final long MAX_FLUSH_DELAY_MS = 8000;
+    /** Extra hold per line per second of chat. */
+    private static final long DELAY_PER_RATE_MS = 2000;
+    /** Time constant of the chat-rate estimate. */
+    private static final double RATE_WINDOW_MS = 10_000;
+    /** Messages remembered for replay detection: minutes of even busy chat. */
+    static final int DEDUP_KEYS_MAX = 1024;
+
+    private double linesPerSecond;
+    private long rateAtMs;
+    private final Set<String> recentLines = Collections.newSetFromMap(new LinkedHashMap<String, Boolean>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > DEDUP_KEYS_MAX;
+        }
+    });
+
+    /**
+     * Records a message, or returns false if this exact one, down to the
+     * {@code sentAtSeconds} the client stamped it with, was admitted before.
+     */
+    boolean admit(String clanName, @Nullable String sender, String text, long sentAtSeconds, long nowMs) {
+        String key = sentAtSeconds + "\n" + clanName + '\n' + (sender != null ? sender : "") + '\n' + text;
+        if (!recentLines.add(key)) {
+            return false;
+        }
+        linesPerSecond = linesPerSecond(nowMs) + 1000.0 / RATE_WINDOW_MS;
+        return true;
+    }
+
+    /** Estimated chat rate, in lines per second. */
+    double linesPerSecond(long nowMs) {
+        long elapsedMs = Math.max(0, nowMs - rateAtMs);
+        rateAtMs = Math.max(rateAtMs, nowMs);
+        linesPerSecond *= Math.exp(-elapsedMs / RATE_WINDOW_MS);
+        return linesPerSecond;
+    }
+
+    /** How long to hold lines queued now before flushing them. */
+    long flushDelayMs(long nowMs) {
+        long delay = MIN_FLUSH_DELAY_MS + Math.round(linesPerSecond(nowMs) * DELAY_PER_RATE_MS);
+        return Math.min(MAX_FLUSH_DELAY_MS, delay);
+    }
+}
@@ -10,8 +10,11 @@ import com.google.inject.Singleton;
 import io.droptracker.DropTrackerConfig;
 import io.droptracker.DropTrackerPlugin;
 import io.droptracker.api.DropTrackerApi;
+import io.droptracker.models.ClanRelayBatch;
 import io.droptracker.models.CustomWebhookBody;
+import io.droptracker.models.api.ClanRelayResult;
 import io.droptracker.models.submissions.SubmissionType;
+import io.droptracker.util.ChatMessageUtil;
 import io.droptracker.util.PlayerIdentity;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
@@ -19,11 +22,13 @@ import net.runelite.api.clan.ClanChannel;
 import net.runelite.client.util.Text;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Relays clan chat to the DropTracker API for the clan features:
@@ -37,10 +42,13 @@ import java.util.concurrent.atomic.AtomicBoolean;
  *
  * The plugin stays a dumb pipe on purpose: no game-message parsing happens
  * client-side, so pattern fixes never wait on a plugin-hub review. Lines are
- * batched (2s debounce, capped batch) into one payload, and each embed
- * carries the standard relayer identity fields — the server authenticates the
- * RELAYER and dedupes across multiple relaying clanmates, so this can be
- * enabled by any number of members safely.
+ * held for a delay that grows with the chat rate (see {@link ClanRelayPacer})
+ * and sent as one {@link ClanRelayBatch} per clan: the relayer identity once,
+ * then a compact tuple per line. The server authenticates the RELAYER and
+ * dedupes across multiple relaying clanmates, so this can be enabled by any
+ * number of members safely; it may also ask a redundant relayer to stand by
+ * for a while. Servers without {@code /clan_relay} get the lines as webhook
+ * submissions, one embed per line, as before.
  *
  * API-only by contract: raw chat text must never ride the Discord-webhook
  * fallback transport. Both the queue methods here and the
@@ -50,11 +58,18 @@ import java.util.concurrent.atomic.AtomicBoolean;
 @Singleton
 public class ClanRelayService {
 
-    private static final int FLUSH_DELAY_SECONDS = 2;
-    private static final int MAX_LINES_PER_FLUSH = 10;
+    private static final int MAX_LINES_PER_BATCH = 50;
+    /** Lines per flush when they travel as webhook embeds, which are far larger. */
+    private static final int LEGACY_LINES_PER_FLUSH = 10;
+    /** Cap on a server standby request, so a relayer never goes quiet for long. */
+    private static final int MAX_STANDBY_SECONDS = 120;
     /** Backstop so a pathological chat flood can't grow the queue unbounded. */
     private static final int MAX_QUEUED_LINES = 200;
     private static final int MAX_MESSAGE_CHARS = 250;
+    /** Uploads of one batch before its lines are dropped, as for webhook submissions. */
+    static final int MAX_RELAY_ATTEMPTS = 10;
+    private static final long RELAY_RETRY_BASE_MS = 1000L;
+    private static final long RELAY_RETRY_MAX_MS = 60_000L;
 
     private final Client client;
     private final DropTrackerConfig config;
@@ -64,7 +79,13 @@ public class ClanRelayService {
     private final ScheduledExecutorService executor;
 
     private final ConcurrentLinkedQueue<PendingLine> queue = new ConcurrentLinkedQueue<>();
-    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    /** Guarded by {@code this}, as is {@link #pendingFlush}. */
+    private final ClanRelayPacer pacer = new ClanRelayPacer();
+    private ScheduledFuture<?> pendingFlush;
+    /** Cleared for the session once the server turns out to predate /clan_relay. */
+    private volatile boolean relayEndpointSupported = true;
+    /** Until when the server asked this client to leave relaying to a clanmate. */
+    private volatile long standbyUntilMs = 0;
 
     /**
      * The clan channel the local player currently sits in, maintained from
@@ -101,16 +122,19 @@ public class ClanRelayService {
         return config.useApi() && config.receiveDiscordChat() && currentClanName != null;
     }
 
-    /** A CLAN_MESSAGE system broadcast (already tag-sanitized by the caller). */
-    public void onClanBroadcast(String message) {
+    /**
+     * A CLAN_MESSAGE system broadcast (already tag-sanitized by the caller).
+     * {@code timestamp} is the chat message's own, in epoch seconds.
+     */
+    public void onClanBroadcast(String message, int timestamp) {
         if (!config.useApi() || !config.relayClanBroadcasts()) {
             return;
         }
-        queueLine(new PendingLine(SubmissionType.CLAN_BROADCAST, null, message));
+        queueLine(new PendingLine(SubmissionType.CLAN_BROADCAST, null, message, timestamp));
     }
 
-    /** A CLAN_CHAT player line (sender may still carry icon tags). */
-    public void onClanChat(String senderName, String message) {
+    /** A CLAN_CHAT player line (sender may still carry icon tags); see {@link #onClanBroadcast}. */
+    public void onClanChat(String senderName, String message, int timestamp) {
         if (!config.useApi() || !config.relayClanChat()) {
             return;
         }
@@ -118,7 +142,12 @@ public class ClanRelayService {
         if (sender == null || sender.trim().isEmpty()) {
             return;
         }
-        queueLine(new PendingLine(SubmissionType.CLAN_CHAT, sender.trim(), message));
+        if (sender.endsWith(ChatMessageUtil.DISCORD_SENDER_SUFFIX)) {
+            // The bridge's own Discord lines, shown as clan chat; relaying
+            // them would echo them back to Discord.
+            return;
+        }
+        queueLine(new PendingLine(SubmissionType.CLAN_CHAT, sender.trim(), message, timestamp));
     }
 
     private void queueLine(PendingLine line) {
@@ -133,10 +162,31 @@ public class ClanRelayService {
         String trimmed = line.message.trim();
         line.message = trimmed.length() > MAX_MESSAGE_CHARS
             ? trimmed.substring(0, MAX_MESSAGE_CHARS) : trimmed;
+        long now = System.currentTimeMillis();
+        long delayMs;
+        synchronized (this) {
+            if (!pacer.admit(line.clanName, line.sender, line.message, line.timestamp, now)) {
+                return;
+            }
+            delayMs = pacer.flushDelayMs(now);
+        }
         queue.add(line);
-        if (flushScheduled.compareAndSet(false, true)) {
-            executor.schedule(this::flush, FLUSH_DELAY_SECONDS, TimeUnit.SECONDS);
+        scheduleFlush(queue.size() >= batchLimit() ? 0 : delayMs);
+    }
+
+    /** Flushes within {@code delayMs}; a flush already due sooner is left as it is. */
+    private synchronized void scheduleFlush(long delayMs) {
+        if (pendingFlush != null) {
+            if (pendingFlush.getDelay(TimeUnit.MILLISECONDS) <= delayMs) {
+                return;
+            }
+            pendingFlush.cancel(false);
         }
+        pendingFlush = executor.schedule(this::flush, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private int batchLimit() {
+        return relayEndpointSupported ? MAX_LINES_PER_BATCH : LEGACY_LINES_PER_FLUSH;
     }
 
     /** Chat events arrive on the client thread, so this read is safe here. */
@@ -146,47 +196,119 @@ public class ClanRelayService {
     }
 
     private void flush() {
-        flushScheduled.set(false);
+        synchronized (this) {
+            pendingFlush = null;
+        }
         try {
-            List<PendingLine> lines = new ArrayList<>(MAX_LINES_PER_FLUSH);
+            int limit = batchLimit();
+            List<PendingLine> lines = new ArrayList<>(limit);
             PendingLine next;
-            while (lines.size() < MAX_LINES_PER_FLUSH && (next = queue.poll()) != null) {
+            while (lines.size() < limit && (next = queue.poll()) != null) {
                 lines.add(next);
             }
-            if (lines.isEmpty()) {
+            if (lines.isEmpty() || System.currentTimeMillis() < standbyUntilMs) {
+                // On standby a clanmate relays the same channel; the server
+                // already has these lines from them.
                 return;
             }
-            // One webhook per submission type so SubmissionManager's per-type
-            // dispatch stays uniform; a mixed 2s window is two payloads.
-            sendBatch(lines, SubmissionType.CLAN_BROADCAST);
-            sendBatch(lines, SubmissionType.CLAN_CHAT);
+            /* The relayer's own identity is what the server authenticates the batch
+               against, and it rejects a batch without one. Flushing happens off the
+               client thread, so an unreadable name here is routine — resolve it the
+               same way submissions do, and drop the batch rather than relay it
+               anonymously or under an invented name. */
+            String relayerName = PlayerIdentity.resolve(
+                plugin.getLocalPlayerName(),
+                String.valueOf(client.getAccountHash()),
+                config.lastAccountName(),
+                config.lastAccountHash());
+            if (relayerName == null) {
+                log.debug("Skipping clan relay batch: no resolvable player name");
+                return;
+            }
+            if (relayEndpointSupported) {
+                sendRelayBatches(lines, relayerName);
+            } else {
+                sendLegacy(lines, relayerName);
+            }
         } catch (Exception e) {
             log.debug("Clan relay flush failed: {}", e.getMessage());
         } finally {
             // Anything still queued (overflow past the batch cap, or lines
             // added mid-flush) gets its own pass.
-            if (!queue.isEmpty() && flushScheduled.compareAndSet(false, true)) {
-                executor.schedule(this::flush, FLUSH_DELAY_SECONDS, TimeUnit.SECONDS);
+            if (!queue.isEmpty()) {
+                long delayMs;
+                synchronized (this) {
+                    delayMs = pacer.flushDelayMs(System.currentTimeMillis());
+                }
+                scheduleFlush(delayMs);
             }
         }
     }
 
-    private void sendBatch(List<PendingLine> lines, SubmissionType type) {
-        /* The relayer's own identity is what the server authenticates the batch
-           against, and it rejects a batch without one. Flushing happens off the
-           client thread, so an unreadable name here is routine — resolve it the
-           same way submissions do, and drop the batch rather than relay it
-           anonymously or under an invented name. */
-        String relayerName = PlayerIdentity.resolve(
-            plugin.getLocalPlayerName(),
-            String.valueOf(client.getAccountHash()),
-            config.lastAccountName(),
-            config.lastAccountHash());
-        if (relayerName == null) {
-            log.debug("Skipping clan relay batch: no resolvable player name");
-            return;
+    /** One upload per clan; a window spanning a clan switch is two. */
+    private void sendRelayBatches(List<PendingLine> lines, String relayerName) {
+        Map<String, List<PendingLine>> byClan = new LinkedHashMap<>();
+        for (PendingLine line : lines) {
+            byClan.computeIfAbsent(line.clanName, clan -> new ArrayList<>()).add(line);
+        }
+        for (Map.Entry<String, List<PendingLine>> clan : byClan.entrySet()) {
+            ClanRelayBatch batch = new ClanRelayBatch();
+            batch.setPlayerName(relayerName);
+            batch.setAccountHash(String.valueOf(client.getAccountHash()));
+            batch.setPluginVersion(plugin.pluginVersion != null ? plugin.pluginVersion : "unknown");
+            batch.setClanName(clan.getKey());
+            batch.setBatchId(api.generateGuidForSubmission());
+            for (PendingLine line : clan.getValue()) {
+                batch.getLines().add(new ClanRelayBatch.Line(line.timestamp, line.sender, line.message));
+            }
+            postBatch(batch, clan.getValue(), relayerName, 1);
+        }
+    }
+
+    /**
+     * Uploads one clan's batch. A failed upload is sent again, same batch id
+     * and all so the server can dedupe it, with a doubling delay until
+     * {@value #MAX_RELAY_ATTEMPTS} attempts have failed; the lines are
+     * dropped then, or as soon as this client goes on standby.
+     */
+    private void postBatch(ClanRelayBatch batch, List<PendingLine> lines, String relayerName, int attempt) {
+        api.postClanRelayAsync(batch).thenAccept(result -> {
+            switch (result.getStatus()) {
+                case UNSUPPORTED:
+                    relayEndpointSupported = false;
+                    sendLegacy(lines, relayerName);
+                    break;
+                case ACCEPTED:
+                    if (result.getStandbySeconds() > 0) {
+                        standbyUntilMs = System.currentTimeMillis()
+                            + TimeUnit.SECONDS.toMillis(Math.min(result.getStandbySeconds(), MAX_STANDBY_SECONDS));
+                    }
+                    break;
+                case FAILED:
+                    if (attempt >= MAX_RELAY_ATTEMPTS || !config.useApi()
+                            || System.currentTimeMillis() < standbyUntilMs) {
+                        log.debug("Dropping {} clan relay lines after {} attempts", lines.size(), attempt);
+                        break;
+                    }
+                    long delayMs = Math.min(RELAY_RETRY_MAX_MS, RELAY_RETRY_BASE_MS << Math.min(attempt - 1, 16));
+                    executor.schedule(() -> postBatch(batch, lines, relayerName, attempt + 1),
+                        delayMs, TimeUnit.MILLISECONDS);
+                    break;
+            }
+        });
+    }
+
+    private void sendLegacy(List<PendingLine> lines, String relayerName) {
+        for (int from = 0; from < lines.size(); from += LEGACY_LINES_PER_FLUSH) {
+            List<PendingLine> chunk = lines.subList(from, Math.min(lines.size(), from + LEGACY_LINES_PER_FLUSH));
+            // One webhook per submission type so SubmissionManager's per-type
+            // dispatch stays uniform; a mixed window is two payloads.
+            sendBatch(chunk, SubmissionType.CLAN_BROADCAST, relayerName);
+            sendBatch(chunk, SubmissionType.CLAN_CHAT, relayerName);
         }
+    }
 
+    private void sendBatch(List<PendingLine> lines, SubmissionType type, String relayerName) {
         CustomWebhookBody webhook = null;
         for (PendingLine line : lines) {
             if (line.type != type) {
@@ -220,11 +342,14 @@ public class ClanRelayService {
         private final String sender;
         private String clanName;
         private String message;
+        /** Epoch seconds, as the client stamped the chat message. */
+        private final long timestamp;
 
-        private PendingLine(SubmissionType type, String sender, String message) {
+        private PendingLine(SubmissionType type, String sender, String message, long timestamp) {
             this.type = type;
             this.sender = sender;
             this.message = message;
+            this.timestamp = timestamp;
         }
     }
 }
@@ -1,7 +1,10 @@
 package io.droptracker.service;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
 import io.droptracker.DropTrackerConfig;
 import io.droptracker.api.DropTrackerApi;
+import io.droptracker.api.EventStream;
 import io.droptracker.models.api.EventNotification;
 import io.droptracker.models.api.EventState;
 import io.droptracker.util.ChatMessageUtil;
@@ -14,22 +17,27 @@ import net.runelite.api.Client;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.util.Text;
 import okhttp3.Call;
+import org.jetbrains.annotations.VisibleForTesting;
 
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * In-game event notifications + HUD state (EVENT_PLUGIN_NOTIFICATIONS_PLAN P2).
@@ -48,6 +56,14 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * dropped silently — the forward-compatibility contract), and the service
  * keeps the {@code /event_state} snapshot the HUD and Events tab render.
  *
+ * Where the server offers it, all of this arrives instead over one
+ * persistent event stream (GET /stream, see {@link EventStream}): the same
+ * notification batches plus clan bridge lines, pushed event state and
+ * submission statuses, each a typed message. Reconnects resume from the
+ * last message id. A server without the stream, or a stream that keeps
+ * failing, drops the service back to the long-poll above — for the session,
+ * or for {@value #STREAM_FALLBACK_MINUTES} minutes, respectively.
+ *
  * Stacking rules: envelopes are processed per poll as one batch, grouped by
  * event — at most ONE pop-up per batch (coalesced across events, headlined by
  * the most important update), chat collapses beyond
@@ -98,14 +114,32 @@ public class EventNotificationService {
     private static final long NOT_REGISTERED_RECHECK_MS =
         TimeUnit.MINUTES.toMillis(10);
     private static final int MAX_TEXT_LENGTH = 120;
+    /** Reconnect delay after the stream closes cleanly, unless the server sets its own. */
+    private static final long STREAM_RECONNECT_MS = 3000;
+    /** Floor under a server-set reconnect delay, so a {@code retry: 0} cannot spin the chain. */
+    static final long STREAM_MIN_RECONNECT_MS = 1000;
+    /**
+     * Stream connections in a row that fail before the long-poll takes over
+     * for a while. A connection that closes cleanly without delivering a
+     * single message counts as failed.
+     */
+    private static final int STREAM_MAX_FAILURES = 3;
+    static final int STREAM_FALLBACK_MINUTES = 10;
+    /** Fresh-batch /event_state refresh cooldown when the server sends patches, not whole documents. */
+    private static final long PATCH_REFRESH_COOLDOWN_MS = 2000;
 
     private final DropTrackerConfig config;
     private final DropTrackerApi api;
     private final ChatMessageUtil chatMessageUtil;
     private final Client client;
     private final ScheduledExecutorService executor;
-    private final ConfigManager configManager;
     private final ClanRelayService clanRelayService;
+    private final SubmissionManager submissionManager;
+    /** Versioned copy of /event_state that patches apply to; guarded by its own monitor. */
+    private final EventStateModel eventStateModel;
+    /** Pins, hides and the tracked task, shared with the Events tab. */
+    @Getter
+    private final EventTaskPrefs taskPrefs;
 
     /** Next scheduled poll cycle; guarded by {@code this}. */
     private ScheduledFuture<?> pollTask;
@@ -130,6 +164,20 @@ public class EventNotificationService {
     /** True until the session's first non-empty batch (catch-up candidate). */
     private volatile boolean firstBatchOfSession = true;
 
+    /** The open event stream, if the cycle chain is currently on one. */
+    @Nullable
+    private volatile EventStream stream;
+    /** Cleared for the session when the server turns out to have no stream. */
+    private volatile boolean serverSupportsStream = true;
+    /** After repeated stream failures, long-poll until this time. */
+    private volatile long streamFallbackUntilMs = 0;
+    private volatile int streamFailures = 0;
+    /** Id of the last stream message, sent back on reconnect to resume there. */
+    @Nullable
+    private volatile String resumeToken;
+    /** Message types the open stream pushes, from its hello; empty when not streaming. */
+    private volatile Set<String> streamedTypes = Collections.emptySet();
+
     /** LRU of processed envelope ids (replay guard). */
     private final Map<String, Boolean> seenIds =
         Collections.synchronizedMap(new LinkedHashMap<String, Boolean>() {
@@ -157,6 +205,12 @@ public class EventNotificationService {
     @Nullable
     private volatile EventState eventState;
     private volatile long eventStateAtMs = 0;
+    /**
+     * Bumped whenever what the HUD shows may have changed: a new state, or a
+     * config edit (tracked task, hidden tasks, HUD detail and so on). The
+     * overlays repaint their cached images only when it moves.
+     */
+    private final AtomicLong displayVersion = new AtomicLong();
 
     /** Invoked (off-EDT) whenever a fresh event state lands. */
     @Setter
@@ -185,14 +239,18 @@ public class EventNotificationService {
                                     ChatMessageUtil chatMessageUtil, Client client,
                                     ScheduledExecutorService executor,
                                     ConfigManager configManager,
-                                    ClanRelayService clanRelayService) {
+                                    ClanRelayService clanRelayService,
+                                    SubmissionManager submissionManager,
+                                    Gson gson) {
         this.config = config;
         this.api = api;
         this.chatMessageUtil = chatMessageUtil;
         this.client = client;
         this.executor = executor;
-        this.configManager = configManager;
         this.clanRelayService = clanRelayService;
+        this.submissionManager = submissionManager;
+        this.eventStateModel = new EventStateModel(gson);
+        this.taskPrefs = new EventTaskPrefs(configManager);
     }
 
     /* ===================== lifecycle ===================== */
@@ -205,27 +263,43 @@ public class EventNotificationService {
         serverReportedActiveEvent = false;
         consecutiveFailures = 0;
         firstBatchOfSession = true;
+        serverSupportsStream = true;
+        streamFallbackUntilMs = 0;
+        streamFailures = 0;
+        resumeToken = null;
         scheduleNext(POLL_INTERVAL_SECONDS * 1000L);
     }
 
     public void stop() {
         running.set(false);
+        EventStream open;
         synchronized (this) {
             if (pollTask != null) {
                 pollTask.cancel(false);
                 pollTask = null;
             }
+            open = stream;
+            stream = null;
         }
         Call call = inFlightCall;
         if (call != null) {
             call.cancel();
         }
+        if (open != null) {
+            open.close();
+        }
+        streamedTypes = Collections.emptySet();
+        submissionManager.setStatusesPushed(false);
         toasts.clear();
         synchronized (recentToastKeys) {
             recentToastKeys.clear();
         }
+        synchronized (eventStateModel) {
+            eventStateModel.clear();
+        }
         eventState = null;
         eventStateAtMs = 0;
+        displayVersion.incrementAndGet();
     }
 
     private boolean enabled() {
@@ -297,6 +371,11 @@ public class EventNotificationService {
             // polling with this clan recently.
             final String bridgeClan = bridgeActive
                 ? clanRelayService.getCurrentClanName() : null;
+            if (serverSupportsStream && System.currentTimeMillis() >= streamFallbackUntilMs
+                    && openStream(playerName, accountHash, bridgeClan)) {
+                handedOff = true;
+                return;
+            }
             Call call = api.newNotificationsCall(playerName, accountHash, waitSeconds, bridgeClan);
             if (call == null) {
                 scheduleNext(POLL_INTERVAL_SECONDS * 1000L);
@@ -368,6 +447,155 @@ public class EventNotificationService {
         }
     }
 
+    /**
+     * Puts the cycle chain on an event stream. The stream then owns the
+     * chain until it ends, when it schedules the next cycle itself: a
+     * reconnect, or a long-poll if the stream is off the table.
+     */
+    private boolean openStream(String playerName, long accountHash, @Nullable String bridgeClan) {
+        EventStream opened = api.newEventStream(playerName, accountHash, bridgeClan, resumeToken);
+        if (opened == null) {
+            return false;
+        }
+        synchronized (this) {
+            stream = opened;
+        }
+        opened.start(new EventStream.Listener() {
+            /** Whether this connection delivered anything, keep-alives included. */
+            private volatile boolean delivered;
+
+            @Override
+            public void onOpen() {
+                DebugLogger.log("[EventNotifications] stream open; resume=" + (resumeToken != null));
+            }
+
+            @Override
+            public void onMessage(EventStream.Message message) {
+                if (message.getId() != null) {
+                    resumeToken = message.getId();
+                }
+                delivered = true;
+                streamFailures = 0;
+                consecutiveFailures = 0;
+                try {
+                    handleStreamMessage(message, playerName, accountHash);
+                } catch (Exception e) {
+                    log.debug("stream message {} failed: {}", message.getType(), e.getMessage());
+                }
+                // Reconnect with the new presence when the bridge clan changes.
+                boolean bridgeActive = clanRelayService.discordChatActive();
+                String clan = bridgeActive ? clanRelayService.getCurrentClanName() : null;
+                if (!Objects.equals(clan, bridgeClan) || !enabled()) {
+                    opened.close();
+                    endStream(opened, STREAM_RECONNECT_MS);
+                }
+            }
+
+            @Override
+            public void onUnsupported(int httpCode) {
+                serverSupportsStream = false;
+                DebugLogger.log("[EventNotifications] no event stream (HTTP " + httpCode + "); long-polling");
+                endStream(opened, 0);
+            }
+
+            @Override
+            public void onClosed(@Nullable IOException error, long retryMs) {
+                long delayMs = retryMs >= 0 ? Math.max(retryMs, STREAM_MIN_RECONNECT_MS) : STREAM_RECONNECT_MS;
+                if (error != null || !delivered) {
+                    consecutiveFailures++;
+                    delayMs = Math.max(delayMs, failureBackoffMs());
+                    log.debug("event stream failed: {}", error != null ? error.getMessage() : "closed with no messages");
+                    if (++streamFailures >= STREAM_MAX_FAILURES) {
+                        streamFailures = 0;
+                        streamFallbackUntilMs = System.currentTimeMillis()
+                            + TimeUnit.MINUTES.toMillis(STREAM_FALLBACK_MINUTES);
+                        DebugLogger.log("[EventNotifications] stream keeps failing; long-polling for "
+                            + STREAM_FALLBACK_MINUTES + "m");
+                        delayMs = 0;
+                    }
+                }
+                endStream(opened, delayMs);
+            }
+        });
+        return true;
+    }
+
+    /** Until when repeated stream failures keep the chain on long-polls; 0 if they never have. */
+    @VisibleForTesting
+    long streamFallbackUntilMs() {
+        return streamFallbackUntilMs;
+    }
+
+    /** Hands the cycle chain back once {@code ended} is over; a no-op for a stream already replaced. */
+    private void endStream(EventStream ended, long nextDelayMs) {
+        synchronized (this) {
+            if (stream != ended) {
+                return;
+            }
+            stream = null;
+        }
+        streamedTypes = Collections.emptySet();
+        // Statuses pushed while reconnecting would be missed; /check covers the gap.
+        submissionManager.setStatusesPushed(false);
+        cycleInFlight.set(false);
+        scheduleNext(nextDelayMs);
+    }
+
+    /**
+     * One typed stream message, on the stream's OkHttp thread. Unknown types
+     * (keep-alive pings included) are dropped, as for notification envelopes.
+     */
+    private void handleStreamMessage(EventStream.Message message, String playerName, long accountHash) {
+        switch (message.getType()) {
+            case "hello": {
+                DropTrackerApi.StreamHello hello = api.parseStreamMessage(message, DropTrackerApi.StreamHello.class);
+                Set<String> types = hello != null && hello.types != null
+                    ? Collections.unmodifiableSet(new HashSet<>(hello.types)) : Collections.emptySet();
+                streamedTypes = types;
+                if (types.contains("submission_status")) {
+                    // Catch up on anything processed while no stream was open, then stop polling.
+                    submissionManager.checkPendingStatuses();
+                    submissionManager.setStatusesPushed(true);
+                }
+                break;
+            }
+            case "notifications": {
+                DropTrackerApi.NotificationsResponse batch =
+                    api.parseStreamMessage(message, DropTrackerApi.NotificationsResponse.class);
+                if (batch != null) {
+                    handleResponse(batch, playerName, accountHash);
+                }
+                break;
+            }
+            case "clan_chat": {
+                EventNotification line = api.parseStreamMessage(message, EventNotification.class);
+                if (line != null && (line.getId() == null || seenIds.put(line.getId(), Boolean.TRUE) == null)) {
+                    renderAndStripClanChat(Collections.singletonList(line));
+                }
+                break;
+            }
+            case "event_state": {
+                JsonObject update = api.parseStreamMessage(message, JsonObject.class);
+                if (update != null && applyEventState(update) == EventStateModel.Outcome.GAP) {
+                    // Missed a version on the stream; the poll endpoint
+                    // catches up from the copy, or resends it whole.
+                    refreshEventState(playerName, accountHash);
+                }
+                break;
+            }
+            case "submission_status": {
+                DropTrackerApi.SubmissionStatusMessage status =
+                    api.parseStreamMessage(message, DropTrackerApi.SubmissionStatusMessage.class);
+                if (status != null && status.processed != null) {
+                    submissionManager.markProcessed(status.processed);
+                }
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
     /** Runs on the OkHttp callback thread (off-EDT, off-client-thread). */
     private void handleResponse(DropTrackerApi.NotificationsResponse response,
                                 String playerName, long accountHash) {
@@ -404,13 +632,21 @@ public class EventNotificationService {
         // /event_state on every batch turned one completion into N
         // compositions at once. The batch itself already carries the
         // headline info; the full snapshot follows within the cooldown.
-        boolean cooledDown = sinceStateMs > TimeUnit.SECONDS.toMillis(20);
-        if ((eventState == null || stateStale || (!fresh.isEmpty() && cooledDown))
+        // A patching server answers with only what changed, so the
+        // cooldown there is just enough to merge a burst.
+        boolean cooledDown = sinceStateMs > (eventStateVersioned()
+            ? PATCH_REFRESH_COOLDOWN_MS : TimeUnit.SECONDS.toMillis(20));
+        // A stream that pushes the state sends it when it changes; no fetch needed.
+        boolean statePushed = streamedTypes.contains("event_state");
+        if (!statePushed && (eventState == null || stateStale || (!fresh.isEmpty() && cooledDown))
                 && Boolean.TRUE.equals(response.activeEvent)) {
             refreshEventState(playerName, accountHash);
         }
         if (Boolean.FALSE.equals(response.activeEvent) && eventState != null) {
             // Event(s) ended: clear the HUD snapshot.
+            synchronized (eventStateModel) {
+                eventStateModel.clear();
+            }
             eventState = null;
             notifyStateUpdated();
         }
@@ -508,13 +744,53 @@ public class EventNotificationService {
         refreshEventState(playerName, accountHash);
     }
 
+    /**
+     * Asynchronous. Asks for the changes since the version held, and only
+     * when those do not follow on from it (a missed version, a failed
+     * patch) for the whole document again. A refresh that overlaps one
+     * already in flight (a batch arriving while the Events tab opens, say)
+     * shares its request.
+     */
     private void refreshEventState(String playerName, long accountHash) {
-        EventState state = api.fetchEventState(playerName, accountHash);
-        if (state != null) {
+        long since;
+        synchronized (eventStateModel) {
+            since = eventStateModel.getVersion();
+        }
+        api.fetchEventStateAsync(playerName, accountHash, since).thenAccept(response -> {
+            if (response == null || applyEventState(response) != EventStateModel.Outcome.GAP || since < 0) {
+                return;
+            }
+            api.fetchEventStateAsync(playerName, accountHash, -1).thenAccept(full -> {
+                if (full != null) {
+                    applyEventState(full);
+                }
+            });
+        });
+    }
+
+    /** Applies a polled or streamed /event_state response, publishing the state if it changed. */
+    private EventStateModel.Outcome applyEventState(JsonObject response) {
+        EventStateModel.Outcome outcome;
+        EventState state;
+        synchronized (eventStateModel) {
+            outcome = eventStateModel.apply(response);
+            state = eventStateModel.getState();
+        }
+        if (outcome == EventStateModel.Outcome.GAP) {
+            return outcome;
+        }
+        eventStateAtMs = System.currentTimeMillis();
+        if (outcome == EventStateModel.Outcome.APPLIED) {
             eventState = state;
-            eventStateAtMs = System.currentTimeMillis();
             notifyStateUpdated();
         }
+        return outcome;
+    }
+
+    private boolean eventStateVersioned() {
+        synchronized (eventStateModel) {
+            return eventStateModel.getVersion() >= 0;
+        }
     }
 
     /**
@@ -531,7 +807,28 @@ public class EventNotificationService {
         return new LinkedHashSet<>(ids);
     }
 
+    public long getDisplayVersion() {
+        return displayVersion.get();
+    }
+
+    /**
+     * A DropTracker config key changed. HUD settings and the per-event task
+     * picks all live in that group, so the cached prefs drop the key and the
+     * overlays repaint on their next frame.
+     */
+    public void onConfigChanged(String key) {
+        taskPrefs.invalidate(key);
+        displayVersion.incrementAndGet();
+    }
+
+    /** The whole config may have changed under a profile switch. */
+    public void onProfileChanged() {
+        taskPrefs.invalidateAll();
+        displayVersion.incrementAndGet();
+    }
+
     private void notifyStateUpdated() {
+        displayVersion.incrementAndGet();
         Runnable callback = onStateUpdated;
         if (callback != null) {
             try {
@@ -562,28 +859,14 @@ public class EventNotificationService {
 
     /* ===================== tracked-task override ===================== */
 
-    private String trackedTaskKey(int eventId) {
-        return "trackedTask_" + eventId;
-    }
-
     /** The user's manually tracked task for an event, or 0 = server decides. */
     public int trackedTaskId(int eventId) {
-        try {
-            Integer stored = configManager.getConfiguration(
-                DropTrackerConfig.GROUP, trackedTaskKey(eventId), Integer.class);
-            return stored != null ? stored : 0;
-        } catch (Exception e) {
-            return 0;
-        }
+        return taskPrefs.tracked(eventId);
     }
 
     /** Track a task on the HUD for this event; taskId <= 0 reverts to auto. */
     public void setTrackedTask(int eventId, int taskId) {
-        if (taskId <= 0) {
-            configManager.unsetConfiguration(DropTrackerConfig.GROUP, trackedTaskKey(eventId));
-        } else {
-            configManager.setConfiguration(DropTrackerConfig.GROUP, trackedTaskKey(eventId), taskId);
-        }
+        taskPrefs.setTracked(eventId, taskId);
     }
 
     /**
@@ -644,8 +927,7 @@ public class EventNotificationService {
      * {@link ConfigManager} cannot be constructed off a live client.
      */
     Set<Integer> hiddenTaskIds(int eventId) {
-        return eventId > 0
-            ? EventTaskPrefs.hidden(configManager, eventId) : Collections.emptySet();
+        return eventId > 0 ? taskPrefs.hidden(eventId) : Collections.emptySet();
     }
 
     /**
@@ -0,0 +1,127 @@
+package io.droptracker.service;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import io.droptracker.models.api.EventState;
+import io.droptracker.util.JsonPatch;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * The client's copy of the versioned {@code /event_state} document, kept as
+ * the raw JSON tree so the server can send changes instead of the whole
+ * thing.
+ *
+ * <p>Servers answer either with the full document, stamped with its
+ * {@code version}, or — when asked for changes {@code since} a version — with
+ * {@code {"base_version", "version", "patch"}}, the patch being RFC 6902
+ * operations (see {@link JsonPatch}). A patch only applies on top of exactly
+ * its base version; anything else is a gap the caller closes with a full
+ * fetch. Older servers send unversioned full documents every time, which
+ * this takes as they are.
+ *
+ * <p>Not thread-safe; {@link EventNotificationService} applies responses from
+ * both the poll and the stream, under this object's monitor.
+ */
+@Slf4j
+final class EventStateModel {
+
+    enum Outcome {
+        /** The state changed; {@link #getState()} has the new one. */
+        APPLIED,
+        /** Nothing new: an empty patch, or one already applied. */
+        UNCHANGED,
+        /** The response does not follow on from this copy; fetch the full document. */
+        GAP
+    }
+
+    private final Gson gson;
+    @Nullable
+    private JsonElement document;
+    private long version = -1;
+    @Nullable
+    private EventState state;
+
+    EventStateModel(Gson gson) {
+        this.gson = gson;
+    }
+
+    /** Version of the current copy, or -1 when there is none or the server does not version it. */
+    long getVersion() {
+        return version;
+    }
+
+    @Nullable
+    EventState getState() {
+        return state;
+    }
+
+    Outcome apply(JsonObject response) {
+        if (!response.has("patch")) {
+            return applyFull(response);
+        }
+        long base = longField(response, "base_version");
+        long next = longField(response, "version");
+        if (version < 0 || document == null || base != version) {
+            // A patch we are already past is a replay (the stream resending
+            // across a reconnect), not a gap.
+            return version >= 0 && next >= 0 && next <= version ? Outcome.UNCHANGED : Outcome.GAP;
+        }
+        JsonElement ops = response.get("patch");
+        if (ops == null || !ops.isJsonArray() || next < base) {
+            return Outcome.GAP;
+        }
+        if (ops.getAsJsonArray().size() == 0) {
+            version = next;
+            return Outcome.UNCHANGED;
+        }
+        try {
+            JsonElement patched = JsonPatch.apply(document, ops.getAsJsonArray());
+            EventState patchedState = gson.fromJson(patched, EventState.class);
+            document = patched;
+            state = patchedState;
+            version = next;
+            return Outcome.APPLIED;
+        } catch (IllegalArgumentException | JsonParseException | IllegalStateException e) {
+            log.debug("event_state patch {} -> {} failed: {}", base, next, e.getMessage());
+            // Partly patched; only a full document can be trusted now.
+            document = null;
+            version = -1;
+            return Outcome.GAP;
+        }
+    }
+
+    private Outcome applyFull(JsonObject response) {
+        EventState full;
+        try {
+            full = gson.fromJson(response, EventState.class);
+        } catch (JsonParseException e) {
+            log.debug("event_state document unreadable: {}", e.getMessage());
+            return Outcome.UNCHANGED;
+        }
+        // Patches edit the copy in place; the response may be shared with
+        // other callers of a coalesced fetch.
+        document = response.deepCopy();
+        state = full;
+        version = longField(response, "version");
+        return Outcome.APPLIED;
+    }
+
+    void clear() {
+        document = null;
+        state = null;
+        version = -1;
+    }
+
+    private static long longField(JsonObject object, String key) {
+        JsonElement value = object.get(key);
+        try {
+            return value != null && value.isJsonPrimitive() ? value.getAsLong() : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -3,12 +3,16 @@ package io.droptracker.service;
 import io.droptracker.DropTrackerConfig;
 import io.droptracker.models.api.EventState;
 import net.runelite.client.config.ConfigManager;
+import org.jetbrains.annotations.VisibleForTesting;
 
 import javax.annotation.Nullable;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Per-event task pins and hides for the Events tab, persisted through
@@ -24,50 +28,87 @@ import java.util.Set;
  * else built on it keep working without knowing pins exist. Config written by
  * an older build (a tracked task, no pin list) is read back as a single pin.
  *
- * <p>The hide set is readable without a panel instance
- * ({@link #hidden(ConfigManager, int)}) because hiding has to reach past the
- * list it was clicked in: {@link EventNotificationService#hiddenTaskIds(int)}
- * reads it to keep a hidden task out of the HUD and to mute its progress
- * chat/pop-ups. Completions are still announced — see that class.
+ * <p>One instance, owned by {@link EventNotificationService}, serves the
+ * Events tab, the HUD and notification filtering alike: hiding has to reach
+ * past the list it was clicked in, since
+ * {@link EventNotificationService#hiddenTaskIds(int)} keeps a hidden task out
+ * of the HUD and mutes its progress chat/pop-ups. Completions are still
+ * announced — see that class.
+ *
+ * <p>Each key is parsed once into an immutable set and kept; writes go
+ * through to the cache and then to config, and a {@code ConfigChanged} for a
+ * key (an edit from elsewhere, a profile switch) drops it so the next read
+ * parses it afresh. Reads from the render and rebuild paths therefore never
+ * touch {@link ConfigManager}. Returned sets are unmodifiable.
  */
 public class EventTaskPrefs {
     private static final String PINNED_PREFIX = "pinnedTasks_";
     private static final String HIDDEN_PREFIX = "hiddenTasks_";
+    private static final String TRACKED_PREFIX = "trackedTask_";
     /** Stored for an empty list: 0 is not a task id, so it parses away. */
     private static final String NO_IDS = "0";
+    /** Cached for a key that is not set at all, which is not the same as an empty list. */
+    private static final Set<Integer> UNSET = Collections.unmodifiableSet(new LinkedHashSet<>());
 
     private final ConfigManager configManager;
-    private final EventNotificationService service;
+    /** Parsed value of each key read so far; {@link #UNSET} (by identity) for an absent one. */
+    private final Map<String, Set<Integer>> cache = new ConcurrentHashMap<>();
 
-    public EventTaskPrefs(ConfigManager configManager, EventNotificationService service) {
+    public EventTaskPrefs(ConfigManager configManager) {
         this.configManager = configManager;
-        this.service = service;
     }
 
     /** Task ids the user pinned for this event, in pin order. */
     public Set<Integer> pinned(int eventId) {
-        String raw = get(PINNED_PREFIX + eventId);
-        if (raw == null) {
+        Set<Integer> stored = stored(PINNED_PREFIX + eventId);
+        if (stored == UNSET) {
             // Pre-pin-set config: the tracked task is the one and only pin.
-            Set<Integer> migrated = new LinkedHashSet<>();
-            int tracked = service.trackedTaskId(eventId);
-            if (tracked > 0) {
-                migrated.add(tracked);
-            }
-            return migrated;
+            int tracked = tracked(eventId);
+            return tracked > 0 ? Collections.singleton(tracked) : Collections.emptySet();
         }
-        return parse(raw);
+        return stored;
     }
 
     /** Task ids the user hid for this event. */
     public Set<Integer> hidden(int eventId) {
-        return hidden(configManager, eventId);
+        return stored(HIDDEN_PREFIX + eventId);
+    }
+
+    /** The user's manually tracked task for an event, or 0 = server decides. */
+    public int tracked(int eventId) {
+        Set<Integer> stored = stored(TRACKED_PREFIX + eventId);
+        return stored.isEmpty() ? 0 : stored.iterator().next();
+    }
+
+    /** Track a task on the HUD for this event; taskId <= 0 reverts to auto. */
+    public void setTracked(int eventId, int taskId) {
+        String key = TRACKED_PREFIX + eventId;
+        try {
+            if (taskId <= 0) {
+                cache.put(key, UNSET);
+                unset(key);
+            } else {
+                cache.put(key, Collections.singleton(taskId));
+                write(key, String.valueOf(taskId));
+            }
+        } catch (Exception ignored) {
+            // As with pins: the cache keeps the pick for this session.
+        }
+    }
+
+    /**
+     * Drops a cached key after a {@code ConfigChanged}, so the next read
+     * re-parses it. Keys this class does not own are ignored.
+     */
+    public void invalidate(String key) {
+        if (key.startsWith(PINNED_PREFIX) || key.startsWith(HIDDEN_PREFIX) || key.startsWith(TRACKED_PREFIX)) {
+            cache.remove(key);
+        }
     }
 
-    /** {@link #hidden(int)} without a panel — for callers that only have the
-     *  ConfigManager (the HUD and notification filtering). */
-    public static Set<Integer> hidden(ConfigManager configManager, int eventId) {
-        return parse(get(configManager, HIDDEN_PREFIX + eventId));
+    /** Drops everything cached, for when the whole config may have changed (a profile switch). */
+    public void invalidateAll() {
+        cache.clear();
     }
 
     /** Pin or unpin a task, then re-point the HUD focus at the top pin. */
@@ -76,7 +117,7 @@ public class EventTaskPrefs {
         if (eventId <= 0) {
             return;
         }
-        Set<Integer> ids = pinned(eventId);
+        Set<Integer> ids = new LinkedHashSet<>(pinned(eventId));
         if (!ids.remove(taskId)) {
             ids.add(taskId);
             // A task cannot be both focused and out of sight.
@@ -92,7 +133,7 @@ public class EventTaskPrefs {
         if (eventId <= 0) {
             return;
         }
-        Set<Integer> ids = pinned(eventId);
+        Set<Integer> ids = new LinkedHashSet<>(pinned(eventId));
         if (ids.remove(taskId)) {
             put(PINNED_PREFIX + eventId, ids);
         }
@@ -105,7 +146,7 @@ public class EventTaskPrefs {
         if (eventId <= 0) {
             return;
         }
-        Set<Integer> ids = hidden(eventId);
+        Set<Integer> ids = new LinkedHashSet<>(hidden(eventId));
         if (ids.remove(taskId)) {
             put(HIDDEN_PREFIX + eventId, ids);
         } else {
@@ -139,7 +180,7 @@ public class EventTaskPrefs {
             return;
         }
         Set<Integer> pins = pinned(eventId);
-        if (!pins.isEmpty() && get(PINNED_PREFIX + eventId) == null) {
+        if (!pins.isEmpty() && stored(PINNED_PREFIX + eventId) == UNSET) {
             // Migrated from a tracked task: write the pin list out once so the
             // pin survives the task completing (which clears the tracked key).
             put(PINNED_PREFIX + eventId, pins);
@@ -152,13 +193,13 @@ public class EventTaskPrefs {
                 break;
             }
         }
-        if (focus != service.trackedTaskId(eventId)) {
-            service.setTrackedTask(eventId, focus);
+        if (focus != tracked(eventId)) {
+            setTracked(eventId, focus);
         }
     }
 
     private void unhide(int eventId, int taskId) {
-        Set<Integer> ids = hidden(eventId);
+        Set<Integer> ids = new LinkedHashSet<>(hidden(eventId));
         if (ids.remove(taskId)) {
             put(HIDDEN_PREFIX + eventId, ids);
         }
@@ -178,18 +219,20 @@ public class EventTaskPrefs {
         return entry != null && entry.getEvent() != null ? entry.getEvent().getId() : 0;
     }
 
-    @Nullable
-    private String get(String key) {
-        return get(configManager, key);
-    }
-
-    @Nullable
-    private static String get(ConfigManager configManager, String key) {
-        try {
-            return configManager.getConfiguration(DropTrackerConfig.GROUP, key);
-        } catch (Exception e) {
-            return null;
+    /** The cached value of a key, read and parsed on first use. */
+    private Set<Integer> stored(String key) {
+        Set<Integer> stored = cache.get(key);
+        if (stored == null) {
+            String raw;
+            try {
+                raw = read(key);
+            } catch (Exception e) {
+                raw = null;
+            }
+            stored = raw == null ? UNSET : Collections.unmodifiableSet(parse(raw));
+            cache.put(key, stored);
         }
+        return stored;
     }
 
     /**
@@ -208,13 +251,32 @@ public class EventTaskPrefs {
         if (csv.length() == 0) {
             csv.append(NO_IDS);
         }
+        cache.put(key, Collections.unmodifiableSet(new LinkedHashSet<>(ids)));
         try {
-            configManager.setConfiguration(DropTrackerConfig.GROUP, key, csv.toString());
+            write(key, csv.toString());
         } catch (Exception ignored) {
-            // A failed write costs the user a pin, never the panel.
+            // A failed write costs the user a pin after a restart, never the panel.
         }
     }
 
+    /* The only calls into ConfigManager; tests stand a map in for it here. */
+
+    @VisibleForTesting
+    @Nullable
+    String read(String key) {
+        return configManager.getConfiguration(DropTrackerConfig.GROUP, key);
+    }
+
+    @VisibleForTesting
+    void write(String key, String value) {
+        configManager.setConfiguration(DropTrackerConfig.GROUP, key, value);
+    }
+
+    @VisibleForTesting
+    void unset(String key) {
+        configManager.unsetConfiguration(DropTrackerConfig.GROUP, key);
+    }
+
     private static Set<Integer> parse(@Nullable String raw) {
         Set<Integer> ids = new LinkedHashSet<>();
         if (raw == null || raw.isEmpty()) {
@@ -1,6 +1,5 @@
 package io.droptracker.service;
 
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.annotation.Nullable;
@@ -28,7 +27,6 @@ import lombok.extern.slf4j.Slf4j;
 public class ManifestService {
 
 	private final DropTrackerApi api;
-	private final ScheduledExecutorService executor;
 
 	/** Guards against a second fetch while the first is still in flight. */
 	private final AtomicBoolean fetching = new AtomicBoolean(false);
@@ -36,9 +34,8 @@ public class ManifestService {
 	private volatile Manifest manifest;
 
 	@Inject
-	public ManifestService(DropTrackerApi api, ScheduledExecutorService executor) {
+	public ManifestService(DropTrackerApi api) {
 		this.api = api;
-		this.executor = executor;
 	}
 
 	/**
@@ -78,18 +75,11 @@ public class ManifestService {
 		// matters because the API can be disabled (or the endpoint wrong) when
 		// the plugin starts, and without a manifest no combat achievement varps
 		// are read at all — the sync silently omits them.
-		executor.execute(() -> {
-			try {
-				Manifest fetched = api.getManifest();
-				if (fetched != null) {
-					manifest = fetched;
-					log.debug("Loaded plugin manifest version {}", fetched.getVersion());
-				}
-			} catch (Exception e) {
-				log.debug("Could not load plugin manifest; using built-in defaults", e);
-			} finally {
-				fetching.set(false);
+		api.getManifestAsync().thenAccept(fetched -> {
+			if (fetched != null) {
+				manifest = fetched;
+				log.debug("Loaded plugin manifest version {}", fetched.getVersion());
 			}
-		});
+		}).whenComplete((ignored, e) -> fetching.set(false));
 	}
 }
@@ -0,0 +1,132 @@
+package io.droptracker.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.annotations.SerializedName;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Outfits one account has already uploaded a model for, kept on disk so a
+ * restart or a switch back from an alt does not re-export and re-upload them.
+ *
+ * <p>Maps each outfit fingerprint to the SHA-256 of the content that went up
+ * for it. The fingerprint alone cannot be trusted across sessions — the server
+ * may have dropped the model, or the exporter may now produce different bytes
+ * — so a remembered outfit is confirmed with the server by content hash before
+ * the upload is skipped.
+ *
+ * <p>Bounded to the most recently used {@link #MAX_OUTFITS}; anything older
+ * just costs one upload if it is ever worn again.
+ *
+ * <p>Not thread-safe; {@link PlayerModelService} only touches it from inside
+ * an export, and exports never overlap.
+ */
+@Slf4j
+final class OutfitRegistry {
+
+	static final int MAX_OUTFITS = 64;
+
+	/** Persisted form. Field names are on-disk format; keep them stable. */
+	private static final class Stored {
+		@SerializedName("account_hash")
+		String accountHash;
+
+		/** Least recently used first. */
+		@SerializedName("outfits")
+		List<Outfit> outfits;
+	}
+
+	private static final class Outfit {
+		@SerializedName("fingerprint")
+		String fingerprint;
+
+		@SerializedName("sha256")
+		String contentHash;
+	}
+
+	private final String accountHash;
+	private final Map<String, String> contentHashes = new LinkedHashMap<String, String>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+			return size() > MAX_OUTFITS;
+		}
+	};
+
+	OutfitRegistry(String accountHash) {
+		this.accountHash = accountHash;
+	}
+
+	String getAccountHash() {
+		return accountHash;
+	}
+
+	/** Hash of the content uploaded for {@code fingerprint}, or null if it never was. */
+	String contentHash(String fingerprint) {
+		return contentHashes.get(fingerprint);
+	}
+
+	void record(String fingerprint, String contentHash) {
+		contentHashes.put(fingerprint, contentHash);
+	}
+
+	/** Drops an outfit the server turned out not to have, so it is uploaded afresh. */
+	void forget(String fingerprint) {
+		contentHashes.remove(fingerprint);
+	}
+
+	int size() {
+		return contentHashes.size();
+	}
+
+	/** Loads the registry for {@code accountHash}; a missing, unreadable or foreign file yields an empty one. */
+	static OutfitRegistry load(Path file, String accountHash, Gson gson) {
+		OutfitRegistry registry = new OutfitRegistry(accountHash);
+		if (!Files.exists(file)) {
+			return registry;
+		}
+		try {
+			Stored stored = gson.fromJson(new String(Files.readAllBytes(file), StandardCharsets.UTF_8), Stored.class);
+			if (stored != null && accountHash.equals(stored.accountHash) && stored.outfits != null) {
+				for (Outfit outfit : stored.outfits) {
+					if (outfit != null && outfit.fingerprint != null && outfit.contentHash != null) {
+						registry.record(outfit.fingerprint, outfit.contentHash);
+					}
+				}
+			}
+		} catch (IOException | JsonParseException e) {
+			log.debug("Discarding unreadable outfit registry {}: {}", file, e.toString());
+		}
+		return registry;
+	}
+
+	/** Writes the registry through a temporary file, so a crash mid-write keeps the previous copy. */
+	void save(Path file, Gson gson) {
+		Stored stored = new Stored();
+		stored.accountHash = accountHash;
+		stored.outfits = new ArrayList<>(contentHashes.size());
+		for (Map.Entry<String, String> entry : contentHashes.entrySet()) {
+			Outfit outfit = new Outfit();
+			outfit.fingerprint = entry.getKey();
+			outfit.contentHash = entry.getValue();
+			stored.outfits.add(outfit);
+		}
+		try {
+			Files.createDirectories(file.getParent());
+			Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+			Files.write(tmp, gson.toJson(stored).getBytes(StandardCharsets.UTF_8));
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			log.debug("Failed to persist outfit registry: {}", e.toString());
+		}
+	}
+}
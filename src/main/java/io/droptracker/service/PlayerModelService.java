@@ -1,16 +1,30 @@
 package io.droptracker.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import com.google.gson.Gson;
 import io.droptracker.DropTrackerConfig;
 import io.droptracker.api.DropTrackerApi;
 import io.droptracker.modelexport.GlbExporter;
+import io.droptracker.modelexport.GlbWriter;
+import io.droptracker.modelexport.ModelCapture;
+import io.droptracker.modelexport.TextureCache;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Actor;
 import net.runelite.api.Client;
@@ -19,6 +33,7 @@ import net.runelite.api.Model;
 import net.runelite.api.NPC;
 import net.runelite.api.Player;
 import net.runelite.api.PlayerComposition;
+import net.runelite.client.RuneLite;
 import net.runelite.client.callback.ClientThread;
 
 /**
@@ -35,6 +50,15 @@ import net.runelite.client.callback.ClientThread;
  * returns the current animation frame, so a model captured mid-attack is
  * captured mid-swing. Nothing here is time-critical, so waiting for a neutral
  * stance costs nothing and avoids a gallery of contorted characters.
+ *
+ * <p>The tick itself only takes a {@link ModelCapture} — a copy of the model's
+ * arrays and the pixels of its textures. Mesh building, PNG encoding and GLB
+ * assembly run on the plugin's cpu pool, and the upload on its io pool.
+ *
+ * <p>Outfits already uploaded are remembered per account on disk, in an
+ * {@link OutfitRegistry}, so restarts and account switches do not send them
+ * again. A remembered outfit costs one HEAD to confirm the server still has
+ * it; only a new one, or one the server has lost, is exported and uploaded.
  */
 @Slf4j
 @Singleton
@@ -50,40 +74,74 @@ public class PlayerModelService {
 	private final ClientThread clientThread;
 	private final DropTrackerConfig config;
 	private final DropTrackerApi api;
-	private final ScheduledExecutorService executor;
+	private final PluginExecutors executors;
+	private final Gson gson;
+
+	/**
+	 * Encoded texture PNGs, kept for the life of the plugin and on disk beyond
+	 * it: an outfit swap mostly re-uses textures an earlier export already
+	 * encoded.
+	 */
+	private final TextureCache textureCache = new TextureCache(
+			RuneLite.RUNELITE_DIR.toPath().resolve("droptracker").resolve("textures"));
 
-	/** Fingerprint of the outfit we last uploaded, or null if none this session. */
-	private volatile String uploadedFingerprint;
+	/**
+	 * Account and fingerprint of the outfit the server is known to hold, or
+	 * null if none this session. Keyed by account too, so logging into an alt
+	 * wearing the same gear still checks that account.
+	 */
+	private volatile String settledOutfit;
+
+	/**
+	 * Uploaded outfits of the account last exported for. Only touched from the
+	 * stages of an export, which run one after another and never overlap.
+	 */
+	private OutfitRegistry registry;
 
-	/** Guards against two exports running at once — each one allocates a mesh. */
+	/**
+	 * Guards against two exports running at once — each one allocates a mesh.
+	 * Only the export that set it clears it, even across a {@link #reset}.
+	 */
 	private final AtomicBoolean exporting = new AtomicBoolean(false);
 
+	/**
+	 * Bumped by {@link #reset}. An export started before the bump still runs
+	 * to the end, but what it learns (settled, failed) is not applied to the
+	 * session that replaced it.
+	 */
+	private final AtomicInteger generation = new AtomicInteger();
+
 	private int idleTicks;
 
 	/**
-	 * When the next upload attempt is allowed, as a monotonic timestamp.
+	 * When the next upload attempt is allowed, in {@link System#nanoTime()}
+	 * terms; only meaningful while {@link #backingOff} is set. Written from the
+	 * pool threads an export completes on, read on the client thread.
 	 *
 	 * <p>Without this a failing upload retries every tick: the fingerprint never
 	 * gets recorded, the player is still idle, so the next tick exports and
 	 * uploads again. A single 401 produced 258 requests in three minutes during
 	 * testing, each one re-exporting the whole model.
 	 */
-	private long nextAttemptAtMs;
+	private volatile long nextAttemptAtNanos;
+	private volatile boolean backingOff;
 
 	/** How long to wait after a failed upload before trying that outfit again. */
-	private static final long FAILURE_BACKOFF_MS = 5 * 60 * 1000L;
+	private static final long FAILURE_BACKOFF_NANOS = TimeUnit.MINUTES.toNanos(5);
 
 	@Inject
 	public PlayerModelService(Client client,
 	                          ClientThread clientThread,
 	                          DropTrackerConfig config,
 	                          DropTrackerApi api,
-	                          ScheduledExecutorService executor) {
+	                          PluginExecutors executors,
+	                          Gson gson) {
 		this.client = client;
 		this.clientThread = clientThread;
 		this.config = config;
 		this.api = api;
-		this.executor = executor;
+		this.executors = executors;
+		this.gson = gson;
 	}
 
 	public boolean isEnabled() {
@@ -91,10 +149,10 @@ public class PlayerModelService {
 	}
 
 	public void reset() {
-		uploadedFingerprint = null;
+		generation.incrementAndGet();
+		settledOutfit = null;
 		idleTicks = 0;
-		nextAttemptAtMs = 0;
-		exporting.set(false);
+		backingOff = false;
 	}
 
 	/**
@@ -123,23 +181,27 @@ public class PlayerModelService {
 		}
 
 		String fingerprint = fingerprintOf(local);
-		if (fingerprint == null || fingerprint.equals(uploadedFingerprint)) {
+		if (fingerprint == null) {
+			return;
+		}
+		final String accountHash = String.valueOf(client.getAccountHash());
+		if (outfitKey(accountHash, fingerprint).equals(settledOutfit)) {
 			return;
 		}
-		if (System.currentTimeMillis() < nextAttemptAtMs) {
+		if (backingOff && System.nanoTime() - nextAttemptAtNanos < 0) {
 			return;
 		}
 		if (!exporting.compareAndSet(false, true)) {
 			return;
 		}
 
-		byte[] model = null;
-		byte[] petModel = null;
+		ModelCapture model = null;
+		ModelCapture pet = null;
 		try {
-			model = exportModel(local);
-			petModel = exportPet();
+			model = captureModel(local);
+			pet = capturePet();
 		} catch (Exception e) {
-			log.debug("Could not export the player model: {}", e.toString());
+			log.debug("Could not capture the player model: {}", e.toString());
 		}
 
 		if (model == null) {
@@ -147,26 +209,148 @@ public class PlayerModelService {
 			return;
 		}
 
-		final byte[] modelBytes = model;
-		final byte[] petBytes = petModel;
-		// Upload off the client thread: it is a network round-trip with a
-		// payload measured in hundreds of kilobytes.
-		executor.execute(() -> {
-			try {
-				if (api.uploadPlayerModel(fingerprint, modelBytes, petBytes)) {
-					uploadedFingerprint = fingerprint;
-					nextAttemptAtMs = 0;
-					log.debug("Uploaded character model for outfit {}", fingerprint);
-				} else {
-					// Back off rather than re-exporting on the very next tick.
-					nextAttemptAtMs = System.currentTimeMillis() + FAILURE_BACKOFF_MS;
-					log.debug("Model upload failed; not retrying for {} minutes",
-							FAILURE_BACKOFF_MS / 60000);
-				}
-			} finally {
-				exporting.set(false);
+		final ModelCapture playerCapture = model;
+		final ModelCapture petCapture = pet;
+		// Everything past the capture runs off the client thread, each part on
+		// the pool that suits it: the have-check and the upload are network
+		// round-trips, the export between them is pure encoding.
+		final String outfit = outfitKey(accountHash, fingerprint);
+		final int session = generation.get();
+		executors.supplyIo(() -> confirmRemembered(session, accountHash, fingerprint))
+				.thenCompose(askedHash -> outfit.equals(settledOutfit)
+						? CompletableFuture.<Void>completedFuture(null)
+						: executors.supplyCpu(() -> export(playerCapture, petCapture))
+								.thenCompose(export -> executors.runIo(
+										() -> upload(session, accountHash, fingerprint, export, askedHash))))
+				.whenComplete((ignored, e) -> {
+					if (e != null) {
+						// An export that threw, or a pool that turned the work away.
+						log.debug("Could not export the player model: {}", e.toString());
+						backOff(session);
+					}
+					exporting.set(false);
+				});
+	}
+
+	/**
+	 * Settles the outfit if this account uploaded it before and the server
+	 * still has that content. Io pool.
+	 *
+	 * @return the content hash just asked about and found missing, or null if
+	 * the outfit was not remembered (or turned out to be held)
+	 */
+	@Nullable
+	private String confirmRemembered(int session, String accountHash, String fingerprint) {
+		if (registry == null || !accountHash.equals(registry.getAccountHash())) {
+			registry = OutfitRegistry.load(registryPath(accountHash), accountHash, gson);
+		}
+
+		String known = registry.contentHash(fingerprint);
+		if (known == null) {
+			return null;
+		}
+		if (api.hasPlayerModel(fingerprint, known)) {
+			settle(session, accountHash, fingerprint);
+			log.debug("Server already has outfit {}; nothing to export", fingerprint);
+			return null;
+		}
+		registry.forget(fingerprint);
+		return known;
+	}
+
+	/** Encodes the player and pet models and hashes the result. Cpu pool. */
+	private Export export(ModelCapture playerCapture, @Nullable ModelCapture petCapture) {
+		try {
+			// Laid out here and streamed into the request body as it is sent,
+			// rather than materialised as an array first.
+			GlbWriter.Glb modelGlb = GlbExporter.prepare(playerCapture, uploadOptions("player"), textureCache);
+			GlbWriter.Glb petGlb = exportPet(petCapture);
+			return new Export(modelGlb, petGlb, contentHash(modelGlb, petGlb));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/** Io pool. */
+	private void upload(int session, String accountHash, String fingerprint, Export export,
+	                    @Nullable String askedHash) {
+		// The same bytes may already be there with the registry lost, or sent
+		// from another machine. Not worth asking again about what was just
+		// found missing.
+		String contentHash = export.getContentHash();
+		boolean held = !contentHash.equals(askedHash) && api.hasPlayerModel(fingerprint, contentHash);
+		if (held || api.uploadPlayerModel(fingerprint, contentHash, export.getModel(), export.getPet())) {
+			registry.record(fingerprint, contentHash);
+			registry.save(registryPath(accountHash), gson);
+			settle(session, accountHash, fingerprint);
+			log.debug(held ? "Server already had the model for outfit {}" : "Uploaded character model for outfit {}",
+					fingerprint);
+		} else {
+			// Back off rather than re-exporting on the very next tick.
+			backOff(session);
+			log.debug("Model upload failed; not retrying for {} minutes",
+					TimeUnit.NANOSECONDS.toMinutes(FAILURE_BACKOFF_NANOS));
+		}
+	}
+
+	/** An encoded outfit, handed from the cpu pool to the upload. */
+	@Value
+	private static class Export {
+		GlbWriter.Glb model;
+		@Nullable
+		GlbWriter.Glb pet;
+		String contentHash;
+	}
+
+	/** Records the outfit as held by the server, unless the session has been reset since the export began. */
+	private void settle(int session, String accountHash, String fingerprint) {
+		if (generation.get() != session) {
+			return;
+		}
+		settledOutfit = outfitKey(accountHash, fingerprint);
+		backingOff = false;
+	}
+
+	/** Holds off the next attempt, unless the session has been reset since the export began. */
+	private void backOff(int session) {
+		if (generation.get() != session) {
+			return;
+		}
+		nextAttemptAtNanos = System.nanoTime() + FAILURE_BACKOFF_NANOS;
+		backingOff = true;
+	}
+
+	private static String outfitKey(String accountHash, String fingerprint) {
+		return accountHash + ":" + fingerprint;
+	}
+
+	private static Path registryPath(String accountHash) {
+		return RuneLite.RUNELITE_DIR.toPath().resolve("droptracker").resolve("outfits_" + accountHash + ".json");
+	}
+
+	/**
+	 * SHA-256 over the player GLB then the pet's, computed by writing both
+	 * through a digest rather than into memory.
+	 */
+	static String contentHash(GlbWriter.Glb model, @Nullable GlbWriter.Glb pet) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			// Every JRE is required to provide SHA-256.
+			throw new IllegalStateException(e);
+		}
+		try (OutputStream sink = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+			model.writeTo(sink);
+			if (pet != null) {
+				pet.writeTo(sink);
 			}
-		});
+		}
+		StringBuilder hex = new StringBuilder(64);
+		for (byte b : digest.digest()) {
+			hex.append(String.format("%02x", b));
+		}
+		return hex.toString();
 	}
 
 	/** True while the player is doing anything other than standing still. */
@@ -176,9 +360,9 @@ public class PlayerModelService {
 	}
 
 	@Nullable
-	private byte[] exportModel(Player local) throws Exception {
+	private ModelCapture captureModel(Player local) {
 		Model model = local.getModel();
-		return model == null ? null : GlbExporter.toBytes(client, model, "player");
+		return model == null ? null : ModelCapture.of(client, model);
 	}
 
 	/**
@@ -186,17 +370,41 @@ public class PlayerModelService {
 	 * failure here must not cost us the player's own model.
 	 */
 	@Nullable
-	private byte[] exportPet() {
+	private ModelCapture capturePet() {
 		try {
 			NPC follower = client.getFollower();
 			Model model = follower == null ? null : follower.getModel();
-			return model == null ? null : GlbExporter.toBytes(client, model, "pet");
+			return model == null ? null : ModelCapture.of(client, model);
+		} catch (Exception e) {
+			log.debug("Could not capture the pet model: {}", e.toString());
+			return null;
+		}
+	}
+
+	@Nullable
+	private GlbWriter.Glb exportPet(@Nullable ModelCapture pet) {
+		if (pet == null) {
+			return null;
+		}
+		try {
+			return GlbExporter.prepare(pet, uploadOptions("pet"), textureCache);
 		} catch (Exception e) {
 			log.debug("Could not export the pet model: {}", e.toString());
 			return null;
 		}
 	}
 
+	/**
+	 * Plain float GLBs unless the player opted into the compact form: about a
+	 * quarter smaller before textures, and one atlas image where worn items
+	 * allow it, but it marks KHR_mesh_quantization and KHR_texture_transform
+	 * as required, which not every viewer supports.
+	 */
+	private GlbWriter.Options uploadOptions(String name) {
+		GlbWriter.Options options = new GlbWriter.Options().embedTextures().modelName(name);
+		return config.compactModelUploads() ? options.quantize().atlasTextures() : options;
+	}
+
 	/**
 	 * A stable identifier for "how this character currently looks".
 	 *
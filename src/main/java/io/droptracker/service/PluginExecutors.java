@@ -0,0 +1,250 @@
+package io.droptracker.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.VisibleForTesting;
+
+/**
+ * The plugin's own background threads, in two bounded pools.
+ *
+ * <ul>
+ *   <li><b>io</b> — blocking HTTP: panel lookups, image fetches, state and
+ *       model uploads. Mostly waiting, so a few more threads than cores is
+ *       fine.</li>
+ *   <li><b>cpu</b> — encoding: screenshots and model export. At most two
+ *       threads, below normal priority, so an encode never competes with the
+ *       client for every core.</li>
+ * </ul>
+ *
+ * <p>Neither the JVM's common pool nor RuneLite's shared scheduler is used for
+ * this work any more. Blocking the common pool stalls every other plugin that
+ * relies on it, and on the single scheduler thread one slow PNG encode held up
+ * every submission behind it. That scheduler is still the right place for
+ * <em>timers</em>; a timer that does real work hands it to one of these pools.
+ *
+ * <p>Both queues are bounded. A full queue, or a pool that has been shut down,
+ * rejects the task: the future from {@link #runIo}/{@link #supplyIo} (and the
+ * cpu counterparts) completes with a {@link RejectedExecutionException}
+ * instead of the work piling up without limit. Nothing queued here is worth
+ * more than the memory of an unbounded backlog — a dropped image fetch is
+ * retried by the next repaint, a dropped sync by the next timer.
+ *
+ * <p>Owned by the plugin: {@link #startUp()} and {@link #shutDown()} follow
+ * its lifecycle. Shutting down lets already-queued work finish but accepts
+ * nothing new; starting again brings up fresh pools.
+ */
+@Slf4j
+@Singleton
+public class PluginExecutors {
+
+	private static final int IO_THREADS = 4;
+	private static final int IO_QUEUE = 128;
+	private static final int CPU_THREADS = Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() - 1));
+	/** Small on purpose: each queued screenshot holds a full frame in memory. */
+	private static final int CPU_QUEUE = 16;
+
+	/** Idle threads exit after this, so a quiet plugin holds no threads at all. */
+	private static final long KEEP_ALIVE_SECONDS = 30;
+
+	private final int ioThreads;
+	private final int ioQueue;
+	private final int cpuThreads;
+	private final int cpuQueue;
+
+	private volatile Pool io;
+	private volatile Pool cpu;
+
+	@Inject
+	public PluginExecutors() {
+		this(IO_THREADS, IO_QUEUE, CPU_THREADS, CPU_QUEUE);
+	}
+
+	PluginExecutors(int ioThreads, int ioQueue, int cpuThreads, int cpuQueue) {
+		this.ioThreads = ioThreads;
+		this.ioQueue = ioQueue;
+		this.cpuThreads = cpuThreads;
+		this.cpuQueue = cpuQueue;
+		this.io = new Pool("io", ioThreads, ioQueue, Thread.NORM_PRIORITY);
+		this.cpu = new Pool("cpu", cpuThreads, cpuQueue, Thread.NORM_PRIORITY - 1);
+	}
+
+	/** Replaces pools left behind by a previous {@link #shutDown()}. */
+	public synchronized void startUp() {
+		if (io.isShutdown()) {
+			io = new Pool("io", ioThreads, ioQueue, Thread.NORM_PRIORITY);
+		}
+		if (cpu.isShutdown()) {
+			cpu = new Pool("cpu", cpuThreads, cpuQueue, Thread.NORM_PRIORITY - 1);
+		}
+	}
+
+	/**
+	 * Stops accepting work. Tasks already queued still run — a screenshot
+	 * being encoded should still reach its webhook — but nothing waits for
+	 * them, so the caller is never held up.
+	 */
+	public synchronized void shutDown() {
+		io.shutdown();
+		cpu.shutdown();
+		log.debug("Executors shut down; {}; {}", io.stats(), cpu.stats());
+	}
+
+	/**
+	 * Waits for the work still queued at {@link #shutDown()} to finish, so a
+	 * test can look at what background writes left behind.
+	 */
+	@VisibleForTesting
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		return io.awaitTermination(timeout, unit)
+				&& cpu.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+	}
+
+	public CompletableFuture<Void> runIo(Runnable task) {
+		return supply(io, () -> {
+			task.run();
+			return null;
+		});
+	}
+
+	public <T> CompletableFuture<T> supplyIo(Supplier<T> task) {
+		return supply(io, task);
+	}
+
+	public CompletableFuture<Void> runCpu(Runnable task) {
+		return supply(cpu, () -> {
+			task.run();
+			return null;
+		});
+	}
+
+	public <T> CompletableFuture<T> supplyCpu(Supplier<T> task) {
+		return supply(cpu, task);
+	}
+
+	public Stats getIoStats() {
+		return io.stats();
+	}
+
+	public Stats getCpuStats() {
+		return cpu.stats();
+	}
+
+	private static <T> CompletableFuture<T> supply(Pool pool, Supplier<T> task) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		try {
+			pool.execute(() -> {
+				if (future.isDone()) {
+					// Cancelled while it sat in the queue.
+					return;
+				}
+				try {
+					future.complete(task.get());
+				} catch (Throwable t) {
+					future.completeExceptionally(t);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+
+	/** A point-in-time view of one pool, for logs and diagnostics. */
+	@Value
+	public static class Stats {
+		String name;
+		int activeThreads;
+		int queued;
+		long completed;
+		long rejected;
+		/** Time from submission to a thread picking the task up. */
+		long meanQueueWaitMs;
+		long maxQueueWaitMs;
+		long meanRunMs;
+
+		@Override
+		public String toString() {
+			return name + ": active=" + activeThreads + " queued=" + queued + " completed=" + completed
+					+ " rejected=" + rejected + " wait(mean/max)=" + meanQueueWaitMs + "/" + maxQueueWaitMs
+					+ "ms run(mean)=" + meanRunMs + "ms";
+		}
+	}
+
+	/**
+	 * A fixed-size pool over a bounded queue that times every task it runs.
+	 * Threads are named {@code DropTracker-<name>-<n>} so they can be told
+	 * apart in a thread dump.
+	 */
+	private static final class Pool extends ThreadPoolExecutor {
+
+		private final String name;
+		private final LongAdder completed = new LongAdder();
+		private final LongAdder rejected = new LongAdder();
+		private final LongAdder waitNanos = new LongAdder();
+		private final LongAdder runNanos = new LongAdder();
+		private final AtomicLong maxWaitNanos = new AtomicLong();
+
+		Pool(String name, int threads, int queue, int priority) {
+			super(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+					new ArrayBlockingQueue<>(queue), threadFactory(name, priority));
+			this.name = name;
+			allowCoreThreadTimeOut(true);
+			setRejectedExecutionHandler((task, pool) -> {
+				rejected.increment();
+				throw new RejectedExecutionException("DropTracker " + name + " pool "
+						+ (pool.isShutdown() ? "is shut down" : "queue is full"));
+			});
+		}
+
+		@Override
+		public void execute(Runnable command) {
+			long queuedAt = System.nanoTime();
+			super.execute(() -> {
+				long startedAt = System.nanoTime();
+				long wait = startedAt - queuedAt;
+				waitNanos.add(wait);
+				maxWaitNanos.accumulateAndGet(wait, Math::max);
+				try {
+					command.run();
+				} finally {
+					runNanos.add(System.nanoTime() - startedAt);
+					completed.increment();
+				}
+			});
+		}
+
+		Stats stats() {
+			long done = completed.sum();
+			return new Stats(name, getActiveCount(), getQueue().size(), done, rejected.sum(),
+					done == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(waitNanos.sum() / done),
+					TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()),
+					done == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(runNanos.sum() / done));
+		}
+
+		private static ThreadFactory threadFactory(String name, int priority) {
+			AtomicInteger count = new AtomicInteger();
+			return runnable -> {
+				Thread thread = new Thread(runnable, "DropTracker-" + name + "-" + count.incrementAndGet());
+				thread.setDaemon(true);
+				thread.setPriority(priority);
+				thread.setUncaughtExceptionHandler((t, e) -> log.warn("Uncaught exception on {}", t.getName(), e));
+				return thread;
+			};
+		}
+	}
+}
@@ -0,0 +1,263 @@
+package io.droptracker.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+import io.droptracker.models.AchievementDiaryArea;
+import io.droptracker.models.StateSnapshot;
+import io.droptracker.models.api.Manifest;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Quest;
+
+/**
+ * The client-read half of a state sync, split so it never costs a frame.
+ *
+ * <p>Reading everything at once means ~200 {@code QUEST_STATUS_GET} script
+ * calls, every combat achievement varbit and a script call per diary area in a
+ * single client-thread callback — a visible hitch whenever a sync fires. Here
+ * the reads are broken into small units and a {@link Job} runs them a slice at
+ * a time, each slice stopping once its time budget is spent.
+ *
+ * <p>Each {@link Section} also keeps the values it last read, plus a dirty
+ * flag. A job only re-reads dirty sections; the rest are served from the cache.
+ * {@link StateSyncService} marks sections dirty from the events that can change
+ * them (varp changes, diary messages) and marks everything dirty for login and
+ * periodic syncs, which double as a re-validation pass.
+ *
+ * <p>Client-thread only, like the reads themselves.
+ */
+@Slf4j
+final class StateCollector {
+
+	/** Independently cached parts of a snapshot. */
+	enum Section {
+		QUESTS,
+		COMBAT_ACHIEVEMENTS,
+		DIARIES
+	}
+
+	/**
+	 * The client reads a collection needs, behind an interface so the slicing
+	 * can be exercised against a fake client.
+	 */
+	interface Reads {
+		Map<String, Integer> skills();
+
+		/** 0 not started, 1 in progress, 2 finished. */
+		int questState(int questId);
+
+		int varp(int varpId);
+
+		int varbit(int varbitId);
+
+		/** Completed task counts indexed by tier, as {@link AchievementDiaryArea#getTiersCompletedCount}. */
+		int[] diaryTiers(AchievementDiaryArea area);
+	}
+
+	/** Combat achievement task varbits read per unit; each is a single cheap read. */
+	static final int CA_TASKS_PER_UNIT = 64;
+
+	private final Set<Section> dirty = EnumSet.allOf(Section.class);
+
+	private Map<Integer, Integer> quests = Collections.emptyMap();
+	private Map<Integer, Integer> combatAchievementVarps = Collections.emptyMap();
+	private List<Integer> completedCombatAchievementTasks = Collections.emptyList();
+	private List<StateSnapshot.DiaryTier> diaryTiers = Collections.emptyList();
+
+	private final LongSupplier nanoClock;
+
+	StateCollector() {
+		this(System::nanoTime);
+	}
+
+	StateCollector(LongSupplier nanoClock) {
+		this.nanoClock = nanoClock;
+	}
+
+	void markDirty(Section section) {
+		dirty.add(section);
+	}
+
+	void markAllDirty() {
+		dirty.addAll(EnumSet.allOf(Section.class));
+	}
+
+	boolean isDirty(Section section) {
+		return dirty.contains(section);
+	}
+
+	/** Forgets every cached value, e.g. when the account changes. */
+	void clear() {
+		quests = Collections.emptyMap();
+		combatAchievementVarps = Collections.emptyMap();
+		completedCombatAchievementTasks = Collections.emptyList();
+		diaryTiers = Collections.emptyList();
+		markAllDirty();
+	}
+
+	/**
+	 * Queues the reads for every dirty section. Dirty flags are cleared now, so
+	 * a change that lands while the job is running marks the section dirty again
+	 * and is picked up by the next job rather than lost.
+	 */
+	Job begin(Reads reads, Manifest manifest) {
+		return new Job(reads, manifest);
+	}
+
+	/** One sliced collection. */
+	final class Job {
+		private final ArrayDeque<Runnable> units = new ArrayDeque<>();
+		private final Set<Section> reading = EnumSet.noneOf(Section.class);
+
+		private Map<String, Integer> skills = Collections.emptyMap();
+		private final Map<Integer, Integer> newQuests = new HashMap<>();
+		private final Map<Integer, Integer> newVarps = new HashMap<>();
+		private final List<Integer> newTasks = new ArrayList<>();
+		private final List<StateSnapshot.DiaryTier> newDiaries = new ArrayList<>();
+
+		private int unitsRun;
+		private int slicesRun;
+
+		private Job(Reads reads, Manifest manifest) {
+			// Skills are a couple dozen plain reads; cheaper to re-read than to track.
+			units.add(() -> skills = reads.skills());
+
+			if (dirty.remove(Section.QUESTS)) {
+				reading.add(Section.QUESTS);
+				for (int questId : questIds(manifest)) {
+					units.add(() -> {
+						try {
+							newQuests.put(questId, reads.questState(questId));
+						} catch (Exception e) {
+							log.debug("Could not read quest {}: {}", questId, e.toString());
+						}
+					});
+				}
+			}
+
+			// Without a manifest there is no safe set of varps to read; leave the
+			// section dirty so the first job after the manifest lands reads it.
+			if (manifest != null && dirty.remove(Section.COMBAT_ACHIEVEMENTS)) {
+				reading.add(Section.COMBAT_ACHIEVEMENTS);
+				List<Integer> varps = manifest.getCombatAchievementVarps();
+				units.add(() -> {
+					for (int varpId : varps) {
+						newVarps.put(varpId, reads.varp(varpId));
+					}
+				});
+				List<Manifest.CombatAchievementTask> tasks = manifest.getCombatAchievementTasks();
+				for (int start = 0; start < tasks.size(); start += CA_TASKS_PER_UNIT) {
+					List<Manifest.CombatAchievementTask> chunk =
+							tasks.subList(start, Math.min(tasks.size(), start + CA_TASKS_PER_UNIT));
+					units.add(() -> {
+						for (Manifest.CombatAchievementTask task : chunk) {
+							Integer varbit = task.getVarbit();
+							if (varbit != null && reads.varbit(varbit) > 0) {
+								newTasks.add(varbit);
+							}
+						}
+					});
+				}
+			}
+
+			if (dirty.remove(Section.DIARIES)) {
+				reading.add(Section.DIARIES);
+				for (AchievementDiaryArea area : AchievementDiaryArea.values()) {
+					units.add(() -> {
+						int[] completed = reads.diaryTiers(area);
+						for (int tier = 0; tier < completed.length; tier++) {
+							newDiaries.add(new StateSnapshot.DiaryTier(area.getId(), tier, completed[tier]));
+						}
+					});
+				}
+			}
+		}
+
+		/**
+		 * Runs queued units until the budget is spent. At least one unit always
+		 * runs, so a job makes progress however small the budget.
+		 *
+		 * @return true once every unit has run
+		 */
+		boolean step(long budgetNanos) {
+			if (units.isEmpty()) {
+				return true;
+			}
+			slicesRun++;
+			long deadline = nanoClock.getAsLong() + budgetNanos;
+			do {
+				units.poll().run();
+				unitsRun++;
+			} while (!units.isEmpty() && nanoClock.getAsLong() < deadline);
+			return units.isEmpty();
+		}
+
+		boolean isDone() {
+			return units.isEmpty();
+		}
+
+		int remainingUnits() {
+			return units.size();
+		}
+
+		int unitsRun() {
+			return unitsRun;
+		}
+
+		int slicesRun() {
+			return slicesRun;
+		}
+
+		/**
+		 * Publishes what this job read into the section cache and writes every
+		 * section (fresh or cached) into the snapshot. Call once, after
+		 * {@link #isDone()}.
+		 */
+		void complete(StateSnapshot snapshot) {
+			if (reading.contains(Section.QUESTS)) {
+				quests = Collections.unmodifiableMap(newQuests);
+			}
+			if (reading.contains(Section.COMBAT_ACHIEVEMENTS)) {
+				combatAchievementVarps = Collections.unmodifiableMap(newVarps);
+				completedCombatAchievementTasks = Collections.unmodifiableList(newTasks);
+			}
+			if (reading.contains(Section.DIARIES)) {
+				diaryTiers = Collections.unmodifiableList(newDiaries);
+			}
+
+			snapshot.setSkills(new HashMap<>(skills));
+			snapshot.setQuests(new HashMap<>(quests));
+			snapshot.setCombatAchievementVarps(new HashMap<>(combatAchievementVarps));
+			snapshot.setCompletedCombatAchievementTasks(new ArrayList<>(completedCombatAchievementTasks));
+			snapshot.setDiaryTiers(new ArrayList<>(diaryTiers));
+		}
+
+		/** Marks the sections this job was reading dirty again, e.g. after it was abandoned. */
+		void abandon() {
+			units.clear();
+			dirty.addAll(reading);
+		}
+	}
+
+	/**
+	 * Quest ids to poll.
+	 *
+	 * <p>Iterating the manifest rather than RuneLite's {@link Quest} enum is the
+	 * point: a quest released today is trackable today, instead of after a
+	 * RuneLite release and a Plugin Hub build. An empty manifest list falls back
+	 * to the enum so this still works before the manifest is populated.
+	 */
+	private static int[] questIds(Manifest manifest) {
+		return manifest != null && !manifest.getQuestIds().isEmpty()
+				? manifest.getQuestIds().stream().mapToInt(Integer::intValue).toArray()
+				: Arrays.stream(Quest.values()).mapToInt(Quest::getId).toArray();
+	}
+}
@@ -0,0 +1,223 @@
+package io.droptracker.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.annotations.SerializedName;
+import io.droptracker.models.StateSnapshot;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * What the server last acknowledged for one account, kept on disk so it
+ * survives restarts.
+ *
+ * <p>Two things hang off it. First, deltas: once the server has handed back a
+ * baseline id, each sync only uploads the entries that differ from the mirrored
+ * state, tagged with that id. The server answers with a new id on success, or
+ * rejects the baseline (it lost it, or the account was reset), in which case
+ * the next upload is full again. Second, collection log items: they are only
+ * ever read when the player opens the log, so without the mirror a restart
+ * forgets them and a full upload would send none until the log is reopened.
+ *
+ * <p>Only the state the server <em>accepted</em> is mirrored. A failed upload
+ * leaves the mirror alone, so whatever it carried is still different next
+ * time and goes out again.
+ *
+ * <p>Not thread-safe; {@link StateSyncService} only touches it from inside a
+ * sync, and syncs never overlap.
+ */
+@Slf4j
+final class StateMirror {
+
+	/** Persisted form. Field names are on-disk format; keep them stable. */
+	private static final class Stored {
+		@SerializedName("account_hash")
+		String accountHash;
+
+		@SerializedName("baseline_id")
+		String baselineId;
+
+		@SerializedName("state")
+		StateSnapshot state;
+	}
+
+	private final String accountHash;
+	private String baselineId;
+	/** Last acknowledged state, always complete (never a delta). Null before the first ack. */
+	private StateSnapshot acked;
+
+	StateMirror(String accountHash) {
+		this.accountHash = accountHash;
+	}
+
+	String getAccountHash() {
+		return accountHash;
+	}
+
+	/** Baseline deltas are computed against, or null when the next upload must be full. */
+	String getBaselineId() {
+		return baselineId;
+	}
+
+	/**
+	 * The full state to upload: {@code current} with its collection log merged
+	 * over the mirrored one. Items are additive, so everything the server ever
+	 * accepted still holds, and a log read completed once stays complete.
+	 */
+	StateSnapshot merge(StateSnapshot current) {
+		if (acked == null) {
+			return current;
+		}
+		Map<Integer, Integer> items = new HashMap<>(acked.getItems());
+		items.putAll(current.getItems());
+		current.setItems(items);
+		current.setClogComplete(current.isClogComplete() || acked.isClogComplete());
+		return current;
+	}
+
+	/**
+	 * What to send for {@code merged} (a result of {@link #merge}): the whole
+	 * snapshot when there is no baseline, otherwise a delta holding only the
+	 * entries that changed since it. Header fields always travel.
+	 *
+	 * @return null when nothing changed, so there is nothing to send
+	 */
+	StateSnapshot toUpload(StateSnapshot merged) {
+		if (baselineId == null || acked == null) {
+			merged.setBaselineId(null);
+			return merged;
+		}
+
+		StateSnapshot delta = new StateSnapshot();
+		delta.setBaselineId(baselineId);
+		delta.setPlayerName(merged.getPlayerName());
+		delta.setAccountHash(merged.getAccountHash());
+		delta.setManifestVersion(merged.getManifestVersion());
+		delta.setSource(merged.getSource());
+		delta.setPluginVersion(merged.getPluginVersion());
+		delta.setAccountType(merged.getAccountType());
+		delta.setCombatLevel(merged.getCombatLevel());
+		delta.setClogSlots(merged.getClogSlots());
+		delta.setClogSlotsTotal(merged.getClogSlotsTotal());
+		delta.setClogComplete(merged.isClogComplete());
+
+		delta.setSkills(changed(merged.getSkills(), acked.getSkills()));
+		delta.setQuests(changed(merged.getQuests(), acked.getQuests()));
+		delta.setCombatAchievementVarps(changed(merged.getCombatAchievementVarps(), acked.getCombatAchievementVarps()));
+		delta.setItems(changed(merged.getItems(), acked.getItems()));
+
+		Set<Integer> ackedTasks = new HashSet<>(acked.getCompletedCombatAchievementTasks());
+		List<Integer> tasks = new ArrayList<>();
+		for (Integer task : merged.getCompletedCombatAchievementTasks()) {
+			if (!ackedTasks.contains(task)) {
+				tasks.add(task);
+			}
+		}
+		delta.setCompletedCombatAchievementTasks(tasks);
+
+		Map<Integer, Integer> ackedDiaries = new HashMap<>();
+		for (StateSnapshot.DiaryTier tier : acked.getDiaryTiers()) {
+			ackedDiaries.put(diaryKey(tier), tier.getCompletedCount());
+		}
+		List<StateSnapshot.DiaryTier> diaries = new ArrayList<>();
+		for (StateSnapshot.DiaryTier tier : merged.getDiaryTiers()) {
+			Integer before = ackedDiaries.get(diaryKey(tier));
+			if (before == null || before != tier.getCompletedCount()) {
+				diaries.add(tier);
+			}
+		}
+		delta.setDiaryTiers(diaries);
+
+		boolean unchanged = delta.getSkills().isEmpty()
+				&& delta.getQuests().isEmpty()
+				&& delta.getCombatAchievementVarps().isEmpty()
+				&& delta.getItems().isEmpty()
+				&& tasks.isEmpty()
+				&& diaries.isEmpty()
+				&& Objects.equals(merged.getAccountType(), acked.getAccountType())
+				&& Objects.equals(merged.getCombatLevel(), acked.getCombatLevel())
+				&& Objects.equals(merged.getClogSlots(), acked.getClogSlots())
+				&& Objects.equals(merged.getClogSlotsTotal(), acked.getClogSlotsTotal())
+				&& merged.isClogComplete() == acked.isClogComplete();
+		return unchanged ? null : delta;
+	}
+
+	/**
+	 * Records {@code merged} as accepted by the server.
+	 *
+	 * @param newBaselineId the id the server returned; null from servers that
+	 *                      do not do deltas, which keeps every upload full
+	 */
+	void acknowledge(StateSnapshot merged, String newBaselineId) {
+		acked = merged;
+		baselineId = newBaselineId;
+	}
+
+	/** Forgets the baseline after the server refused it; the mirrored items are kept. */
+	void rejectBaseline() {
+		baselineId = null;
+	}
+
+	/** Loads the mirror for {@code accountHash}, or an empty one when none is stored or it is unreadable. */
+	static StateMirror load(Path file, String accountHash, Gson gson) {
+		StateMirror mirror = new StateMirror(accountHash);
+		if (!Files.exists(file)) {
+			return mirror;
+		}
+		try {
+			Stored stored = gson.fromJson(new String(Files.readAllBytes(file), StandardCharsets.UTF_8), Stored.class);
+			if (stored != null && accountHash.equals(stored.accountHash) && stored.state != null) {
+				mirror.acked = stored.state;
+				mirror.baselineId = stored.baselineId;
+			}
+		} catch (IOException | JsonParseException e) {
+			log.debug("Discarding unreadable state mirror {}: {}", file, e.toString());
+		}
+		return mirror;
+	}
+
+	/** Writes the mirror through a temporary file, so a crash mid-write keeps the previous copy. */
+	void save(Path file, Gson gson) {
+		if (acked == null) {
+			return;
+		}
+		Stored stored = new Stored();
+		stored.accountHash = accountHash;
+		stored.baselineId = baselineId;
+		stored.state = acked;
+		try {
+			Files.createDirectories(file.getParent());
+			Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+			Files.write(tmp, gson.toJson(stored).getBytes(StandardCharsets.UTF_8));
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			log.debug("Failed to persist state mirror: {}", e.toString());
+		}
+	}
+
+	private static <K> Map<K, Integer> changed(Map<K, Integer> current, Map<K, Integer> before) {
+		Map<K, Integer> out = new HashMap<>();
+		for (Map.Entry<K, Integer> e : current.entrySet()) {
+			if (!Objects.equals(e.getValue(), before.get(e.getKey()))) {
+				out.put(e.getKey(), e.getValue());
+			}
+		}
+		return out;
+	}
+
+	private static int diaryKey(StateSnapshot.DiaryTier tier) {
+		return tier.getAreaId() << 2 | tier.getTier();
+	}
+}
@@ -1,33 +1,44 @@
 package io.droptracker.service;
 
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import com.google.gson.Gson;
 import io.droptracker.DropTrackerConfig;
 import io.droptracker.DropTrackerPlugin;
 import io.droptracker.api.DropTrackerApi;
 import io.droptracker.models.AchievementDiaryArea;
 import io.droptracker.models.StateSnapshot;
 import io.droptracker.models.api.Manifest;
+import io.droptracker.models.api.StateSyncResult;
 import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.ChatMessageType;
 import net.runelite.api.Client;
 import net.runelite.api.GameState;
 import net.runelite.api.Player;
-import net.runelite.api.Quest;
 import net.runelite.api.ScriptID;
 import net.runelite.api.Skill;
+import net.runelite.api.events.ChatMessage;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.VarbitChanged;
 import net.runelite.api.gameval.VarPlayerID;
 import net.runelite.api.gameval.VarbitID;
+import net.runelite.client.RuneLite;
 import net.runelite.client.callback.ClientThread;
+import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.eventbus.Subscribe;
+import org.jetbrains.annotations.VisibleForTesting;
 
 /**
  * Builds and sends {@link StateSnapshot}s — the account's current state, which
@@ -36,6 +47,18 @@ import net.runelite.client.callback.ClientThread;
  * <p>Also owns the collection log items accumulated by the clog subscribers,
  * because they arrive asynchronously as the player browses and must survive
  * until the next sync sends them.
+ *
+ * <p>Client reads go through a {@link StateCollector}, a few at a time per
+ * client cycle, and only for sections marked dirty since they were last read:
+ * a varp change in the combat achievement set, a quest points change, or a
+ * diary task message. The periodic sync reads only those too; login, startup,
+ * a config change and a manual sync re-read everything, which also covers
+ * changes no event announces (a quest being started).
+ *
+ * <p>Uploads are deltas against the state the server last acknowledged, kept
+ * per account in a {@link StateMirror} on disk. The mirror is also where the
+ * collection log survives a restart, so a full upload never has to wait for
+ * the player to open the log again.
  */
 @Slf4j
 @Singleton
@@ -46,14 +69,36 @@ public class StateSyncService {
 	private final DropTrackerConfig config;
 	private final DropTrackerApi api;
 	private final ManifestService manifestService;
-	private final ScheduledExecutorService executor;
+	private final PluginExecutors executors;
 	private final DropTrackerPlugin plugin;
+	private final EventBus eventBus;
+	private final Gson gson;
+
+	private static final String PERSISTENCE_DIR = "droptracker";
+	private static final String MIRROR_FILE_PREFIX = "state_";
+
+	/** Client-thread time one collection slice may use before yielding the frame. */
+	private static final long SLICE_BUDGET_NANOS = 1_000_000L;
+
+	/** Sync sources that re-read every section rather than trusting the cache. */
+	private static final Set<String> FULL_READ_SOURCES = new HashSet<>(
+			Arrays.asList("login", "startup", "config-changed", "manual"));
+
+	/** Client thread only. */
+	private final StateCollector collector = new StateCollector();
+	private final StateCollector.Reads clientReads = new ClientReads();
+
+	/** Combat achievement varps of the manifest last seen, for O(1) VarbitChanged checks. */
+	private Manifest caVarpsFor;
+	private Set<Integer> caVarps = Collections.emptySet();
 
 	/**
 	 * Collection log slots seen so far this session, item id -> quantity.
+	 * Merged over the mirror's items at upload, so this only needs to hold what
+	 * the server may not have yet.
 	 *
 	 * <p>Concurrent because the clog subscribers write from the client thread
-	 * while a sync may be reading on an executor thread.
+	 * while a sync may be reading on an io pool thread.
 	 */
 	private final Map<Integer, Integer> clogItems = new ConcurrentHashMap<>();
 
@@ -63,21 +108,37 @@ public class StateSyncService {
 	/** Prevents overlapping syncs; a slow request must not queue up behind itself. */
 	private final AtomicBoolean syncing = new AtomicBoolean(false);
 
+	/** Mirror of the account last synced. Only touched inside a sync, which {@link #syncing} serialises. */
+	private StateMirror mirror;
+
 	@Inject
 	public StateSyncService(Client client,
 	                        ClientThread clientThread,
 	                        DropTrackerConfig config,
 	                        DropTrackerApi api,
 	                        ManifestService manifestService,
-	                        ScheduledExecutorService executor,
-	                        DropTrackerPlugin plugin) {
+	                        PluginExecutors executors,
+	                        DropTrackerPlugin plugin,
+	                        EventBus eventBus,
+	                        Gson gson) {
 		this.client = client;
 		this.clientThread = clientThread;
 		this.config = config;
 		this.api = api;
 		this.manifestService = manifestService;
-		this.executor = executor;
+		this.executors = executors;
 		this.plugin = plugin;
+		this.eventBus = eventBus;
+		this.gson = gson;
+	}
+
+	public void startUp() {
+		eventBus.register(this);
+	}
+
+	public void shutDown() {
+		eventBus.unregister(this);
+		reset();
 	}
 
 	/** True when the user has opted in and the server has not switched sync off. */
@@ -117,26 +178,104 @@ public class StateSyncService {
 	public void reset() {
 		clearItems();
 		syncing.set(false);
+		clientThread.invokeLater(collector::clear);
+	}
+
+	@Subscribe
+	public void onGameStateChanged(GameStateChanged event) {
+		// The next login may be another account; nothing cached may carry over.
+		if (event.getGameState() == GameState.LOGIN_SCREEN) {
+			collector.clear();
+		}
+	}
+
+	@Subscribe
+	public void onVarbitChanged(VarbitChanged event) {
+		int varpId = event.getVarpId();
+		// Quest points move whenever a quest completes.
+		if (varpId == VarPlayerID.QP) {
+			collector.markDirty(StateCollector.Section.QUESTS);
+		} else if (combatAchievementVarps().contains(varpId)) {
+			collector.markDirty(StateCollector.Section.COMBAT_ACHIEVEMENTS);
+		}
+	}
+
+	@Subscribe
+	public void onChatMessage(ChatMessage event) {
+		// "... Your Achievement Diary has been updated." follows every diary task.
+		if (event.getType() == ChatMessageType.GAMEMESSAGE
+				&& event.getMessage() != null
+				&& event.getMessage().contains("Achievement Diary")) {
+			collector.markDirty(StateCollector.Section.DIARIES);
+		}
+	}
+
+	/** The manifest's combat achievement varps as a set, rebuilt only when the manifest changes. */
+	private Set<Integer> combatAchievementVarps() {
+		Manifest manifest = manifestService.getManifest();
+		if (manifest != caVarpsFor) {
+			caVarpsFor = manifest;
+			caVarps = manifest == null
+					? Collections.emptySet()
+					: new HashSet<>(manifest.getCombatAchievementVarps());
+		}
+		return caVarps;
 	}
 
 	/**
-	 * Collects a snapshot on the client thread.
+	 * Collects a snapshot on the client thread, a slice per client cycle.
 	 *
 	 * <p>Everything here is a client read, so it must not run anywhere else;
-	 * the returned future completes on the client thread.
+	 * the returned future completes on the client thread. Collection log items
+	 * are not included; {@link #sync} copies them in off the client thread.
 	 */
 	public CompletableFuture<StateSnapshot> collect(String source) {
 		CompletableFuture<StateSnapshot> future = new CompletableFuture<>();
 		clientThread.invokeLater(() -> {
+			final StateSnapshot snapshot;
+			final StateCollector.Job job;
 			try {
-				future.complete(buildSnapshot(source));
+				markForSource(collector, source);
+				snapshot = buildHeader(source);
+				job = collector.begin(clientReads, manifestService.getManifest());
 			} catch (Exception e) {
 				future.completeExceptionally(e);
+				return;
 			}
+			// Re-invoked every client cycle until it returns true.
+			clientThread.invokeLater(() -> {
+				try {
+					if (!isPlayerReady()) {
+						job.abandon();
+						future.completeExceptionally(new IllegalStateException("logged out during collection"));
+						return true;
+					}
+					if (!job.step(SLICE_BUDGET_NANOS)) {
+						return false;
+					}
+					job.complete(snapshot);
+					collectClogCounters(snapshot);
+					log.debug("Collected state snapshot ({}) in {} slices, {} reads",
+							source, job.slicesRun(), job.unitsRun());
+					future.complete(snapshot);
+				} catch (Exception e) {
+					job.abandon();
+					future.completeExceptionally(e);
+				}
+				return true;
+			});
 		});
 		return future;
 	}
 
+	/** Marks every section dirty when {@code source} re-reads everything; other syncs read only what changed. */
+	@VisibleForTesting
+	static void markForSource(StateCollector collector, String source) {
+		if (FULL_READ_SOURCES.contains(source)) {
+			collector.markAllDirty();
+		}
+	}
+
 	/**
 	 * Collects and sends a snapshot, unless one is already in flight.
 	 *
@@ -153,25 +292,60 @@ public class StateSyncService {
 			return;
 		}
 		collect(source)
-				.thenAcceptAsync(snapshot -> {
-					try {
-						api.postStateSnapshot(snapshot);
-					} finally {
-						syncing.set(false);
+				.thenCompose(snapshot -> executors.runIo(() -> {
+					snapshot.setItems(new HashMap<>(clogItems));
+					snapshot.setClogComplete(clogComplete.get());
+					upload(snapshot);
+				}))
+				.whenComplete((ignored, e) -> {
+					if (e != null) {
+						log.debug("State sync ({}) failed: {}", source, e.toString());
 					}
-				}, executor)
-				.exceptionally(e -> {
-					log.debug("State sync ({}) failed: {}", source, e.toString());
 					syncing.set(false);
-					return null;
 				});
 	}
 
+	/**
+	 * Sends {@code snapshot} as a delta against the account's mirror, or in full
+	 * when there is no baseline. A rejected baseline is retried once in full
+	 * straight away rather than waiting for the next sync. Io pool only.
+	 */
+	private void upload(StateSnapshot snapshot) {
+		String accountHash = snapshot.getAccountHash();
+		if (accountHash == null || "-1".equals(accountHash)) {
+			return;
+		}
+		if (mirror == null || !accountHash.equals(mirror.getAccountHash())) {
+			mirror = StateMirror.load(mirrorPath(accountHash), accountHash, gson);
+		}
+
+		StateSnapshot merged = mirror.merge(snapshot);
+		StateSnapshot payload = mirror.toUpload(merged);
+		if (payload == null) {
+			log.debug("State unchanged since baseline {}; nothing to sync", mirror.getBaselineId());
+			return;
+		}
+
+		StateSyncResult result = api.postStateSnapshot(payload);
+		if (result.getStatus() == StateSyncResult.Status.BASELINE_REJECTED) {
+			mirror.rejectBaseline();
+			result = api.postStateSnapshot(mirror.toUpload(merged));
+		}
+		if (result.getStatus() == StateSyncResult.Status.ACCEPTED) {
+			mirror.acknowledge(merged, result.getBaselineId());
+			mirror.save(mirrorPath(accountHash), gson);
+		}
+	}
+
+	private static Path mirrorPath(String accountHash) {
+		return RuneLite.RUNELITE_DIR.toPath().resolve(PERSISTENCE_DIR).resolve(MIRROR_FILE_PREFIX + accountHash + ".json");
+	}
+
 	private boolean isPlayerReady() {
 		return client.getGameState() == GameState.LOGGED_IN && client.getLocalPlayer() != null;
 	}
 
-	private StateSnapshot buildSnapshot(String source) {
+	private StateSnapshot buildHeader(String source) {
 		StateSnapshot snapshot = new StateSnapshot();
 		Manifest manifest = manifestService.getManifest();
 
@@ -183,49 +357,42 @@ public class StateSyncService {
 		snapshot.setManifestVersion(manifest != null ? manifest.getVersion() : null);
 		snapshot.setAccountType(client.getVarbitValue(VarbitID.IRONMAN));
 		snapshot.setCombatLevel(local != null ? local.getCombatLevel() : null);
-
-		collectSkills(snapshot);
-		collectQuests(snapshot, manifest);
-		collectCombatAchievements(snapshot, manifest);
-		collectDiaries(snapshot);
-		collectCollectionLog(snapshot);
-
 		return snapshot;
 	}
 
-	private void collectSkills(StateSnapshot snapshot) {
-		Map<String, Integer> skills = new HashMap<>();
-		for (Skill skill : Skill.values()) {
-			skills.put(skill.getName(), client.getSkillExperience(skill));
+	/** {@link StateCollector.Reads} against the live client. */
+	private final class ClientReads implements StateCollector.Reads {
+		@Override
+		public Map<String, Integer> skills() {
+			Map<String, Integer> skills = new HashMap<>();
+			for (Skill skill : Skill.values()) {
+				skills.put(skill.getName(), client.getSkillExperience(skill));
+			}
+			return skills;
 		}
-		snapshot.setSkills(skills);
-	}
 
-	/**
-	 * Reads the state of every quest the manifest lists.
-	 *
-	 * <p>Iterating the manifest rather than RuneLite's {@link Quest} enum is the
-	 * point: a quest released today is trackable today, instead of after a
-	 * RuneLite release and a Plugin Hub build. An empty manifest list falls back
-	 * to the enum so this still works before the manifest is populated.
-	 */
-	private void collectQuests(StateSnapshot snapshot, Manifest manifest) {
-		int[] questIds = manifest != null && !manifest.getQuestIds().isEmpty()
-				? manifest.getQuestIds().stream().mapToInt(Integer::intValue).toArray()
-				: Arrays.stream(Quest.values()).mapToInt(Quest::getId).toArray();
+		@Override
+		public int questState(int questId) {
+			// What Quest#getState does internally: the script leaves the
+			// status on the int stack.
+			client.runScript(ScriptID.QUEST_STATUS_GET, questId);
+			return questStateFrom(client.getIntStack()[0]);
+		}
 
-		Map<Integer, Integer> quests = new HashMap<>();
-		for (int questId : questIds) {
-			try {
-				// What Quest#getState does internally: the script leaves the
-				// status on the int stack.
-				client.runScript(ScriptID.QUEST_STATUS_GET, questId);
-				quests.put(questId, questStateFrom(client.getIntStack()[0]));
-			} catch (Exception e) {
-				log.debug("Could not read quest {}: {}", questId, e.toString());
-			}
+		@Override
+		public int varp(int varpId) {
+			return client.getVarpValue(varpId);
+		}
+
+		@Override
+		public int varbit(int varbitId) {
+			return client.getVarbitValue(varbitId);
+		}
+
+		@Override
+		public int[] diaryTiers(AchievementDiaryArea area) {
+			return area.getTiersCompletedCount(client);
 		}
-		snapshot.setQuests(quests);
 	}
 
 	/** Maps a QUEST_STATUS_GET result onto 0 not started / 1 in progress / 2 finished. */
@@ -239,55 +406,7 @@ public class StateSyncService {
 		return 1;
 	}
 
-	/**
-	 * Reads the combat achievement completion bits listed in the manifest.
-	 *
-	 * <p>Deliberately does nothing without a manifest: the varps are not a
-	 * contiguous range, so there is no safe range to guess at, and sending a
-	 * partial set would look like the player had un-completed tasks.
-	 */
-	private void collectCombatAchievements(StateSnapshot snapshot, Manifest manifest) {
-		if (manifest == null) {
-			return;
-		}
-		Map<Integer, Integer> varps = new HashMap<>();
-		for (int varpId : manifest.getCombatAchievementVarps()) {
-			varps.put(varpId, client.getVarpValue(varpId));
-		}
-		snapshot.setCombatAchievementVarps(varps);
-
-		// Individual task varbits, so the site can show progress per boss the
-		// way the in-game interface does. Reported alongside the raw varps, not
-		// instead of them: the varps still cover tasks the registry has no
-		// entry for.
-		List<Integer> completed = new java.util.ArrayList<>();
-		for (Manifest.CombatAchievementTask task : manifest.getCombatAchievementTasks()) {
-			Integer varbit = task.getVarbit();
-			if (varbit == null) {
-				continue;
-			}
-			if (client.getVarbitValue(varbit) > 0) {
-				completed.add(varbit);
-			}
-		}
-		snapshot.setCompletedCombatAchievementTasks(completed);
-	}
-
-	private void collectDiaries(StateSnapshot snapshot) {
-		List<StateSnapshot.DiaryTier> tiers = new java.util.ArrayList<>();
-		for (AchievementDiaryArea area : AchievementDiaryArea.values()) {
-			int[] completed = area.getTiersCompletedCount(client);
-			for (int tier = 0; tier < completed.length; tier++) {
-				tiers.add(new StateSnapshot.DiaryTier(area.getId(), tier, completed[tier]));
-			}
-		}
-		snapshot.setDiaryTiers(tiers);
-	}
-
-	private void collectCollectionLog(StateSnapshot snapshot) {
-		snapshot.setItems(new HashMap<>(clogItems));
-		snapshot.setClogComplete(clogComplete.get());
-
+	private void collectClogCounters(StateSnapshot snapshot) {
 		// The game's own counters are correct even when we have read no items
 		// at all, so a profile can show real progress before any scrape.
 		int completed = client.getVarpValue(VarPlayerID.COLLECTION_COUNT);
@@ -29,6 +29,7 @@ import net.runelite.client.ui.DrawManager;
 import net.runelite.client.util.Text;
 import okhttp3.*;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.VisibleForTesting;
 
 import javax.imageio.ImageIO;
@@ -42,10 +43,15 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -78,8 +84,11 @@ public class SubmissionManager {
     private SubmissionUpdateCallback updateCallback;
     @Setter
     private boolean updatesEnabled = true;
+    /** Timers only: retries and the debounced save. */
     @Inject
     private ScheduledExecutorService executor;
+    @Inject
+    private PluginExecutors executors;
 
     /** Total GP value of drops submitted this session */
     @Getter
@@ -97,6 +106,8 @@ public class SubmissionManager {
     /** Pending webhooks that arrived before group configs were loaded */
     private final List<PendingEvent> pendingEvents = new CopyOnWriteArrayList<>();
     private volatile boolean groupConfigsLoaded = false;
+    /** Set while the event stream pushes processed statuses, which makes /check polling redundant. */
+    private volatile boolean statusesPushed = false;
 
     private static final long BASE_RETRY_DELAY_MS = 1000L;
 
@@ -292,13 +303,30 @@ public class SubmissionManager {
         }
     }
 
+    /**
+     * Sends a background XP snapshot ({@link SubmissionType#EXPERIENCE_UPDATE})
+     * and runs {@code onDelivered} once the server has accepted it with a 2xx.
+     * The callback is how {@link io.droptracker.events.ExperienceHandler} moves
+     * its delta baseline forward; it runs on an OkHttp thread and never runs
+     * for a snapshot that exhausted its retries.
+     */
+    public void sendExperienceSnapshot(CustomWebhookBody webhook, Runnable onDelivered) {
+        if (hasUnidentifiedEmbed(webhook)) {
+            debugLogEventFlow("skipped", SubmissionType.EXPERIENCE_UPDATE, "player_name missing; submission has no identity");
+            return;
+        }
+        debugLogEventFlow("send", SubmissionType.EXPERIENCE_UPDATE, "experience snapshot; direct send with delivery ack");
+        sendWebhookDirect(webhook, null, null, onDelivered);
+    }
+
     /**
      * Highest {@code *_new_level} field value across the webhook's embeds.
      * Level-up embeds carry one such field per levelled skill; used to honor
      * the "Minimum Level to Screenshot" config option. Returns 0 when no
      * level fields are present.
      */
-    private int maxNewLevelIn(CustomWebhookBody webhook) {
+    @VisibleForTesting
+    static int maxNewLevelIn(CustomWebhookBody webhook) {
         int max = 0;
         if (webhook == null || webhook.getEmbeds() == null) {
             return max;
@@ -363,7 +391,8 @@ public class SubmissionManager {
      * The submission's source name from its embed fields: {@code source} on
      * drop embeds, {@code boss_name} on kill-time embeds. Null when absent.
      */
-    private String extractSourceName(CustomWebhookBody webhook) {
+    @VisibleForTesting
+    static String extractSourceName(CustomWebhookBody webhook) {
         if (webhook == null || webhook.getEmbeds() == null) {
             return null;
         }
@@ -501,9 +530,7 @@ public class SubmissionManager {
             return null;
         }
 
-        // Keep configs warm; the refresh is rate-limited and fully async (previously this
-        // happened as a hidden side effect of getGroupConfigs()).
-        api.refreshGroupConfigsAsync();
+        // An immutable snapshot, kept fresh by the api's own refresh task.
         List<GroupConfig> groupConfigs = api.getGroupConfigs();
 
         // If group configs haven't loaded yet, queue the event for later evaluation
@@ -545,7 +572,8 @@ public class SubmissionManager {
     /**
      * Returns null when the event qualifies, otherwise a concise reason it was excluded.
      */
-    private String getQualificationFailureReason(SubmissionType type, GroupConfig groupConfig,
+    @VisibleForTesting
+    static String getQualificationFailureReason(SubmissionType type, GroupConfig groupConfig,
                                                  boolean hasScreenshot, int totalValue, int singleValue) {
         // If the group requires screenshots and we don't have one, skip
         if (groupConfig.isOnlyScreenshots() && !hasScreenshot) {
@@ -618,6 +646,15 @@ public class SubmissionManager {
      * @param submission Optional ValidSubmission for status tracking
      */
     private void sendWebhookDirect(CustomWebhookBody webhook, byte[] screenshot, ValidSubmission submission) {
+        sendWebhookDirect(webhook, screenshot, submission, null);
+    }
+
+    /**
+     * @param onDelivered Optional callback run after a successful (2xx) response
+     * @see #sendWebhookDirect(CustomWebhookBody, byte[], ValidSubmission)
+     */
+    private void sendWebhookDirect(CustomWebhookBody webhook, byte[] screenshot, ValidSubmission submission,
+                                   @Nullable Runnable onDelivered) {
         String worldTypeName = getWorldTypeName();
 
         debugLogEventFlow("send", submission != null ? submission.getType() : null,
@@ -638,10 +675,15 @@ public class SubmissionManager {
             embed.addField("world_type", worldTypeName, true);
         }
 
-        sendWebhookWithRetry(webhook, screenshot, 0, submission);
+        sendWebhookWithRetry(webhook, screenshot, 0, submission, onDelivered);
     }
 
     private void sendWebhookWithRetry(CustomWebhookBody webhook, byte[] screenshot, int attempt, ValidSubmission submission) {
+        sendWebhookWithRetry(webhook, screenshot, attempt, submission, null);
+    }
+
+    private void sendWebhookWithRetry(CustomWebhookBody webhook, byte[] screenshot, int attempt, ValidSubmission submission,
+                                      @Nullable Runnable onDelivered) {
 
         MultipartBody.Builder requestBodyBuilder = new MultipartBody.Builder()
                 .setType(MultipartBody.FORM)
@@ -692,7 +734,7 @@ public class SubmissionManager {
             public void onFailure(@NotNull Call call, @NotNull IOException e) {
                 debugLogEventFlow("retry", submission != null ? submission.getType() : null,
                         "network failure on attempt=" + attempt + ": " + e.getMessage());
-                scheduleRetryOrFail(webhook, screenshot, submission, attempt, e);
+                scheduleRetryOrFail(webhook, screenshot, submission, attempt, e, onDelivered);
             }
 
             @Override
@@ -739,7 +781,7 @@ public class SubmissionManager {
                         }
 
                         if (code == 404) {
-                            executor.submit(() -> {
+                            executors.runIo(() -> {
                                 try {
                                     urlManager.fetchNewList();
                                 } catch (Exception ex) {
@@ -748,7 +790,8 @@ public class SubmissionManager {
                             });
                         }
 
-                        scheduleRetryOrFail(webhook, screenshot, submission, attempt, new IOException("HTTP " + code + ": " + response.message()));
+                        scheduleRetryOrFail(webhook, screenshot, submission, attempt,
+                                new IOException("HTTP " + code + ": " + response.message()), onDelivered);
                         return;
                     }
 
@@ -758,24 +801,28 @@ public class SubmissionManager {
                         notifyUpdateCallback();
                         schedulePersistence();
                     }
+                    if (onDelivered != null) {
+                        try {
+                            onDelivered.run();
+                        } catch (Exception e) {
+                            log.debug("Delivery callback failed: {}", e.getMessage());
+                        }
+                    }
                     debugLogEventFlow("response", submission != null ? submission.getType() : null,
                             "success HTTP response; attempt=" + attempt + ", " + summarizeSubmission(submission));
 
                     // Check if the API has already processed this submission
                     if (config.useApi() && submission != null && submission.getUuid() != null && !submission.getUuid().isEmpty()) {
-                        executor.submit(() -> {
-                            try {
-                                boolean processed = api.checkSubmissionProcessed(submission.getUuid());
-                                if (processed) {
-                                    submission.markAsProcessed();
-                                    notifyUpdateCallback();
-                                    schedulePersistence();
-                                    debugLogEventFlow("processed", submission.getType(),
-                                            "API check confirmed processed; uuid=" + submission.getUuid());
-                                }
-                            } catch (IOException ignored) {
+                        api.checkSubmissionProcessedAsync(submission.getUuid()).whenComplete((processed, e) -> {
+                            if (e != null) {
                                 debugLogEventFlow("processed", submission.getType(),
-                                        "API check failed for uuid=" + submission.getUuid() + ": " + ignored.getMessage());
+                                        "API check failed for uuid=" + submission.getUuid() + ": " + e.getMessage());
+                            } else if (processed) {
+                                submission.markAsProcessed();
+                                notifyUpdateCallback();
+                                schedulePersistence();
+                                debugLogEventFlow("processed", submission.getType(),
+                                        "API check confirmed processed; uuid=" + submission.getUuid());
                             }
                         });
                     }
@@ -784,7 +831,8 @@ public class SubmissionManager {
         });
     }
 
-    private void scheduleRetryOrFail(CustomWebhookBody webhook, byte[] screenshot, ValidSubmission submission, int attempt, Throwable e) {
+    private void scheduleRetryOrFail(CustomWebhookBody webhook, byte[] screenshot, ValidSubmission submission, int attempt, Throwable e,
+                                     @Nullable Runnable onDelivered) {
         int maxAttempts = 10;
         if (attempt < maxAttempts) {
             long delay = BASE_RETRY_DELAY_MS * (1L << Math.min(attempt, 16));
@@ -793,7 +841,7 @@ public class SubmissionManager {
                 notifyUpdateCallback();
                 schedulePersistence();
             }
-            executor.schedule(() -> sendWebhookWithRetry(webhook, screenshot, attempt + 1, submission), delay, TimeUnit.MILLISECONDS);
+            executor.schedule(() -> sendWebhookWithRetry(webhook, screenshot, attempt + 1, submission, onDelivered), delay, TimeUnit.MILLISECONDS);
             log.debug("Scheduled webhook retry in {} ms (attempt {}/{})", delay, attempt + 1, maxAttempts);
             debugLogEventFlow("retry", submission != null ? submission.getType() : null,
                     "scheduled retry in " + delay + "ms (nextAttempt=" + (attempt + 1) + "/" + maxAttempts + ")"
@@ -868,21 +916,14 @@ public class SubmissionManager {
 
             // PNG/JPEG encoding can take hundreds of ms for large frames; keep it
             // off the frame-listener thread so the client doesn't stall.
-            executor.submit(() -> {
+            executors.runCpu(() -> {
                 byte[] imageBytes = null;
                 try {
                     // Compression off = always lossless, whatever the size.
                     int thresholdBytes = config.compressImages()
                         ? config.imageCompressionThresholdKb() * 1024
                         : Integer.MAX_VALUE;
-                    byte[] pngBytes = convertImageToPngBytes(bufferedImage);
-                    if (thresholdBytes > 0 && pngBytes.length <= thresholdBytes) {
-                        // PNG is within the threshold — send lossless
-                        imageBytes = pngBytes;
-                    } else {
-                        // PNG exceeds threshold (or threshold is 0) — compress to JPEG
-                        imageBytes = convertImageToJpegBytes(bufferedImage);
-                    }
+                    imageBytes = encodeScreenshot(bufferedImage, thresholdBytes);
                 } catch (IOException e) {
                     log.error("Error converting image to byte array", e);
                     debugLogEventFlow("capture", submission != null ? submission.getType() : null,
@@ -892,10 +933,34 @@ public class SubmissionManager {
                 debugLogEventFlow("capture", submission != null ? submission.getType() : null,
                         "screenshot captured; bytes=" + (imageBytes != null ? imageBytes.length : 0));
                 sendWebhookDirect(webhook, imageBytes, submission);
+            }).exceptionally(e -> {
+                // The cpu pool is full of frames already, or shutting down. The
+                // submission still matters more than its picture.
+                if (e instanceof RejectedExecutionException) {
+                    debugLogEventFlow("capture", submission != null ? submission.getType() : null,
+                            "screenshot encode rejected (" + e.getMessage() + "); sending without it");
+                    sendWebhookDirect(webhook, null, submission);
+                }
+                return null;
             });
         });
     }
 
+    /**
+     * PNG when it fits within {@code thresholdBytes}, JPEG otherwise (or when
+     * the threshold is 0).
+     */
+    @VisibleForTesting
+    static byte[] encodeScreenshot(BufferedImage bufferedImage, int thresholdBytes) throws IOException {
+        byte[] pngBytes = convertImageToPngBytes(bufferedImage);
+        if (thresholdBytes > 0 && pngBytes.length <= thresholdBytes) {
+            // PNG is within the threshold — send lossless
+            return pngBytes;
+        }
+        // PNG exceeds threshold (or threshold is 0) — compress to JPEG
+        return convertImageToJpegBytes(bufferedImage);
+    }
+
     private static byte[] convertImageToJpegBytes(BufferedImage bufferedImage) throws IOException {
         ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
         ImageIO.write(bufferedImage, "jpeg", byteArrayOutputStream);
@@ -1024,68 +1089,92 @@ public class SubmissionManager {
      * pending until the API processes them or the retry logic marks them failed.
      */
     public void checkPendingStatuses() {
-        if (!config.useApi()) {
+        if (!config.useApi() || statusesPushed) {
+            return;
+        }
+        List<ValidSubmission> pending = new ArrayList<>();
+        List<String> uuids = new ArrayList<>();
+        for (ValidSubmission submission : validSubmissions) {
+            SubmissionStatus status = submission.getStatus();
+            if (status == null || status.isTerminal()) {
+                continue;
+            }
+            String uuid = submission.getUuid();
+            if (uuid == null || uuid.isEmpty()) {
+                continue;
+            }
+            pending.add(submission);
+            uuids.add(uuid);
+        }
+        if (pending.isEmpty()) {
             return;
         }
-        executor.submit(() -> {
-            try {
-                List<ValidSubmission> pending = new ArrayList<>();
-                List<String> uuids = new ArrayList<>();
-                for (ValidSubmission submission : validSubmissions) {
-                    SubmissionStatus status = submission.getStatus();
-                    if (status == null || status.isTerminal()) {
-                        continue;
-                    }
-                    String uuid = submission.getUuid();
-                    if (uuid == null || uuid.isEmpty()) {
-                        continue;
-                    }
-                    pending.add(submission);
-                    uuids.add(uuid);
-                }
-                if (pending.isEmpty()) {
-                    return;
-                }
 
+        api.checkSubmissionsProcessedAsync(uuids).handle((results, e) -> {
+            if (e == null) {
                 boolean changed = false;
-                java.util.Map<String, Boolean> results = null;
-                try {
-                    results = api.checkSubmissionsProcessed(uuids);
-                } catch (IOException e) {
-                    log.debug("Batch /check failed ({}); falling back to per-uuid checks", e.getMessage());
-                }
-
-                if (results != null) {
-                    for (ValidSubmission submission : pending) {
-                        if (Boolean.TRUE.equals(results.get(submission.getUuid()))) {
-                            submission.markAsProcessed();
-                            changed = true;
-                        }
-                    }
-                } else {
-                    // Legacy fallback: one request per pending submission.
-                    for (ValidSubmission submission : pending) {
-                        try {
-                            if (api.checkSubmissionProcessed(submission.getUuid())) {
-                                submission.markAsProcessed();
-                                changed = true;
-                            }
-                        } catch (IOException e) {
-                            log.debug("/check failed for uuid {}: {}", submission.getUuid(), e.getMessage());
-                        }
+                for (ValidSubmission submission : pending) {
+                    if (Boolean.TRUE.equals(results.get(submission.getUuid()))) {
+                        submission.markAsProcessed();
+                        changed = true;
                     }
                 }
-
                 if (changed) {
                     notifyUpdateCallback();
                     schedulePersistence();
                 }
-            } catch (Exception e) {
-                log.debug("Error while checking pending statuses: {}", e.getMessage());
+                return null;
+            }
+            log.debug("Batch /check failed ({}); falling back to per-uuid checks", e.getMessage());
+            // Legacy fallback: one request per pending submission.
+            AtomicBoolean changed = new AtomicBoolean();
+            CompletableFuture<?>[] checks = new CompletableFuture<?>[pending.size()];
+            for (int i = 0; i < checks.length; i++) {
+                ValidSubmission submission = pending.get(i);
+                checks[i] = api.checkSubmissionProcessedAsync(submission.getUuid()).whenComplete((processed, error) -> {
+                    if (error != null) {
+                        log.debug("/check failed for uuid {}: {}", submission.getUuid(), error.getMessage());
+                    } else if (processed) {
+                        submission.markAsProcessed();
+                        changed.set(true);
+                    }
+                });
             }
+            CompletableFuture.allOf(checks).whenComplete((done, error) -> {
+                if (changed.get()) {
+                    notifyUpdateCallback();
+                    schedulePersistence();
+                }
+            });
+            return null;
+        }).exceptionally(e -> {
+            log.debug("Error while checking pending statuses: {}", e.getMessage());
+            return null;
         });
     }
 
+    /** See {@link EventNotificationService}: true while its stream delivers statuses. */
+    public void setStatusesPushed(boolean pushed) {
+        this.statusesPushed = pushed;
+    }
+
+    /** Marks the submissions the server reported as processed, by uuid. */
+    public void markProcessed(Collection<String> uuids) {
+        Set<String> processed = new HashSet<>(uuids);
+        boolean changed = false;
+        for (ValidSubmission submission : validSubmissions) {
+            SubmissionStatus status = submission.getStatus();
+            if (status != null && !status.isTerminal() && processed.contains(submission.getUuid())) {
+                submission.markAsProcessed();
+                changed = true;
+            }
+        }
+        if (changed) {
+            notifyUpdateCallback();
+            schedulePersistence();
+        }
+    }
+
     /**
      * Check if there are any submissions in active (non-terminal) states
      */
@@ -1101,11 +1190,29 @@ public class SubmissionManager {
 
     // ========== Group Config Loading Notification ==========
 
+    /**
+     * Called when a different account logs in, before its group configs have
+     * loaded. Events are queued again until they arrive rather than judged
+     * against none. Events still queued for the previous account are dropped:
+     * replaying them would qualify them against the new account's groups.
+     */
+    public void onGroupConfigsPending() {
+        this.groupConfigsLoaded = false;
+        if (!pendingEvents.isEmpty()) {
+            debugLogEventFlow("qualification", null, "account switched; dropping pendingEvents=" + pendingEvents.size());
+            pendingEvents.clear();
+        }
+    }
+
     /**
      * Called when group configs have been loaded. Re-evaluates any events that were
      * queued while configs were unavailable.
      */
     public void onGroupConfigsLoaded() {
+        if (api.getGroupConfigSnapshot().getLoadedAtMs() == 0) {
+            // A late notice for the previous account; this one's are still loading.
+            return;
+        }
         this.groupConfigsLoaded = true;
         if (pendingEvents.isEmpty()) {
             return;
@@ -1141,7 +1248,7 @@ public class SubmissionManager {
             return;
         }
 
-        executor.submit(() -> {
+        executors.runIo(() -> {
             try {
                 String json = new String(Files.readAllBytes(filePath), StandardCharsets.UTF_8);
                 Type listType = new TypeToken<List<ValidSubmission>>() {}.getType();
@@ -1257,7 +1364,8 @@ public class SubmissionManager {
     /**
      * Check if a specific embed field has value "true"
      */
-    private boolean isFieldTrue(CustomWebhookBody webhook, String fieldName) {
+    @VisibleForTesting
+    static boolean isFieldTrue(CustomWebhookBody webhook, String fieldName) {
         if (webhook == null || webhook.getEmbeds() == null) return false;
         for (CustomWebhookBody.Embed embed : webhook.getEmbeds()) {
             for (CustomWebhookBody.Field field : embed.getFields()) {
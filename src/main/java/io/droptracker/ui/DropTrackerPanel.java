@@ -10,6 +10,7 @@ import javax.swing.*;
 
 import io.droptracker.api.DropTrackerApi;
 import io.droptracker.service.EventNotificationService;
+import io.droptracker.service.PluginExecutors;
 import io.droptracker.ui.components.PanelElements;
 import io.droptracker.ui.components.PanelIcons;
 import io.droptracker.ui.pages.ActivityPanel;
@@ -22,7 +23,6 @@ import io.droptracker.util.RemoteImageCache;
 
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
-import net.runelite.client.config.ConfigManager;
 import net.runelite.client.ui.FontManager;
 import net.runelite.client.ui.PluginPanel;
 import net.runelite.client.game.ItemManager;
@@ -69,6 +69,7 @@ public class DropTrackerPanel extends PluginPanel implements DropTrackerApi.Pane
 	private final DropTrackerPlugin plugin;
 	private final DropTrackerApi api;
 	private final OkHttpClient httpClient;
+	private final PluginExecutors executors;
 	private JPanel headerPanel;
 
 	@Inject
@@ -85,8 +86,6 @@ public class DropTrackerPanel extends PluginPanel implements DropTrackerApi.Pane
 	private RemoteImageCache remoteImageCache;
 	@Inject
 	private ItemIDSearch itemIDSearch;
-	@Inject
-	private ConfigManager configManager;
 
 	private PlayerStatsPanel statsPanel;
 	private GroupPanel groupPanel;
@@ -106,16 +105,18 @@ public class DropTrackerPanel extends PluginPanel implements DropTrackerApi.Pane
 	private JLabel statusTextLabel;
 
 	@Inject
-	public DropTrackerPanel(DropTrackerConfig config, DropTrackerApi api, DropTrackerPlugin plugin, Client client, OkHttpClient httpClient) {
+	public DropTrackerPanel(DropTrackerConfig config, DropTrackerApi api, DropTrackerPlugin plugin, Client client, OkHttpClient httpClient,
+							PluginExecutors executors) {
 		this.config = config;
 		this.api = api;
 		this.plugin = plugin;
 		this.client = client;
 		this.httpClient = httpClient;
-		// Static UI helpers fetch images through the shared client; hand it over once here.
-		// They also need to know whether the API is on: lootboards come from our own
-		// host, so they must not be fetched unless the user has enabled connections.
-		PanelElements.setHttpClient(httpClient, config.useApi());
+		this.executors = executors;
+		// Static UI helpers fetch images through the shared client and the plugin's io pool;
+		// hand both over once here. They also need to know whether the API is on: lootboards
+		// come from our own host, so they must not be fetched unless the user has enabled connections.
+		PanelElements.setHttpClient(httpClient, executors, config.useApi());
 
 		setLayout(new BorderLayout());
 		setBorder(new EmptyBorder(6, 6, 6, 6));
@@ -148,10 +149,10 @@ public class DropTrackerPanel extends PluginPanel implements DropTrackerApi.Pane
 			activityComponent = activityPanel.create();
 			statsPanel = new PlayerStatsPanel(client, plugin, config, api, itemManager);
 			playerComponent = statsPanel.create();
-			groupPanel = new GroupPanel(client, config, api, itemManager, this, httpClient);
+			groupPanel = new GroupPanel(client, config, api, itemManager, this, httpClient, executors);
 			groupComponent = groupPanel.create();
 			eventsPanel = new EventsPanel(config, api, eventNotificationService,
-				client, itemManager, remoteImageCache, itemIDSearch, configManager);
+				client, itemManager, remoteImageCache, itemIDSearch, executors);
 			eventsComponent = eventsPanel.create();
 			eventNotificationService.setOnStateUpdated(() -> {
 				if (eventsPanel != null) {
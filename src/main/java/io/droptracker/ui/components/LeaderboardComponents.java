@@ -11,8 +11,6 @@ import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.Insets;
 import java.util.List;
-import java.util.function.Supplier;
-import java.util.concurrent.CompletableFuture;
 
 import javax.swing.Box;
 import javax.swing.BoxLayout;
@@ -24,6 +22,7 @@ import javax.swing.SwingUtilities;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.StrokeBorder;
 
+import io.droptracker.api.Revalidating;
 import io.droptracker.ui.DropTrackerTheme;
 import net.runelite.client.ui.FontManager;
 import net.runelite.client.ui.PluginPanel;
@@ -314,27 +313,59 @@ public class LeaderboardComponents {
     }
 
     /**
-     * Handles asynchronous leaderboard loading
+     * Fills the placeholder's slot with the leaderboard: the saved copy as soon
+     * as it is read, marked as stale, then the fresh one when it arrives. If
+     * the refresh fails the saved copy stays, marked offline. Panels are built
+     * on the EDT; nothing waits on the request meanwhile.
      */
-    public static <T> void loadLeaderboardAsync(JPanel placeholder, 
-            Supplier<T> dataLoader, 
+    public static <T> void loadLeaderboardAsync(JPanel placeholder,
+            Revalidating<T> data,
             java.util.function.Function<T, JPanel> panelCreator) {
-        
-        CompletableFuture.supplyAsync(() -> {
-            try {
-                T data = dataLoader.get();
-                if (data != null) {
-                    return panelCreator.apply(data);
+
+        // EDT only: the panel now in the slot, and whether it is the fresh one.
+        JPanel[] shown = { placeholder };
+        boolean[] freshShown = { false };
+
+        data.getCached().thenAccept(saved -> {
+            if (saved == null || saved.getValue() == null) {
+                return;
+            }
+            SwingUtilities.invokeLater(() -> {
+                if (!freshShown[0]) {
+                    // A refresh that already finished without being shown failed.
+                    show(shown, withStaleNotice(panelCreator.apply(saved.getValue()), saved.getStoredAtMs(),
+                            data.getFresh().isDone()));
                 }
-            } catch (Exception e) {
-                log.debug("Async leaderboard load failed: {}", e.getMessage());
+            });
+        });
+        data.getFresh().whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            if (result != null) {
+                freshShown[0] = true;
+                show(shown, panelCreator.apply(result));
+                return;
             }
-            return null;
-        }).thenAccept(leaderboardPanel -> {
-            if (leaderboardPanel != null) {
-                replacePlaceholder(placeholder, leaderboardPanel);
+            if (error != null) {
+                log.debug("Async leaderboard load failed: {}", error.getMessage());
             }
-        });
+            Revalidating.Saved<T> saved = data.getCached().getNow(null);
+            if (saved != null && saved.getValue() != null) {
+                show(shown, withStaleNotice(panelCreator.apply(saved.getValue()), saved.getStoredAtMs(), true));
+            }
+        }));
+    }
+
+    private static void show(JPanel[] shown, JPanel next) {
+        replacePlaceholder(shown[0], next);
+        shown[0] = next;
+    }
+
+    private static JPanel withStaleNotice(JPanel content, long storedAtMs, boolean offline) {
+        JPanel panel = new JPanel();
+        panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
+        panel.setBackground(DropTrackerTheme.SURFACE_0);
+        panel.add(StateViews.staleNotice(storedAtMs, offline));
+        panel.add(content);
+        return panel;
     }
 
     /**
@@ -5,9 +5,14 @@ import io.droptracker.DropTrackerPlugin;
 import io.droptracker.api.DropTrackerApi;
 import io.droptracker.api.DropTrackerUrls;
 import io.droptracker.models.submissions.RecentSubmission;
+import io.droptracker.service.PluginExecutors;
 import io.droptracker.ui.DropTrackerTheme;
+import io.droptracker.util.BoardImageCache;
+import io.droptracker.util.BoardImageDecoder;
+import io.droptracker.util.RemoteImageCache;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
+import net.runelite.client.RuneLite;
 import net.runelite.client.game.ItemManager;
 import net.runelite.client.ui.FontManager;
 import net.runelite.client.ui.PluginPanel;
@@ -20,7 +25,6 @@ import okhttp3.Response;
 import okhttp3.ResponseBody;
 
 import javax.annotation.Nullable;
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.StrokeBorder;
@@ -29,7 +33,6 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.image.BufferedImage;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 public class PanelElements {
@@ -39,10 +42,9 @@ public class PanelElements {
     private static final ImageIcon EXPANDED_ICON;
     private static final ImageIcon BOARD_ICON;
     private static final ImageIcon EXTERNAL_LINK_ICON;
-    public static @Nullable BufferedImage cachedLootboardImage;
+    /** Ceiling on a submission icon's encoded size, as for the other server-hosted icons. */
+    private static final int MAX_ICON_BYTES = 2 << 20;
     public static String cachedGroupName = "All Players";
-    private static Integer cachedGroupId = null; // Track which group's lootboard is currently cached
-    private static long cachedLootboardAtMs = 0;
 
     /**
      * Shared RuneLite OkHttpClient, set once at panel construction. These UI
@@ -55,6 +57,9 @@ public class PanelElements {
      */
     private static OkHttpClient httpClient;
 
+    /** The plugin's pools; image fetches run on its io pool, set alongside the client. */
+    private static PluginExecutors executors;
+
     /**
      * Whether the user has switched on API connections. Lootboards are served from
      * our own host, so every fetch below is gated on this: with the API integration
@@ -65,12 +70,21 @@ public class PanelElements {
      */
     private static boolean apiEnabled;
 
-    public static void setHttpClient(OkHttpClient client, boolean apiEnabled) {
+    /**
+     * Lootboards and the other pop-out images, per board on disk and decoded
+     * at dialog size; replaced alongside the client.
+     */
+    private static @Nullable BoardImageCache boardImages;
+
+    public static void setHttpClient(OkHttpClient client, PluginExecutors executors, boolean apiEnabled) {
         httpClient = client == null ? null : client.newBuilder()
             .followRedirects(false)
             .followSslRedirects(false)
             .build();
+        PanelElements.executors = executors;
         PanelElements.apiEnabled = apiEnabled;
+        boardImages = httpClient == null ? null : new BoardImageCache(httpClient, executors,
+            RuneLite.RUNELITE_DIR.toPath().resolve("droptracker").resolve("boards"));
         // Preload the default global group (2) lootboard now that a client exists.
         // The static initializer can't do this because it runs before the client is set.
         loadLootboardForGroup(2);
@@ -80,10 +94,11 @@ public class PanelElements {
      * Fetches an image through the shared OkHttpClient. Takes an {@link HttpUrl}
      * rather than a String so that a raw value from an API response cannot reach
      * here — callers must go through {@link DropTrackerUrls} to get one.
-     * A non-image body decodes to null; any failure returns null.
+     * Decoded straight down to fit {@code size}×{@code size}; an oversized or
+     * non-image body, or any failure, returns null.
      */
     @Nullable
-    private static BufferedImage fetchImage(@Nullable HttpUrl imageUrl) {
+    private static BufferedImage fetchImage(@Nullable HttpUrl imageUrl, int size) {
         if (httpClient == null || imageUrl == null) {
             return null;
         }
@@ -93,21 +108,14 @@ public class PanelElements {
             if (!response.isSuccessful() || body == null) {
                 return null;
             }
-            return ImageIO.read(body.byteStream());
+            byte[] bytes = RemoteImageCache.readBounded(body, MAX_ICON_BYTES);
+            return bytes != null ? BoardImageDecoder.decode(bytes, size, size, null) : null;
         } catch (Exception e) {
             log.debug("Image fetch failed for {}: {}", imageUrl, e.getMessage());
             return null;
         }
     }
 
-    /** Lootboards regenerate server-side; refetch after this long instead of caching forever. */
-    private static final long LOOTBOARD_CACHE_TTL_MS = 10 * 60 * 1000;
-
-    private static boolean isLootboardCacheValid(int groupId) {
-        return cachedGroupId != null && cachedGroupId == groupId && cachedLootboardImage != null
-            && (System.currentTimeMillis() - cachedLootboardAtMs) < LOOTBOARD_CACHE_TTL_MS;
-    }
-
     static {
         Image collapsedImg = ImageUtil.loadImageResource(DropTrackerPlugin.class, "util/collapse.png");
         Image expandedImg = ImageUtil.loadImageResource(DropTrackerPlugin.class, "util/expand.png");
@@ -155,25 +163,20 @@ public class PanelElements {
         return EXTERNAL_LINK_ICON;
     }
 
-    // Method to load lootboard for a specific group ID
+    /**
+     * Warms a group's lootboard ahead of it being opened: brings the copy on
+     * disk up to date, without decoding it until the dialog asks.
+     */
     public static void loadLootboardForGroup(int groupId) {
-        // Check if we already have this group cached
-        if (isLootboardCacheValid(groupId)) {
-            return;
-        }
-
         HttpUrl imageUrl = lootboardUrl(groupId);
-        if (imageUrl == null) {
+        if (imageUrl == null || boardImages == null) {
             return;
         }
+        boardImages.prefetch(lootboardKey(groupId), imageUrl);
+    }
 
-        CompletableFuture.supplyAsync(() -> fetchImage(imageUrl)).thenAccept(image -> {
-            SwingUtilities.invokeLater(() -> {
-                cachedLootboardImage = image;
-                cachedGroupId = groupId;
-                cachedLootboardAtMs = System.currentTimeMillis();
-            });
-        });
+    private static String lootboardKey(int groupId) {
+        return "lootboard/" + groupId;
     }
 
     /**
@@ -189,37 +192,6 @@ public class PanelElements {
         return DropTrackerUrls.image("clans/" + groupId + "/lb/lootboard.png");
     }
 
-    // Method to load lootboard for a specific group ID with callback
-    public static void loadLootboardForGroup(int groupId, Runnable onComplete) {
-        // Check if we already have this group cached
-        if (isLootboardCacheValid(groupId)) {
-            if (onComplete != null) {
-                SwingUtilities.invokeLater(onComplete);
-            }
-            return;
-        }
-
-        HttpUrl imageUrl = lootboardUrl(groupId);
-        if (imageUrl == null) {
-            if (onComplete != null) {
-                SwingUtilities.invokeLater(onComplete);
-            }
-            return;
-        }
-
-        CompletableFuture.supplyAsync(() -> fetchImage(imageUrl)).thenAccept(image -> {
-            SwingUtilities.invokeLater(() -> {
-                cachedLootboardImage = image;
-                cachedGroupId = groupId;
-                cachedLootboardAtMs = System.currentTimeMillis();
-                // Call the completion callback
-                if (onComplete != null) {
-                    onComplete.run();
-                }
-            });
-        });
-    }
-
     /**
      * Creates a styled container for submission icons with border and background,
      * with optional enter/exit effects (if an image is provided for the submission)
@@ -266,15 +238,6 @@ public class PanelElements {
         JDialog imageDialog = new JDialog(parentFrame, cachedGroupName + " - Lootboard", false);
         imageDialog.setDefaultCloseOperation(JDialog.DISPOSE_ON_CLOSE);
 
-        // Check if we already have the right group cached
-        if (isLootboardCacheValid(groupId)) {
-            displayImageInDialog(imageDialog, cachedLootboardImage, parentFrame);
-            imageDialog.revalidate();
-            imageDialog.repaint();
-            imageDialog.setVisible(true);
-            return;
-        }
-
         // Show loading dialog first
         JLabel loadingLabel = new JLabel("Loading group " + groupId + " lootboard...");
         loadingLabel.setForeground(DropTrackerTheme.TEXT);
@@ -293,28 +256,17 @@ public class PanelElements {
         imageDialog.setLocationRelativeTo(parentFrame);
 
         // Start loading BEFORE showing the dialog to avoid modality blocking
-        loadLootboardForGroup(groupId, () -> {
-            if (cachedLootboardImage != null) {
-                imageDialog.getContentPane().removeAll();
-                displayImageInDialog(imageDialog, cachedLootboardImage, parentFrame);
-                imageDialog.revalidate();
-                imageDialog.repaint();
-            } else {
-                loadingLabel.setText("Failed to load group " + groupId + " lootboard");
-                loadingLabel.setForeground(DropTrackerTheme.RED);
-                imageDialog.revalidate();
-                imageDialog.repaint();
-            }
-        });
+        loadBoardImage(lootboardKey(groupId), lootboardUrl(groupId),
+            new BoardDialog(imageDialog, loadingLabel, parentFrame, "Failed to load group " + groupId + " lootboard"));
 
         imageDialog.setVisible(true);
     }
 
     /**
      * Generic remote-image pop-out (same machinery as the lootboard dialog):
-     * loading placeholder, async fetch via ImageIO (non-image bodies decode to
-     * null and show an error instead), click/Esc to close. Used by the Events
-     * tab for server-rendered board images.
+     * loading placeholder, cached and decoded at dialog size by {@link
+     * BoardImageCache} (non-image bodies show an error instead), click/Esc to
+     * close. Used by the Events tab for server-rendered board images.
      */
     public static void showRemoteImage(Client client, String title, @Nullable HttpUrl imageUrl) {
         final JFrame parentFrame = getParentFrame(client);
@@ -390,21 +342,121 @@ public class PanelElements {
             return;
         }
 
-        CompletableFuture.supplyAsync(() -> fetchImage(imageUrl)).thenAccept(image -> {
+        // Keyed by the whole URL: event boards differ by team and player.
+        loadBoardImage(imageUrl.toString(), imageUrl,
+            new BoardDialog(imageDialog, loadingLabel, parentFrame, "Failed to load image... (likely a bug on our end)"));
+    }
+
+    private static void loadBoardImage(String key, @Nullable HttpUrl imageUrl, BoardDialog view) {
+        if (imageUrl == null || boardImages == null) {
+            view.onFailed();
+            return;
+        }
+        Dimension bounds = dialogImageBounds();
+        boardImages.load(key, imageUrl, bounds.width, bounds.height, view);
+    }
+
+    /** Pop-out images are shown no larger than 90% of the screen. */
+    private static Dimension dialogImageBounds() {
+        Dimension screenSize = java.awt.Toolkit.getDefaultToolkit().getScreenSize();
+        return new Dimension((int) (screenSize.width * 0.9), (int) (screenSize.height * 0.9));
+    }
+
+    /**
+     * One pop-out following a {@link BoardImageCache} load: the loading label
+     * until the first pixels arrive, then the image, repainted as more of it
+     * decodes and swapped in place if revalidation brings a newer copy.
+     */
+    private static final class BoardDialog implements BoardImageCache.Listener {
+        private final JDialog dialog;
+        private final JLabel loadingLabel;
+        private final JFrame parentFrame;
+        private final String failedText;
+        /** EDT only; null until something is shown. */
+        private @Nullable BoardIcon icon;
+
+        BoardDialog(JDialog dialog, JLabel loadingLabel, JFrame parentFrame, String failedText) {
+            this.dialog = dialog;
+            this.loadingLabel = loadingLabel;
+            this.parentFrame = parentFrame;
+            this.failedText = failedText;
+        }
+
+        @Override
+        public void onProgress(BufferedImage partial) {
+            SwingUtilities.invokeLater(() -> show(partial));
+        }
+
+        @Override
+        public void onImage(BufferedImage image) {
+            SwingUtilities.invokeLater(() -> show(image));
+        }
+
+        @Override
+        public void onFailed() {
             SwingUtilities.invokeLater(() -> {
-                if (image != null) {
-                    imageDialog.getContentPane().removeAll();
-                    displayImageInDialog(imageDialog, image, parentFrame);
-                    imageDialog.revalidate();
-                    imageDialog.repaint();
-                } else {
-                    loadingLabel.setText("Failed to load image... (likely a bug on our end)");
-                    loadingLabel.setForeground(DropTrackerTheme.RED);
-                    imageDialog.revalidate();
-                    imageDialog.repaint();
+                if (icon != null) {
+                    return;
                 }
+                loadingLabel.setText(failedText);
+                loadingLabel.setForeground(DropTrackerTheme.RED);
+                dialog.revalidate();
+                dialog.repaint();
             });
-        });
+        }
+
+        private void show(BufferedImage image) {
+            if (!dialog.isDisplayable()) {
+                // Closed while loading.
+                return;
+            }
+            if (icon == null) {
+                Dimension bounds = dialogImageBounds();
+                Dimension size = BoardImageDecoder.displaySize(image.getWidth(), image.getHeight(),
+                    bounds.width, bounds.height);
+                icon = new BoardIcon(size.width, size.height);
+                icon.image = image;
+                dialog.getContentPane().removeAll();
+                displayImageInDialog(dialog, icon, parentFrame);
+                dialog.revalidate();
+            } else {
+                icon.image = image;
+            }
+            dialog.repaint();
+        }
+    }
+
+    /**
+     * Paints whichever image it holds scaled into a fixed size, so the dialog
+     * keeps its size while a partly decoded board gives way to the finished one.
+     */
+    private static final class BoardIcon implements Icon {
+        private final int width;
+        private final int height;
+        private BufferedImage image;
+
+        BoardIcon(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public void paintIcon(Component c, Graphics g, int x, int y) {
+            Graphics2D g2 = (Graphics2D) g.create();
+            g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2.drawImage(image, x, y, width, height, null);
+            g2.dispose();
+        }
+
+        @Override
+        public int getIconWidth() {
+            return width;
+        }
+
+        @Override
+        public int getIconHeight() {
+            return height;
+        }
     }
 
     /**
@@ -845,8 +897,8 @@ public class PanelElements {
                         iconContainer = pbContainer;
 
                         // Load image asynchronously
-                        CompletableFuture.supplyAsync(() -> {
-                            BufferedImage image = fetchImage(imageUrl);
+                        executors.supplyIo(() -> {
+                            BufferedImage image = fetchImage(imageUrl, size);
                             if (image != null) {
                                 Image scaled = image.getScaledInstance(size, size, Image.SCALE_SMOOTH);
                                 return new ImageIcon(scaled);
@@ -1002,46 +1054,17 @@ public class PanelElements {
             .replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
     }
 
-    private static void displayImageInDialog(JDialog imageDialog, BufferedImage originalImage, JFrame parentFrame) {
-        // Calculate display size based on screen dimensions
-        Dimension screenSize = java.awt.Toolkit.getDefaultToolkit().getScreenSize();
-        int maxWidth = (int) (screenSize.width * 0.9);
-        int maxHeight = (int) (screenSize.height * 0.9);
-
-        int originalWidth = originalImage.getWidth();
-        int originalHeight = originalImage.getHeight();
-
-        int displayWidth = originalWidth;
-        int displayHeight = originalHeight;
-
-        // Scale down if image is too large for screen
-        if (originalWidth > maxWidth || originalHeight > maxHeight) {
-            double scaleX = (double) maxWidth / originalWidth;
-            double scaleY = (double) maxHeight / originalHeight;
-            double scale = Math.min(scaleX, scaleY);
-
-            displayWidth = (int) (originalWidth * scale);
-            displayHeight = (int) (originalHeight * scale);
-        }
-
-        // Create image label
+    private static void displayImageInDialog(JDialog imageDialog, Icon image, JFrame parentFrame) {
+        // Create image label; the image already arrives fitted to the screen
         JLabel imageLabel = new JLabel();
-        imageLabel.setPreferredSize(new Dimension(displayWidth, displayHeight));
+        imageLabel.setPreferredSize(new Dimension(image.getIconWidth(), image.getIconHeight()));
         imageLabel.setBorder(new StrokeBorder(new BasicStroke(2), DropTrackerTheme.SURFACE_3));
         imageLabel.setHorizontalAlignment(JLabel.CENTER);
         imageLabel.setVerticalAlignment(JLabel.CENTER);
         imageLabel.setBackground(DropTrackerTheme.SURFACE_1);
         imageLabel.setOpaque(true);
 
-        // Scale image if needed
-        Image displayImage;
-        if (displayWidth == originalWidth && displayHeight == originalHeight) {
-            displayImage = originalImage;
-        } else {
-            displayImage = originalImage.getScaledInstance(displayWidth, displayHeight, Image.SCALE_SMOOTH);
-        }
-
-        imageLabel.setIcon(new ImageIcon(displayImage));
+        imageLabel.setIcon(image);
 
         // Add listeners
         addCloseListener(imageLabel, imageDialog);
@@ -1,6 +1,7 @@
 package io.droptracker.ui.components;
 
 import io.droptracker.ui.DropTrackerTheme;
+import io.droptracker.util.DurationAdapter;
 import net.runelite.client.ui.FontManager;
 
 import javax.swing.Box;
@@ -10,6 +11,8 @@ import javax.swing.JLabel;
 import javax.swing.JPanel;
 import java.awt.Component;
 import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.time.Duration;
 
 /**
  * Shared loading / error / empty state views used across all side panel pages,
@@ -59,6 +62,26 @@ public final class StateViews {
         return panel;
     }
 
+    /**
+     * One-line note above content served from the saved copy: how old it is,
+     * and whether a refresh is still on its way or the API is unreachable.
+     */
+    public static JPanel staleNotice(long storedAtMs, boolean offline) {
+        String age = DurationAdapter.formatDuration(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - storedAtMs)));
+        String text = offline
+            ? "Offline · showing results saved " + age
+            : "Results saved " + age + " · refreshing…";
+        JPanel panel = new JPanel(new FlowLayout(FlowLayout.CENTER, 0, 4));
+        panel.setBackground(DropTrackerTheme.SURFACE_0);
+        panel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        JLabel label = new JLabel(text);
+        label.setFont(FontManager.getRunescapeSmallFont());
+        label.setForeground(offline ? DropTrackerTheme.EMBER : DropTrackerTheme.TEXT_MUTED);
+        panel.add(label);
+        panel.setMaximumSize(new Dimension(Integer.MAX_VALUE, panel.getPreferredSize().height));
+        return panel;
+    }
+
     private static JPanel centeredLabelPanel(String text, java.awt.Color color, int topGap) {
         JPanel panel = new JPanel();
         panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
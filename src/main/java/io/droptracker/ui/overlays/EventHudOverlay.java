@@ -12,6 +12,8 @@ import net.runelite.client.game.ItemManager;
 import net.runelite.client.ui.FontManager;
 import net.runelite.client.ui.overlay.Overlay;
 import net.runelite.client.ui.overlay.OverlayPosition;
+import net.runelite.client.util.AsyncBufferedImage;
+import org.jetbrains.annotations.VisibleForTesting;
 
 import javax.annotation.Nullable;
 import javax.inject.Inject;
@@ -24,10 +26,13 @@ import java.awt.FontMetrics;
 import java.awt.GradientPaint;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
+import java.awt.font.FontRenderContext;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * The "Enhanced display" HUD, painted in the style of the game's collection
@@ -43,6 +48,13 @@ import java.util.List;
  * anchored directly beneath the card (following wherever the user dragged
  * it), and the stand-alone {@link EventToastOverlay} stands down — the user
  * positions one object, never two.
+ *
+ * The card and each nudge are painted once into an image and redrawn from
+ * it every frame. The card is repainted only when the service's display
+ * version moves (new state or a config edit), the font render context
+ * changes, or an icon it drew blank finishes loading; a nudge only when one
+ * of the latter two happens. Fading a nudge is just the alpha it is drawn
+ * with.
  */
 @Singleton
 public class EventHudOverlay extends Overlay {
@@ -65,6 +77,20 @@ public class EventHudOverlay extends Overlay {
     private final ItemManager itemManager;
     private final RemoteImageCache remoteImages;
 
+    /* Painted-image caches; touched on the client thread only, except the dirty flags. */
+    @Nullable
+    private BufferedImage hudImage;
+    private long hudVersion = -1;
+    @Nullable
+    private FontRenderContext hudFrc;
+    private volatile boolean hudDirty;
+    private final Map<EventNotificationService.Toast, BufferedImage> nudgeImages = new WeakHashMap<>();
+    @Nullable
+    private FontRenderContext nudgeFrc;
+    private volatile boolean nudgesDirty;
+    /** Set while painting, so an icon that turns out to be loaded already does not re-dirty its image. */
+    private boolean painting;
+
     @Inject
     public EventHudOverlay(DropTrackerConfig config, EventNotificationService service,
                            ItemManager itemManager, RemoteImageCache remoteImages) {
@@ -81,6 +107,52 @@ public class EventHudOverlay extends Overlay {
         if (!config.eventNotifications() || !config.eventDisplayMode().hudEnabled()) {
             return null;
         }
+        FontRenderContext frc = graphics.getFontRenderContext();
+        long version = service.getDisplayVersion();
+        if (hudDirty || version != hudVersion || !frc.equals(hudFrc)) {
+            hudDirty = false;
+            hudVersion = version;
+            hudFrc = frc;
+            painting = true;
+            try {
+                hudImage = paintHud(graphics);
+            } finally {
+                painting = false;
+            }
+        }
+        BufferedImage hud = hudImage;
+        if (hud == null) {
+            return null;
+        }
+        graphics.drawImage(hud, 0, 0, null);
+
+        // This frame painted: own the pop-up queue (EventToastOverlay stands
+        // down) and render it as nudges hanging off the card's bottom edge.
+        service.markHudRendered();
+        int totalHeight = hud.getHeight();
+        if (config.eventDisplayMode().popupsEnabled()) {
+            totalHeight = renderNudges(graphics, totalHeight);
+        }
+        return new Dimension(WIDTH, totalHeight);
+    }
+
+    /** The card image the last frame drew; null when no event shows. */
+    @VisibleForTesting
+    @Nullable
+    BufferedImage cachedHud() {
+        return hudImage;
+    }
+
+    /** The image a toast's nudge was last drawn from; null until it is drawn. */
+    @VisibleForTesting
+    @Nullable
+    BufferedImage cachedNudge(EventNotificationService.Toast toast) {
+        return nudgeImages.get(toast);
+    }
+
+    /** Paints the card into a new image, measured with {@code screen}'s fonts; null when no event shows. */
+    @Nullable
+    private BufferedImage paintHud(Graphics2D screen) {
         EventState.Entry entry = service.hudEntry();
         if (entry == null || entry.getEvent() == null) {
             return null;
@@ -89,13 +161,10 @@ public class EventHudOverlay extends Overlay {
         EventNotificationService.DisplayTask task = service.displayTask(entry);
         boolean awaitingRoll = "awaiting_roll".equals(entry.getBoardStatus());
 
-        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
-            RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-
         Font titleFont = FontManager.getRunescapeBoldFont();
         Font smallFont = FontManager.getRunescapeSmallFont();
-        FontMetrics titleFm = graphics.getFontMetrics(titleFont);
-        FontMetrics smallFm = graphics.getFontMetrics(smallFont);
+        FontMetrics titleFm = screen.getFontMetrics(titleFont);
+        FontMetrics smallFm = screen.getFontMetrics(smallFont);
 
         int innerWidth = WIDTH - PAD * 2;
         String title = truncateToWidth(entry.getEvent().getName(), titleFm, innerWidth);
@@ -130,6 +199,11 @@ public class EventHudOverlay extends Overlay {
         }
         height += PAD;
 
+        BufferedImage image = new BufferedImage(WIDTH, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+            RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
         /* ---- frame ---- */
         graphics.setPaint(new GradientPaint(0, 0, BG_TOP, 0, height, BG_BOTTOM));
         graphics.fillRect(1, 1, WIDTH - 2, height - 2);
@@ -226,15 +300,8 @@ public class EventHudOverlay extends Overlay {
             shadowed(graphics, done, WIDTH - PAD - smallFm.stringWidth(done),
                 y + smallFm.getAscent(), DropTrackerTheme.TEXT);
         }
-
-        // This frame painted: own the pop-up queue (EventToastOverlay stands
-        // down) and render it as nudges hanging off the card's bottom edge.
-        service.markHudRendered();
-        int totalHeight = height;
-        if (config.eventDisplayMode().popupsEnabled()) {
-            totalHeight = renderNudges(graphics, height);
-        }
-        return new Dimension(WIDTH, totalHeight);
+        graphics.dispose();
+        return image;
     }
 
     /* ===================== pop-up nudges ===================== */
@@ -250,6 +317,12 @@ public class EventHudOverlay extends Overlay {
     /** Draws the pending toasts as compact HUD-styled cards below the HUD
      *  (starting at {@code hudHeight}); returns the new total height. */
     private int renderNudges(Graphics2D g, int hudHeight) {
+        FontRenderContext frc = g.getFontRenderContext();
+        if (nudgesDirty || !frc.equals(nudgeFrc)) {
+            nudgesDirty = false;
+            nudgeFrc = frc;
+            nudgeImages.clear();
+        }
         long now = System.currentTimeMillis();
         List<EventNotificationService.Toast> visible = new ArrayList<>(MAX_NUDGES);
         Iterator<EventNotificationService.Toast> iterator = service.getToasts().iterator();
@@ -273,18 +346,44 @@ public class EventHudOverlay extends Overlay {
         long remaining = toast.remainingMs(now);
         float alpha = remaining < NUDGE_FADE_MS
             ? Math.max(remaining / (float) NUDGE_FADE_MS, 0f) : 1f;
+        BufferedImage image = nudgeImages.get(toast);
+        if (image == null) {
+            painting = true;
+            try {
+                image = paintNudge(g, toast);
+            } finally {
+                painting = false;
+            }
+            nudgeImages.put(toast, image);
+        }
+
+        java.awt.Composite previous = g.getComposite();
+        g.setComposite(java.awt.AlphaComposite.getInstance(
+            java.awt.AlphaComposite.SRC_OVER, alpha));
+        g.drawImage(image, 0, top, null);
+        g.setComposite(previous);
+        return image.getHeight();
+    }
+
+    private BufferedImage paintNudge(Graphics2D screen, EventNotificationService.Toast toast) {
         Color accent = nudgeAccent(toast.getPriority());
 
         Font titleFont = FontManager.getRunescapeBoldFont();
         Font smallFont = FontManager.getRunescapeSmallFont();
-        FontMetrics titleFm = g.getFontMetrics(titleFont);
-        FontMetrics smallFm = g.getFontMetrics(smallFont);
+        FontMetrics titleFm = screen.getFontMetrics(titleFont);
+        FontMetrics smallFm = screen.getFontMetrics(smallFont);
 
         int textLeft = PAD;
         BufferedImage icon = null;
         if (toast.getIconItemId() != null && toast.getIconItemId() > 0) {
-            icon = itemManager.getImage(toast.getIconItemId());
-            if (icon != null) {
+            AsyncBufferedImage itemImage = itemManager.getImage(toast.getIconItemId());
+            if (itemImage != null) {
+                itemImage.onLoaded(() -> {
+                    if (!painting) {
+                        nudgesDirty = true;
+                    }
+                });
+                icon = itemImage;
                 textLeft += NUDGE_ICON + 6;
             }
         }
@@ -295,23 +394,24 @@ public class EventHudOverlay extends Overlay {
             height = Math.max(height, NUDGE_ICON + 12);
         }
 
-        java.awt.Composite previous = g.getComposite();
-        g.setComposite(java.awt.AlphaComposite.getInstance(
-            java.awt.AlphaComposite.SRC_OVER, alpha));
+        BufferedImage image = new BufferedImage(WIDTH, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+            RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
 
         g.setColor(BG_BOTTOM);
-        g.fillRect(1, top + 1, WIDTH - 2, height - 2);
+        g.fillRect(1, 1, WIDTH - 2, height - 2);
         g.setColor(EDGE_DARK);
-        g.drawRect(0, top, WIDTH - 1, height - 1);
+        g.drawRect(0, 0, WIDTH - 1, height - 1);
         g.setColor(accent);
-        g.drawRect(1, top + 1, WIDTH - 3, height - 3);
+        g.drawRect(1, 1, WIDTH - 3, height - 3);
 
         if (icon != null) {
-            g.drawImage(icon, PAD, top + (height - NUDGE_ICON) / 2,
+            g.drawImage(icon, PAD, (height - NUDGE_ICON) / 2,
                 NUDGE_ICON, NUDGE_ICON, null);
         }
         g.setFont(titleFont);
-        int titleY = top + 6 + titleFm.getAscent();
+        int titleY = 6 + titleFm.getAscent();
         shadowed(g, truncateToWidth(toast.getTitle(), titleFm, textWidth),
             textLeft, titleY, accent);
         g.setFont(smallFont);
@@ -320,9 +420,8 @@ public class EventHudOverlay extends Overlay {
             shadowed(g, line, textLeft, lineY, DropTrackerTheme.TEXT);
             lineY += smallFm.getHeight();
         }
-
-        g.setComposite(previous);
-        return height;
+        g.dispose();
+        return image;
     }
 
     /** Frame + title colour for a nudge, by importance tier: the tile-finishing
@@ -376,12 +475,21 @@ public class EventHudOverlay extends Overlay {
         return (task.tracked ? "* " : "") + (task.label != null ? task.label : "");
     }
 
+    /** The task's icon; one still loading marks the card for a repaint once it arrives. */
     @Nullable
     private BufferedImage taskIcon(EventNotificationService.DisplayTask task) {
         if (task.iconItemId != null && task.iconItemId > 0) {
-            return itemManager.getImage(task.iconItemId);
+            AsyncBufferedImage image = itemManager.getImage(task.iconItemId);
+            if (image != null) {
+                image.onLoaded(() -> {
+                    if (!painting) {
+                        hudDirty = true;
+                    }
+                });
+            }
+            return image;
         }
-        return remoteImages.get(task.iconPath, null);
+        return remoteImages.get(task.iconPath, ICON_SIZE, () -> hudDirty = true);
     }
 
     private static BufferedImage scaled(BufferedImage source) {
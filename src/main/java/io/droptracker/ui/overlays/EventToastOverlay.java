@@ -9,7 +9,10 @@ import net.runelite.client.ui.FontManager;
 import net.runelite.client.ui.overlay.Overlay;
 import net.runelite.client.ui.overlay.OverlayLayer;
 import net.runelite.client.ui.overlay.OverlayPosition;
+import net.runelite.client.util.AsyncBufferedImage;
+import org.jetbrains.annotations.VisibleForTesting;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.awt.AlphaComposite;
@@ -18,10 +21,13 @@ import java.awt.Dimension;
 import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
+import java.awt.font.FontRenderContext;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * Transient event pop-ups ("Chat + text pop-ups" / "Enhanced display"):
@@ -36,6 +42,10 @@ import java.util.List;
  * Stands down while the Enhanced Display HUD is painting: the HUD then draws
  * the same queue as nudges anchored beneath itself (one movable object for
  * the user, not two), and this overlay resumes the moment the HUD stops.
+ *
+ * Each card is painted once into an image and then only redrawn, at the
+ * alpha of its fade; it is repainted when the font render context changes
+ * or its icon finishes loading.
  */
 @Singleton
 public class EventToastOverlay extends Overlay {
@@ -66,6 +76,14 @@ public class EventToastOverlay extends Overlay {
     private final EventNotificationService service;
     private final ItemManager itemManager;
 
+    /* Painted cards; touched on the client thread only, except the dirty flag. */
+    private final Map<Toast, BufferedImage> cards = new WeakHashMap<>();
+    @Nullable
+    private FontRenderContext cardsFrc;
+    private volatile boolean cardsDirty;
+    /** Set while painting, so an icon that turns out to be loaded already does not re-dirty the cards. */
+    private boolean painting;
+
     @Inject
     public EventToastOverlay(DropTrackerConfig config, EventNotificationService service,
                              ItemManager itemManager) {
@@ -100,8 +118,12 @@ public class EventToastOverlay extends Overlay {
             return null;
         }
 
-        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
-            RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        FontRenderContext frc = graphics.getFontRenderContext();
+        if (cardsDirty || !frc.equals(cardsFrc)) {
+            cardsDirty = false;
+            cardsFrc = frc;
+            cards.clear();
+        }
         int y = 0;
         for (Toast toast : visible) {
             y += drawToast(graphics, toast, y, now) + GAP;
@@ -109,19 +131,52 @@ public class EventToastOverlay extends Overlay {
         return new Dimension(WIDTH, Math.max(y - GAP, 0));
     }
 
+    /** The image a toast's card was last drawn from; null until it is drawn. */
+    @VisibleForTesting
+    @Nullable
+    BufferedImage cachedCard(Toast toast) {
+        return cards.get(toast);
+    }
+
     private int drawToast(Graphics2D g, Toast toast, int top, long now) {
         long remaining = toast.remainingMs(now);
         float alpha = remaining < FADE_MS ? Math.max(remaining / (float) FADE_MS, 0f) : 1f;
+        BufferedImage card = cards.get(toast);
+        if (card == null) {
+            painting = true;
+            try {
+                card = paintCard(g, toast);
+            } finally {
+                painting = false;
+            }
+            cards.put(toast, card);
+        }
+
+        java.awt.Composite previous = g.getComposite();
+        g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
+        g.drawImage(card, 0, top, null);
+        g.setComposite(previous);
+        return card.getHeight();
+    }
+
+    /** Paints one card into a new image, measured with {@code screen}'s fonts. */
+    private BufferedImage paintCard(Graphics2D screen, Toast toast) {
         boolean important = toast.getPriority() == EventNotification.Priority.HIGH;
 
-        FontMetrics titleFm = g.getFontMetrics(FontManager.getRunescapeBoldFont());
-        FontMetrics bodyFm = g.getFontMetrics(FontManager.getRunescapeSmallFont());
+        FontMetrics titleFm = screen.getFontMetrics(FontManager.getRunescapeBoldFont());
+        FontMetrics bodyFm = screen.getFontMetrics(FontManager.getRunescapeSmallFont());
 
         int textLeft = PADDING + (important ? RAIL_WIDTH : 0);
         BufferedImage icon = null;
         if (toast.getIconItemId() != null && toast.getIconItemId() > 0) {
-            icon = itemManager.getImage(toast.getIconItemId());
-            if (icon != null) {
+            AsyncBufferedImage itemImage = itemManager.getImage(toast.getIconItemId());
+            if (itemImage != null) {
+                itemImage.onLoaded(() -> {
+                    if (!painting) {
+                        cardsDirty = true;
+                    }
+                });
+                icon = itemImage;
                 textLeft += ICON_SIZE + PADDING;
             }
         }
@@ -131,25 +186,27 @@ public class EventToastOverlay extends Overlay {
             + bodyLines.size() * bodyFm.getHeight() + PADDING;
         height = Math.max(height, icon != null ? ICON_SIZE + 2 * PADDING : 0);
 
-        java.awt.Composite previous = g.getComposite();
-        g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
+        BufferedImage card = new BufferedImage(WIDTH, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = card.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+            RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
 
         g.setColor(BACKGROUND);
-        g.fillRoundRect(0, top, WIDTH, height, 8, 8);
+        g.fillRoundRect(0, 0, WIDTH, height, 8, 8);
         g.setColor(borderFor(toast));
-        g.drawRoundRect(0, top, WIDTH - 1, height - 1, 8, 8);
+        g.drawRoundRect(0, 0, WIDTH - 1, height - 1, 8, 8);
         if (important) {
             // Accent rail: the one card you should look at reads as such even
             // out of the corner of your eye.
-            g.fillRect(1, top + 2, RAIL_WIDTH, height - 4);
+            g.fillRect(1, 2, RAIL_WIDTH, height - 4);
         }
 
         if (icon != null) {
             g.drawImage(icon, PADDING + (important ? RAIL_WIDTH : 0),
-                top + (height - ICON_SIZE) / 2, ICON_SIZE, ICON_SIZE, null);
+                (height - ICON_SIZE) / 2, ICON_SIZE, ICON_SIZE, null);
         }
 
-        int textY = top + PADDING + titleFm.getAscent();
+        int textY = PADDING + titleFm.getAscent();
         g.setFont(FontManager.getRunescapeBoldFont());
         g.setColor(titleFor(toast));
         g.drawString(ellipsize(toast.getTitle(), titleFm, textWidth), textLeft, textY);
@@ -161,9 +218,8 @@ public class EventToastOverlay extends Overlay {
             g.drawString(line, textLeft, lineY);
             lineY += bodyFm.getHeight();
         }
-
-        g.setComposite(previous);
-        return height;
+        g.dispose();
+        return card;
     }
 
     private static Color borderFor(Toast toast) {
@@ -20,17 +20,22 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * The "Activity" tab: this session's submission feed (promoted from the old buried
  * "API" tab), a compact session stats row, and the per-group configuration summary.
  */
 public class ActivityPanel {
+    private static final int FEED_ROW_HEIGHT = 42;
+    private static final int FEED_ROW_GAP = 3;
+    private static final String FEED_CARD_LIST = "list";
+    private static final String FEED_CARD_EMPTY = "empty";
+
     private final DropTrackerConfig config;
     private final DropTrackerApi api;
     private final SubmissionManager submissionManager;
@@ -39,7 +44,11 @@ public class ActivityPanel {
     private JPanel activityRoot;
     private JPanel statsCard;
     private JPanel feedCard;
-    private JPanel feedListPanel;
+    private JPanel feedHolder;
+    private JList<ValidSubmission> feedList;
+    private SubmissionFeedModel feedModel;
+    private FeedRowRenderer feedRenderer;
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
     private Timer statusUpdateTimer;
 
     private JPanel groupConfigPanel;
@@ -76,7 +85,7 @@ public class ActivityPanel {
         activityRoot.add(configCard);
         activityRoot.add(Box.createVerticalGlue());
 
-        refresh();
+        refreshNow();
 
         if (config.pollUpdates()) {
             statusUpdateTimer = new Timer(10000, e -> {
@@ -188,123 +197,213 @@ public class ActivityPanel {
         card.add(title);
         card.add(Box.createRigidArea(new Dimension(0, 4)));
 
-        feedListPanel = new JPanel();
-        feedListPanel.setLayout(new BoxLayout(feedListPanel, BoxLayout.Y_AXIS));
-        feedListPanel.setBackground(DropTrackerTheme.SURFACE_1);
+        // A JList paints only the rows in view, all stamped by one renderer,
+        // so a long session's feed costs no more to scroll or update than a
+        // short one.
+        feedModel = new SubmissionFeedModel();
+        feedRenderer = new FeedRowRenderer();
+        feedList = new JList<ValidSubmission>(feedModel) {
+            @Override
+            public String getToolTipText(MouseEvent e) {
+                int index = feedIndexAt(e.getPoint());
+                if (index < 0) {
+                    return null;
+                }
+                JButton button = feedButtonAt(index, e.getPoint());
+                return button != null ? button.getToolTipText()
+                    : buildSubmissionTooltip(feedModel.getElementAt(index));
+            }
+        };
+        feedList.setCellRenderer(feedRenderer);
+        feedList.setFixedCellHeight(FEED_ROW_HEIGHT + FEED_ROW_GAP);
+        feedList.setFixedCellWidth(PluginPanel.PANEL_WIDTH - 40);
+        feedList.setBackground(DropTrackerTheme.SURFACE_1);
+        feedList.setFocusable(false);
+        feedList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        MouseAdapter actions = new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = feedIndexAt(e.getPoint());
+                if (index < 0) {
+                    return;
+                }
+                ValidSubmission submission = feedModel.getElementAt(index);
+                JButton button = feedButtonAt(index, e.getPoint());
+                if (button == feedRenderer.retryButton) {
+                    submissionManager.retrySubmission(submission);
+                    refreshSubmissions();
+                } else if (button == feedRenderer.dismissButton) {
+                    submissionManager.removeSubmission(submission);
+                    refresh();
+                }
+            }
+
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                int index = feedIndexAt(e.getPoint());
+                boolean onButton = index >= 0 && feedButtonAt(index, e.getPoint()) != null;
+                feedList.setCursor(onButton
+                    ? Cursor.getPredefinedCursor(Cursor.HAND_CURSOR) : Cursor.getDefaultCursor());
+            }
+        };
+        feedList.addMouseListener(actions);
+        feedList.addMouseMotionListener(actions);
 
-        JScrollPane scrollPane = new JScrollPane(feedListPanel);
+        JScrollPane scrollPane = new JScrollPane(feedList);
         scrollPane.setHorizontalScrollBarPolicy(ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
         scrollPane.setVerticalScrollBarPolicy(ScrollPaneConstants.VERTICAL_SCROLLBAR_AS_NEEDED);
         scrollPane.setBorder(null);
         scrollPane.setBackground(DropTrackerTheme.SURFACE_1);
         scrollPane.getViewport().setBackground(DropTrackerTheme.SURFACE_1);
-        scrollPane.setPreferredSize(new Dimension(PluginPanel.PANEL_WIDTH - 30, 260));
-        scrollPane.setMaximumSize(new Dimension(PluginPanel.PANEL_WIDTH - 30, 280));
-        card.add(scrollPane);
+        scrollPane.getVerticalScrollBar().setUnitIncrement(FEED_ROW_HEIGHT + FEED_ROW_GAP);
+
+        JLabel emptyLabel = new JLabel("<html>Qualifying drops and achievements will appear here as you receive them. Failed sends can be retried.</html>");
+        emptyLabel.setFont(FontManager.getRunescapeSmallFont());
+        emptyLabel.setForeground(DropTrackerTheme.TEXT_MUTED);
+        emptyLabel.setBorder(new EmptyBorder(5, 5, 5, 5));
+        emptyLabel.setVerticalAlignment(SwingConstants.TOP);
+
+        feedHolder = new JPanel(new CardLayout());
+        feedHolder.setBackground(DropTrackerTheme.SURFACE_1);
+        feedHolder.add(scrollPane, FEED_CARD_LIST);
+        feedHolder.add(emptyLabel, FEED_CARD_EMPTY);
+        feedHolder.setPreferredSize(new Dimension(PluginPanel.PANEL_WIDTH - 30, 260));
+        feedHolder.setMaximumSize(new Dimension(PluginPanel.PANEL_WIDTH - 30, 280));
+        card.add(feedHolder);
 
         return card;
     }
 
+    /**
+     * Brings the feed up to the manager's list. Only rows that were added,
+     * removed or changed status are touched.
+     */
     public void refreshSubmissions() {
-        if (feedListPanel == null) {
+        if (feedModel == null) {
             return;
         }
 
-        feedListPanel.removeAll();
-
         List<ValidSubmission> submissions = submissionManager.getValidSubmissions();
-        if (submissions != null && !submissions.isEmpty()) {
-            // Newest first: submissions are appended chronologically.
-            List<ValidSubmission> newestFirst = new ArrayList<>(submissions);
-            Collections.reverse(newestFirst);
-            for (ValidSubmission submission : newestFirst) {
-                feedListPanel.add(createFeedRow(submission));
-                feedListPanel.add(Box.createRigidArea(new Dimension(0, 3)));
-            }
-        } else {
-            JLabel emptyLabel = new JLabel("<html>Qualifying drops and achievements will appear here as you receive them. Failed sends can be retried.</html>");
-            emptyLabel.setFont(FontManager.getRunescapeSmallFont());
-            emptyLabel.setForeground(DropTrackerTheme.TEXT_MUTED);
-            emptyLabel.setBorder(new EmptyBorder(5, 5, 5, 5));
-            feedListPanel.add(emptyLabel);
-        }
+        feedModel.sync(submissions != null ? submissions : Collections.emptyList());
+        ((CardLayout) feedHolder.getLayout()).show(feedHolder,
+            feedModel.getSize() > 0 ? FEED_CARD_LIST : FEED_CARD_EMPTY);
+    }
 
-        feedListPanel.revalidate();
-        feedListPanel.repaint();
+    /** The feed row under {@code point}, or -1 (below the last row, say). */
+    private int feedIndexAt(Point point) {
+        int index = feedList.locationToIndex(point);
+        if (index < 0) {
+            return -1;
+        }
+        Rectangle cell = feedList.getCellBounds(index, index);
+        return cell != null && cell.contains(point) ? index : -1;
     }
 
-    private JPanel createFeedRow(ValidSubmission submission) {
-        JPanel row = new JPanel(new BorderLayout(5, 0));
-        row.setBackground(DropTrackerTheme.SURFACE_2);
-        row.setBorder(DropTrackerTheme.cardBorder(4, 5, 4, 5));
-        row.setPreferredSize(new Dimension(PluginPanel.PANEL_WIDTH - 40, 42));
-        row.setMaximumSize(new Dimension(PluginPanel.PANEL_WIDTH - 40, 42));
-
-        // Type indicator
-        JLabel typeLabel = new JLabel(submission.getTypeShortLabel());
-        typeLabel.setFont(FontManager.getRunescapeSmallFont());
-        typeLabel.setForeground(typeColor(submission.getTypeShortLabel()));
-        typeLabel.setHorizontalAlignment(SwingConstants.CENTER);
-        typeLabel.setPreferredSize(new Dimension(32, 32));
-        row.add(typeLabel, BorderLayout.WEST);
-
-        // Name + timestamp
-        JPanel textPanel = new JPanel();
-        textPanel.setLayout(new BoxLayout(textPanel, BoxLayout.Y_AXIS));
-        textPanel.setBackground(DropTrackerTheme.SURFACE_2);
-
-        String displayText = submission.getDisplayText();
-        JLabel nameLabel = new JLabel(displayText.length() > 24 ? displayText.substring(0, 21) + "..." : displayText);
-        nameLabel.setFont(FontManager.getRunescapeSmallFont());
-        nameLabel.setForeground(DropTrackerTheme.TEXT);
-        nameLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+    /**
+     * The retry or dismiss button under {@code point} in row {@code index}, or
+     * null. Rows are painted, not live components, so this lays the renderer
+     * out as that row and looks up what would have been drawn there.
+     */
+    private JButton feedButtonAt(int index, Point point) {
+        Rectangle cell = feedList.getCellBounds(index, index);
+        feedRenderer.getListCellRendererComponent(feedList, feedModel.getElementAt(index),
+            index, false, false);
+        feedRenderer.setBounds(0, 0, cell.width, cell.height);
+        layoutTree(feedRenderer);
+        Component hit = SwingUtilities.getDeepestComponentAt(feedRenderer,
+            point.x - cell.x, point.y - cell.y);
+        if (hit == feedRenderer.retryButton || hit == feedRenderer.dismissButton) {
+            return (JButton) hit;
+        }
+        return null;
+    }
 
-        JPanel metaRow = new JPanel(new FlowLayout(FlowLayout.LEFT, 4, 0));
-        metaRow.setBackground(DropTrackerTheme.SURFACE_2);
-        metaRow.setAlignmentX(Component.LEFT_ALIGNMENT);
+    /** validate() skips components with no peer, which a renderer never has. */
+    private static void layoutTree(Container container) {
+        container.doLayout();
+        for (Component child : container.getComponents()) {
+            if (child instanceof Container) {
+                layoutTree((Container) child);
+            }
+        }
+    }
 
-        String timestamp = formatReceivedTime(submission.getTimeReceived());
-        if (timestamp != null) {
-            JLabel timeLabel = new JLabel(timestamp);
+    /** Stamps every feed row; one instance, reconfigured per row as it paints. */
+    private class FeedRowRenderer extends JPanel implements ListCellRenderer<ValidSubmission> {
+        private final JLabel typeLabel = new JLabel();
+        private final JLabel nameLabel = new JLabel();
+        private final JLabel timeLabel = new JLabel();
+        private final JLabel statusLabel = DropTrackerTheme.chip("", DropTrackerTheme.STONE);
+        private final JButton retryButton = smallActionButton("", "Retry sending this submission");
+        private final JButton dismissButton = smallActionButton("×", "Remove from list");
+
+        FeedRowRenderer() {
+            super(new BorderLayout(5, 0));
+            setBackground(DropTrackerTheme.SURFACE_2);
+            // The gap between rows belongs to the cell, painted in the card's colour.
+            setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createMatteBorder(0, 0, FEED_ROW_GAP, 0, DropTrackerTheme.SURFACE_1),
+                DropTrackerTheme.cardBorder(4, 5, 4, 5)));
+
+            // Type indicator
+            typeLabel.setFont(FontManager.getRunescapeSmallFont());
+            typeLabel.setHorizontalAlignment(SwingConstants.CENTER);
+            typeLabel.setPreferredSize(new Dimension(32, 32));
+            add(typeLabel, BorderLayout.WEST);
+
+            // Name + timestamp
+            JPanel textPanel = new JPanel();
+            textPanel.setLayout(new BoxLayout(textPanel, BoxLayout.Y_AXIS));
+            textPanel.setBackground(DropTrackerTheme.SURFACE_2);
+
+            nameLabel.setFont(FontManager.getRunescapeSmallFont());
+            nameLabel.setForeground(DropTrackerTheme.TEXT);
+            nameLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+
+            JPanel metaRow = new JPanel(new FlowLayout(FlowLayout.LEFT, 4, 0));
+            metaRow.setBackground(DropTrackerTheme.SURFACE_2);
+            metaRow.setAlignmentX(Component.LEFT_ALIGNMENT);
             timeLabel.setFont(FontManager.getRunescapeSmallFont());
             timeLabel.setForeground(DropTrackerTheme.TEXT_MUTED);
             metaRow.add(timeLabel);
-        }
-        metaRow.add(statusChip(submission.getStatus()));
+            metaRow.add(statusLabel);
 
-        textPanel.add(nameLabel);
-        textPanel.add(metaRow);
-        row.add(textPanel, BorderLayout.CENTER);
+            textPanel.add(nameLabel);
+            textPanel.add(metaRow);
+            add(textPanel, BorderLayout.CENTER);
 
-        // Actions: retry for failed submissions, dismiss for everything
-        JPanel actions = new JPanel(new FlowLayout(FlowLayout.RIGHT, 2, 0));
-        actions.setBackground(DropTrackerTheme.SURFACE_2);
-
-        if (submission.getStatus() == SubmissionStatus.FAILED) {
+            // Actions: retry for failed submissions, dismiss for everything.
             // Painted icon: the RuneScape fonts have no "↻" glyph, so its
             // colour rides on the icon rather than the foreground.
-            JButton retryButton = smallActionButton("", "Retry sending this submission");
+            JPanel actions = new JPanel(new FlowLayout(FlowLayout.RIGHT, 2, 0));
+            actions.setBackground(DropTrackerTheme.SURFACE_2);
             retryButton.setIcon(PanelIcons.refresh(DropTrackerTheme.EMBER, 11));
             retryButton.setForeground(DropTrackerTheme.EMBER);
-            retryButton.addActionListener(e -> {
-                submissionManager.retrySubmission(submission);
-                refreshSubmissions();
-            });
             actions.add(retryButton);
+            dismissButton.setForeground(DropTrackerTheme.RED);
+            actions.add(dismissButton);
+            add(actions, BorderLayout.EAST);
         }
 
-        JButton dismissButton = smallActionButton("×", "Remove from list");
-        dismissButton.setForeground(DropTrackerTheme.RED);
-        dismissButton.addActionListener(e -> {
-            submissionManager.removeSubmission(submission);
-            refresh();
-        });
-        actions.add(dismissButton);
+        @Override
+        public Component getListCellRendererComponent(JList<? extends ValidSubmission> list,
+                                                      ValidSubmission submission, int index,
+                                                      boolean isSelected, boolean cellHasFocus) {
+            String shortLabel = submission.getTypeShortLabel();
+            typeLabel.setText(shortLabel);
+            typeLabel.setForeground(typeColor(shortLabel));
 
-        row.add(actions, BorderLayout.EAST);
+            String displayText = submission.getDisplayText();
+            nameLabel.setText(displayText.length() > 24 ? displayText.substring(0, 21) + "..." : displayText);
 
-        row.setToolTipText(buildSubmissionTooltip(submission));
-        return row;
+            String timestamp = formatReceivedTime(submission.getTimeReceived());
+            timeLabel.setText(timestamp);
+            timeLabel.setVisible(timestamp != null);
+            applyStatusChip(statusLabel, submission.getStatus());
+
+            retryButton.setVisible(submission.getStatus() == SubmissionStatus.FAILED);
+            return this;
+        }
     }
 
     private JButton smallActionButton(String glyph, String tooltip) {
@@ -321,22 +420,33 @@ public class ActivityPanel {
         return button;
     }
 
-    private JLabel statusChip(SubmissionStatus status) {
+    /** Restyles the feed row's status chip for {@code status}. */
+    private static void applyStatusChip(JLabel chip, SubmissionStatus status) {
         if (status == null) {
-            return DropTrackerTheme.chip("Unknown", DropTrackerTheme.STONE);
+            chip.setText("Unknown");
+            chip.setForeground(DropTrackerTheme.STONE);
+            return;
         }
         switch (status) {
             case PROCESSED:
-                return DropTrackerTheme.chip("Processed", DropTrackerTheme.GREEN);
+                chip.setText("Processed");
+                chip.setForeground(DropTrackerTheme.GREEN);
+                break;
             case SENT:
-                return DropTrackerTheme.chip("Sent", DropTrackerTheme.GREEN);
+                chip.setText("Sent");
+                chip.setForeground(DropTrackerTheme.GREEN);
+                break;
             case FAILED:
-                return DropTrackerTheme.chip("Failed", DropTrackerTheme.RED);
+                chip.setText("Failed");
+                chip.setForeground(DropTrackerTheme.RED);
+                break;
             case PENDING:
             case SENDING:
             case RETRYING:
             default:
-                return DropTrackerTheme.chip("Pending", DropTrackerTheme.EMBER);
+                chip.setText("Pending");
+                chip.setForeground(DropTrackerTheme.EMBER);
+                break;
         }
     }
 
@@ -689,9 +799,8 @@ public class ActivityPanel {
             return;
         }
 
-        // Kick a rate-limited async refresh, then render whatever is in memory right now.
+        // Render whatever is in memory right now; the api refreshes it on its own.
         // getGroupConfigs() is a pure in-memory read, so this never blocks the EDT.
-        api.refreshGroupConfigsAsync();
         List<GroupConfig> groupConfigs = api.getGroupConfigs();
         SwingUtilities.invokeLater(() -> {
             if (groupsContainerPanel == null || groupsScrollPane == null) {
@@ -740,7 +849,21 @@ public class ActivityPanel {
         }
     }
 
+    /**
+     * Queues a refresh for the end of this EDT cycle. A raid can move dozens
+     * of submissions through their states within seconds; every update
+     * requested before the refresh runs is covered by that one pass.
+     */
     public void refresh() {
+        if (refreshQueued.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(() -> {
+                refreshQueued.set(false);
+                refreshNow();
+            });
+        }
+    }
+
+    private void refreshNow() {
         updateStatusLabel();
         refreshStatistics();
         refreshSubmissions();
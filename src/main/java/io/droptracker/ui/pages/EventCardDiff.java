@@ -0,0 +1,87 @@
+package io.droptracker.ui.pages;
+
+import io.droptracker.models.api.EventState;
+
+import java.util.List;
+
+/**
+ * Keys the Events tab compares successive /event_state snapshots by.
+ *
+ * <p>{@link #shape} covers everything an event card draws except the progress
+ * shown on its task rows, which {@link #rowState} covers per task. A card
+ * whose shape is unchanged keeps its components; only the rows whose state
+ * moved are updated in place.
+ */
+final class EventCardDiff {
+
+    private EventCardDiff() {
+    }
+
+    /** Everything an event card renders apart from per-row task progress. */
+    static String shape(EventState.Entry entry) {
+        StringBuilder key = new StringBuilder();
+        EventState.EventInfo event = entry.getEvent();
+        append(key, event.getId(), event.getName(), event.getKind(), event.getEndsAt());
+        append(key, entry.getBoardStatus(), entry.getTasksCompleted(), entry.getTasksTotal(),
+            entry.getMembersTotal());
+
+        EventState.TeamInfo team = entry.getTeam();
+        if (team != null) {
+            append(key, team.getId(), team.getColor(), team.getRank(), team.getTeamCount(),
+                team.getScore());
+        }
+        EventState.BoardInfo board = entry.getBoard();
+        append(key, board != null && board.isAvailable());
+
+        List<EventState.TaskInfo> tasks = entry.getTasks();
+        if (tasks != null) {
+            key.append("tasks");
+            for (EventState.TaskInfo task : tasks) {
+                // Completion changes the row's controls, not only its text.
+                append(key, task.getId(), task.getLabel(), task.getIconItemId(),
+                    task.getIconPath(), task.isCompleted());
+            }
+        }
+        List<EventState.Standing> standings = entry.getStandings();
+        if (standings != null) {
+            key.append("standings");
+            for (EventState.Standing standing : standings) {
+                append(key, standing.getTeamId(), standing.getRank(), standing.getName(),
+                    standing.getScore(), standing.getColor());
+            }
+        }
+        List<EventState.Member> members = entry.getMembers();
+        if (members != null) {
+            key.append("members");
+            for (EventState.Member member : members) {
+                append(key, member.getName());
+            }
+        }
+        // Absent and empty render differently, so keep them apart.
+        append(key, entry.getTeamRecentSubmissions() != null
+            ? entry.getTeamRecentSubmissions().toString() : null);
+        return key.toString();
+    }
+
+    /** What a task row shows that {@link #shape} leaves out: its progress and tooltip. */
+    static String rowState(EventState.TaskInfo task) {
+        StringBuilder key = new StringBuilder();
+        append(key, task.getHave(), task.getNeed(), task.getPoints(), task.getBadge(),
+            task.getValue(), task.getDescription());
+        List<EventState.Requirement> requirements = task.getRequirements();
+        if (requirements != null) {
+            for (EventState.Requirement req : requirements) {
+                append(key, req.getName(), req.getQuantity(), req.getPoints(), req.getObtained(),
+                    req.getIconItemId(), req.getIconPath());
+            }
+        }
+        return key.toString();
+    }
+
+    private static void append(StringBuilder key, Object... values) {
+        for (Object value : values) {
+            key.append(value).append('\u001f');
+        }
+        key.append('\u001e');
+    }
+}
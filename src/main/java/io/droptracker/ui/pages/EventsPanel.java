@@ -6,6 +6,7 @@ import io.droptracker.models.api.EventState;
 import io.droptracker.models.submissions.RecentSubmission;
 import io.droptracker.service.EventNotificationService;
 import io.droptracker.service.EventTaskPrefs;
+import io.droptracker.service.PluginExecutors;
 import io.droptracker.ui.DropTrackerTheme;
 import io.droptracker.ui.components.PanelElements;
 import io.droptracker.ui.components.PanelIcons;
@@ -13,7 +14,6 @@ import io.droptracker.util.ItemIDSearch;
 import io.droptracker.util.RemoteImageCache;
 import io.droptracker.util.ValueFormat;
 import net.runelite.api.Client;
-import net.runelite.client.config.ConfigManager;
 import net.runelite.client.game.ItemManager;
 import net.runelite.client.ui.FontManager;
 import net.runelite.client.ui.PluginPanel;
@@ -36,6 +36,7 @@ import javax.swing.JTextArea;
 import javax.swing.Scrollable;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.border.EmptyBorder;
 import java.awt.BasicStroke;
 import java.awt.BorderLayout;
@@ -63,7 +64,8 @@ import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * "Events" side-panel tab: one card per active event — themed header with the
@@ -81,15 +83,29 @@ public class EventsPanel {
     private final RemoteImageCache remoteImages;
     private final ItemIDSearch itemIds;
     private final EventTaskPrefs taskPrefs;
+    private final PluginExecutors executors;
 
     /* Tracked-task required-item strip: small wrapping grid of item sprites. */
     private static final int REQ_ICONS_PER_ROW = 5;
     private static final int REQ_ICON_SLOT = 28;
     private static final int REQ_ICON_SIZE = 26;
+    /* Requirement names are typed by event hosts; tolerate case and small typos,
+     * but not so loosely that a near-miss shows the wrong item's sprite. */
+    private static final double REQ_NAME_MIN_SIMILARITY = 0.7;
+    /* State pushes arrive in bursts (stream patch, then a confirming refetch);
+     * one diff pass covers the lot. */
+    private static final int UPDATE_DEBOUNCE_MS = 150;
 
     private JPanel root;
     private JPanel listPanel;
     private JScrollPane scrollPane;
+    private Timer updateTimer;
+    /**
+     * The rendered cards by event id, in list order. The next snapshot is
+     * diffed against them: a card whose shape is unchanged keeps its
+     * components and only its moved task rows are updated.
+     */
+    private final java.util.Map<Integer, CardView> cards = new java.util.LinkedHashMap<>();
     /**
      * Expand/collapse choices per card section (key: eventId + section),
      * surviving rebuilds — clicking a task to track it re-renders the card
@@ -105,7 +121,7 @@ public class EventsPanel {
     public EventsPanel(DropTrackerConfig config, DropTrackerApi api,
                        EventNotificationService service, Client client,
                        ItemManager itemManager, RemoteImageCache remoteImages,
-                       ItemIDSearch itemIds, ConfigManager configManager) {
+                       ItemIDSearch itemIds, PluginExecutors executors) {
         this.config = config;
         this.api = api;
         this.service = service;
@@ -113,7 +129,8 @@ public class EventsPanel {
         this.itemManager = itemManager;
         this.remoteImages = remoteImages;
         this.itemIds = itemIds;
-        this.taskPrefs = new EventTaskPrefs(configManager, service);
+        this.taskPrefs = service.getTaskPrefs();
+        this.executors = executors;
     }
 
     public JPanel create() {
@@ -147,6 +164,9 @@ public class EventsPanel {
         root.add(header, BorderLayout.NORTH);
         root.add(scrollPane, BorderLayout.CENTER);
 
+        updateTimer = new Timer(UPDATE_DEBOUNCE_MS, e -> applyUpdate());
+        updateTimer.setRepeats(false);
+
         rebuild();
         refreshAsync();
         return root;
@@ -154,24 +174,141 @@ public class EventsPanel {
 
     /** Kick a state refetch off the EDT; rebuild lands via onUpdated(). */
     public void refreshAsync() {
-        CompletableFuture.runAsync(service::refreshEventStateNow);
+        executors.runIo(service::refreshEventStateNow);
     }
 
     /** Called (any thread) when a fresh /event_state snapshot lands. */
     public void onUpdated() {
-        SwingUtilities.invokeLater(this::rebuild);
+        SwingUtilities.invokeLater(() -> {
+            if (updateTimer != null) {
+                updateTimer.restart();
+            }
+        });
+    }
+
+    /**
+     * Brings the list up to the latest snapshot: cards whose shape changed are
+     * replaced where they stand, the rest only have their moved task rows
+     * updated. A different set or order of events rebuilds everything.
+     */
+    private void applyUpdate() {
+        if (listPanel == null) {
+            return;
+        }
+        EventState state = service.getEventState();
+        List<EventState.Entry> entries = state != null ? state.getEvents() : null;
+        if (!config.useApi() || !config.eventNotifications()
+            || entries == null || !sameEvents(entries)) {
+            rebuild();
+            return;
+        }
+        syncFocus(entries);
+        boolean multiple = entries.size() > 1;
+        int hudEventId = hudEventId();
+        boolean replaced = false;
+        for (EventState.Entry entry : entries) {
+            int eventId = entry.getEvent().getId();
+            CardView view = cards.get(eventId);
+            String shape = cardShape(entry, multiple, hudEventId);
+            if (!shape.equals(view.shape)) {
+                int index = listPanel.getComponentZOrder(view.card);
+                CardView fresh = new CardView(shape);
+                fresh.card = eventCard(entry, multiple, hudEventId, fresh);
+                listPanel.remove(index);
+                listPanel.add(fresh.card, index);
+                cards.put(eventId, fresh);
+                replaced = true;
+            } else if (entry.getTasks() != null) {
+                for (EventState.TaskInfo task : entry.getTasks()) {
+                    TaskRowView row = view.rows.get(task.getId());
+                    if (row != null) {
+                        updateTaskRow(row, task);
+                    }
+                }
+            }
+        }
+        if (replaced) {
+            listPanel.revalidate();
+            listPanel.repaint();
+        }
+    }
+
+    /** Whether the snapshot holds exactly the rendered events, in the same order. */
+    private boolean sameEvents(List<EventState.Entry> entries) {
+        if (entries.isEmpty() || entries.size() != cards.size()) {
+            return false;
+        }
+        java.util.Iterator<Integer> ids = cards.keySet().iterator();
+        for (EventState.Entry entry : entries) {
+            if (entry.getEvent().getId() != ids.next()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The event the HUD is actually rendering right now (explicit pin, else
+     * the first event) — cards mark it so "which event has the HUD" is always
+     * visible when the player is in several.
+     */
+    private int hudEventId() {
+        EventState.Entry hudEntry = service.hudEntry();
+        return hudEntry != null && hudEntry.getEvent() != null
+            ? hudEntry.getEvent().getId() : -1;
+    }
+
+    /**
+     * Pins own the canonical tracked task, so each snapshot re-points it at the
+     * top incomplete pin once, as it is applied. The shape keys and cards built
+     * from the snapshot after that only read.
+     */
+    private void syncFocus(List<EventState.Entry> entries) {
+        for (EventState.Entry entry : entries) {
+            taskPrefs.syncFocus(entry);
+        }
+    }
+
+    /** {@link EventCardDiff#shape} plus the panel-side state the card draws. */
+    private String cardShape(EventState.Entry entry, boolean multiple, int hudEventId) {
+        int eventId = entry.getEvent().getId();
+        EventNotificationService.DisplayTask display = service.displayTask(entry);
+        StringBuilder key = new StringBuilder(EventCardDiff.shape(entry))
+            .append('|').append(multiple)
+            .append('|').append(eventId == hudEventId)
+            .append('|').append(endsIn(entry.getEvent().getEndsAt()))
+            .append('|').append(taskPrefs.pinned(eventId))
+            .append('|').append(taskPrefs.hidden(eventId))
+            .append('|').append(hiddenRevealed.get(String.valueOf(eventId)));
+        if (display != null) {
+            key.append('|').append(display.id).append('|').append(display.label)
+                .append('|').append(display.have).append('|').append(display.need)
+                .append('|').append(display.iconItemId).append('|').append(display.iconPath)
+                .append('|').append(display.tracked);
+            // The tracked box repeats the task's description and requirements.
+            EventState.TaskInfo info = taskInfoById(entry, display.id);
+            if (info != null) {
+                key.append('|').append(EventCardDiff.rowState(info));
+            }
+        }
+        return key.toString();
     }
 
     private void rebuild() {
         if (listPanel == null) {
             return;
         }
+        if (updateTimer != null) {
+            // This pass reads the latest snapshot, so a pending one is moot.
+            updateTimer.stop();
+        }
         // Keep the viewport where the user left it: a rebuild triggered by
         // clicking a task (or a background state refresh) must not jump the
         // panel back to the top.
         final int scrollValue = scrollPane != null
             ? scrollPane.getVerticalScrollBar().getValue() : 0;
         listPanel.removeAll();
+        cards.clear();
 
         EventState state = service.getEventState();
         List<EventState.Entry> entries = state != null ? state.getEvents() : null;
@@ -180,15 +317,14 @@ public class EventsPanel {
         } else if (entries == null || entries.isEmpty()) {
             listPanel.add(emptyLabel("No active events right now."));
         } else {
+            syncFocus(entries);
             boolean multiple = entries.size() > 1;
-            // The event the HUD is actually rendering right now (explicit pin,
-            // else the first event) — cards mark it so "which event has the
-            // HUD" is always visible when the player is in several.
-            EventState.Entry hudEntry = service.hudEntry();
-            int hudEventId = hudEntry != null && hudEntry.getEvent() != null
-                ? hudEntry.getEvent().getId() : -1;
+            int hudEventId = hudEventId();
             for (EventState.Entry entry : entries) {
-                listPanel.add(eventCard(entry, multiple, hudEventId));
+                CardView view = new CardView(cardShape(entry, multiple, hudEventId));
+                view.card = eventCard(entry, multiple, hudEventId, view);
+                cards.put(entry.getEvent().getId(), view);
+                listPanel.add(view.card);
                 listPanel.add(Box.createRigidArea(new Dimension(0, 8)));
             }
         }
@@ -213,7 +349,8 @@ public class EventsPanel {
 
     /* ===================== event card ===================== */
 
-    private JPanel eventCard(EventState.Entry entry, boolean showHudPick, int hudEventId) {
+    private JPanel eventCard(EventState.Entry entry, boolean showHudPick, int hudEventId,
+                             CardView view) {
         EventState.EventInfo event = entry.getEvent();
         EventState.TeamInfo team = entry.getTeam();
         Color teamColor = team != null
@@ -253,9 +390,8 @@ public class EventsPanel {
         body.add(stats);
         body.add(vgap(8));
 
-        // The task being worked toward (top pin or server focus). Pins own the
-        // canonical tracked task, so re-point it before asking what to headline.
-        taskPrefs.syncFocus(entry);
+        // The task being worked toward (top pin or server focus); the focus was
+        // re-pointed at the top pin when this snapshot was applied.
         EventNotificationService.DisplayTask display = service.displayTask(entry);
         if ("awaiting_roll".equals(entry.getBoardStatus())) {
             body.add(rollBanner());
@@ -268,7 +404,7 @@ public class EventsPanel {
         List<EventState.TaskInfo> tasks = entry.getTasks();
         if (tasks != null && !tasks.isEmpty()) {
             boolean pickable = !"board_game".equals(event.getKind());
-            JPanel taskList = taskListPanel(entry, tasks, display, pickable);
+            JPanel taskList = taskListPanel(entry, tasks, display, pickable, view);
             body.add(section(event.getId() + ":tasks", "Tasks (" + tasks.size() + ")",
                 taskList, tasks.size() > 12));
             body.add(vgap(8));
@@ -542,7 +678,7 @@ public class EventsPanel {
         Integer itemId = req.getIconItemId() != null && req.getIconItemId() > 0
             ? req.getIconItemId()
             : (req.getIconPath() == null && req.getName() != null
-                ? itemIds.findItemId(req.getName()) : null);
+                ? itemIds.findClosestItemId(req.getName(), REQ_NAME_MIN_SIMILARITY) : null);
         if (itemId != null || req.getIconPath() != null) {
             applyRequirementIcon(slot, itemId, req.getIconPath(), REQ_ICON_SIZE, obtained,
                 req.getPoints());
@@ -592,11 +728,8 @@ public class EventsPanel {
             itemImage.onLoaded(apply);
             apply.run();
         } else if (iconPath != null) {
-            BufferedImage remote = remoteImages.get(iconPath,
-                () -> SwingUtilities.invokeLater(this::rebuild));
-            if (remote != null) {
-                target.setIcon(new ImageIcon(styleRequirementImage(remote, size, obtained, points)));
-            }
+            applyRemoteIcon(target, iconPath, size,
+                remote -> new ImageIcon(styleRequirementImage(remote, size, obtained, points)));
         }
     }
 
@@ -669,7 +802,7 @@ public class EventsPanel {
 
     private JPanel taskListPanel(EventState.Entry entry, List<EventState.TaskInfo> tasks,
                                  @Nullable EventNotificationService.DisplayTask display,
-                                 boolean pickable) {
+                                 boolean pickable, CardView view) {
         JPanel list = new JPanel();
         list.setLayout(new BoxLayout(list, BoxLayout.Y_AXIS));
         list.setBackground(DropTrackerTheme.SURFACE_1);
@@ -678,7 +811,7 @@ public class EventsPanel {
         if (!pickable) {
             // Board games force the current tile: nothing to pin or hide.
             for (EventState.TaskInfo task : tasks) {
-                list.add(taskRow(entry, task, displayedId, false, false, false));
+                list.add(taskRow(entry, task, displayedId, false, false, false, view));
                 list.add(vgap(2));
             }
             return list;
@@ -706,11 +839,11 @@ public class EventsPanel {
         }
 
         for (EventState.TaskInfo task : pinned) {
-            list.add(taskRow(entry, task, displayedId, true, true, false));
+            list.add(taskRow(entry, task, displayedId, true, true, false, view));
             list.add(vgap(2));
         }
         for (EventState.TaskInfo task : rest) {
-            list.add(taskRow(entry, task, displayedId, true, false, false));
+            list.add(taskRow(entry, task, displayedId, true, false, false, view));
             list.add(vgap(2));
         }
         if (!hidden.isEmpty()) {
@@ -720,7 +853,7 @@ public class EventsPanel {
             list.add(vgap(2));
             if (revealed) {
                 for (EventState.TaskInfo task : hidden) {
-                    list.add(taskRow(entry, task, displayedId, true, false, true));
+                    list.add(taskRow(entry, task, displayedId, true, false, true, view));
                     list.add(vgap(2));
                 }
             }
@@ -798,10 +931,12 @@ public class EventsPanel {
      * One task row. {@code controls} adds the pin/hide glyphs and click-to-pin
      * (off for board games, whose tile is forced); {@code pinned} marks a row
      * in the pin set; {@code hidden} renders it inside the folded-out hidden
-     * group, where the only action is putting it back.
+     * group, where the only action is putting it back. The row is registered
+     * in {@code view} so later snapshots can update its progress in place.
      */
     private JPanel taskRow(EventState.Entry entry, EventState.TaskInfo task,
-                           int displayedId, boolean controls, boolean pinned, boolean hidden) {
+                           int displayedId, boolean controls, boolean pinned, boolean hidden,
+                           CardView view) {
         boolean isDisplayed = task.getId() == displayedId;
 
         JPanel row = new JPanel(new BorderLayout(5, 0)) {
@@ -830,17 +965,9 @@ public class EventsPanel {
             : (isDisplayed ? DropTrackerTheme.GOLD_BRIGHT : DropTrackerTheme.TEXT));
         row.add(label, BorderLayout.CENTER);
 
-        JLabel state;
-        if (task.isCompleted()) {
-            state = new JLabel(PanelIcons.check(DropTrackerTheme.GREEN, 11));
-        } else if (task.getNeed() > 1 || task.getHave() > 0) {
-            state = new JLabel(ValueFormat.abbrev(task.getHave())
-                + "/" + ValueFormat.abbrev(task.getNeed()));
-            state.setForeground(DropTrackerTheme.TEXT_MUTED);
-        } else {
-            state = new JLabel("");
-        }
+        JLabel state = new JLabel();
         state.setFont(FontManager.getRunescapeSmallFont());
+        applyTaskState(state, task);
 
         if (!controls) {
             row.add(state, BorderLayout.EAST);
@@ -872,6 +999,7 @@ public class EventsPanel {
         }
 
         row.setToolTipText(taskTooltip(task));
+        view.rows.put(task.getId(), new TaskRowView(row, state, EventCardDiff.rowState(task)));
 
         if (controls && !hidden && (!task.isCompleted() || pinned)) {
             row.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
@@ -895,6 +1023,36 @@ public class EventsPanel {
         return row;
     }
 
+    /** Progress cell of a task row: a tick once done, else have/need when counted. */
+    private static void applyTaskState(JLabel state, EventState.TaskInfo task) {
+        if (task.isCompleted()) {
+            state.setIcon(PanelIcons.check(DropTrackerTheme.GREEN, 11));
+            state.setText("");
+        } else if (task.getNeed() > 1 || task.getHave() > 0) {
+            state.setIcon(null);
+            state.setText(ValueFormat.abbrev(task.getHave())
+                + "/" + ValueFormat.abbrev(task.getNeed()));
+            state.setForeground(DropTrackerTheme.TEXT_MUTED);
+        } else {
+            state.setIcon(null);
+            state.setText("");
+        }
+    }
+
+    /** Brings a rendered row up to a newer snapshot of its task, if it moved. */
+    private void updateTaskRow(TaskRowView row, EventState.TaskInfo task) {
+        String rowState = EventCardDiff.rowState(task);
+        if (rowState.equals(row.rowState)) {
+            return;
+        }
+        row.rowState = rowState;
+        applyTaskState(row.state, task);
+        row.panel.setToolTipText(taskTooltip(task));
+        // The count can change width; the row's height cannot.
+        row.panel.revalidate();
+        row.panel.repaint();
+    }
+
     /** Pin or unpin a task and redraw. Pinning is an act of focus: point the
      *  HUD at this event too, otherwise pins made in a second event never show
      *  anywhere (the HUD keeps rendering the pinned/first event). */
@@ -1255,11 +1413,30 @@ public class EventsPanel {
             itemImage.onLoaded(apply);
             apply.run();
         } else if (iconPath != null) {
-            BufferedImage remote = remoteImages.get(iconPath,
-                () -> SwingUtilities.invokeLater(this::rebuild));
-            if (remote != null) {
-                target.setIcon(fitIcon(remote, size));
+            applyRemoteIcon(target, iconPath, size, ImageIcon::new);
+        }
+    }
+
+    /**
+     * Remote icon into one fixed-size label, from the cache's copy already
+     * fitted to {@code size}: set now when cached, else when the fetch lands —
+     * repainting just that label, so a board's worth of icons arriving one by
+     * one never rebuilds the tab.
+     */
+    private void applyRemoteIcon(JLabel target, String iconPath, int size,
+                                 Function<BufferedImage, Icon> render) {
+        Consumer<BufferedImage> apply = image -> {
+            target.setIcon(render.apply(image));
+            target.repaint();
+        };
+        BufferedImage remote = remoteImages.get(iconPath, size, () -> SwingUtilities.invokeLater(() -> {
+            BufferedImage loaded = remoteImages.get(iconPath, size, null);
+            if (loaded != null) {
+                apply.accept(loaded);
             }
+        }));
+        if (remote != null) {
+            apply.accept(remote);
         }
     }
 
@@ -1270,18 +1447,7 @@ public class EventsPanel {
 
     /** {@link #fitIcon} as a raw image, for callers that post-process it. */
     private static BufferedImage fitImage(BufferedImage source, int size) {
-        int w = Math.max(source.getWidth(), 1);
-        int h = Math.max(source.getHeight(), 1);
-        float scale = Math.min((float) size / w, (float) size / h);
-        int nw = Math.max(Math.round(w * scale), 1);
-        int nh = Math.max(Math.round(h * scale), 1);
-        BufferedImage out = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g = out.createGraphics();
-        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
-            RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-        g.drawImage(source, (size - nw) / 2, (size - nh) / 2, nw, nh, null);
-        g.dispose();
-        return out;
+        return RemoteImageCache.fit(source, size);
     }
 
     private static String kindLabel(String kind) {
@@ -1361,6 +1527,30 @@ public class EventsPanel {
         }
     }
 
+    /** A rendered event card and its task rows by task id. */
+    private static final class CardView {
+        final String shape;
+        JPanel card;
+        final java.util.Map<Integer, TaskRowView> rows = new java.util.HashMap<>();
+
+        CardView(String shape) {
+            this.shape = shape;
+        }
+    }
+
+    /** The parts of a task row a newer snapshot can change in place. */
+    private static final class TaskRowView {
+        final JPanel panel;
+        final JLabel state;
+        String rowState;
+
+        TaskRowView(JPanel panel, JLabel state, String rowState) {
+            this.panel = panel;
+            this.state = state;
+            this.rowState = rowState;
+        }
+    }
+
     /**
      * A vertical column that always matches the scroll viewport's width. A
      * plain JPanel inside a JScrollPane is laid out at its preferred width —
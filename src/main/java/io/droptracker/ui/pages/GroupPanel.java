@@ -3,9 +3,11 @@ package io.droptracker.ui.pages;
 import io.droptracker.DropTrackerConfig;
 import io.droptracker.api.DropTrackerApi;
 import io.droptracker.api.DropTrackerUrls;
+import io.droptracker.api.Revalidating;
 import io.droptracker.models.api.GroupSearchResult;
 import io.droptracker.models.api.TopGroupResult;
 import io.droptracker.models.submissions.RecentSubmission;
+import io.droptracker.service.PluginExecutors;
 import io.droptracker.ui.DropTrackerPanel;
 import io.droptracker.ui.components.LeaderboardComponents;
 import io.droptracker.ui.components.StateViews;
@@ -41,6 +43,7 @@ public class GroupPanel {
     private final DropTrackerApi api;
     private final ItemManager itemManager;
     private final OkHttpClient httpClient;
+    private final PluginExecutors executors;
 
     private int currentGroupId = 2; // Track group ID instead of URL
 
@@ -57,7 +60,11 @@ public class GroupPanel {
      */
     private String activeDetailGroupName;
 
-    public GroupPanel(Client client, DropTrackerConfig config, DropTrackerApi api, ItemManager itemManager, DropTrackerPanel panel, OkHttpClient httpClient) {
+    /** The search whose result the content panel is waiting for; EDT only. */
+    private CompletableFuture<GroupSearchResult> pendingSearch;
+
+    public GroupPanel(Client client, DropTrackerConfig config, DropTrackerApi api, ItemManager itemManager, DropTrackerPanel panel, OkHttpClient httpClient,
+                      PluginExecutors executors) {
         this.client = client;
         this.config = config;
         this.api = api;
@@ -69,6 +76,7 @@ public class GroupPanel {
             .followRedirects(false)
             .followSslRedirects(false)
             .build();
+        this.executors = executors;
     }
 
     public JPanel create() {
@@ -201,13 +209,7 @@ public class GroupPanel {
     private void obtainLeaderboardData() {
         LeaderboardComponents.loadLeaderboardAsync(
                 leaderboardPlaceholder,
-                () -> {
-                    try {
-                        return api.getTopGroups();
-                    } catch (Exception e) {
-                        return null;
-                    }
-                },
+                api.getTopGroupsRevalidating(),
                 this::showLeaderboard
         );
     }
@@ -229,26 +231,33 @@ public class GroupPanel {
         // Show loading message
         showLoadingState();
 
-        // Perform search in background. Keep the failure cause so the user can
-        // tell "group doesn't exist" apart from "the API call failed".
-        CompletableFuture.supplyAsync(() -> {
-            try {
-                return new SearchOutcome(api.searchGroup(searchQuery), null);
-            } catch (Exception e) {
-                return new SearchOutcome(null, e);
+        // A newer search supersedes this one; cancelling also drops the request.
+        if (pendingSearch != null) {
+            pendingSearch.cancel(true);
+        }
+        // The saved result, if any, shows at once; the fresh one replaces it.
+        Revalidating<GroupSearchResult> search = api.searchGroupRevalidating(searchQuery);
+        CompletableFuture<GroupSearchResult> fresh = search.getFresh();
+        pendingSearch = fresh;
+        search.getCached().thenAccept(saved -> SwingUtilities.invokeLater(() -> {
+            if (saved != null && pendingSearch == fresh && !fresh.isDone()) {
+                showSavedGroup(saved, false);
             }
-        }).thenAccept(outcome -> {
+        }));
+        // Keep the failure cause so the user can tell "group doesn't exist"
+        // apart from "the API call failed".
+        fresh.whenComplete((result, error) -> {
             SwingUtilities.invokeLater(() -> {
-                if (outcome.result != null) {
-                    showGroupDetails(outcome.result);
-                    // Load the lootboard image when group is found
-                    if (outcome.result.getGroupDropTrackerId() != null) {
-                        currentGroupId = outcome.result.getGroupDropTrackerId();
-                        PanelElements.loadLootboardForGroup(currentGroupId);
-                    }
-                    PanelElements.cachedGroupName = outcome.result.getGroupName();
-                } else if (outcome.error == null || isNotFound(outcome.error)) {
+                if (fresh.isCancelled()) {
+                    return;
+                }
+                Revalidating.Saved<GroupSearchResult> saved = search.getCached().getNow(null);
+                if (result != null) {
+                    showFoundGroup(result);
+                } else if (error == null || isNotFound(error)) {
                     showSearchError("Group '" + searchQuery + "' was not found.");
+                } else if (saved != null) {
+                    showSavedGroup(saved, true);
                 } else {
                     showSearchError("Search failed — the DropTracker API could not be reached. Please try again.");
                 }
@@ -256,19 +265,27 @@ public class GroupPanel {
         });
     }
 
-    private static boolean isNotFound(Exception e) {
-        String message = e.getMessage();
-        return message != null && message.contains("status: 404");
+    private void showFoundGroup(GroupSearchResult result) {
+        showGroupDetails(result);
+        // Load the lootboard image when group is found
+        if (result.getGroupDropTrackerId() != null) {
+            currentGroupId = result.getGroupDropTrackerId();
+            PanelElements.loadLootboardForGroup(currentGroupId);
+        }
+        PanelElements.cachedGroupName = result.getGroupName();
     }
 
-    private static class SearchOutcome {
-        final GroupSearchResult result;
-        final Exception error;
+    /** The saved result of a search, marked with its age while the fresh one is pending or unreachable. */
+    private void showSavedGroup(Revalidating.Saved<GroupSearchResult> saved, boolean offline) {
+        showFoundGroup(saved.getValue());
+        contentPanel.add(StateViews.staleNotice(saved.getStoredAtMs(), offline), 0);
+        contentPanel.revalidate();
+        contentPanel.repaint();
+    }
 
-        SearchOutcome(GroupSearchResult result, Exception error) {
-            this.result = result;
-            this.error = error;
-        }
+    private static boolean isNotFound(Throwable e) {
+        String message = e.getMessage();
+        return message != null && message.contains("status: 404");
     }
 
     private void showLoadingState() {
@@ -323,13 +340,7 @@ public class GroupPanel {
         }
 
         // Enrich in the background; drop the result if the user has navigated away.
-        CompletableFuture.supplyAsync(() -> {
-            try {
-                return api.searchGroup(groupName);
-            } catch (Exception e) {
-                return null;
-            }
-        }).thenAccept(full -> SwingUtilities.invokeLater(() -> {
+        api.searchGroupAsync(groupName).exceptionally(e -> null).thenAccept(full -> SwingUtilities.invokeLater(() -> {
             if (full == null || !groupName.equals(activeDetailGroupName)) {
                 return;
             }
@@ -529,7 +540,7 @@ public class GroupPanel {
         HttpUrl pngUrl = DropTrackerUrls.image(pngPath);
         HttpUrl originalUrl = DropTrackerUrls.image(imagePath);
 
-        CompletableFuture.supplyAsync(() -> {
+        executors.supplyIo(() -> {
             ImageIcon icon = fetchScaledIcon(pngUrl);
             if (icon == null && !pngPath.equals(imagePath)) {
                 // Fall back to the original path if the .png swap didn't exist.
@@ -4,6 +4,7 @@ import io.droptracker.api.DropTrackerUrls;
 import io.droptracker.DropTrackerConfig;
 import io.droptracker.DropTrackerPlugin;
 import io.droptracker.api.DropTrackerApi;
+import io.droptracker.api.Revalidating;
 import io.droptracker.models.api.PlayerSearchResult;
 import io.droptracker.models.api.TopPlayersResult;
 import io.droptracker.models.submissions.RecentSubmission;
@@ -37,6 +38,9 @@ public class PlayerStatsPanel {
     private JTextField searchField;
     private JPanel leaderboardPlaceholder;
 
+    /** The lookup whose result the content panel is waiting for; EDT only. */
+    private CompletableFuture<PlayerSearchResult> pendingSearch;
+
     public PlayerStatsPanel(Client client, DropTrackerPlugin plugin, DropTrackerConfig config, DropTrackerApi api, ItemManager itemManager) {
         this.client = client;
         this.plugin = plugin;
@@ -140,13 +144,7 @@ public class PlayerStatsPanel {
     private void obtainPlayerLeaderboardData() {
         LeaderboardComponents.loadLeaderboardAsync(
                 leaderboardPlaceholder,
-                () -> {
-                    try {
-                        return api.getTopPlayers();
-                    } catch (Exception e) {
-                        return null;
-                    }
-                },
+                api.getTopPlayersRevalidating(),
                 this::showPlayerLeaderboard
         );
     }
@@ -206,20 +204,33 @@ public class PlayerStatsPanel {
         contentPanel.revalidate();
         contentPanel.repaint();
 
-        // Perform search in background. Keep the failure cause so the user can
-        // tell "player doesn't exist" apart from "the API call failed".
-        CompletableFuture.supplyAsync(() -> {
-            try {
-                return new SearchOutcome(api.lookupPlayer(toSearch), null);
-            } catch (Exception e) {
-                return new SearchOutcome(null, e);
+        // A newer search supersedes this one; cancelling also drops the request.
+        if (pendingSearch != null) {
+            pendingSearch.cancel(true);
+        }
+        // The saved result, if any, shows at once; the fresh one replaces it.
+        Revalidating<PlayerSearchResult> search = api.lookupPlayerRevalidating(toSearch);
+        CompletableFuture<PlayerSearchResult> fresh = search.getFresh();
+        pendingSearch = fresh;
+        search.getCached().thenAccept(saved -> SwingUtilities.invokeLater(() -> {
+            if (saved != null && pendingSearch == fresh && !fresh.isDone()) {
+                showSavedPlayer(saved, false);
             }
-        }).thenAccept(outcome -> {
+        }));
+        // Keep the failure cause so the user can tell "player doesn't exist"
+        // apart from "the API call failed".
+        fresh.whenComplete((result, error) -> {
             SwingUtilities.invokeLater(() -> {
-                if (outcome.result != null) {
-                    showPlayerDetails(outcome.result);
-                } else if (outcome.error == null || isNotFound(outcome.error)) {
+                if (fresh.isCancelled()) {
+                    return;
+                }
+                Revalidating.Saved<PlayerSearchResult> saved = search.getCached().getNow(null);
+                if (result != null) {
+                    showPlayerDetails(result);
+                } else if (error == null || isNotFound(error)) {
                     showSearchError("Player '" + toSearch + "' was not found.");
+                } else if (saved != null) {
+                    showSavedPlayer(saved, true);
                 } else {
                     showSearchError("Search failed — the DropTracker API could not be reached. Please try again.");
                 }
@@ -227,19 +238,17 @@ public class PlayerStatsPanel {
         });
     }
 
-    private static boolean isNotFound(Exception e) {
-        String message = e.getMessage();
-        return message != null && message.contains("status: 404");
+    /** The saved result of a lookup, marked with its age while the fresh one is pending or unreachable. */
+    private void showSavedPlayer(Revalidating.Saved<PlayerSearchResult> saved, boolean offline) {
+        showPlayerDetails(saved.getValue());
+        contentPanel.add(StateViews.staleNotice(saved.getStoredAtMs(), offline), 0);
+        contentPanel.revalidate();
+        contentPanel.repaint();
     }
 
-    private static class SearchOutcome {
-        final PlayerSearchResult result;
-        final Exception error;
-
-        SearchOutcome(PlayerSearchResult result, Exception error) {
-            this.result = result;
-            this.error = error;
-        }
+    private static boolean isNotFound(Throwable e) {
+        String message = e.getMessage();
+        return message != null && message.contains("status: 404");
     }
 
     private void showSearchError(String message) {
@@ -0,0 +1,88 @@
+package io.droptracker.ui.pages;
+
+import io.droptracker.models.submissions.ValidSubmission;
+
+import javax.swing.AbstractListModel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The Activity tab's submission feed, newest first, kept in step with
+ * {@link io.droptracker.service.SubmissionManager}'s list by {@link #sync}.
+ *
+ * <p>Rows are keyed by submission instance: the manager updates a submission
+ * in place as it moves from queued to sent to processed, and {@link
+ * ValidSubmission#equals} compares values that change along the way. A sync
+ * fires one event per row added, removed or changed, so the list repaints
+ * just those rows instead of the whole feed.
+ *
+ * <p>EDT only, like any Swing model.
+ */
+final class SubmissionFeedModel extends AbstractListModel<ValidSubmission> {
+
+    private final List<ValidSubmission> rows = new ArrayList<>();
+    /** What each row last rendered, to tell whether a sync changed it. */
+    private final Map<ValidSubmission, String> rendered = new IdentityHashMap<>();
+
+    @Override
+    public int getSize() {
+        return rows.size();
+    }
+
+    @Override
+    public ValidSubmission getElementAt(int index) {
+        return rows.get(index);
+    }
+
+    /** Brings the feed up to {@code submissions}, which are in the order they were received. */
+    void sync(List<ValidSubmission> submissions) {
+        Set<ValidSubmission> live = Collections.newSetFromMap(new IdentityHashMap<>());
+        live.addAll(submissions);
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            if (!live.contains(rows.get(i))) {
+                rendered.remove(rows.remove(i));
+                fireIntervalRemoved(this, i, i);
+            }
+        }
+
+        int index = 0;
+        for (int i = submissions.size() - 1; i >= 0; i--, index++) {
+            ValidSubmission submission = submissions.get(i);
+            String key = renderKey(submission);
+            if (index < rows.size() && rows.get(index) == submission) {
+                if (!key.equals(rendered.put(submission, key))) {
+                    fireContentsChanged(this, index, index);
+                }
+                continue;
+            }
+            // Not where it belongs: either new, or the manager reordered it.
+            int at = indexOf(submission, index + 1);
+            if (at >= 0) {
+                rows.remove(at);
+                fireIntervalRemoved(this, at, at);
+            }
+            rows.add(index, submission);
+            rendered.put(submission, key);
+            fireIntervalAdded(this, index, index);
+        }
+    }
+
+    private int indexOf(ValidSubmission submission, int from) {
+        for (int i = from; i < rows.size(); i++) {
+            if (rows.get(i) == submission) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Everything a feed row draws. */
+    private static String renderKey(ValidSubmission submission) {
+        return submission.getStatus() + "|" + submission.getDisplayText()
+            + "|" + submission.getTimeReceived();
+    }
+}
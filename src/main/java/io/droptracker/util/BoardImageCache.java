@@ -0,0 +1,204 @@
+package io.droptracker.util;
+
+import io.droptracker.service.PluginExecutors;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import javax.annotation.Nullable;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Board images for the pop-out dialogs — group lootboards, event boards and
+ * submission screenshots — kept per board rather than as one shared image.
+ *
+ * <p>The encoded file goes to disk with its validators, so reopening a board
+ * (or restarting the client) shows the last copy at once while one older than
+ * {@link #FRESH_MS} is revalidated with a conditional GET; boards regenerate
+ * server-side, and an unchanged one costs a 304. Images are decoded by {@link
+ * BoardImageDecoder} at the size they are shown, never whole, and the
+ * decoded copy is held in memory within {@link #MEMORY_BUDGET_BYTES}.
+ *
+ * <p>Callbacks run on the io pool; Swing callers hop to the EDT themselves.
+ */
+@Slf4j
+public class BoardImageCache {
+    /** Lootboards regenerate server-side; how long a copy is shown without asking again. */
+    static final long FRESH_MS = TimeUnit.MINUTES.toMillis(10);
+    static final long MEMORY_BUDGET_BYTES = 24L << 20;
+    static final long DISK_BUDGET_BYTES = 64L << 20;
+    private static final int MAX_ENCODED_BYTES = 16 << 20;
+    private static final int HTTP_NOT_MODIFIED = 304;
+
+    /** What a load reports back, in order: progress, then one image or a failure. */
+    public interface Listener {
+        /**
+         * The image being decoded, rows filled top-down, when nothing has been
+         * shown yet. Still being written to and possibly larger than the final
+         * image; paint it scaled into the display size, don't keep it.
+         */
+        default void onProgress(BufferedImage partial) {
+        }
+
+        /**
+         * A copy to show, already fitted to the requested size. Called again
+         * if revalidation turns up a newer one.
+         */
+        void onImage(BufferedImage image);
+
+        /** Nothing could be shown: no stored copy and the fetch failed or was not an image. */
+        void onFailed();
+    }
+
+    private final DecodedImageCache memory = new DecodedImageCache(MEMORY_BUDGET_BYTES);
+    private final ImageDiskStore disk;
+    private final OkHttpClient httpClient;
+    private final PluginExecutors executors;
+
+    /** {@code httpClient} should already have redirects disabled, as {@code PanelElements}' does. */
+    public BoardImageCache(OkHttpClient httpClient, PluginExecutors executors, Path diskDir) {
+        this.httpClient = httpClient;
+        this.executors = executors;
+        this.disk = new ImageDiskStore(diskDir, DISK_BUDGET_BYTES);
+    }
+
+    /**
+     * Shows the board stored under {@code key} (e.g. {@code "lootboard/2"}),
+     * fitted within {@code maxWidth}×{@code maxHeight}: from memory or disk
+     * straight away when there is a copy, then from {@code url} when there is
+     * none or it is due for revalidation.
+     */
+    public void load(String key, HttpUrl url, int maxWidth, int maxHeight, Listener listener) {
+        executors.runIo(() -> {
+            if (!show(key, url, maxWidth, maxHeight, listener)) {
+                listener.onFailed();
+            }
+        }).exceptionally(e -> {
+            // Rejected by a shut-down pool, or threw: either way nothing will be shown.
+            listener.onFailed();
+            return null;
+        });
+    }
+
+    /**
+     * Brings the disk copy of {@code key} up to date without decoding it, so a
+     * later {@link #load} has it to hand. For warming boards that may never be opened.
+     */
+    public void prefetch(String key, HttpUrl url) {
+        executors.runIo(() -> {
+            if (isFresh(key)) {
+                return;
+            }
+            try {
+                fetch(key, url, disk.read(key));
+            } catch (IOException e) {
+                log.debug("board prefetch failed for {}: {}", key, e.getMessage());
+            }
+        });
+    }
+
+    /** Whether {@code key} has a copy the server confirmed within {@link #FRESH_MS}. */
+    public boolean isFresh(String key) {
+        return System.currentTimeMillis() - disk.validatedAtMs(key) < FRESH_MS;
+    }
+
+    /** True once something has been shown. */
+    private boolean show(String key, HttpUrl url, int maxWidth, int maxHeight, Listener listener) {
+        String variant = DecodedImageCache.variantKey(key, maxWidth, maxHeight);
+        boolean fresh = isFresh(key);
+        BufferedImage image = memory.get(variant);
+        if (image != null) {
+            listener.onImage(image);
+            if (fresh) {
+                return true;
+            }
+        }
+
+        ImageDiskStore.Entry stored = disk.read(key);
+        if (image == null && stored != null) {
+            image = decode(stored.getBytes(), maxWidth, maxHeight, listener);
+            if (image == null) {
+                stored = null;
+            } else {
+                memory.put(variant, image);
+                listener.onImage(image);
+                if (fresh) {
+                    return true;
+                }
+            }
+        }
+
+        byte[] bytes;
+        try {
+            bytes = fetch(key, url, stored);
+        } catch (IOException e) {
+            log.debug("board fetch failed for {}: {}", key, e.getMessage());
+            return image != null;
+        }
+        if (bytes == null) {
+            return image != null;
+        }
+        // With a copy already up, swap in the new one whole rather than
+        // repainting it row by row over the old.
+        BufferedImage updated = decode(bytes, maxWidth, maxHeight, image == null ? listener : null);
+        if (updated == null) {
+            return image != null;
+        }
+        memory.invalidate(key);
+        memory.put(variant, updated);
+        listener.onImage(updated);
+        return true;
+    }
+
+    /**
+     * GETs {@code url}, conditionally when there is a stored copy, and stores
+     * what comes back. The new bytes, or null when the stored copy still
+     * stands or nothing usable came back.
+     */
+    @Nullable
+    private byte[] fetch(String key, HttpUrl url, @Nullable ImageDiskStore.Entry stored) throws IOException {
+        Request.Builder request = new Request.Builder().url(url);
+        if (stored != null && stored.getEtag() != null) {
+            request.header("If-None-Match", stored.getEtag());
+        }
+        if (stored != null && stored.getLastModified() != null) {
+            request.header("If-Modified-Since", stored.getLastModified());
+        }
+        try (Response response = httpClient.newCall(request.build()).execute()) {
+            if (response.code() == HTTP_NOT_MODIFIED && stored != null) {
+                disk.touch(key);
+                return null;
+            }
+            ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                return null;
+            }
+            byte[] bytes = RemoteImageCache.readBounded(body, MAX_ENCODED_BYTES);
+            // Not stored when it isn't an image (an HTML error page): that
+            // would pass for a fresh copy until the next revalidation.
+            if (bytes == null || !BoardImageDecoder.isImage(bytes)) {
+                return null;
+            }
+            disk.write(key, response.header("ETag"), response.header("Last-Modified"), bytes);
+            return bytes;
+        }
+    }
+
+    @Nullable
+    private static BufferedImage decode(byte[] bytes, int maxWidth, int maxHeight, @Nullable Listener progress) {
+        try {
+            return BoardImageDecoder.decode(bytes, maxWidth, maxHeight,
+                progress != null ? progress::onProgress : null);
+        } catch (IOException | RuntimeException e) {
+            // A non-image body (HTML error page) or a truncated file: nothing to show.
+            log.debug("board decode failed: {}", e.toString());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package io.droptracker.util;
+
+import javax.annotation.Nullable;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.event.IIOReadUpdateListener;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Decodes board images (lootboards, event boards, submission screenshots)
+ * straight to the size they are shown at.
+ *
+ * <p>A group lootboard can be several thousand pixels a side, and decoding it
+ * whole costs tens of megabytes for a picture that is then shrunk to fit the
+ * screen. Here the reader skips source pixels as it decodes ({@link
+ * ImageReadParam#setSourceSubsampling}), so the largest buffer is under twice
+ * the display size a side, whatever the source size; a smooth scale takes it
+ * the rest of the way.
+ */
+public final class BoardImageDecoder {
+
+    /** How often a decode in progress hands out its partly filled image. */
+    private static final long PROGRESS_INTERVAL_NS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private BoardImageDecoder() {
+    }
+
+    /**
+     * Decodes {@code encoded} to fit within {@code maxWidth}×{@code maxHeight},
+     * aspect ratio kept and never enlarged. Null when the bytes are not an image.
+     *
+     * <p>{@code onProgress}, when given, is called on the decoding thread every
+     * so often with the image being decoded into, rows filled top-down; it is
+     * larger than the result by up to the final scale step, and still being
+     * written to, so callers only paint it.
+     */
+    @Nullable
+    public static BufferedImage decode(byte[] encoded, int maxWidth, int maxHeight,
+                                       @Nullable Consumer<BufferedImage> onProgress) throws IOException {
+        try (ImageInputStream in = new MemoryCacheImageInputStream(new ByteArrayInputStream(encoded))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                int step = subsampling(width, height, maxWidth, maxHeight);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                if (onProgress != null) {
+                    reader.addIIOReadUpdateListener(new ProgressListener(onProgress));
+                }
+                Dimension display = displaySize(width, height, maxWidth, maxHeight);
+                return scale(reader.read(0, param), display.width, display.height);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /** Whether some installed reader recognises {@code encoded}; reads the header only. */
+    public static boolean isImage(byte[] encoded) {
+        try (ImageInputStream in = new MemoryCacheImageInputStream(new ByteArrayInputStream(encoded))) {
+            return ImageIO.getImageReaders(in).hasNext();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * The largest whole-pixel step that still leaves at least the display size
+     * in both directions, so the decoded buffer is under twice it a side.
+     */
+    static int subsampling(int width, int height, int maxWidth, int maxHeight) {
+        double shrink = Math.max((double) width / Math.max(maxWidth, 1), (double) height / Math.max(maxHeight, 1));
+        return Math.max(1, (int) Math.floor(shrink));
+    }
+
+    /** {@code width}×{@code height} scaled down to fit the bounds, aspect ratio kept. */
+    public static Dimension displaySize(int width, int height, int maxWidth, int maxHeight) {
+        double scale = Math.min(1.0, Math.min((double) maxWidth / Math.max(width, 1),
+            (double) maxHeight / Math.max(height, 1)));
+        return new Dimension(Math.max(1, (int) (width * scale)), Math.max(1, (int) (height * scale)));
+    }
+
+    private static BufferedImage scale(BufferedImage image, int width, int height) {
+        if (image.getWidth() == width && image.getHeight() == height) {
+            return image;
+        }
+        int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage out = new BufferedImage(width, height, type);
+        Graphics2D g = out.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(image, 0, 0, width, height, null);
+        g.dispose();
+        return out;
+    }
+
+    /** Passes the destination image on as rows land, throttled to {@link #PROGRESS_INTERVAL_NS}. */
+    private static final class ProgressListener implements IIOReadUpdateListener {
+        private final Consumer<BufferedImage> onProgress;
+        private long lastNs = System.nanoTime();
+
+        ProgressListener(Consumer<BufferedImage> onProgress) {
+            this.onProgress = onProgress;
+        }
+
+        @Override
+        public void imageUpdate(ImageReader source, BufferedImage theImage, int minX, int minY,
+                                int width, int height, int periodX, int periodY, int[] bands) {
+            long now = System.nanoTime();
+            if (now - lastNs >= PROGRESS_INTERVAL_NS) {
+                lastNs = now;
+                onProgress.accept(theImage);
+            }
+        }
+
+        @Override
+        public void passStarted(ImageReader source, BufferedImage theImage, int pass, int minPass, int maxPass,
+                                int minX, int minY, int periodX, int periodY, int[] bands) {
+        }
+
+        @Override
+        public void passComplete(ImageReader source, BufferedImage theImage) {
+        }
+
+        @Override
+        public void thumbnailPassStarted(ImageReader source, BufferedImage theThumbnail, int pass, int minPass,
+                                         int maxPass, int minX, int minY, int periodX, int periodY, int[] bands) {
+        }
+
+        @Override
+        public void thumbnailUpdate(ImageReader source, BufferedImage theThumbnail, int minX, int minY,
+                                    int width, int height, int periodX, int periodY, int[] bands) {
+        }
+
+        @Override
+        public void thumbnailPassComplete(ImageReader source, BufferedImage theThumbnail) {
+        }
+    }
+}
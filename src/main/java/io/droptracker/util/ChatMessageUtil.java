@@ -21,6 +21,9 @@ import java.awt.*;
 
 public class ChatMessageUtil {
 
+    /** Marks Discord bridge lines shown as clan chat; see {@link #sendDiscordClanMessage}. */
+    public static final String DISCORD_SENDER_SUFFIX = " (Discord)";
+
     @Inject
     private DropTrackerConfig config;
 
@@ -111,7 +114,7 @@ public class ChatMessageUtil {
             chatMessageManager.queue(
                     QueuedMessage.builder()
                             .type(ChatMessageType.CLAN_CHAT)
-                            .name(sender + " (Discord)")
+                            .name(sender + DISCORD_SENDER_SUFFIX)
                             .sender(clanName)
                             .value(messageContent)
                             .build()
@@ -0,0 +1,80 @@
+package io.droptracker.util;
+
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Memory tier of {@link RemoteImageCache} and {@link BoardImageCache}: decoded
+ * images, least recently used first out, bounded by the bytes their pixels
+ * take rather than by count — one 512px board image weighs as much as a few
+ * hundred small icons.
+ *
+ * <p>Holds full images under their path and scaled copies under
+ * {@link #variantKey}. Thread-safe.
+ */
+final class DecodedImageCache {
+
+    /** Cannot appear in an image path, so variant keys never collide with one. */
+    private static final char VARIANT_SEPARATOR = '\u0000';
+
+    private final long budgetBytes;
+    private long usedBytes;
+    private final Map<String, BufferedImage> images = new LinkedHashMap<>(16, 0.75f, true);
+
+    DecodedImageCache(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    static String variantKey(String path, int size) {
+        return path + VARIANT_SEPARATOR + size;
+    }
+
+    /** Key for a copy fitted into a {@code width}×{@code height} box; also dropped by {@link #invalidate}. */
+    static String variantKey(String path, int width, int height) {
+        return path + VARIANT_SEPARATOR + width + "x" + height;
+    }
+
+    synchronized BufferedImage get(String key) {
+        return images.get(key);
+    }
+
+    synchronized void put(String key, BufferedImage image) {
+        BufferedImage old = images.put(key, image);
+        if (old != null) {
+            usedBytes -= weigh(old);
+        }
+        usedBytes += weigh(image);
+        // The newest entry always stays, even alone over budget: evicting it
+        // would send its caller straight back to the network.
+        Iterator<BufferedImage> eldest = images.values().iterator();
+        while (usedBytes > budgetBytes && images.size() > 1) {
+            usedBytes -= weigh(eldest.next());
+            eldest.remove();
+        }
+    }
+
+    /** Drops the image under {@code path} and every scaled variant of it. */
+    synchronized void invalidate(String path) {
+        String variantPrefix = path + VARIANT_SEPARATOR;
+        Iterator<Map.Entry<String, BufferedImage>> it = images.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, BufferedImage> entry = it.next();
+            if (entry.getKey().equals(path) || entry.getKey().startsWith(variantPrefix)) {
+                usedBytes -= weigh(entry.getValue());
+                it.remove();
+            }
+        }
+    }
+
+    synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    /** Bytes of pixel data, by the image's own pixel size (4 for ARGB, 1 for indexed). */
+    static long weigh(BufferedImage image) {
+        int bytesPerPixel = Math.max(1, (image.getColorModel().getPixelSize() + 7) / 8);
+        return (long) image.getWidth() * image.getHeight() * bytesPerPixel;
+    }
+}
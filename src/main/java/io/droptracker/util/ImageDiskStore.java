@@ -0,0 +1,183 @@
+package io.droptracker.util;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Disk tier of {@link RemoteImageCache} and {@link BoardImageCache}: each
+ * image's encoded bytes as served, with the ETag and Last-Modified validators
+ * to revalidate them by. A file's modification time is when the server last
+ * vouched for it.
+ *
+ * <p>The directory is trimmed to {@code budgetBytes}, oldest first, the first
+ * time a session writes to it and again whenever the running total of what it
+ * holds goes over. Errors only cost a re-download. Blocking; call from the io
+ * pool.
+ */
+@Slf4j
+final class ImageDiskStore {
+
+    /** Format tag; bump to have older files ignored and replaced. */
+    private static final int FORMAT = 0x44544931;
+
+    @Value
+    static class Entry {
+        String path;
+        @Nullable
+        String etag;
+        @Nullable
+        String lastModified;
+        /** When the server last confirmed these bytes, epoch millis. */
+        long validatedAtMs;
+        byte[] bytes;
+    }
+
+    private final Path dir;
+    private final long budgetBytes;
+    /** Bytes in the directory as of the last trim plus the writes since; -1 until the first write. */
+    private long storedBytes = -1; // guarded by this
+
+    ImageDiskStore(Path dir, long budgetBytes) {
+        this.dir = dir;
+        this.budgetBytes = budgetBytes;
+    }
+
+    /** The stored copy of {@code path}, or null when there is none or it can't be read. */
+    @Nullable
+    Entry read(String path) {
+        Path file = file(path);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file)))) {
+            if (in.readInt() != FORMAT || !path.equals(in.readUTF())) {
+                return null;
+            }
+            String etag = emptyToNull(in.readUTF());
+            String lastModified = emptyToNull(in.readUTF());
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return new Entry(path, etag, lastModified, Files.getLastModifiedTime(file).toMillis(), bytes);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Discarding unreadable cached image {}: {}", file, e.toString());
+            return null;
+        }
+    }
+
+    /** When the server last confirmed the stored copy of {@code path}, or 0 when there is none. */
+    long validatedAtMs(String path) {
+        try {
+            return Files.getLastModifiedTime(file(path)).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    void write(String path, @Nullable String etag, @Nullable String lastModified, byte[] bytes) {
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length + 128);
+            try (DataOutputStream out = new DataOutputStream(buffer)) {
+                out.writeInt(FORMAT);
+                out.writeUTF(path);
+                out.writeUTF(etag != null ? etag : "");
+                out.writeUTF(lastModified != null ? lastModified : "");
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            Files.createDirectories(dir);
+            Path file = file(path);
+            long replaced = sizeOf(file);
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(tmp, buffer.toByteArray());
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            added(buffer.size() - replaced);
+        } catch (IOException e) {
+            log.debug("Failed to cache image {}: {}", path, e.toString());
+        }
+    }
+
+    /** Records that the server just confirmed the stored copy (a 304). */
+    void touch(String path) {
+        try {
+            Files.setLastModifiedTime(file(path), FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            log.debug("Failed to touch cached image {}: {}", path, e.toString());
+        }
+    }
+
+    /** Counts a write against the budget, trimming on the first and once the total is over. */
+    private synchronized void added(long bytes) {
+        if (storedBytes >= 0) {
+            storedBytes += bytes;
+        }
+        if (storedBytes < 0 || storedBytes > budgetBytes) {
+            storedBytes = trim();
+        }
+    }
+
+    /** Deletes the oldest files until the rest fit in the budget; returns the bytes kept. */
+    private long trim() {
+        File[] files = dir.toFile().listFiles((d, name) -> name.endsWith(".img"));
+        if (files == null) {
+            return 0;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified).reversed());
+        long seen = 0;
+        long kept = 0;
+        for (File file : files) {
+            long length = file.length();
+            seen += length;
+            if (seen <= budgetBytes) {
+                kept += length;
+            } else if (!file.delete()) {
+                log.debug("Couldn't delete old cached image {}", file);
+                kept += length;
+            }
+        }
+        return kept;
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /** Names are hashed: paths carry separators and characters no file system accepts. */
+    private Path file(String path) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(path.getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder(digest.length * 2 + 4);
+            for (byte b : digest) {
+                name.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return dir.resolve(name.append(".img").toString());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Nullable
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
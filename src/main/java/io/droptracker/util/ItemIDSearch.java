@@ -2,6 +2,7 @@ package io.droptracker.util;
 
 
 import io.droptracker.api.DropTrackerUrls;
+import io.droptracker.service.PluginExecutors;
 import com.google.gson.Gson;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.HttpUrl;
@@ -22,6 +23,9 @@ import java.util.function.Function;
  * This thread-safe singleton holds a mapping of item names to their item id, using the RuneLite API.
  * <p>
  * Unlike {@link net.runelite.client.game.ItemManager#search(String)}, this mapping supports untradable items.
+ * <p>
+ * The mapping is an immutable {@link ItemNameIndex}, built off-thread once both cache files
+ * have been read and then swapped in by a single volatile write, so readers never lock.
  *
  * Author: iProdigy ( https://github.com/pajlads/DinkPlugin )
  */
@@ -29,9 +33,10 @@ import java.util.function.Function;
 @Slf4j
 @Singleton
 public class ItemIDSearch {
-    private final Map<String, Integer> itemIdByName = Collections.synchronizedMap(new HashMap<>(16384));
+    private volatile ItemNameIndex index = ItemNameIndex.EMPTY;
     private @Inject OkHttpClient httpClient;
     private @Inject Gson gson;
+    private @Inject PluginExecutors executors;
 
     /**
      * @param name the exact in-game name of an item
@@ -39,27 +44,50 @@ public class ItemIDSearch {
      */
     @Nullable
     public Integer findItemId(@NotNull String name) {
-        return itemIdByName.get(name);
+        return index.exact(name);
+    }
+
+    /**
+     * Lenient lookup for names typed by people rather than read from the game
+     * (event task requirements, search boxes): exact, then case-insensitive,
+     * then the single best fuzzy hit above {@code minScore}.
+     *
+     * @return the id of the closest item name, or null if nothing is close enough
+     */
+    @Nullable
+    public Integer findClosestItemId(@NotNull String name, double minScore) {
+        ItemNameIndex snapshot = index;
+        Integer id = snapshot.exact(name);
+        if (id == null) {
+            id = snapshot.ignoreCase(name);
+        }
+        if (id == null) {
+            List<ItemNameIndex.Match> hits = snapshot.fuzzy(name, 1, minScore);
+            id = hits.isEmpty() ? null : hits.get(0).id;
+        }
+        return id;
     }
 
     /**
-     * Begins the initialization process for {@link #itemIdByName}
+     * Begins the initialization process for {@link #index}
      * by querying item names and noted item ids from the RuneLite API,
      * before passing them to {@link #populate(Map, Set)}
      *
-     * @implNote This operation does not block the current thread,
-     * by utilizing OkHttp's thread pool and Java's Fork-Join common pool.
+     * @implNote This operation does not block the current thread: the
+     * downloads run on OkHttp's dispatcher, and building the index on the
+     * plugin's cpu pool.
      */
     @Inject
     void init() {
         queryNamesById()
-                .thenAcceptBothAsync(
+                .thenCombine(
                         queryNotedItemIds().exceptionally(e -> {
                             log.error("Failed to read noted items", e);
-                            return Collections.emptySet();
+                            return Collections.emptyMap();
                         }),
-                        this::populate
+                        (namesById, notedToBase) -> executors.runCpu(() -> populate(namesById, notedToBase))
                 )
+                .thenCompose(Function.identity())
                 .exceptionally(e -> {
                     log.error("Failed to read item names", e);
                     return null;
@@ -67,8 +95,8 @@ public class ItemIDSearch {
     }
 
     /**
-     * Populates {@link #itemIdByName} with the inverted mappings of {@code namesById},
-     * while skipping noted items specified in {@code notedIds}.
+     * Builds a fresh {@link ItemNameIndex} from {@code namesById}, skipping noted items
+     * specified in {@code notedIds}, and publishes it.
      *
      * @param namesById a mapping of item id's to the corresponding in-game name
      * @param notedIds  the id's of noted items
@@ -76,12 +104,23 @@ public class ItemIDSearch {
      */
     @VisibleForTesting
     void populate(@NotNull Map<Integer, String> namesById, @NotNull Set<Integer> notedIds) {
-        namesById.forEach((id, name) -> {
-            if (!notedIds.contains(id))
-                itemIdByName.putIfAbsent(name, id);
-        });
+        Map<Integer, Integer> notedToBase = new HashMap<>(notedIds.size() * 2);
+        for (Integer id : notedIds) {
+            notedToBase.put(id, -1);
+        }
+        populate(namesById, notedToBase);
+    }
+
+    /**
+     * @param notedToBase noted item id's mapped to their unnoted id, as served in notes.json
+     * @see #populate(Map, Set)
+     */
+    @VisibleForTesting
+    void populate(@NotNull Map<Integer, String> namesById, @NotNull Map<Integer, Integer> notedToBase) {
+        ItemNameIndex built = ItemNameIndex.build(namesById, notedToBase);
+        index = built;
 
-        log.debug("Completed initialization of item cache with {} entries", itemIdByName.size());
+        log.debug("Completed initialization of item cache with {} entries", built.size());
     }
 
     /**
@@ -105,16 +144,19 @@ public class ItemIDSearch {
     }
 
     /**
-     * @return a set of id's of noted items, provided by the RuneLite API
+     * @return noted item id's mapped to their unnoted id, provided by the RuneLite API
      */
-    private CompletableFuture<Set<Integer>> queryNotedItemIds() {
+    private CompletableFuture<Map<Integer, Integer>> queryNotedItemIds() {
         return queryCache("notes.json", Map.class)
                 .thenApply(stringMap -> {
-                    Set<Integer> keys = new HashSet<>();
+                    Map<Integer, Integer> links = new HashMap<>();
                     for (Object keyObj : stringMap.keySet()) {
-                        keys.add(Integer.parseInt((String) keyObj));
+                        Object valObj = stringMap.get(keyObj);
+                        // Gson reads untyped numbers as Double
+                        int base = valObj instanceof Number ? ((Number) valObj).intValue() : -1;
+                        links.put(Integer.parseInt((String) keyObj), base);
                     }
-                    return keys;
+                    return links;
                 });
 
     }
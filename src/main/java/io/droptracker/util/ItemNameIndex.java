@@ -0,0 +1,291 @@
+package io.droptracker.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable search index over the item name corpus, built once off-thread by
+ * {@link ItemIDSearch} and published whole, so lookups never take a lock.
+ * <p>
+ * Layout: one entry per distinct name (earliest non-noted id wins), sorted by
+ * lower-cased name. Exact lookups go through a read-only hash map, prefix
+ * queries are a binary search plus a forward scan over the sorted keys, and
+ * fuzzy queries score candidates from a trigram posting list. Noted-to-unnoted
+ * links from notes.json are kept as two parallel sorted int arrays.
+ */
+public final class ItemNameIndex {
+
+    static final ItemNameIndex EMPTY = new ItemNameIndex(
+            new String[0], new String[0], new int[0], Collections.emptyMap(), Collections.emptyMap(),
+            new int[0], new int[0], new int[0]);
+
+    /** Original names, lower-cased sort keys and ids, all in sort-key order. */
+    private final String[] names;
+    private final String[] keys;
+    private final int[] ids;
+    private final Map<String, Integer> idByExactName;
+    /** Trigram (packed into an int) to the ascending entry ordinals containing it. */
+    private final Map<Integer, int[]> postings;
+    /** Distinct trigram count per entry, the denominator of the fuzzy score. */
+    private final int[] gramCounts;
+    private final int[] notedIds;
+    private final int[] unnotedIds;
+
+    private ItemNameIndex(String[] names, String[] keys, int[] ids, Map<String, Integer> idByExactName,
+                          Map<Integer, int[]> postings, int[] gramCounts, int[] notedIds, int[] unnotedIds) {
+        this.names = names;
+        this.keys = keys;
+        this.ids = ids;
+        this.idByExactName = idByExactName;
+        this.postings = postings;
+        this.gramCounts = gramCounts;
+        this.notedIds = notedIds;
+        this.unnotedIds = unnotedIds;
+    }
+
+    /**
+     * @param namesById    item id to in-game name, as served in names.json
+     * @param notedToBase  noted item id to its unnoted id, as served in notes.json;
+     *                     noted ids are left out of the name index
+     */
+    public static ItemNameIndex build(@NotNull Map<Integer, String> namesById,
+                                      @NotNull Map<Integer, Integer> notedToBase) {
+        Map<String, Integer> exact = new HashMap<>(namesById.size() * 2);
+        namesById.forEach((id, name) -> {
+            if (name != null && !notedToBase.containsKey(id)) {
+                exact.putIfAbsent(name, id);
+            }
+        });
+
+        String[] sortedNames = exact.keySet().toArray(new String[0]);
+        String[] lower = new String[sortedNames.length];
+        Integer[] order = new Integer[sortedNames.length];
+        for (int i = 0; i < sortedNames.length; i++) {
+            lower[i] = normalize(sortedNames[i]);
+            order[i] = i;
+        }
+        // Ties on the lower-cased key fall back to the original spelling so the
+        // order (and therefore every query result) is deterministic.
+        Arrays.sort(order, (a, b) -> {
+            int c = lower[a].compareTo(lower[b]);
+            return c != 0 ? c : sortedNames[a].compareTo(sortedNames[b]);
+        });
+
+        int n = order.length;
+        String[] names = new String[n];
+        String[] keys = new String[n];
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            names[i] = sortedNames[order[i]];
+            keys[i] = lower[order[i]];
+            ids[i] = exact.get(names[i]);
+        }
+
+        Map<Integer, int[]> postings = buildPostings(keys);
+        int[] gramCounts = new int[n];
+        for (int i = 0; i < n; i++) {
+            gramCounts[i] = trigrams(keys[i]).length;
+        }
+
+        int[] noted = new int[notedToBase.size()];
+        int k = 0;
+        for (Integer id : notedToBase.keySet()) {
+            noted[k++] = id;
+        }
+        Arrays.sort(noted);
+        int[] base = new int[noted.length];
+        for (int i = 0; i < noted.length; i++) {
+            Integer b = notedToBase.get(noted[i]);
+            base[i] = b != null ? b : -1;
+        }
+
+        return new ItemNameIndex(names, keys, ids, Collections.unmodifiableMap(exact),
+                Collections.unmodifiableMap(postings), gramCounts, noted, base);
+    }
+
+    private static Map<Integer, int[]> buildPostings(String[] keys) {
+        // Two passes (count, then fill) so every posting list is an exactly
+        // sized int[] rather than a boxed list.
+        Map<Integer, int[]> counts = new HashMap<>();
+        for (String key : keys) {
+            for (int gram : trigrams(key)) {
+                counts.computeIfAbsent(gram, g -> new int[1])[0]++;
+            }
+        }
+        Map<Integer, int[]> postings = new HashMap<>(counts.size() * 2);
+        Map<Integer, int[]> fill = new HashMap<>(counts.size() * 2);
+        counts.forEach((gram, count) -> {
+            postings.put(gram, new int[count[0]]);
+            fill.put(gram, new int[1]);
+        });
+        for (int i = 0; i < keys.length; i++) {
+            for (int gram : trigrams(keys[i])) {
+                int[] cursor = fill.get(gram);
+                postings.get(gram)[cursor[0]++] = i;
+            }
+        }
+        return postings;
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    /** @return the id for the exact in-game name, or null if unknown */
+    @Nullable
+    public Integer exact(@NotNull String name) {
+        return idByExactName.get(name);
+    }
+
+    /** @return the id for the name ignoring case and surrounding whitespace, or null */
+    @Nullable
+    public Integer ignoreCase(@NotNull String name) {
+        int i = Arrays.binarySearch(keys, normalize(name));
+        return i >= 0 ? ids[i] : null;
+    }
+
+    /**
+     * Case-insensitive prefix query, in name order.
+     *
+     * @return up to {@code limit} matches
+     */
+    @NotNull
+    public List<Match> prefix(@NotNull String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        int i = lowerBound(key);
+        List<Match> out = new ArrayList<>(Math.min(limit, 16));
+        while (i < keys.length && out.size() < limit && keys[i].startsWith(key)) {
+            out.add(new Match(names[i], ids[i], 1.0, i));
+            i++;
+        }
+        return out;
+    }
+
+    /**
+     * Typo-tolerant query: candidates sharing trigrams with the query, ranked by
+     * Dice similarity of their trigram sets (ties in name order).
+     *
+     * @param minScore the lowest similarity (0..1) still worth returning
+     * @return up to {@code limit} matches, best first
+     */
+    @NotNull
+    public List<Match> fuzzy(@NotNull String query, int limit, double minScore) {
+        String key = normalize(query);
+        if (key.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        int[] grams = trigrams(key);
+        // Shared-trigram counts per entry; a flat array beats a boxed map here
+        // since common grams (" a", "ne ") touch thousands of entries.
+        int[] shared = new int[keys.length];
+        int[] touched = new int[keys.length];
+        int touchedCount = 0;
+        for (int gram : grams) {
+            int[] list = postings.get(gram);
+            if (list == null) {
+                continue;
+            }
+            for (int ordinal : list) {
+                if (shared[ordinal]++ == 0) {
+                    touched[touchedCount++] = ordinal;
+                }
+            }
+        }
+
+        List<Match> out = new ArrayList<>();
+        for (int t = 0; t < touchedCount; t++) {
+            int ordinal = touched[t];
+            double score = 2.0 * shared[ordinal] / (grams.length + gramCounts[ordinal]);
+            if (score >= minScore) {
+                out.add(new Match(names[ordinal], ids[ordinal], score, ordinal));
+            }
+        }
+        out.sort((a, b) -> {
+            int c = Double.compare(b.score, a.score);
+            return c != 0 ? c : Integer.compare(a.ordinal, b.ordinal);
+        });
+        return out.size() > limit ? new ArrayList<>(out.subList(0, limit)) : out;
+    }
+
+    /** @return the unnoted id for a noted item id, or the id itself when it is not noted */
+    public int unnoted(int itemId) {
+        int i = Arrays.binarySearch(notedIds, itemId);
+        return i >= 0 && unnotedIds[i] >= 0 ? unnotedIds[i] : itemId;
+    }
+
+    public boolean isNoted(int itemId) {
+        return Arrays.binarySearch(notedIds, itemId) >= 0;
+    }
+
+    private int lowerBound(String key) {
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Distinct trigrams of {@code key} padded with a leading and trailing space
+     * (so short names and word starts still index), each packed into one int.
+     */
+    static int[] trigrams(String key) {
+        String padded = " " + key + " ";
+        int count = Math.max(0, padded.length() - 2);
+        int[] grams = new int[count];
+        for (int i = 0; i < count; i++) {
+            grams[i] = (padded.charAt(i) & 0x3FF) << 20
+                    | (padded.charAt(i + 1) & 0x3FF) << 10
+                    | (padded.charAt(i + 2) & 0x3FF);
+        }
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (i == 0 || grams[i] != grams[i - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return distinct == grams.length ? grams : Arrays.copyOf(grams, distinct);
+    }
+
+    /** A single query hit. {@code score} is 1.0 for prefix hits. */
+    public static final class Match {
+        public final String name;
+        public final int id;
+        public final double score;
+        private final int ordinal;
+
+        Match(String name, int id, double score, int ordinal) {
+            this.name = name;
+            this.id = id;
+            this.score = score;
+            this.ordinal = ordinal;
+        }
+
+        @Override
+        public String toString() {
+            return name + " (" + id + ")";
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package io.droptracker.util;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Applies the {@code add}, {@code remove} and {@code replace} operations of
+ * an RFC 6902 JSON Patch to a Gson tree, in place. That is the subset the
+ * server uses for incremental {@code /event_state} updates; any other
+ * operation, or a path that does not resolve, fails the patch with an
+ * {@link IllegalArgumentException}. Operations before the failing one stay
+ * applied, so a caller that hits one must treat the document as lost.
+ */
+public final class JsonPatch {
+
+    private JsonPatch() {
+    }
+
+    /** Applies {@code ops} to {@code document}; returns the patched root (replaced only by a whole-document op). */
+    public static JsonElement apply(JsonElement document, JsonArray ops) {
+        JsonElement root = document;
+        for (JsonElement element : ops) {
+            if (!element.isJsonObject()) {
+                throw new IllegalArgumentException("Patch operation is not an object: " + element);
+            }
+            JsonObject op = element.getAsJsonObject();
+            String name = string(op, "op");
+            String path = string(op, "path");
+            switch (name) {
+                case "add":
+                case "replace": {
+                    JsonElement value = op.get("value");
+                    if (value == null) {
+                        throw new IllegalArgumentException(name + " without a value at " + path);
+                    }
+                    if (path.isEmpty()) {
+                        root = value;
+                    } else {
+                        set(root, path, value.deepCopy(), "add".equals(name));
+                    }
+                    break;
+                }
+                case "remove":
+                    remove(root, path);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported patch operation: " + name);
+            }
+        }
+        return root;
+    }
+
+    private static String string(JsonObject op, String key) {
+        JsonElement value = op.get(key);
+        if (value == null || !value.isJsonPrimitive()) {
+            throw new IllegalArgumentException("Patch operation without '" + key + "': " + op);
+        }
+        return value.getAsString();
+    }
+
+    private static void set(JsonElement root, String path, JsonElement value, boolean add) {
+        Deque<String> tokens = tokens(path);
+        String last = tokens.removeLast();
+        JsonElement parent = resolve(root, tokens, path);
+        if (parent.isJsonObject()) {
+            JsonObject object = parent.getAsJsonObject();
+            if (!add && !object.has(last)) {
+                throw new IllegalArgumentException("Nothing to replace at " + path);
+            }
+            object.add(last, value);
+        } else if (parent.isJsonArray()) {
+            JsonArray array = parent.getAsJsonArray();
+            if (add && "-".equals(last)) {
+                array.add(value);
+                return;
+            }
+            int index = index(last, add ? array.size() + 1 : array.size(), path);
+            if (add) {
+                insert(array, index, value);
+            } else {
+                array.set(index, value);
+            }
+        } else {
+            throw new IllegalArgumentException("Path runs through a value: " + path);
+        }
+    }
+
+    private static void remove(JsonElement root, String path) {
+        if (path.isEmpty()) {
+            throw new IllegalArgumentException("Cannot remove the whole document");
+        }
+        Deque<String> tokens = tokens(path);
+        String last = tokens.removeLast();
+        JsonElement parent = resolve(root, tokens, path);
+        if (parent.isJsonObject()) {
+            if (parent.getAsJsonObject().remove(last) == null) {
+                throw new IllegalArgumentException("Nothing to remove at " + path);
+            }
+        } else if (parent.isJsonArray()) {
+            JsonArray array = parent.getAsJsonArray();
+            array.remove(index(last, array.size(), path));
+        } else {
+            throw new IllegalArgumentException("Path runs through a value: " + path);
+        }
+    }
+
+    /** Gson's JsonArray can only append, so the tail is lifted off and put back after the new element. */
+    private static void insert(JsonArray array, int index, JsonElement value) {
+        Deque<JsonElement> tail = new ArrayDeque<>();
+        while (array.size() > index) {
+            tail.addFirst(array.remove(array.size() - 1));
+        }
+        array.add(value);
+        for (JsonElement element : tail) {
+            array.add(element);
+        }
+    }
+
+    private static JsonElement resolve(JsonElement root, Deque<String> tokens, String path) {
+        JsonElement node = root;
+        for (String token : tokens) {
+            if (node.isJsonObject()) {
+                node = node.getAsJsonObject().get(token);
+            } else if (node.isJsonArray()) {
+                JsonArray array = node.getAsJsonArray();
+                node = array.get(index(token, array.size(), path));
+            } else {
+                node = null;
+            }
+            if (node == null) {
+                throw new IllegalArgumentException("No such path: " + path);
+            }
+        }
+        return node;
+    }
+
+    private static int index(String token, int bound, String path) {
+        if (token.isEmpty() || token.length() > 9 || !token.chars().allMatch(Character::isDigit)
+                || (token.length() > 1 && token.charAt(0) == '0')) {
+            throw new IllegalArgumentException("Bad array index in " + path);
+        }
+        int index = Integer.parseInt(token);
+        if (index >= bound) {
+            throw new IllegalArgumentException("Array index out of range in " + path);
+        }
+        return index;
+    }
+
+    /** Splits a JSON Pointer into unescaped reference tokens. */
+    private static Deque<String> tokens(String path) {
+        if (path.charAt(0) != '/') {
+            throw new IllegalArgumentException("Not a JSON pointer: " + path);
+        }
+        Deque<String> tokens = new ArrayDeque<>();
+        for (String token : path.substring(1).split("/", -1)) {
+            tokens.add(token.replace("~1", "/").replace("~0", "~"));
+        }
+        return tokens;
+    }
+}
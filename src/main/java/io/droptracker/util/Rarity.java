@@ -12,6 +12,7 @@ import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.ItemComposition;
 import net.runelite.client.game.ItemManager;
 import net.runelite.client.game.ItemVariationMapping;
+import org.jetbrains.annotations.VisibleForTesting;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -28,6 +29,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.OptionalDouble;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -41,6 +43,11 @@ public class Rarity {
 
     @Inject
     void init() {
+        load(gson);
+    }
+
+    @VisibleForTesting
+    void load(Gson gson) {
         Map<String, List<RawDrop>> raw;
         try (InputStream is = getClass().getResourceAsStream("/npc_drops.json");
              Reader reader = new BufferedReader(new InputStreamReader(Objects.requireNonNull(is)))) {
@@ -61,7 +68,13 @@ public class Rarity {
     }
 
     public OptionalDouble getRarity(String npcName, int itemId, int quantity) {
-        ItemComposition composition = itemId >= 0 ? itemManager.getItemComposition(itemId) : null;
+        return getRarity(npcName, itemId, quantity, itemManager::getItemComposition);
+    }
+
+    /** {@link #getRarity(String, int, int)} against any source of item compositions. */
+    @VisibleForTesting
+    OptionalDouble getRarity(String npcName, int itemId, int quantity, IntFunction<ItemComposition> compositions) {
+        ItemComposition composition = itemId >= 0 ? compositions.apply(itemId) : null;
         int canonical = composition != null && composition.getNote() != -1 ? composition.getLinkedNoteId() : itemId;
         String itemName = composition != null ? composition.getMembersName() : "";
         Collection<Integer> variants = new HashSet<>(
@@ -73,7 +86,7 @@ public class Rarity {
                 .filter(drop -> {
                     int id = drop.getItemId();
                     if (id == itemId) return true;
-                    return variants.contains(id) && itemName.equals(itemManager.getItemComposition(id).getMembersName());
+                    return variants.contains(id) && itemName.equals(compositions.apply(id).getMembersName());
                 })
                 .mapToDouble(Drop::getProbability)
                 .reduce(Double::sum);
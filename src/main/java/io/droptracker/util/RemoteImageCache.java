@@ -1,27 +1,40 @@
 package io.droptracker.util;
 
 import io.droptracker.api.DropTrackerUrls;
+import io.droptracker.service.PluginExecutors;
 import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.RuneLite;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
+import okio.BufferedSource;
+
+import org.jetbrains.annotations.VisibleForTesting;
 
 import javax.annotation.Nullable;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
-import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Tiny async cache for server-hosted icons (team pieces, NPC/skill task icons).
+ * Async two-tier cache for server-hosted icons (team pieces, NPC/skill task icons).
  *
  * <p>Keys are <em>relative paths</em> under {@code /img/}, e.g.
  * {@code "npcdb/2215.png"}, not URLs: the API is not permitted to tell the plugin
@@ -29,85 +42,275 @@ import java.util.concurrent.ScheduledExecutorService;
  * hardcoded base and rejects anything that tries to escape it, redirects are
  * disabled, and bytes go through ImageIO so a non-image body decodes to null and
  * renders nothing.
+ *
+ * <p>Decoded images live in memory within {@link #MEMORY_BUDGET_BYTES}, next to
+ * the scaled copies callers draw ({@link #get(String, int, Runnable)}), so each
+ * size is scaled once rather than on every render. The encoded files are kept
+ * on disk with their validators: a restart shows icons straight from disk, and
+ * one older than {@link #DISK_FRESH_MS} is revalidated with a conditional GET.
+ * When that brings a changed image, the callers that waited on the load are
+ * called back again; anyone else holding the old image, or a scaled copy of
+ * it, gets the new one on their next lookup.
  */
 @Slf4j
 @Singleton
 public class RemoteImageCache {
-    private static final int MAX_ENTRIES = 64;
+    static final long MEMORY_BUDGET_BYTES = 16L << 20;
+    static final long DISK_BUDGET_BYTES = 32L << 20;
+    /** How long the server's word on a disk copy holds before it is asked again. */
+    static final long DISK_FRESH_MS = TimeUnit.HOURS.toMillis(24);
     private static final int MAX_DIMENSION = 512;
+    private static final int MAX_ENCODED_BYTES = 2 << 20;
+    private static final int HTTP_NOT_MODIFIED = 304;
 
-    private final Map<String, BufferedImage> cache =
-        Collections.synchronizedMap(new LinkedHashMap<String, BufferedImage>() {
-            @Override
-            protected boolean removeEldestEntry(Map.Entry<String, BufferedImage> eldest) {
-                return size() > MAX_ENTRIES;
-            }
-        });
-    private final Map<String, Boolean> inFlight = new ConcurrentHashMap<>();
+    private final DecodedImageCache memory = new DecodedImageCache(MEMORY_BUDGET_BYTES);
+    @Nullable
+    private final ImageDiskStore disk;
+    /** Loads not yet published, by path; guarded by itself. */
+    private final Map<String, Load> inFlight = new HashMap<>();
 
     private final OkHttpClient httpClient;
-    private final ScheduledExecutorService executor;
+    private final PluginExecutors executors;
+
+    /** One path being loaded, and the callers waiting on it. */
+    private static final class Load {
+        final String path;
+        final HttpUrl url;
+        final List<Runnable> waiting = new ArrayList<>();
+
+        Load(String path, HttpUrl url) {
+            this.path = path;
+            this.url = url;
+        }
+    }
 
     @Inject
-    public RemoteImageCache(OkHttpClient httpClient, ScheduledExecutorService executor) {
+    public RemoteImageCache(OkHttpClient httpClient, PluginExecutors executors) {
+        this(httpClient, executors, RuneLite.RUNELITE_DIR.toPath().resolve("droptracker").resolve("images"));
+    }
+
+    RemoteImageCache(OkHttpClient httpClient, PluginExecutors executors, @Nullable Path diskDir) {
         // Redirects off: the base is hardcoded, and following one would hand the
         // choice of host back to the server.
         this.httpClient = httpClient.newBuilder()
             .followRedirects(false)
             .followSslRedirects(false)
             .build();
-        this.executor = executor;
+        this.executors = executors;
+        this.disk = diskDir != null ? new ImageDiskStore(diskDir, DISK_BUDGET_BYTES) : null;
     }
 
     /**
      * Cached image for the given {@code /img/}-relative path, or null while it
      * loads (or when the path is absent, malformed, or not an image). Kicks off at
-     * most one background fetch per path; {@code onLoaded} runs off-EDT after a
-     * successful load so callers can repaint.
+     * most one background load per path; {@code onLoaded} runs off-EDT once the
+     * image is available so callers can repaint. Every caller that asked while the
+     * load was in flight is called back, not only the one that started it, so
+     * each can repaint just its own slot.
      */
     @Nullable
     public BufferedImage get(@Nullable String imagePath, @Nullable Runnable onLoaded) {
-        HttpUrl url = DropTrackerUrls.image(imagePath);
-        if (url == null) {
+        if (imagePath == null) {
             return null;
         }
-        final String key = imagePath;
-        BufferedImage cached = cache.get(key);
+        BufferedImage cached = memory.get(imagePath);
         if (cached != null) {
             return cached;
         }
-        if (inFlight.putIfAbsent(key, Boolean.TRUE) == null) {
-            CompletableFuture.runAsync(() -> {
-                try {
-                    BufferedImage image = fetch(url);
-                    if (image != null
-                            && image.getWidth() <= MAX_DIMENSION
-                            && image.getHeight() <= MAX_DIMENSION) {
-                        cache.put(key, image);
-                        if (onLoaded != null) {
-                            onLoaded.run();
-                        }
-                    }
-                } catch (Exception e) {
-                    log.debug("icon fetch failed for {}: {}", key, e.getMessage());
-                } finally {
-                    inFlight.remove(key);
+        Load load;
+        boolean start = false;
+        synchronized (inFlight) {
+            // Again under the lock: the load may have landed since.
+            cached = memory.get(imagePath);
+            if (cached != null) {
+                return cached;
+            }
+            load = inFlight.get(imagePath);
+            if (load == null) {
+                // Resolved on a miss only; a hit never builds a URL.
+                HttpUrl url = DropTrackerUrls.image(imagePath);
+                if (url == null) {
+                    return null;
+                }
+                load = new Load(imagePath, url);
+                inFlight.put(imagePath, load);
+                start = true;
+            }
+            if (onLoaded != null) {
+                load.waiting.add(onLoaded);
+            }
+        }
+        if (start) {
+            final Load started = load;
+            executors.runIo(() -> load(started)).whenComplete((ignored, e) -> {
+                // Here rather than in the task, so a load the io pool rejected
+                // does not leave the path marked in flight for good.
+                synchronized (inFlight) {
+                    inFlight.remove(imagePath, started);
                 }
-            }, executor);
+            });
         }
         return null;
     }
 
+    /**
+     * The image fitted into a {@code size}×{@code size} square, centered with its
+     * aspect ratio kept — the form the panels and overlays draw. Scaled once per
+     * size and cached; null while the image loads, as {@link #get(String, Runnable)}.
+     */
     @Nullable
-    private BufferedImage fetch(HttpUrl url) throws Exception {
-        Request request = new Request.Builder().url(url).build();
-        try (Response response = httpClient.newCall(request).execute()) {
+    public BufferedImage get(@Nullable String imagePath, int size, @Nullable Runnable onLoaded) {
+        if (imagePath == null) {
+            return null;
+        }
+        String key = DecodedImageCache.variantKey(imagePath, size);
+        BufferedImage variant = memory.get(key);
+        if (variant != null) {
+            return variant;
+        }
+        BufferedImage full = get(imagePath, onLoaded);
+        if (full == null) {
+            return null;
+        }
+        variant = fit(full, size);
+        memory.put(key, variant);
+        return variant;
+    }
+
+    /** Disk copy first, then the network when there is none or it is due for revalidation. */
+    private void load(Load load) {
+        ImageDiskStore.Entry stored = disk != null ? disk.read(load.path) : null;
+        if (stored != null) {
+            BufferedImage image = decode(stored.getBytes());
+            if (image == null) {
+                stored = null;
+            } else {
+                boolean fresh = System.currentTimeMillis() - stored.getValidatedAtMs() < DISK_FRESH_MS;
+                // A stale copy keeps its callers for the revalidation, which may replace it.
+                publish(load, image, fresh);
+                if (fresh) {
+                    return;
+                }
+            }
+        }
+        try {
+            fetch(load, stored);
+        } catch (Exception e) {
+            log.debug("icon fetch failed for {}: {}", load.path, e.getMessage());
+        }
+    }
+
+    private void fetch(Load load, @Nullable ImageDiskStore.Entry stored) throws IOException {
+        Request.Builder request = new Request.Builder().url(load.url);
+        if (stored != null && stored.getEtag() != null) {
+            request.header("If-None-Match", stored.getEtag());
+        }
+        if (stored != null && stored.getLastModified() != null) {
+            request.header("If-Modified-Since", stored.getLastModified());
+        }
+        try (Response response = httpClient.newCall(request.build()).execute()) {
+            if (response.code() == HTTP_NOT_MODIFIED && stored != null) {
+                disk.touch(load.path);
+                return;
+            }
             ResponseBody body = response.body();
             if (!response.isSuccessful() || body == null) {
+                return;
+            }
+            byte[] bytes = readBounded(body, MAX_ENCODED_BYTES);
+            // An oversized body, or a non-image one (HTML error page, redirect
+            // target), decodes to null and renders nothing.
+            BufferedImage image = bytes != null ? decode(bytes) : null;
+            if (image == null) {
+                return;
+            }
+            publish(load, image, true);
+            if (disk != null) {
+                disk.write(load.path, response.header("ETag"), response.header("Last-Modified"), bytes);
+            }
+        }
+    }
+
+    /**
+     * Makes {@code image} the cached copy of the load's path, dropping scaled
+     * copies of any older one, and calls back whoever was waiting for it.
+     * Unless {@code last}, they stay registered to be called again should a
+     * later copy replace this one.
+     */
+    private void publish(Load load, BufferedImage image, boolean last) {
+        List<Runnable> waiting;
+        synchronized (inFlight) {
+            memory.invalidate(load.path);
+            memory.put(load.path, image);
+            inFlight.remove(load.path, load);
+            waiting = new ArrayList<>(load.waiting);
+            if (last) {
+                load.waiting.clear();
+            }
+        }
+        for (Runnable callback : waiting) {
+            callback.run();
+        }
+    }
+
+    /**
+     * The body's bytes, or null when it runs past {@code maxBytes}. A chunked
+     * body declares no length up front, so at most one byte past the cap is
+     * buffered before the rest is abandoned unread.
+     */
+    @Nullable
+    public static byte[] readBounded(ResponseBody body, int maxBytes) throws IOException {
+        if (body.contentLength() > maxBytes) {
+            return null;
+        }
+        BufferedSource source = body.source();
+        if (source.request(maxBytes + 1L)) {
+            return null;
+        }
+        return source.readByteArray();
+    }
+
+    /**
+     * Null for anything that is not an image or is over {@link #MAX_DIMENSION}
+     * a side. The size comes from the header, before any pixels are decoded,
+     * so a small file claiming huge dimensions never gets its buffer.
+     */
+    @VisibleForTesting
+    @Nullable
+    static BufferedImage decode(byte[] bytes) {
+        try (ImageInputStream in = new MemoryCacheImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
                 return null;
             }
-            // A non-image body (HTML error page, redirect target) decodes to null and renders nothing.
-            return ImageIO.read(body.byteStream());
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                if (reader.getWidth(0) > MAX_DIMENSION || reader.getHeight(0) > MAX_DIMENSION) {
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            return null;
         }
     }
+
+    /** Scale into a size×size box, centered, aspect ratio preserved; always a fresh image. */
+    public static BufferedImage fit(BufferedImage source, int size) {
+        int w = Math.max(source.getWidth(), 1);
+        int h = Math.max(source.getHeight(), 1);
+        float scale = Math.min((float) size / w, (float) size / h);
+        int nw = Math.max(Math.round(w * scale), 1);
+        int nh = Math.max(Math.round(h * scale), 1);
+        BufferedImage out = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = out.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+            RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(source, (size - nw) / 2, (size - nh) / 2, nw, nh, null);
+        g.dispose();
+        return out;
+    }
 }
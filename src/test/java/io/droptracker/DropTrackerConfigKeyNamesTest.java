@@ -42,7 +42,7 @@ public class DropTrackerConfigKeyNamesTest {
         "relayClanBroadcasts", "relayClanChat", "receiveDiscordChat",
         // Advanced
         "useApi", "receiveInGameMessages", "syncAccountState",
-        "uploadCharacterModel", "showSidePanel", "debugLogging",
+        "uploadCharacterModel", "compactModelUploads", "showSidePanel", "debugLogging",
         // Retired from the UI, kept so existing values still apply
         "trackExperience", "trackTrawling",
         "sendLoadoutWithPbs", "eventImportantPopupsOnly", "pollUpdates",
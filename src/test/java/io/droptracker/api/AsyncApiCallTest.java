@@ -0,0 +1,164 @@
+package io.droptracker.api;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * The enqueue-based calls behind the async API, against a local stub server:
+ * bodies parse from the stream, failures keep their status, and the per-call
+ * timeout and cancellation both end the call.
+ */
+public class AsyncApiCallTest {
+
+    private static class Payload {
+        String name;
+        int[] ids;
+    }
+
+    private final Gson gson = new Gson();
+    private final OkHttpClient httpClient = new OkHttpClient();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger reads = new AtomicInteger();
+    private HttpServer server;
+    private volatile int status = 200;
+    private volatile String body = "";
+    private volatile boolean hold;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/payload", exchange -> {
+            if (hold) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            try {
+                // Chunked, so the client cannot know the length up front.
+                exchange.sendResponseHeaders(status, 0);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            } catch (IOException ignored) {
+                // The client hung up first.
+            }
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    private CompletableFuture<Payload> fetch(long timeoutMs) {
+        Request request = new Request.Builder()
+                .url("http://127.0.0.1:" + server.getAddress().getPort() + "/payload")
+                .build();
+        return DropTrackerApi.call(httpClient, request, timeoutMs, response -> {
+            reads.incrementAndGet();
+            return DropTrackerApi.readJson(gson, response, Payload.class);
+        });
+    }
+
+    @Test
+    public void bodyIsParsedFromTheStream() throws Exception {
+        StringBuilder ids = new StringBuilder();
+        for (int i = 0; i < 50_000; i++) {
+            ids.append(i == 0 ? "" : ",").append(i);
+        }
+        body = "{\"name\":\"Zulrah\",\"ids\":[" + ids + "]}";
+
+        Payload payload = fetch(5_000).get(5, TimeUnit.SECONDS);
+        assertEquals("Zulrah", payload.name);
+        assertEquals(50_000, payload.ids.length);
+        assertEquals(49_999, payload.ids[49_999]);
+    }
+
+    @Test
+    public void blockingAdapterRethrowsTheStatus() throws Exception {
+        status = 404;
+        try {
+            DropTrackerApi.await(fetch(5_000));
+            fail("expected a 404");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("status: 404"));
+        }
+    }
+
+    @Test
+    public void malformedBodyFails() throws Exception {
+        body = "{\"name\": [";
+        try {
+            DropTrackerApi.await(fetch(5_000));
+            fail("expected a parse failure");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("Malformed response"));
+        }
+    }
+
+    @Test
+    public void slowCallTimesOut() throws Exception {
+        hold = true;
+        try {
+            fetch(200).get(5, TimeUnit.SECONDS);
+            fail("expected a timeout");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof InterruptedIOException);
+        }
+    }
+
+    @Test
+    public void cancellingTheFutureCancelsTheCall() throws Exception {
+        hold = true;
+        CompletableFuture<Payload> future = fetch(5_000);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (httpClient.dispatcher().runningCallsCount() == 0) {
+            assertTrue("call never started", System.nanoTime() < deadline);
+            Thread.sleep(1);
+        }
+
+        future.cancel(true);
+        // The call ends while the server is still holding the response.
+        while (httpClient.dispatcher().runningCallsCount() > 0) {
+            assertTrue("call was not cancelled", System.nanoTime() < deadline);
+            Thread.sleep(1);
+        }
+        release.countDown();
+        assertEquals(0, reads.get());
+    }
+
+    @Test
+    public void idListSkipsBadTokens() throws IOException {
+        assertEquals(Arrays.asList(1, 22, 333, 4),
+                DropTrackerApi.readIdList(new StringReader("[1, \"22\",333 ,x,4,]"), "test"));
+        assertTrue(DropTrackerApi.readIdList(new StringReader(""), "test").isEmpty());
+    }
+}
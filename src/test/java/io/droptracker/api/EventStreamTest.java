@@ -0,0 +1,233 @@
+package io.droptracker.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link EventStream} end to end against an in-process stub of GET /stream:
+ * typed messages arrive in order as they are written, a reconnect resumes
+ * after the last id, and servers without the stream are told apart from
+ * streams that merely failed.
+ */
+public class EventStreamTest {
+
+    /** Events the stub serves, in order; event i has id i + 1. */
+    private static final String[] EVENTS = {
+        "event: hello\ndata: {\"types\":[\"notifications\",\"event_state\"]}\n\n",
+        "event: notifications\ndata: {\"active_event\":true,\"notifications\":[]}\n\n",
+        "event: event_state\ndata: {\"events\":[]}\n\n",
+        "event: submission_status\ndata: {\"processed\":[\"a-1\"]}\n\n",
+    };
+
+    private final OkHttpClient httpClient = new OkHttpClient.Builder()
+            .readTimeout(5, TimeUnit.SECONDS)
+            .build();
+    private final BlockingQueue<String> heard = new LinkedBlockingQueue<>();
+    private final List<String> resumedFrom = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService serverThreads = Executors.newCachedThreadPool();
+    private HttpServer server;
+    private volatile int status = 200;
+    private volatile String contentType = "text/event-stream; charset=utf-8";
+    /** Events sent before the stub stops writing; the rest wait for the next connection. */
+    private volatile int sendUpTo = EVENTS.length;
+    private volatile boolean holdOpen;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/stream", this::serve);
+        server.setExecutor(serverThreads);
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        String lastId = exchange.getRequestHeaders().getFirst("Last-Event-ID");
+        resumedFrom.add(String.valueOf(lastId));
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        try {
+            if (status != 200) {
+                exchange.sendResponseHeaders(status, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write("retry: 1500\n: keep-alive\n\n".getBytes(StandardCharsets.UTF_8));
+                int from = lastId != null ? Integer.parseInt(lastId) : 0;
+                for (int i = from; i < sendUpTo; i++) {
+                    out.write(("id: " + (i + 1) + "\n" + EVENTS[i]).getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                }
+                if (holdOpen) {
+                    release.await(5, TimeUnit.SECONDS);
+                }
+            }
+        } catch (IOException | InterruptedException ignored) {
+            // The client hung up first.
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private EventStream open(@Nullable String resumeToken) {
+        Request.Builder request = new Request.Builder()
+                .url("http://127.0.0.1:" + server.getAddress().getPort() + "/stream")
+                .header("Accept", EventStream.CONTENT_TYPE);
+        if (resumeToken != null) {
+            request.header("Last-Event-ID", resumeToken);
+        }
+        EventStream stream = new EventStream(httpClient.newCall(request.build()));
+        stream.start(new EventStream.Listener() {
+            @Override
+            public void onOpen() {
+                heard.add("open");
+            }
+
+            @Override
+            public void onMessage(EventStream.Message message) {
+                heard.add(message.getId() + " " + message.getType() + " " + message.getData());
+            }
+
+            @Override
+            public void onUnsupported(int httpCode) {
+                heard.add("unsupported " + httpCode);
+            }
+
+            @Override
+            public void onClosed(@Nullable IOException error, long retryMs) {
+                heard.add((error == null ? "closed " : "failed ") + retryMs);
+            }
+        });
+        return stream;
+    }
+
+    private String next() throws InterruptedException {
+        String event = heard.poll(5, TimeUnit.SECONDS);
+        assertTrue("listener heard nothing", event != null);
+        return event;
+    }
+
+    @Test
+    public void typedMessagesArriveInOrder() throws Exception {
+        open(null);
+
+        assertEquals("open", next());
+        assertEquals("1 hello {\"types\":[\"notifications\",\"event_state\"]}", next());
+        assertEquals("2 notifications {\"active_event\":true,\"notifications\":[]}", next());
+        assertEquals("3 event_state {\"events\":[]}", next());
+        assertEquals("4 submission_status {\"processed\":[\"a-1\"]}", next());
+        assertEquals("closed 1500", next());
+    }
+
+    @Test
+    public void messagesArriveWhileTheStreamStaysOpen() throws Exception {
+        holdOpen = true;
+        EventStream stream = open(null);
+
+        assertEquals("open", next());
+        for (int i = 1; i <= EVENTS.length; i++) {
+            assertTrue(next().startsWith(i + " "));
+        }
+        stream.close();
+        // Nothing is reported for a stream the caller closed.
+        assertNull(heard.poll(300, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void reconnectResumesAfterTheLastId() throws Exception {
+        sendUpTo = 2;
+        open(null);
+        assertEquals("open", next());
+        assertTrue(next().startsWith("1 hello"));
+        assertTrue(next().startsWith("2 notifications"));
+        assertEquals("closed 1500", next());
+
+        sendUpTo = EVENTS.length;
+        open("2");
+        assertEquals("open", next());
+        assertTrue(next().startsWith("3 event_state"));
+        assertTrue(next().startsWith("4 submission_status"));
+        assertEquals("closed 1500", next());
+        assertEquals("null", resumedFrom.get(0));
+        assertEquals("2", resumedFrom.get(1));
+    }
+
+    @Test
+    public void serverWithoutAStreamIsUnsupported() throws Exception {
+        status = 404;
+        open(null);
+        assertEquals("unsupported 404", next());
+    }
+
+    @Test
+    public void notImplementedIsUnsupported() throws Exception {
+        status = 501;
+        open(null);
+        assertEquals("unsupported 501", next());
+    }
+
+    @Test
+    public void authFailureIsAFailureToRetry() throws Exception {
+        // A rejected identity says nothing about whether the server streams.
+        status = 401;
+        open(null);
+        assertEquals("failed -1", next());
+
+        status = 403;
+        open(null);
+        assertEquals("failed -1", next());
+    }
+
+    @Test
+    public void nonStreamResponseIsAFailureToRetry() throws Exception {
+        // A catch-all page answering 200 (a captive portal, say) is not a stream,
+        // but not proof the server has none either.
+        contentType = "text/html";
+        open(null);
+        assertEquals("failed -1", next());
+    }
+
+    @Test
+    public void serverErrorIsAFailureToRetry() throws Exception {
+        status = 503;
+        open(null);
+        assertEquals("failed -1", next());
+    }
+
+    @Test
+    public void unreachableServerIsAFailureToRetry() throws Exception {
+        server.stop(0);
+        open(null);
+        assertEquals("failed -1", next());
+    }
+}
@@ -0,0 +1,55 @@
+package io.droptracker.api;
+
+import com.google.gson.Gson;
+import io.droptracker.models.api.GroupConfig;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link GroupConfigSnapshot} must not change under a reader once published,
+ * and must only ever answer for the account it was loaded for.
+ */
+public class GroupConfigSnapshotTest {
+
+    private static final long ACCOUNT = 123456789L;
+
+    private final Gson gson = new Gson();
+
+    private GroupConfig config(String groupId, int minValue) {
+        return gson.fromJson("{\"group_id\":\"" + groupId + "\",\"min_value\":" + minValue
+                + ",\"send_drops\":true,\"active_event\":true}", GroupConfig.class);
+    }
+
+    @Test
+    public void configsCannotBeChangedUnderAReader() {
+        List<GroupConfig> source = new ArrayList<>(Arrays.asList(config("2", 1_000_000)));
+        GroupConfigSnapshot snapshot = new GroupConfigSnapshot(ACCOUNT, "Zezima", source, 1L);
+
+        source.add(config("3", 0));
+        assertEquals(1, snapshot.getConfigs().size());
+        try {
+            snapshot.getConfigs().clear();
+            fail("expected an unmodifiable list");
+        } catch (UnsupportedOperationException expected) {
+            // Published snapshots are never modified in place.
+        }
+    }
+
+    @Test
+    public void pendingSnapshotHasNothingLoaded() {
+        GroupConfigSnapshot pending = GroupConfigSnapshot.pending(ACCOUNT, "Zezima");
+        assertEquals(0L, pending.getLoadedAtMs());
+        assertTrue(pending.getConfigs().isEmpty());
+        assertTrue(pending.isFor(ACCOUNT, "Zezima"));
+        assertFalse(pending.isFor(ACCOUNT, "Lynx Titan"));
+        assertFalse(GroupConfigSnapshot.NONE.isFor(ACCOUNT, "Zezima"));
+    }
+}
@@ -0,0 +1,86 @@
+package io.droptracker.api;
+
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The model have-check against a local stub of the endpoint: only a 200 may
+ * skip an upload, and it must cost one bodiless HEAD.
+ */
+public class PlayerModelHaveCheckTest {
+
+    private final OkHttpClient httpClient = new OkHttpClient();
+    private final AtomicInteger requests = new AtomicInteger();
+    private HttpServer server;
+    private volatile int status;
+    private volatile String method;
+    private volatile String query;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/player/model", exchange -> {
+            requests.incrementAndGet();
+            method = exchange.getRequestMethod();
+            query = exchange.getRequestURI().getQuery();
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private HttpUrl url() {
+        return HttpUrl.get("http://127.0.0.1:" + server.getAddress().getPort() + "/player/model")
+                .newBuilder()
+                .addQueryParameter("acc_hash", "1")
+                .addQueryParameter("fingerprint", "a1b2")
+                .addQueryParameter("sha256", "abc123")
+                .build();
+    }
+
+    @Test
+    public void heldModelIsFound() {
+        status = 200;
+        assertTrue(DropTrackerApi.headFound(httpClient, url()));
+        assertEquals(1, requests.get());
+        assertEquals("HEAD", method);
+        assertTrue(query.contains("sha256=abc123"));
+    }
+
+    @Test
+    public void missingModelIsNotFound() {
+        status = 404;
+        assertFalse(DropTrackerApi.headFound(httpClient, url()));
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void serverErrorMeansUpload() {
+        status = 500;
+        assertFalse(DropTrackerApi.headFound(httpClient, url()));
+    }
+
+    @Test
+    public void unreachableServerMeansUpload() {
+        final HttpUrl url = url();
+        server.stop(0);
+        assertFalse(DropTrackerApi.headFound(httpClient, url));
+    }
+}
@@ -0,0 +1,242 @@
+package io.droptracker.api;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpServer;
+import io.droptracker.service.PluginExecutors;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link ResponseCache} against a local stub server that honours ETags and
+ * can be switched off: saved copies outlive the instance that wrote them,
+ * unchanged responses come back as 304s, and an unreachable server still
+ * leaves the saved copy to show.
+ */
+public class ResponseCacheTest {
+
+    private static class Payload {
+        String name;
+    }
+
+    @Rule
+    public final TemporaryFolder temp = new TemporaryFolder();
+
+    private final Gson gson = new Gson();
+    private final OkHttpClient httpClient = new OkHttpClient();
+    private final PluginExecutors executors = new PluginExecutors();
+    private final AtomicInteger fullResponses = new AtomicInteger();
+    private final AtomicInteger notModified = new AtomicInteger();
+    private Path dir;
+    private HttpServer server;
+    private volatile String etag = "\"v1\"";
+    private volatile String name = "Zulrah";
+
+    @Before
+    public void setUp() throws IOException {
+        dir = temp.newFolder("responses").toPath();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/top_groups", exchange -> {
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            fullResponses.incrementAndGet();
+            byte[] body = ("{\"name\":\"" + name + "\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("ETag", etag);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        server.stop(0);
+        // The folder is deleted after this; no write may still be running then.
+        executors.shutDown();
+        assertTrue("io pool did not drain", executors.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    private HttpUrl url() {
+        return HttpUrl.parse("http://127.0.0.1:" + server.getAddress().getPort() + "/top_groups?page=1");
+    }
+
+    private Payload fetch(ResponseCache cache) throws Exception {
+        return cache.fetch(httpClient, url(), 5_000, Payload.class).get(5, TimeUnit.SECONDS);
+    }
+
+    private Revalidating.Saved<Payload> saved(ResponseCache cache) throws Exception {
+        return cache.saved(url(), Payload.class).get(5, TimeUnit.SECONDS);
+    }
+
+    private List<Path> savedFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.toString().endsWith(".json")).collect(Collectors.toList());
+        }
+    }
+
+    /** Disk writes trail the response on the io pool; waits for every one queued so far. */
+    private void awaitWrites() throws InterruptedException {
+        executors.shutDown();
+        assertTrue("io pool did not drain", executors.awaitTermination(5, TimeUnit.SECONDS));
+        executors.startUp();
+    }
+
+    @Test
+    public void nothingIsSavedBeforeTheFirstResponse() throws Exception {
+        ResponseCache cache = new ResponseCache(dir, gson, executors);
+        assertNull(saved(cache));
+        awaitWrites();
+        assertTrue(savedFiles().isEmpty());
+
+        long before = System.currentTimeMillis();
+        assertEquals("Zulrah", fetch(cache).name);
+        awaitWrites();
+        assertEquals(1, savedFiles().size());
+        Revalidating.Saved<Payload> saved = saved(new ResponseCache(dir, gson, executors));
+        assertEquals("Zulrah", saved.getValue().name);
+        assertTrue(saved.getStoredAtMs() >= before);
+    }
+
+    @Test
+    public void savedCopyOutlivesTheInstance() throws Exception {
+        fetch(new ResponseCache(dir, gson, executors));
+        awaitWrites();
+
+        Revalidating.Saved<Payload> saved = saved(new ResponseCache(dir, gson, executors));
+        assertEquals("Zulrah", saved.getValue().name);
+    }
+
+    @Test
+    public void unchangedResponseRevalidatesWithoutABody() throws Exception {
+        ResponseCache cache = new ResponseCache(dir, gson, executors);
+        fetch(cache);
+        assertEquals("Zulrah", fetch(cache).name);
+        assertEquals(1, fullResponses.get());
+        assertEquals(1, notModified.get());
+
+        // The 304 is sent after a restart too.
+        awaitWrites();
+        assertEquals("Zulrah", fetch(new ResponseCache(dir, gson, executors)).name);
+        assertEquals(1, fullResponses.get());
+        assertEquals(2, notModified.get());
+    }
+
+    @Test
+    public void revalidationOnlyMovesTheTimestampOn() throws Exception {
+        fetch(new ResponseCache(dir, gson, executors));
+        awaitWrites();
+        Path file = savedFiles().get(0);
+        byte[] written = Files.readAllBytes(file);
+        long hourAgo = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(hourAgo));
+        assertEquals(hourAgo, saved(new ResponseCache(dir, gson, executors)).getStoredAtMs(), 1_000);
+
+        long before = System.currentTimeMillis();
+        ResponseCache cache = new ResponseCache(dir, gson, executors);
+        assertEquals("Zulrah", fetch(cache).name);
+        assertEquals(1, notModified.get());
+        assertTrue(saved(cache).getStoredAtMs() >= before);
+
+        awaitWrites();
+        assertArrayEquals(written, Files.readAllBytes(file));
+        assertTrue(saved(new ResponseCache(dir, gson, executors)).getStoredAtMs() >= before - 1_000);
+        assertEquals(1, savedFiles().size());
+    }
+
+    @Test
+    public void concurrentSavesLeaveOneCompleteFile() throws Exception {
+        // A new ETag every time, so every response is a full one to save.
+        ResponseCache cache = new ResponseCache(dir, gson, executors);
+        for (int i = 0; i < 20; i++) {
+            etag = "\"v" + i + "\"";
+            name = "Zulrah" + i;
+            fetch(cache);
+        }
+        awaitWrites();
+
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals("temp files left behind", 1, files.count());
+        }
+        assertTrue(saved(new ResponseCache(dir, gson, executors)).getValue().name.startsWith("Zulrah"));
+    }
+
+    @Test
+    public void changedResponseReplacesTheSavedCopy() throws Exception {
+        ResponseCache cache = new ResponseCache(dir, gson, executors);
+        fetch(cache);
+        awaitWrites();
+        etag = "\"v2\"";
+        name = "Vorkath";
+
+        assertEquals("Vorkath", fetch(cache).name);
+        assertEquals("Vorkath", saved(cache).getValue().name);
+        assertEquals(2, fullResponses.get());
+
+        awaitWrites();
+        assertEquals(1, savedFiles().size());
+        assertEquals("Vorkath", saved(new ResponseCache(dir, gson, executors)).getValue().name);
+    }
+
+    @Test
+    public void savedCopyIsServedWhileTheServerIsDown() throws Exception {
+        fetch(new ResponseCache(dir, gson, executors));
+        awaitWrites();
+        server.stop(0);
+
+        ResponseCache cache = new ResponseCache(dir, gson, executors);
+        try {
+            fetch(cache);
+            fail("expected the server to be unreachable");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        assertEquals("Zulrah", saved(cache).getValue().name);
+    }
+
+    @Test
+    public void unreadableFileIsIgnored() throws Exception {
+        fetch(new ResponseCache(dir, gson, executors));
+        awaitWrites();
+        for (Path file : savedFiles()) {
+            Files.write(file, "{\"key\": [".getBytes(StandardCharsets.UTF_8));
+        }
+
+        ResponseCache cache = new ResponseCache(dir, gson, executors);
+        assertNull(saved(cache));
+        // With nothing usable saved the request goes out unconditionally.
+        assertEquals("Zulrah", fetch(cache).name);
+        assertEquals(2, fullResponses.get());
+        assertEquals(0, notModified.get());
+    }
+}
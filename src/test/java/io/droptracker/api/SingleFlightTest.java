@@ -0,0 +1,190 @@
+package io.droptracker.api;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link SingleFlight} in front of real calls to a counting stub server:
+ * overlapping identical reads cost one request, anything else does not
+ * coalesce, and cancellation only reaches the network when nobody is left
+ * waiting.
+ */
+public class SingleFlightTest {
+
+    private static class Payload {
+        String name;
+    }
+
+    private final Gson gson = new Gson();
+    private final OkHttpClient httpClient = new OkHttpClient();
+    private final SingleFlight singleFlight = new SingleFlight();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final ExecutorService serverThreads = Executors.newCachedThreadPool();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private HttpServer server;
+    private volatile int status = 200;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = ("{\"name\":\"" + exchange.getRequestURI().getPath() + "\"}").getBytes(StandardCharsets.UTF_8);
+            try {
+                exchange.sendResponseHeaders(status, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (IOException ignored) {
+                // The client hung up first.
+            }
+            exchange.close();
+        });
+        server.setExecutor(serverThreads);
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    private CompletableFuture<Payload> read(String path) {
+        Request request = new Request.Builder()
+                .url("http://127.0.0.1:" + server.getAddress().getPort() + path)
+                .build();
+        return singleFlight.run(Payload.class.getName() + " " + request.url(),
+                () -> DropTrackerApi.call(httpClient, request, 5_000,
+                        response -> DropTrackerApi.readJson(gson, response, Payload.class)));
+    }
+
+    private void awaitRequests(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (requests.get() < count) {
+            assertTrue("request never arrived", System.nanoTime() < deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    public void overlappingReadsShareOneRequest() throws Exception {
+        CompletableFuture<Payload> first = read("/top_groups");
+        awaitRequests(1);
+        CompletableFuture<Payload> second = read("/top_groups");
+        CompletableFuture<Payload> third = read("/top_groups");
+        release.countDown();
+
+        Payload payload = first.get(5, TimeUnit.SECONDS);
+        assertEquals("/top_groups", payload.name);
+        assertSame(payload, second.get(5, TimeUnit.SECONDS));
+        assertSame(payload, third.get(5, TimeUnit.SECONDS));
+        assertEquals(1, requests.get());
+        assertEquals(0, singleFlight.size());
+    }
+
+    @Test
+    public void differentKeysDoNotCoalesce() throws Exception {
+        CompletableFuture<Payload> groups = read("/top_groups");
+        CompletableFuture<Payload> players = read("/top_players");
+        awaitRequests(2);
+        release.countDown();
+
+        assertEquals("/top_groups", groups.get(5, TimeUnit.SECONDS).name);
+        assertEquals("/top_players", players.get(5, TimeUnit.SECONDS).name);
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void completedReadIsNotReused() throws Exception {
+        release.countDown();
+        read("/top_groups").get(5, TimeUnit.SECONDS);
+        read("/top_groups").get(5, TimeUnit.SECONDS);
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void failureReachesEveryWaiter() throws Exception {
+        status = 500;
+        CompletableFuture<Payload> first = read("/event_state");
+        awaitRequests(1);
+        CompletableFuture<Payload> second = read("/event_state");
+        release.countDown();
+
+        for (CompletableFuture<Payload> waiter : Arrays.asList(first, second)) {
+            try {
+                DropTrackerApi.await(waiter);
+                fail("expected the shared failure");
+            } catch (IOException e) {
+                assertTrue(e.getMessage().contains("status: 500"));
+            }
+        }
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void callIsCancelledOnlyWhenEveryWaiterCancels() throws Exception {
+        CompletableFuture<Payload> first = read("/player_search");
+        awaitRequests(1);
+        CompletableFuture<Payload> second = read("/player_search");
+
+        first.cancel(true);
+        Thread.sleep(100);
+        assertEquals(1, httpClient.dispatcher().runningCallsCount());
+        assertFalse(second.isDone());
+
+        second.cancel(true);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (httpClient.dispatcher().runningCallsCount() > 0) {
+            assertTrue("call was not cancelled", System.nanoTime() < deadline);
+            Thread.sleep(1);
+        }
+
+        // A read after that starts afresh.
+        release.countDown();
+        assertEquals("/player_search", read("/player_search").get(5, TimeUnit.SECONDS).name);
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void cancelledWaiterDoesNotDisturbTheOthers() throws Exception {
+        CompletableFuture<Payload> first = read("/group_search");
+        awaitRequests(1);
+        CompletableFuture<Payload> second = read("/group_search");
+        first.cancel(true);
+        release.countDown();
+
+        assertEquals("/group_search", second.get(5, TimeUnit.SECONDS).name);
+        assertTrue(first.isCancelled());
+        assertEquals(1, requests.get());
+    }
+}
@@ -0,0 +1,73 @@
+package io.droptracker.api;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link SseParser} against the event-stream framing the server writes:
+ * typed events, multi-line data, keep-alive comments and resume ids.
+ */
+public class SseParserTest {
+
+    private static List<EventStream.Message> parse(SseParser parser, String... lines) {
+        List<EventStream.Message> messages = new ArrayList<>();
+        for (String line : lines) {
+            EventStream.Message message = parser.line(line);
+            if (message != null) {
+                messages.add(message);
+            }
+        }
+        return messages;
+    }
+
+    @Test
+    public void typedEventsCarryTheirIdAndData() {
+        List<EventStream.Message> messages = parse(new SseParser(),
+                "id: 41", "event: notifications", "data: {\"active_event\":true}", "",
+                "event: event_state", "data:{\"events\":[]}", "");
+
+        assertEquals(2, messages.size());
+        assertEquals(new EventStream.Message("41", "notifications", "{\"active_event\":true}"), messages.get(0));
+        // The last id carries forward until the server sets a new one.
+        assertEquals(new EventStream.Message("41", "event_state", "{\"events\":[]}"), messages.get(1));
+    }
+
+    @Test
+    public void dataLinesJoinWithNewlines() {
+        List<EventStream.Message> messages = parse(new SseParser(), "data: {", "data: \"a\": 1", "data: }", "");
+        assertEquals("{\n\"a\": 1\n}", messages.get(0).getData());
+        assertEquals("message", messages.get(0).getType());
+        assertNull(messages.get(0).getId());
+    }
+
+    @Test
+    public void commentsAndEmptyEventsAreSkipped() {
+        SseParser parser = new SseParser();
+        List<EventStream.Message> messages = parse(parser, ": keep-alive", "", "event: ping", "", "", "unknown: x", "");
+        assertTrue(messages.isEmpty());
+
+        // A type without data does not leak into the next event.
+        assertEquals("message", parse(parser, "data: x", "").get(0).getType());
+    }
+
+    @Test
+    public void retryIsKeptAndBadValuesIgnored() {
+        SseParser parser = new SseParser();
+        assertEquals(-1, parser.getRetryMs());
+        parse(parser, "retry: 5000", "retry: soon", "retry: -1");
+        assertEquals(5000, parser.getRetryMs());
+    }
+
+    @Test
+    public void emptyIdClearsTheResumeToken() {
+        List<EventStream.Message> messages = parse(new SseParser(), "id: 7", "data: a", "", "id", "data: b", "");
+        assertEquals("7", messages.get(0).getId());
+        assertNull(messages.get(1).getId());
+    }
+}
@@ -0,0 +1,95 @@
+package io.droptracker.events;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the delta-snapshot bookkeeping in {@link XpSnapshotTracker}: only an
+ * acknowledged upload moves the baseline, deltas never create one, and acks
+ * from before a {@code clear()} are ignored.
+ */
+public class XpSnapshotTrackerTest {
+
+    private static XpSnapshotTracker filled(int... xp) {
+        XpSnapshotTracker tracker = new XpSnapshotTracker(xp.length);
+        for (int i = 0; i < xp.length; i++) {
+            tracker.set(i, xp[i]);
+        }
+        return tracker;
+    }
+
+    @Test
+    public void everySkillIsChangedUntilFirstAck() {
+        XpSnapshotTracker tracker = filled(100, 200, 300);
+        assertTrue(tracker.isComplete());
+        assertFalse(tracker.hasBaseline());
+        assertTrue(tracker.isChanged(0));
+        assertTrue(tracker.isChanged(2));
+    }
+
+    @Test
+    public void ackedFullSnapshotBecomesBaseline() {
+        XpSnapshotTracker tracker = filled(100, 200, 300);
+        tracker.acknowledge(tracker.markSent(), true);
+
+        assertTrue(tracker.hasBaseline());
+        assertFalse(tracker.hasChanges());
+
+        tracker.set(1, 250);
+        assertTrue(tracker.hasChanges());
+        assertFalse(tracker.isChanged(0));
+        assertTrue(tracker.isChanged(1));
+        assertFalse(tracker.isChanged(2));
+    }
+
+    @Test
+    public void unacknowledgedDeltaKeepsSkillsPending() {
+        XpSnapshotTracker tracker = filled(100, 200, 300);
+        tracker.acknowledge(tracker.markSent(), true);
+
+        tracker.set(0, 150);
+        tracker.markSent(); // upload lost: never acknowledged
+        tracker.set(2, 350);
+
+        assertTrue(tracker.isChanged(0));
+        assertTrue(tracker.isChanged(2));
+    }
+
+    @Test
+    public void deltaAckCannotCreateBaseline() {
+        XpSnapshotTracker tracker = filled(100, 200);
+        tracker.acknowledge(tracker.markSent(), false);
+        assertFalse(tracker.hasBaseline());
+    }
+
+    @Test
+    public void staleAckIsIgnored() {
+        XpSnapshotTracker tracker = filled(100, 200);
+        int first = tracker.markSent();
+        tracker.set(0, 150);
+        int second = tracker.markSent();
+
+        tracker.acknowledge(second, true);
+        tracker.acknowledge(first, true); // arrives late; must not roll the baseline back
+
+        assertFalse(tracker.isChanged(0));
+        tracker.set(0, 100);
+        assertTrue(tracker.isChanged(0));
+    }
+
+    @Test
+    public void ackFromBeforeClearIsIgnored() {
+        XpSnapshotTracker tracker = filled(100, 200);
+        int sequence = tracker.markSent();
+        tracker.clear();
+
+        tracker.acknowledge(sequence, true);
+
+        assertFalse(tracker.hasBaseline());
+        assertFalse(tracker.isComplete());
+        assertEquals(XpSnapshotTracker.UNKNOWN, tracker.get(0));
+    }
+}
@@ -0,0 +1,56 @@
+package io.droptracker.modelexport;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The capture-then-export split: everything after {@link ModelCapture} must
+ * work with no client at all, since it runs on a worker thread.
+ */
+public class GlbExporterTest {
+
+    @Test
+    public void exportsFromCaptureAlone() throws Exception {
+        final byte[] glb = GlbExporter.toBytes(TestModels.grid(6, true), "player");
+
+        final ByteBuffer header = ByteBuffer.wrap(glb).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(0x46546C67, header.getInt(0));
+        assertEquals(2, header.getInt(4));
+        assertEquals(glb.length, header.getInt(8));
+    }
+
+    @Test
+    public void exportIsDeterministic() throws Exception {
+        final ModelCapture capture = TestModels.grid(5, true);
+        assertArrayEquals(GlbExporter.toBytes(capture, "player"), GlbExporter.toBytes(capture, "player"));
+    }
+
+    @Test
+    public void texturesEncodeFromCapturedPixels() {
+        final GameTextures textures = new GameTextures(TestModels.grid(2, true), new TextureCache(null));
+
+        final GameTextures.TextureData texture = textures.get(TestModels.TEXTURE_ID);
+        assertNotNull(texture);
+        assertNotNull(texture.getPng());
+        assertTrue(texture.isAnimated());
+        // Direction 1 scrolls V backwards, at speed * 50/128 per second.
+        assertEquals(-2 * 50f / 128f, texture.getScrollV(), 1e-6);
+        assertSame(texture, textures.get(TestModels.TEXTURE_ID));
+    }
+
+    @Test
+    public void textureMissingFromCaptureIsUnavailable() {
+        final GameTextures textures = new GameTextures(TestModels.grid(2, false), new TextureCache(null));
+        assertNull(textures.get(TestModels.TEXTURE_ID));
+        assertNull(textures.get(-1));
+    }
+}
@@ -0,0 +1,294 @@
+package io.droptracker.modelexport;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+import javax.imageio.ImageIO;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks a GLB against the parts of the glTF 2.0 spec we rely on, the way the
+ * Khronos validator would: container framing, buffer view bounds and
+ * alignment, accessor sizes, position bounds and index ranges, and that every
+ * embedded image decodes. Quantised attributes must come with
+ * {@code KHR_mesh_quantization} declared as required. Parsed files expose
+ * their accessors for round-trip comparisons.
+ */
+final class GlbValidator {
+    private static final int FLOAT = 5126;
+    private static final int UNSIGNED_BYTE = 5121;
+    private static final int SHORT = 5122;
+    private static final int UNSIGNED_SHORT = 5123;
+    private static final int UNSIGNED_INT = 5125;
+
+    final JsonObject json;
+    private final ByteBuffer bin;
+
+    private GlbValidator(JsonObject json, ByteBuffer bin) {
+        this.json = json;
+        this.bin = bin;
+    }
+
+    static GlbValidator validate(byte[] glb) throws IOException {
+        final ByteBuffer file = ByteBuffer.wrap(glb).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals("magic", 0x46546C67, file.getInt());
+        assertEquals("version", 2, file.getInt());
+        assertEquals("declared length", glb.length, file.getInt());
+
+        final int jsonLength = file.getInt();
+        assertEquals("first chunk is JSON", 0x4E4F534A, file.getInt());
+        assertEquals("JSON chunk alignment", 0, jsonLength % 4);
+        final String text = new String(glb, file.position(), jsonLength, StandardCharsets.UTF_8);
+        file.position(file.position() + jsonLength);
+        final JsonObject json = JsonParser.parseString(text.trim()).getAsJsonObject();
+
+        final int binLength = file.getInt();
+        assertEquals("second chunk is BIN", 0x004E4942, file.getInt());
+        assertEquals("BIN chunk alignment", 0, binLength % 4);
+        assertEquals("nothing after BIN", glb.length, file.position() + binLength);
+        final ByteBuffer bin = ByteBuffer.wrap(glb, file.position(), binLength).slice()
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        final int byteLength = json.getAsJsonArray("buffers").get(0).getAsJsonObject()
+                .get("byteLength").getAsInt();
+        assertTrue("buffer fits in BIN chunk", byteLength <= binLength && binLength - byteLength < 4);
+
+        final GlbValidator parsed = new GlbValidator(json, bin);
+        parsed.checkExtensions();
+        parsed.checkBufferViews(byteLength);
+        parsed.checkAccessors();
+        parsed.checkImages();
+        return parsed;
+    }
+
+    private void checkExtensions() {
+        final JsonArray used = json.getAsJsonArray("extensionsUsed");
+        final JsonArray required = json.getAsJsonArray("extensionsRequired");
+        if (required != null) {
+            for (JsonElement extension : required) {
+                assertTrue("required extension is used", used != null && used.contains(extension));
+            }
+        }
+        boolean quantized = false;
+        for (JsonElement element : json.getAsJsonArray("accessors")) {
+            final int type = element.getAsJsonObject().get("componentType").getAsInt();
+            quantized |= type == SHORT;
+        }
+        for (JsonElement material : json.getAsJsonArray("materials")) {
+            final JsonObject texture = material.getAsJsonObject().getAsJsonObject("pbrMetallicRoughness")
+                    .getAsJsonObject("baseColorTexture");
+            if (texture != null && texture.has("extensions")
+                    && texture.getAsJsonObject("extensions").has("KHR_texture_transform")) {
+                assertTrue("texture transform is declared",
+                        required != null && required.contains(new JsonPrimitive("KHR_texture_transform")));
+            }
+        }
+        if (quantized) {
+            assertTrue("quantized attributes need the extension",
+                    required != null && required.contains(new JsonPrimitive("KHR_mesh_quantization")));
+        }
+    }
+
+    private void checkBufferViews(int byteLength) {
+        for (JsonElement element : json.getAsJsonArray("bufferViews")) {
+            final JsonObject view = element.getAsJsonObject();
+            final int offset = view.get("byteOffset").getAsInt();
+            final int length = view.get("byteLength").getAsInt();
+            assertEquals("buffer view alignment", 0, offset % 4);
+            assertTrue("buffer view in bounds", offset >= 0 && offset + length <= byteLength);
+            if (view.has("byteStride")) {
+                assertEquals("vertex stride alignment", 0, view.get("byteStride").getAsInt() % 4);
+            }
+        }
+    }
+
+    private void checkAccessors() {
+        final JsonArray accessors = json.getAsJsonArray("accessors");
+        int vertexCount = -1;
+        for (JsonElement element : json.getAsJsonArray("meshes").get(0).getAsJsonObject()
+                .getAsJsonArray("primitives")) {
+            final JsonObject primitive = element.getAsJsonObject();
+            final JsonObject attributes = primitive.getAsJsonObject("attributes");
+            final int position = attributes.get("POSITION").getAsInt();
+            vertexCount = accessors.get(position).getAsJsonObject().get("count").getAsInt();
+            for (String name : attributes.keySet()) {
+                assertEquals(name + " count", vertexCount,
+                        accessors.get(attributes.get(name).getAsInt()).getAsJsonObject().get("count").getAsInt());
+            }
+            checkPositionBounds(position);
+
+            final int[] indices = readIndices(primitive.get("indices").getAsInt());
+            assertEquals("triangles", 0, indices.length % 3);
+            for (int index : indices) {
+                assertTrue("index below vertex count", index >= 0 && index < vertexCount);
+            }
+        }
+
+        for (int i = 0; i < accessors.size(); i++) {
+            final JsonObject accessor = accessors.get(i).getAsJsonObject();
+            final JsonObject view = bufferView(accessor);
+            final int element = components(accessor.get("type").getAsString())
+                    * componentSize(accessor.get("componentType").getAsInt());
+            final int needed = (accessor.get("count").getAsInt() - 1) * stride(accessor) + element;
+            final int offset = accessor.has("byteOffset") ? accessor.get("byteOffset").getAsInt() : 0;
+            assertTrue("accessor " + i + " fits its buffer view",
+                    offset + needed <= view.get("byteLength").getAsInt());
+        }
+    }
+
+    private void checkPositionBounds(int accessorIndex) {
+        final JsonObject accessor = json.getAsJsonArray("accessors").get(accessorIndex).getAsJsonObject();
+        final float[] positions = readFloats(accessorIndex);
+        final JsonArray min = accessor.getAsJsonArray("min");
+        final JsonArray max = accessor.getAsJsonArray("max");
+        for (int axis = 0; axis < 3; axis++) {
+            float lo = Float.POSITIVE_INFINITY;
+            float hi = Float.NEGATIVE_INFINITY;
+            for (int i = axis; i < positions.length; i += 3) {
+                lo = Math.min(lo, positions[i]);
+                hi = Math.max(hi, positions[i]);
+            }
+            assertEquals("min " + axis, lo, min.get(axis).getAsFloat(), 0f);
+            assertEquals("max " + axis, hi, max.get(axis).getAsFloat(), 0f);
+        }
+    }
+
+    private void checkImages() throws IOException {
+        final JsonArray images = json.getAsJsonArray("images");
+        if (images == null) {
+            return;
+        }
+        for (JsonElement element : images) {
+            final JsonObject image = element.getAsJsonObject();
+            assertEquals("image/png", image.get("mimeType").getAsString());
+            final JsonObject view = json.getAsJsonArray("bufferViews").get(image.get("bufferView").getAsInt())
+                    .getAsJsonObject();
+            final byte[] png = new byte[view.get("byteLength").getAsInt()];
+            final ByteBuffer data = bin.duplicate();
+            data.position(view.get("byteOffset").getAsInt());
+            data.get(png);
+            assertNotNull("image decodes", ImageIO.read(new ByteArrayInputStream(png)));
+        }
+    }
+
+    /**
+     * An attribute's components as floats, whatever their storage: normalised
+     * integers are scaled to their unit range, others converted as is.
+     */
+    float[] readFloats(int accessorIndex) {
+        final JsonObject accessor = json.getAsJsonArray("accessors").get(accessorIndex).getAsJsonObject();
+        final int components = components(accessor.get("type").getAsString());
+        final int type = accessor.get("componentType").getAsInt();
+        final boolean normalized = accessor.has("normalized") && accessor.get("normalized").getAsBoolean();
+        final int count = accessor.get("count").getAsInt();
+        final int stride = stride(accessor);
+        final float[] values = new float[count * components];
+        final ByteBuffer data = bin.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < count; i++) {
+            int at = start(accessor) + i * stride;
+            for (int c = 0; c < components; c++) {
+                final float value;
+                switch (type) {
+                    case FLOAT:
+                        value = data.getFloat(at);
+                        break;
+                    case SHORT:
+                        value = normalized ? Math.max(data.getShort(at) / 32767f, -1f) : data.getShort(at);
+                        break;
+                    case UNSIGNED_SHORT:
+                        value = normalized ? (data.getShort(at) & 0xffff) / 65535f : data.getShort(at) & 0xffff;
+                        break;
+                    case UNSIGNED_BYTE:
+                        value = normalized ? (data.get(at) & 0xff) / 255f : data.get(at) & 0xff;
+                        break;
+                    default:
+                        throw new AssertionError("unexpected component type " + type);
+                }
+                values[i * components + c] = value;
+                at += componentSize(type);
+            }
+        }
+        return values;
+    }
+
+    byte[] readBytes(int accessorIndex) {
+        final JsonObject accessor = json.getAsJsonArray("accessors").get(accessorIndex).getAsJsonObject();
+        assertEquals(UNSIGNED_BYTE, accessor.get("componentType").getAsInt());
+        final byte[] values = new byte[accessor.get("count").getAsInt() * components(accessor.get("type").getAsString())];
+        final ByteBuffer data = bin.duplicate();
+        data.position(start(accessor));
+        data.get(values);
+        return values;
+    }
+
+    int[] readIndices(int accessorIndex) {
+        final JsonObject accessor = json.getAsJsonArray("accessors").get(accessorIndex).getAsJsonObject();
+        final int count = accessor.get("count").getAsInt();
+        final ByteBuffer data = bin.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        data.position(start(accessor));
+        final int[] values = new int[count];
+        final int type = accessor.get("componentType").getAsInt();
+        for (int i = 0; i < count; i++) {
+            values[i] = type == UNSIGNED_INT ? data.getInt() : data.getShort() & 0xffff;
+        }
+        return values;
+    }
+
+    private int stride(JsonObject accessor) {
+        final JsonObject view = bufferView(accessor);
+        if (view.has("byteStride")) {
+            return view.get("byteStride").getAsInt();
+        }
+        return components(accessor.get("type").getAsString()) * componentSize(accessor.get("componentType").getAsInt());
+    }
+
+    private int start(JsonObject accessor) {
+        final int offset = accessor.has("byteOffset") ? accessor.get("byteOffset").getAsInt() : 0;
+        return bufferView(accessor).get("byteOffset").getAsInt() + offset;
+    }
+
+    private JsonObject bufferView(JsonObject accessor) {
+        return json.getAsJsonArray("bufferViews").get(accessor.get("bufferView").getAsInt()).getAsJsonObject();
+    }
+
+    private static int components(String type) {
+        switch (type) {
+            case "SCALAR":
+                return 1;
+            case "VEC2":
+                return 2;
+            case "VEC3":
+                return 3;
+            case "VEC4":
+                return 4;
+            default:
+                throw new AssertionError("unexpected accessor type " + type);
+        }
+    }
+
+    private static int componentSize(int componentType) {
+        switch (componentType) {
+            case UNSIGNED_BYTE:
+                return 1;
+            case SHORT:
+            case UNSIGNED_SHORT:
+                return 2;
+            case UNSIGNED_INT:
+            case FLOAT:
+                return 4;
+            default:
+                throw new AssertionError("unexpected component type " + componentType);
+        }
+    }
+}
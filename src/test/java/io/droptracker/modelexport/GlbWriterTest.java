@@ -0,0 +1,207 @@
+package io.droptracker.modelexport;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Every way of writing a {@link GlbWriter.Glb} must produce the same valid
+ * file, and that file must decode back to the mesh it was written from -
+ * exactly, or within the quantisation step when quantised.
+ */
+public class GlbWriterTest {
+
+    private static GlbWriter.Glb prepare(ModelCapture capture) throws Exception {
+        return GlbExporter.prepare(capture, "player", new TextureCache(null));
+    }
+
+    private static GlbWriter.Options compact() {
+        return new GlbWriter.Options().modelName("player").quantize().atlasTextures();
+    }
+
+    private static JsonObject primitive(GlbValidator glb, int index) {
+        return glb.json.getAsJsonArray("meshes").get(0).getAsJsonObject()
+                .getAsJsonArray("primitives").get(index).getAsJsonObject();
+    }
+
+    @Test
+    public void roundTripsThroughValidator() throws Exception {
+        final ModelCapture capture = TestModels.grid(8, true);
+        final MeshData mesh = ModelMeshBuilder.build(capture);
+        final GlbValidator glb = GlbValidator.validate(prepare(capture).toByteArray());
+
+        final JsonObject primitive = glb.json.getAsJsonArray("meshes").get(0).getAsJsonObject()
+                .getAsJsonArray("primitives").get(0).getAsJsonObject();
+        final JsonObject attributes = primitive.getAsJsonObject("attributes");
+        assertArrayEquals(mesh.getPositions(), glb.readFloats(attributes.get("POSITION").getAsInt()), 0f);
+        assertArrayEquals(mesh.getColors(), glb.readBytes(attributes.get("COLOR_0").getAsInt()));
+        assertArrayEquals(mesh.getPriorities(), glb.readFloats(attributes.get("_PRIORITY").getAsInt()), 0f);
+
+        int primitiveIndex = 0;
+        for (MeshData.Primitive expected : mesh.getPrimitives()) {
+            final int accessor = glb.json.getAsJsonArray("meshes").get(0).getAsJsonObject()
+                    .getAsJsonArray("primitives").get(primitiveIndex++).getAsJsonObject()
+                    .get("indices").getAsInt();
+            assertArrayEquals(Arrays.copyOfRange(mesh.getIndices(), expected.getIndexOffset(),
+                    expected.getIndexOffset() + expected.getIndexCount()), glb.readIndices(accessor));
+        }
+        assertEquals(mesh.getPrimitives().size(), primitiveIndex);
+    }
+
+    @Test
+    public void wideIndicesRoundTrip() throws Exception {
+        // Per face colours leave few corners to merge: well past 65535 vertices.
+        final ModelCapture capture = TestModels.grid(150, false);
+        final MeshData mesh = ModelMeshBuilder.build(capture);
+        assertTrue(mesh.getVertexCount() > 65535);
+
+        final GlbValidator glb = GlbValidator.validate(prepare(capture).toByteArray());
+        final int accessor = glb.json.getAsJsonArray("meshes").get(0).getAsJsonObject()
+                .getAsJsonArray("primitives").get(0).getAsJsonObject().get("indices").getAsInt();
+        final MeshData.Primitive first = mesh.getPrimitives().get(0);
+        assertArrayEquals(Arrays.copyOfRange(mesh.getIndices(), first.getIndexOffset(),
+                first.getIndexOffset() + first.getIndexCount()), glb.readIndices(accessor));
+    }
+
+    @Test
+    public void everyOutputIsIdentical() throws Exception {
+        final GlbWriter.Glb glb = prepare(TestModels.grid(40, true));
+        final byte[] array = glb.toByteArray();
+        assertEquals(glb.length(), array.length);
+
+        final ByteBuffer direct = ByteBuffer.allocateDirect(glb.length() + 3);
+        direct.position(3);
+        glb.writeTo(direct);
+        assertFalse(direct.hasRemaining());
+        final byte[] fromDirect = new byte[glb.length()];
+        direct.position(3);
+        direct.get(fromDirect);
+        assertArrayEquals(array, fromDirect);
+
+        final ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        glb.writeTo(streamed);
+        assertArrayEquals(array, streamed.toByteArray());
+
+        // Written twice, as OkHttp does when it retries a request.
+        assertArrayEquals(array, glb.toByteArray());
+    }
+
+    @Test
+    public void streamingWritesInBoundedChunks() throws Exception {
+        final GlbWriter.Glb glb = prepare(TestModels.grid(120, true));
+        final int[] largestWrite = {0};
+        final ByteArrayOutputStream received = new ByteArrayOutputStream();
+        glb.writeTo(new OutputStream() {
+            @Override
+            public void write(int b) {
+                received.write(b);
+                largestWrite[0] = Math.max(largestWrite[0], 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                received.write(b, off, len);
+                largestWrite[0] = Math.max(largestWrite[0], len);
+            }
+        });
+
+        assertTrue(glb.length() > 64 * 1024);
+        assertTrue(largestWrite[0] <= 64 * 1024);
+        assertArrayEquals(glb.toByteArray(), received.toByteArray());
+    }
+
+    @Test
+    public void quantizedPositionsStayWithinHalfAStep() throws Exception {
+        final ModelCapture capture = TestModels.grid(40, true);
+        final MeshData mesh = ModelMeshBuilder.build(capture);
+        final GlbValidator glb = GlbValidator.validate(
+                GlbExporter.toBytes(capture, new GlbWriter.Options().quantize(), new TextureCache(null)));
+
+        final JsonObject node = glb.json.getAsJsonArray("nodes").get(0).getAsJsonObject();
+        final JsonArray translation = node.getAsJsonArray("translation");
+        final float scale = node.getAsJsonArray("scale").get(0).getAsFloat();
+        final float[] quantized = glb.readFloats(primitive(glb, 0).getAsJsonObject("attributes")
+                .get("POSITION").getAsInt());
+
+        float extent = 0f;
+        for (int axis = 0; axis < 3; axis++) {
+            extent = Math.max(extent, mesh.getMax()[axis] - mesh.getMin()[axis]);
+        }
+        // In metres: half of one 65534th of the longest axis, plus float slack.
+        final float tolerance = extent / 65534f / 2f / 128f + 1e-6f;
+        final float[] positions = mesh.getPositions();
+        for (int i = 0; i < positions.length; i++) {
+            final float decoded = translation.get(i % 3).getAsFloat() + scale * quantized[i];
+            assertEquals(positions[i] / 128f, decoded, tolerance);
+        }
+    }
+
+    @Test
+    public void quantizedUvsStayWithinOneUnit() throws Exception {
+        final ModelCapture capture = TestModels.patchwork(6, 4, false);
+        final MeshData mesh = ModelMeshBuilder.build(capture);
+        final GlbValidator glb = GlbValidator.validate(
+                GlbExporter.toBytes(capture, new GlbWriter.Options().quantize(), new TextureCache(null)));
+
+        final float[] uvs = glb.readFloats(primitive(glb, 0).getAsJsonObject("attributes")
+                .get("TEXCOORD_0").getAsInt());
+        assertArrayEquals(mesh.getUvs(), uvs, 1f / 65535f);
+    }
+
+    @Test
+    public void repeatingUvsRoundTripThroughTextureTransform() throws Exception {
+        // grid() maps its texture from one corner, so UVs run well past 1.
+        final ModelCapture capture = TestModels.grid(6, true);
+        final MeshData mesh = ModelMeshBuilder.build(capture);
+        final GlbValidator glb = GlbValidator.validate(
+                GlbExporter.toBytes(capture, new GlbWriter.Options().quantize(), new TextureCache(null)));
+
+        int texturedPrimitive = 0;
+        while (!primitive(glb, texturedPrimitive).getAsJsonObject("attributes").has("TEXCOORD_0")) {
+            texturedPrimitive++;
+        }
+        final JsonObject textured = primitive(glb, texturedPrimitive);
+        final JsonObject transform = glb.json.getAsJsonArray("materials")
+                .get(textured.get("material").getAsInt()).getAsJsonObject()
+                .getAsJsonObject("pbrMetallicRoughness").getAsJsonObject("baseColorTexture")
+                .getAsJsonObject("extensions").getAsJsonObject("KHR_texture_transform");
+        final JsonArray offset = transform.getAsJsonArray("offset");
+        final JsonArray scale = transform.getAsJsonArray("scale");
+        final float[] quantized = glb.readFloats(textured.getAsJsonObject("attributes")
+                .get("TEXCOORD_0").getAsInt());
+
+        final float[] uvs = mesh.getUvs();
+        for (int i = 0; i < uvs.length; i++) {
+            final float halfExtent = scale.get(i % 2).getAsFloat();
+            final float decoded = offset.get(i % 2).getAsFloat() + halfExtent * quantized[i];
+            assertEquals(uvs[i], decoded, halfExtent / 32767f + 1e-5f);
+        }
+    }
+
+    @Test
+    public void compactUploadIsSubstantiallySmaller() throws Exception {
+        final ModelCapture character = TestModels.grid(40, true);
+        final int full = prepare(character).length();
+        final int compact = GlbExporter.prepare(character, compact(), new TextureCache(null)).length();
+        assertTrue("compact " + compact + " vs full " + full, compact < full * 0.8);
+
+        final ModelCapture outfit = TestModels.patchwork(10, 4, false);
+        final GlbValidator fullOutfit = GlbValidator.validate(prepare(outfit).toByteArray());
+        final byte[] compactBytes = GlbExporter.toBytes(outfit, compact(), new TextureCache(null));
+        final GlbValidator compactOutfit = GlbValidator.validate(compactBytes);
+        assertEquals(4, fullOutfit.json.getAsJsonArray("images").size());
+        assertEquals(1, compactOutfit.json.getAsJsonArray("images").size());
+        assertEquals(2, compactOutfit.json.getAsJsonArray("materials").size());
+        assertTrue(compactBytes.length < prepare(outfit).length() * 0.8);
+    }
+}
@@ -0,0 +1,269 @@
+package io.droptracker.modelexport;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * What {@link ModelMeshBuilder} must produce from a capture: one triangle per
+ * drawn face, hidden and invisible faces left out, alpha taken from face
+ * transparency, and no two vertices alike - and exactly the mesh
+ * {@link ReferenceModelMeshBuilder} builds from the same capture.
+ */
+public class ModelMeshBuilderTest {
+
+    /** Faces of {@code model} the game would draw: not hidden and not fully transparent. */
+    private static List<Integer> drawnFaces(ModelCapture model) {
+        final List<Integer> drawn = new ArrayList<>();
+        for (int face = 0; face < model.getFaceCount(); face++) {
+            if (model.getFaceColors3()[face] != -2 && (model.getFaceTransparencies()[face] & 0xff) != 255) {
+                drawn.add(face);
+            }
+        }
+        return drawn;
+    }
+
+    @Test
+    public void hiddenAndInvisibleFacesAreSkipped() {
+        for (ModelCapture model : new ModelCapture[]{TestModels.grid(6, false), TestModels.grid(6, true)}) {
+            final int drawn = drawnFaces(model).size();
+            assertTrue("fixture should hide some faces", drawn < model.getFaceCount());
+
+            final MeshData mesh = ModelMeshBuilder.build(model);
+
+            assertEquals(3 * drawn, mesh.getIndices().length);
+            int offset = 0;
+            for (MeshData.Primitive primitive : mesh.getPrimitives()) {
+                assertEquals(offset, primitive.getIndexOffset());
+                offset += primitive.getIndexCount();
+            }
+            assertEquals(mesh.getIndices().length, offset);
+            for (int index : mesh.getIndices()) {
+                assertTrue(index >= 0 && index < mesh.getVertexCount());
+            }
+        }
+    }
+
+    @Test
+    public void alphaFollowsFaceTransparency() {
+        final MeshData mesh = ModelMeshBuilder.build(TestModels.grid(6, true));
+        final byte[] colors = mesh.getColors();
+
+        boolean sawTranslucent = false;
+        for (MeshData.Primitive primitive : mesh.getPrimitives()) {
+            sawTranslucent |= primitive.isTranslucent();
+            for (int i = primitive.getIndexOffset(); i < primitive.getIndexOffset() + primitive.getIndexCount(); i++) {
+                final int alpha = colors[mesh.getIndices()[i] * 4 + 3] & 0xff;
+                // The fixture's translucent faces have transparency 128.
+                assertEquals(primitive.isTranslucent() ? 127 : 255, alpha);
+            }
+        }
+        assertTrue(sawTranslucent);
+    }
+
+    @Test
+    public void noTwoVerticesAreAlike() {
+        final MeshData mesh = ModelMeshBuilder.build(TestModels.grid(10, true));
+        final Set<String> seen = new HashSet<>();
+        for (int vertex = 0; vertex < mesh.getVertexCount(); vertex++) {
+            final String attributes = Arrays.toString(Arrays.copyOfRange(mesh.getPositions(), vertex * 3, vertex * 3 + 3))
+                    + Arrays.toString(Arrays.copyOfRange(mesh.getColors(), vertex * 4, vertex * 4 + 4))
+                    + Arrays.toString(Arrays.copyOfRange(mesh.getUvs(), vertex * 2, vertex * 2 + 2))
+                    + mesh.getPriorities()[vertex];
+            assertTrue("duplicate vertex " + attributes, seen.add(attributes));
+        }
+    }
+
+    @Test
+    public void cornersKeepTheirFaceOrderAndTurnYUp() {
+        final ModelCapture model = TestModels.grid(6, false);
+        final MeshData mesh = ModelMeshBuilder.build(model);
+        final MeshData.Primitive opaque = mesh.getPrimitives().get(0);
+        assertFalse(opaque.isTranslucent());
+
+        // The first drawn opaque face leads the first primitive, corners in model order.
+        int face = -1;
+        for (int candidate : drawnFaces(model)) {
+            if (model.getFaceTransparencies()[candidate] == 0) {
+                face = candidate;
+                break;
+            }
+        }
+        final int[] corners = {model.getFaceIndices1()[face], model.getFaceIndices2()[face],
+                model.getFaceIndices3()[face]};
+        for (int corner = 0; corner < 3; corner++) {
+            final int vertex = mesh.getIndices()[opaque.getIndexOffset() + corner];
+            assertEquals(model.getVerticesX()[corners[corner]], mesh.getPositions()[vertex * 3], 0f);
+            assertEquals(-model.getVerticesY()[corners[corner]], mesh.getPositions()[vertex * 3 + 1], 0f);
+            assertEquals(-model.getVerticesZ()[corners[corner]], mesh.getPositions()[vertex * 3 + 2], 0f);
+        }
+    }
+
+    @Test
+    public void primitivesAreOrderedByTextureThenTranslucency() {
+        final MeshData mesh = ModelMeshBuilder.build(TestModels.grid(10, true));
+
+        int previousTexture = Integer.MIN_VALUE;
+        boolean previousTranslucent = false;
+        for (MeshData.Primitive primitive : mesh.getPrimitives()) {
+            if (primitive.getTextureId() == previousTexture) {
+                assertTrue("opaque must precede translucent", primitive.isTranslucent() && !previousTranslucent);
+            } else {
+                assertTrue(primitive.getTextureId() > previousTexture);
+            }
+            previousTexture = primitive.getTextureId();
+            previousTranslucent = primitive.isTranslucent();
+        }
+        assertEquals(4, mesh.getPrimitives().size());
+    }
+
+    @Test
+    public void identicalCornersAreMerged() {
+        // Two flat shaded faces of one colour sharing an edge: four vertices, six indices.
+        final ModelCapture quad = new ModelCapture(1, 2,
+                new float[]{0, 32, 0, 32}, new float[]{0, 0, 0, 0}, new float[]{0, 0, 32, 32},
+                new int[]{0, 1}, new int[]{2, 2}, new int[]{1, 3},
+                new int[]{500, 500}, new int[]{0, 0}, new int[]{-1, -1},
+                null, null, null, null, null, null, null, Collections.emptyMap());
+
+        final MeshData mesh = ModelMeshBuilder.build(quad);
+
+        assertEquals(4, mesh.getVertexCount());
+        assertEquals(6, mesh.getIndices().length);
+        assertFalse(mesh.getPrimitives().get(0).isTranslucent());
+    }
+
+    @Test
+    public void fixturesBuildAsTheReferenceBuilderDoes() {
+        final ModelCapture[] fixtures = {
+                TestModels.grid(6, false), TestModels.grid(10, true),
+                TestModels.patchwork(8, 3, false), TestModels.patchwork(15, 5, true),
+        };
+        for (ModelCapture model : fixtures) {
+            assertSameMesh(ReferenceModelMeshBuilder.build(model), ModelMeshBuilder.build(model));
+        }
+    }
+
+    @Test
+    public void randomModelsBuildAsTheReferenceBuilderDoes() {
+        final Random random = new Random(32);
+        for (int i = 0; i < 300; i++) {
+            final ModelCapture model = randomModel(random);
+            assertSameMesh(ReferenceModelMeshBuilder.build(model), ModelMeshBuilder.build(model));
+        }
+    }
+
+    /**
+     * A model with every optional array present or not at random. Vertices sit
+     * on a small lattice and colours come from a short list, so plenty of
+     * corners merge; faces mix hidden, flat, invisible, translucent and
+     * textured.
+     */
+    private static ModelCapture randomModel(Random random) {
+        final int vertexCount = 3 + random.nextInt(60);
+        final float[] x = new float[vertexCount];
+        final float[] y = new float[vertexCount];
+        final float[] z = new float[vertexCount];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            x[vertex] = random.nextInt(5) * 32;
+            y[vertex] = -random.nextInt(5) * 16;
+            z[vertex] = random.nextInt(5) * 32;
+        }
+
+        final boolean textured = random.nextBoolean();
+        final boolean prioritised = random.nextBoolean();
+        final boolean transparent = random.nextBoolean();
+        final int texTriangles = 1 + random.nextInt(4);
+        final int[] colors = {0, 500, 7000, 33000, 65535};
+
+        final int faceCount = random.nextInt(200);
+        final int[] a = new int[faceCount];
+        final int[] b = new int[faceCount];
+        final int[] c = new int[faceCount];
+        final int[] colors1 = new int[faceCount];
+        final int[] colors2 = new int[faceCount];
+        final int[] colors3 = new int[faceCount];
+        final short[] faceTextures = textured ? new short[faceCount] : null;
+        final byte[] transparencies = transparent ? new byte[faceCount] : null;
+        final byte[] priorities = prioritised ? new byte[faceCount] : null;
+        final byte[] textureFaces = textured ? new byte[faceCount] : null;
+        for (int face = 0; face < faceCount; face++) {
+            a[face] = random.nextInt(vertexCount);
+            b[face] = random.nextInt(vertexCount);
+            c[face] = random.nextInt(vertexCount);
+            colors1[face] = colors[random.nextInt(colors.length)];
+            colors2[face] = colors[random.nextInt(colors.length)];
+            final int kind = random.nextInt(10);
+            colors3[face] = kind == 0 ? -2 : kind < 4 ? -1 : colors[random.nextInt(colors.length)];
+            if (textured) {
+                faceTextures[face] = (short) (random.nextInt(3) == 0 ? -1 : TestModels.TEXTURE_ID + random.nextInt(3));
+                textureFaces[face] = (byte) (random.nextInt(4) == 0 ? -1 : random.nextInt(texTriangles));
+            }
+            if (transparent) {
+                transparencies[face] = (byte) new int[]{0, 0, 0, 128, 200, 255}[random.nextInt(6)];
+            }
+            if (prioritised) {
+                priorities[face] = (byte) random.nextInt(12);
+            }
+        }
+
+        final int[] texA = new int[texTriangles];
+        final int[] texB = new int[texTriangles];
+        final int[] texC = new int[texTriangles];
+        for (int triangle = 0; triangle < texTriangles; triangle++) {
+            // Any three vertices, so some texture triangles are degenerate.
+            texA[triangle] = random.nextInt(vertexCount);
+            texB[triangle] = random.nextInt(vertexCount);
+            texC[triangle] = random.nextInt(vertexCount);
+        }
+
+        return new ModelCapture(TestModels.REVISION, faceCount, x, y, z, a, b, c, colors1, colors2, colors3,
+                faceTextures, transparencies, priorities, textureFaces, texA, texB, texC, Collections.emptyMap());
+    }
+
+    /**
+     * Compares every attribute bit for bit. Floats go through their raw bits
+     * so that NaN UVs from a degenerate texture triangle still have to agree.
+     */
+    private static void assertSameMesh(MeshData expected, MeshData actual) {
+        assertArrayEquals("positions", bits(expected.getPositions()), bits(actual.getPositions()));
+        assertArrayEquals("colors", expected.getColors(), actual.getColors());
+        assertArrayEquals("uvs", bits(expected.getUvs()), bits(actual.getUvs()));
+        assertArrayEquals("priorities", bits(expected.getPriorities()), bits(actual.getPriorities()));
+        assertArrayEquals("indices", expected.getIndices(), actual.getIndices());
+        assertArrayEquals("min", bits(expected.getMin()), bits(actual.getMin()));
+        assertArrayEquals("max", bits(expected.getMax()), bits(actual.getMax()));
+
+        assertEquals("primitives", expected.getPrimitives().size(), actual.getPrimitives().size());
+        for (int i = 0; i < expected.getPrimitives().size(); i++) {
+            final MeshData.Primitive want = expected.getPrimitives().get(i);
+            final MeshData.Primitive got = actual.getPrimitives().get(i);
+            assertEquals(want.getTextureId(), got.getTextureId());
+            assertEquals(want.getIndexOffset(), got.getIndexOffset());
+            assertEquals(want.getIndexCount(), got.getIndexCount());
+            assertEquals(want.isTranslucent(), got.isTranslucent());
+        }
+    }
+
+    private static int[] bits(float[] values) {
+        if (values == null) {
+            return null;
+        }
+        final int[] bits = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bits[i] = Float.floatToRawIntBits(values[i]);
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,180 @@
+package io.droptracker.modelexport;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Synthetic {@link ModelCapture}s for exercising the export pipeline without a
+ * client.
+ */
+final class TestModels {
+    static final int TEXTURE_ID = 40;
+    static final int TEXTURE_SIZE = 16;
+    static final int REVISION = 230;
+
+    private TestModels() {
+    }
+
+    /**
+     * A grid of {@code cells x cells} quads, two faces each, with shared corner
+     * vertices. When textured, every third face uses {@link #TEXTURE_ID} and
+     * every fifth is half transparent, so the mesh has several primitives. A
+     * few faces are hidden or fully transparent and must be skipped.
+     */
+    static ModelCapture grid(int cells, boolean textured) {
+        final int side = cells + 1;
+        final int vertexCount = side * side;
+        final float[] x = new float[vertexCount];
+        final float[] y = new float[vertexCount];
+        final float[] z = new float[vertexCount];
+        for (int row = 0; row < side; row++) {
+            for (int col = 0; col < side; col++) {
+                final int vertex = row * side + col;
+                x[vertex] = col * 32;
+                y[vertex] = -((row * 7 + col * 3) % 11) * 4;
+                z[vertex] = row * 32;
+            }
+        }
+
+        final int faceCount = cells * cells * 2;
+        final int[] a = new int[faceCount];
+        final int[] b = new int[faceCount];
+        final int[] c = new int[faceCount];
+        final int[] colors1 = new int[faceCount];
+        final int[] colors2 = new int[faceCount];
+        final int[] colors3 = new int[faceCount];
+        final short[] faceTextures = textured ? new short[faceCount] : null;
+        final byte[] transparencies = new byte[faceCount];
+        final byte[] priorities = new byte[faceCount];
+        final byte[] textureFaces = textured ? new byte[faceCount] : null;
+
+        int face = 0;
+        for (int row = 0; row < cells; row++) {
+            for (int col = 0; col < cells; col++) {
+                final int topLeft = row * side + col;
+                final int[][] triangles = {
+                        {topLeft, topLeft + side, topLeft + 1},
+                        {topLeft + 1, topLeft + side, topLeft + side + 1},
+                };
+                for (int[] triangle : triangles) {
+                    a[face] = triangle[0];
+                    b[face] = triangle[1];
+                    c[face] = triangle[2];
+                    final boolean usesTexture = textured && face % 3 == 0;
+                    if (usesTexture) {
+                        faceTextures[face] = TEXTURE_ID;
+                        textureFaces[face] = 0;
+                        colors1[face] = 90;
+                        colors2[face] = 100;
+                        colors3[face] = 110;
+                    } else {
+                        if (faceTextures != null) {
+                            faceTextures[face] = -1;
+                            textureFaces[face] = -1;
+                        }
+                        colors1[face] = (face * 977) & 0xffff;
+                        // Every fourth face flat shaded, to keep hard edges in play.
+                        colors2[face] = (face * 131) & 0xffff;
+                        colors3[face] = face % 4 == 0 ? -1 : (face * 59) & 0xffff;
+                        if (face % 13 == 0) {
+                            colors3[face] = -2; // hidden
+                        }
+                    }
+                    transparencies[face] = (byte) (face % 17 == 0 ? 255 : face % 5 == 0 ? 128 : 0);
+                    priorities[face] = (byte) (face % 3);
+                    face++;
+                }
+            }
+        }
+
+        final Map<Integer, ModelCapture.RawTexture> textures = new HashMap<>();
+        if (textured) {
+            textures.put(TEXTURE_ID, new ModelCapture.RawTexture(texturePixels(), 1, 2));
+        }
+        return new ModelCapture(REVISION, faceCount, x, y, z, a, b, c, colors1, colors2, colors3,
+                faceTextures, transparencies, priorities, textureFaces,
+                textured ? new int[]{0} : null,
+                textured ? new int[]{1} : null,
+                textured ? new int[]{side} : null,
+                textures);
+    }
+
+    /**
+     * A flat grid of {@code cells x cells} quads cycling through
+     * {@code textureCount} textures from {@link #TEXTURE_ID} up, each quad
+     * mapped once across its texture, so every UV is within 0..1. Every
+     * seventh quad is half transparent. With {@code firstRepeats}, the first
+     * texture is mapped from the grid's corner instead and repeats across the
+     * model, as game textures often do. At most 15 cells a side.
+     */
+    static ModelCapture patchwork(int cells, int textureCount, boolean firstRepeats) {
+        final int side = cells + 1;
+        final int vertexCount = side * side;
+        final float[] x = new float[vertexCount];
+        final float[] y = new float[vertexCount];
+        final float[] z = new float[vertexCount];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            x[vertex] = (vertex % side) * 32;
+            z[vertex] = (vertex / side) * 32;
+        }
+
+        final int faceCount = cells * cells * 2;
+        final int[] a = new int[faceCount];
+        final int[] b = new int[faceCount];
+        final int[] c = new int[faceCount];
+        final int[] lightness = new int[faceCount];
+        final short[] faceTextures = new short[faceCount];
+        final byte[] transparencies = new byte[faceCount];
+        final byte[] textureFaces = new byte[faceCount];
+        final int[] texA = new int[cells * cells];
+        final int[] texB = new int[cells * cells];
+        final int[] texC = new int[cells * cells];
+
+        int face = 0;
+        for (int cell = 0; cell < cells * cells; cell++) {
+            final int topLeft = (cell / cells) * side + cell % cells;
+            texA[cell] = topLeft;
+            texB[cell] = topLeft + 1;
+            texC[cell] = topLeft + side;
+            final int texture = cell % textureCount;
+            final int[][] triangles = {
+                    {topLeft, topLeft + side, topLeft + 1},
+                    {topLeft + 1, topLeft + side, topLeft + side + 1},
+            };
+            for (int[] triangle : triangles) {
+                a[face] = triangle[0];
+                b[face] = triangle[1];
+                c[face] = triangle[2];
+                lightness[face] = 100;
+                faceTextures[face] = (short) (TEXTURE_ID + texture);
+                textureFaces[face] = (byte) (firstRepeats && texture == 0 ? 0 : cell);
+                transparencies[face] = (byte) (cell % 7 == 3 ? 128 : 0);
+                face++;
+            }
+        }
+
+        final Map<Integer, ModelCapture.RawTexture> textures = new HashMap<>();
+        for (int texture = 0; texture < textureCount; texture++) {
+            final int[] pixels = texturePixels();
+            for (int i = 0; i < pixels.length; i++) {
+                if (pixels[i] != 0) {
+                    pixels[i] ^= texture * 0x1f0700 + i;
+                }
+            }
+            textures.put(TEXTURE_ID + texture, new ModelCapture.RawTexture(pixels, 0, 0));
+        }
+        return new ModelCapture(REVISION, faceCount, x, y, z, a, b, c, lightness, lightness, lightness,
+                faceTextures, transparencies, new byte[faceCount], textureFaces, texA, texB, texC, textures);
+    }
+
+    /** A checkerboard with a transparent corner, so encoding has something to do. */
+    static int[] texturePixels() {
+        final int[] pixels = new int[TEXTURE_SIZE * TEXTURE_SIZE];
+        for (int i = 0; i < pixels.length; i++) {
+            final int row = i / TEXTURE_SIZE;
+            final int col = i % TEXTURE_SIZE;
+            pixels[i] = row < 2 && col < 2 ? 0 : ((row + col) % 2 == 0 ? 0xc04020 : 0x2040c0);
+        }
+        return pixels;
+    }
+}
@@ -0,0 +1,109 @@
+package io.droptracker.modelexport;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link TextureAtlas} must sample exactly what the original textures did,
+ * merge what it packs into as few primitives as translucency allows, and
+ * leave alone what it cannot pack.
+ */
+public class TextureAtlasTest {
+
+    @Test
+    public void atlasSamplesMatchTheOriginalTextures() {
+        final ModelCapture capture = TestModels.patchwork(6, 4, false);
+        final TextureAtlas atlas = TextureAtlas.pack(ModelMeshBuilder.build(capture), capture);
+        assertNotNull(atlas);
+        assertNotNull(atlas.getTexture().getPng());
+
+        final int size = TestModels.TEXTURE_SIZE;
+        for (int texture = 0; texture < 4; texture++) {
+            final int id = TestModels.TEXTURE_ID + texture;
+            final int[] source = capture.getTextures().get(id).getPixels();
+            for (int y = 0; y < size; y++) {
+                for (int x = 0; x < size; x++) {
+                    final float[] uv = atlas.map(id, (x + 0.5f) / size, (y + 0.5f) / size);
+                    final int atlasX = (int) (uv[0] * atlas.getWidth());
+                    final int atlasY = (int) (uv[1] * atlas.getHeight());
+                    assertEquals(source[y * size + x], atlas.getPixels()[atlasY * atlas.getWidth() + atlasX]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void packedTexturesShareOnePrimitivePerTranslucency() {
+        final ModelCapture capture = TestModels.patchwork(6, 4, false);
+        final MeshData original = ModelMeshBuilder.build(capture);
+        final MeshData packed = TextureAtlas.pack(original, capture).getMesh();
+
+        assertEquals(8, original.getPrimitives().size());
+        assertEquals(2, packed.getPrimitives().size());
+        for (MeshData.Primitive primitive : packed.getPrimitives()) {
+            assertEquals(MeshData.ATLAS_TEXTURE, primitive.getTextureId());
+        }
+        assertEquals(original.getIndices().length, packed.getIndices().length);
+        for (float uv : packed.getUvs()) {
+            assertTrue(uv >= 0f && uv <= 1f);
+        }
+    }
+
+    @Test
+    public void repeatingTexturesKeepTheirOwnImage() {
+        final ModelCapture capture = TestModels.patchwork(6, 3, true);
+        final TextureAtlas atlas = TextureAtlas.pack(ModelMeshBuilder.build(capture), capture);
+        assertNotNull(atlas);
+
+        assertNull(atlas.map(TestModels.TEXTURE_ID, 0.5f, 0.5f));
+        assertNotNull(atlas.map(TestModels.TEXTURE_ID + 1, 0.5f, 0.5f));
+        boolean keptOwn = false;
+        for (MeshData.Primitive primitive : atlas.getMesh().getPrimitives()) {
+            keptOwn |= primitive.getTextureId() == TestModels.TEXTURE_ID;
+        }
+        assertTrue(keptOwn);
+    }
+
+    @Test
+    public void singleTextureIsNotPacked() {
+        final ModelCapture capture = TestModels.patchwork(4, 1, false);
+        assertNull(TextureAtlas.pack(ModelMeshBuilder.build(capture), capture));
+    }
+
+    @Test
+    public void vertexSharedByTwoTexturesIsCopied() {
+        // Two faces on different textures meeting at vertex 0, where both map
+        // to UV (0, 0): the mesh builder merges that corner into one vertex.
+        final Map<Integer, ModelCapture.RawTexture> textures = new HashMap<>();
+        textures.put(40, new ModelCapture.RawTexture(TestModels.texturePixels(), 0, 0));
+        textures.put(41, new ModelCapture.RawTexture(TestModels.texturePixels(), 0, 0));
+        final ModelCapture capture = new ModelCapture(1, 2,
+                new float[]{0, 32, 0, -32, 0}, new float[]{0, 0, 0, 0, 0}, new float[]{0, 0, 32, 0, -32},
+                new int[]{0, 0}, new int[]{1, 3}, new int[]{2, 4},
+                new int[]{100, 100}, new int[]{100, 100}, new int[]{100, 100},
+                new short[]{40, 41}, null, null, null, null, null, null, textures);
+        final MeshData original = ModelMeshBuilder.build(capture);
+        assertEquals(5, original.getVertexCount());
+
+        final TextureAtlas atlas = TextureAtlas.pack(original, capture);
+        final MeshData packed = atlas.getMesh();
+
+        assertEquals(6, packed.getVertexCount());
+        final int[] indices = packed.getIndices();
+        final float[] uvs = packed.getUvs();
+        assertArrayEquals(atlas.map(40, 0f, 0f), new float[]{uvs[indices[0] * 2], uvs[indices[0] * 2 + 1]}, 0f);
+        assertArrayEquals(atlas.map(41, 0f, 0f), new float[]{uvs[indices[3] * 2], uvs[indices[3] * 2 + 1]}, 0f);
+        final float[] positions = packed.getPositions();
+        assertArrayEquals(Arrays.copyOfRange(positions, indices[0] * 3, indices[0] * 3 + 3),
+                Arrays.copyOfRange(positions, indices[3] * 3, indices[3] * 3 + 3), 0f);
+    }
+}
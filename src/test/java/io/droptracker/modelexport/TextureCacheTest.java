@@ -0,0 +1,133 @@
+package io.droptracker.modelexport;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link TextureCache} must encode each texture once per revision and pixel
+ * content, however many exports use it, and reuse what a previous session
+ * wrote to disk.
+ */
+public class TextureCacheTest {
+
+    private Path dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("texture-cache");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Test
+    public void repeatedExportsEncodeEachTextureOnce() throws Exception {
+        final TextureCache cache = new TextureCache(null);
+        final ModelCapture player = TestModels.grid(6, true);
+        final ModelCapture swapped = TestModels.grid(4, true);
+
+        final byte[] first = GlbExporter.toBytes(player, "player", cache);
+        GlbExporter.toBytes(swapped, "player", cache);
+        final byte[] again = GlbExporter.toBytes(player, "player", cache);
+
+        assertEquals(1, cache.encodeCount());
+        assertArrayEquals(first, again);
+    }
+
+    @Test
+    public void changedPixelsAreReencoded() {
+        final TextureCache cache = new TextureCache(null);
+        final int[] pixels = TestModels.texturePixels();
+        cache.png(TestModels.TEXTURE_ID, TestModels.REVISION, pixels, TestModels.TEXTURE_SIZE);
+
+        // Same texture under a different brightness setting.
+        final int[] brighter = pixels.clone();
+        brighter[100] = 0xffffff;
+        cache.png(TestModels.TEXTURE_ID, TestModels.REVISION, brighter, TestModels.TEXTURE_SIZE);
+        cache.png(TestModels.TEXTURE_ID, TestModels.REVISION + 1, brighter, TestModels.TEXTURE_SIZE);
+
+        assertEquals(3, cache.encodeCount());
+    }
+
+    @Test
+    public void diskCopySurvivesAcrossInstances() {
+        final int[] pixels = TestModels.texturePixels();
+        final byte[] written = new TextureCache(dir)
+                .png(TestModels.TEXTURE_ID, TestModels.REVISION, pixels, TestModels.TEXTURE_SIZE);
+
+        final TextureCache restarted = new TextureCache(dir);
+        final byte[] read = restarted.png(TestModels.TEXTURE_ID, TestModels.REVISION, pixels, TestModels.TEXTURE_SIZE);
+
+        assertNotNull(read);
+        assertArrayEquals(written, read);
+        assertEquals(0, restarted.encodeCount());
+    }
+
+    @Test
+    public void newRevisionRemovesOldOnes() {
+        final int[] pixels = TestModels.texturePixels();
+        new TextureCache(dir).png(TestModels.TEXTURE_ID, TestModels.REVISION, pixels, TestModels.TEXTURE_SIZE);
+        assertTrue(Files.isDirectory(dir.resolve(Integer.toString(TestModels.REVISION))));
+
+        new TextureCache(dir).png(TestModels.TEXTURE_ID, TestModels.REVISION + 1, pixels, TestModels.TEXTURE_SIZE);
+
+        assertFalse(Files.exists(dir.resolve(Integer.toString(TestModels.REVISION))));
+        assertTrue(Files.isDirectory(dir.resolve(Integer.toString(TestModels.REVISION + 1))));
+    }
+
+    @Test
+    public void pixelsWithTheSameArrayHashAreNotConfused() {
+        final TextureCache cache = new TextureCache(null);
+        final int[] pixels = TestModels.texturePixels();
+        final int[] other = pixels.clone();
+        other[0] += 1;
+        other[1] -= 31;
+        assertEquals(Arrays.hashCode(pixels), Arrays.hashCode(other));
+
+        final byte[] first = cache.png(TestModels.TEXTURE_ID, TestModels.REVISION, pixels, TestModels.TEXTURE_SIZE);
+        final byte[] second = cache.png(TestModels.TEXTURE_ID, TestModels.REVISION, other, TestModels.TEXTURE_SIZE);
+
+        assertEquals(2, cache.encodeCount());
+        assertFalse(Arrays.equals(first, second));
+    }
+
+    @Test
+    public void diskCopyIsTrimmedToItsBudget() throws IOException {
+        final int[] pixels = TestModels.texturePixels();
+        final int pngSize = TextureCache.encodePng(pixels, TestModels.TEXTURE_SIZE, TestModels.TEXTURE_SIZE).length;
+        final TextureCache cache = new TextureCache(dir, 3L * pngSize);
+
+        for (int i = 0; i < 6; i++) {
+            final int[] variant = pixels.clone();
+            variant[i] = 0x010101 * (i + 1);
+            cache.png(TestModels.TEXTURE_ID, TestModels.REVISION, variant, TestModels.TEXTURE_SIZE);
+        }
+
+        final Path revision = dir.resolve(Integer.toString(TestModels.REVISION));
+        long total = 0;
+        try (Stream<Path> files = Files.list(revision)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                total += Files.size(file);
+            }
+        }
+        assertTrue("kept " + total + " bytes", total > 0 && total <= 3L * pngSize + 3);
+    }
+}
@@ -0,0 +1,45 @@
+package io.droptracker.models;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ClanRelayBatchTest {
+
+    private final Gson gson = new Gson();
+
+    private static ClanRelayBatch batch() {
+        ClanRelayBatch batch = new ClanRelayBatch();
+        batch.setPlayerName("Relayer");
+        batch.setAccountHash("123");
+        batch.setPluginVersion("5.0.0");
+        batch.setClanName("Clan");
+        batch.setBatchId("1700000000-123-9");
+        batch.getLines().add(new ClanRelayBatch.Line(1700000000L, "Alpha", "gz"));
+        batch.getLines().add(new ClanRelayBatch.Line(1700000001L, null, "Bravo received a drop: Pet"));
+        return batch;
+    }
+
+    @Test
+    public void linesAreTuplesUnderOneHeader() {
+        JsonObject json = JsonParser.parseString(gson.toJson(batch())).getAsJsonObject();
+
+        assertEquals("Relayer", json.get("player_name").getAsString());
+        assertEquals("123", json.get("acc_hash").getAsString());
+        assertEquals("Clan", json.get("clan_name").getAsString());
+        assertEquals(JsonParser.parseString("[[1700000000,\"Alpha\",\"gz\"],"
+            + "[1700000001,null,\"Bravo received a drop: Pet\"]]"), json.get("lines"));
+    }
+
+    @Test
+    public void roundTrips() {
+        ClanRelayBatch read = gson.fromJson(gson.toJson(batch()), ClanRelayBatch.class);
+
+        assertEquals(batch(), read);
+        assertNull(read.getLines().get(1).getSender());
+    }
+}
@@ -0,0 +1,67 @@
+package io.droptracker.service;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ClanRelayPacerTest {
+
+    private final ClanRelayPacer pacer = new ClanRelayPacer();
+
+    @Test
+    public void quietChatFlushesQuickly() {
+        assertTrue(pacer.admit("Clan", "Alpha", "hello", 0, 0));
+        assertTrue(pacer.flushDelayMs(0) <= ClanRelayPacer.MIN_FLUSH_DELAY_MS + 200);
+    }
+
+    @Test
+    public void busyChatHoldsLinesLonger() {
+        // Five lines a second for half a minute.
+        long now = 0;
+        for (int i = 0; i < 150; i++) {
+            now = i * 200L;
+            pacer.admit("Clan", "Member" + (i % 7), "line " + i, now / 1000, now);
+        }
+        assertEquals(5.0, pacer.linesPerSecond(now), 0.5);
+        assertEquals(ClanRelayPacer.MAX_FLUSH_DELAY_MS, pacer.flushDelayMs(now));
+    }
+
+    @Test
+    public void rateDecaysOnceChatGoesQuiet() {
+        for (int i = 0; i < 60; i++) {
+            pacer.admit("Clan", "Alpha", "line " + i, i / 2, i * 500L);
+        }
+        long later = 30_000 + 60_000;
+        assertTrue(pacer.flushDelayMs(later) < ClanRelayPacer.MIN_FLUSH_DELAY_MS + 100);
+    }
+
+    @Test
+    public void replayedMessageIsSkipped() {
+        assertTrue(pacer.admit("Clan", "Alpha", "gz", 100, 0));
+        // The same message handed over again, minutes later.
+        assertFalse(pacer.admit("Clan", "Alpha", "gz", 100, 300_000));
+        // Another sender, another clan or a broadcast is a different line.
+        assertTrue(pacer.admit("Clan", "Bravo", "gz", 100, 5_000));
+        assertTrue(pacer.admit("Other", "Alpha", "gz", 100, 5_000));
+        assertTrue(pacer.admit("Clan", null, "gz", 100, 5_000));
+    }
+
+    @Test
+    public void repeatedMessageIsRelayedAgain() {
+        // Alpha saying "gz" again a few seconds later is a new line, not a replay.
+        assertTrue(pacer.admit("Clan", "Alpha", "gz", 100, 0));
+        assertTrue(pacer.admit("Clan", "Alpha", "gz", 103, 3_000));
+        assertTrue(pacer.admit("Clan", "Alpha", "gz", 160, 60_000));
+        assertFalse(pacer.admit("Clan", "Alpha", "gz", 103, 61_000));
+    }
+
+    @Test
+    public void replaysAreRememberedForManyLines() {
+        for (int i = 0; i < ClanRelayPacer.DEDUP_KEYS_MAX; i++) {
+            assertTrue(pacer.admit("Clan", "Member" + (i % 7), "line " + i, i, i * 200L));
+        }
+        assertFalse(pacer.admit("Clan", "Member0", "line 0", 0, 300_000));
+    }
+}
@@ -0,0 +1,219 @@
+package io.droptracker.service;
+
+import com.google.gson.Gson;
+import io.droptracker.DropTrackerConfig;
+import io.droptracker.DropTrackerPlugin;
+import io.droptracker.api.DropTrackerApi;
+import io.droptracker.models.ClanRelayBatch;
+import io.droptracker.models.api.ClanRelayResult;
+import net.runelite.api.Client;
+import net.runelite.api.clan.ClanChannel;
+import okhttp3.OkHttpClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * What {@link ClanRelayService} does with a batch the API failed to take:
+ * the same batch goes out again with a growing delay, and its lines are only
+ * given up on after {@link ClanRelayService#MAX_RELAY_ATTEMPTS} tries. The
+ * timer is driven by hand, as in {@link EventNotificationStreamTest}.
+ */
+public class ClanRelayServiceTest {
+
+    private final PluginExecutors apiExecutors = new PluginExecutors();
+    private final BlockingQueue<Scheduled> scheduled = new LinkedBlockingQueue<>();
+    private final List<ClanRelayBatch> posted = new CopyOnWriteArrayList<>();
+    /** Answers for the next uploads, in order; accepted once it runs out. */
+    private final Queue<ClanRelayResult> answers = new ArrayDeque<>();
+
+    private ClanRelayService service;
+
+    /** A task the service asked the executor to run. */
+    private static class Scheduled {
+        private final Runnable task;
+        private final long delayMs;
+
+        Scheduled(Runnable task, long delayMs) {
+            this.task = task;
+            this.delayMs = delayMs;
+        }
+
+        void run() {
+            task.run();
+        }
+    }
+
+    @Before
+    public void setUp() {
+        TestConfig config = new TestConfig();
+        StubApi api = new StubApi(config, apiExecutors);
+        DropTrackerPlugin plugin = new DropTrackerPlugin() {
+            @Override
+            public String getLocalPlayerName() {
+                return "Zezima";
+            }
+        };
+        service = new ClanRelayService(client(), config, api, plugin, null, executor());
+    }
+
+    @After
+    public void tearDown() {
+        apiExecutors.shutDown();
+    }
+
+    /** Queues one chat line and runs the flush it schedules. */
+    private void relayOneLine() {
+        service.onClanChat("Bravo", "anyone for cox", 1_700_000_000);
+        Scheduled flush = scheduled.poll();
+        assertTrue("no flush was scheduled", flush != null);
+        flush.run();
+    }
+
+    @Test
+    public void failedBatchIsSentAgainWithTheSameId() {
+        answers.add(ClanRelayResult.failed());
+        answers.add(ClanRelayResult.failed());
+        relayOneLine();
+        assertEquals(1, posted.size());
+
+        Scheduled first = scheduled.poll();
+        assertEquals(1000, first.delayMs);
+        first.run();
+        Scheduled second = scheduled.poll();
+        assertEquals(2000, second.delayMs);
+        second.run();
+
+        // Accepted on the third upload: nothing further is scheduled.
+        assertNull(scheduled.poll());
+        assertEquals(3, posted.size());
+        for (ClanRelayBatch batch : posted) {
+            assertEquals(posted.get(0).getBatchId(), batch.getBatchId());
+            assertEquals("anyone for cox", batch.getLines().get(0).getText());
+        }
+    }
+
+    @Test
+    public void linesAreDroppedOnceTheAttemptsRunOut() {
+        for (int i = 0; i < ClanRelayService.MAX_RELAY_ATTEMPTS; i++) {
+            answers.add(ClanRelayResult.failed());
+        }
+        relayOneLine();
+
+        long lastDelayMs = 0;
+        Scheduled retry;
+        while ((retry = scheduled.poll()) != null) {
+            assertTrue(retry.delayMs >= lastDelayMs && retry.delayMs <= 60_000);
+            lastDelayMs = retry.delayMs;
+            retry.run();
+        }
+        assertEquals(ClanRelayService.MAX_RELAY_ATTEMPTS, posted.size());
+    }
+
+    /** Records what the service schedules instead of running it. */
+    private ScheduledExecutorService executor() {
+        return (ScheduledExecutorService) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{ScheduledExecutorService.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("schedule") && args[0] instanceof Runnable) {
+                        long delayMs = ((TimeUnit) args[2]).toMillis((Long) args[1]);
+                        scheduled.add(new Scheduled((Runnable) args[0], delayMs));
+                        return Proxy.newProxyInstance(getClass().getClassLoader(),
+                                new Class<?>[]{ScheduledFuture.class}, (future, futureMethod, futureArgs) -> {
+                                    switch (futureMethod.getName()) {
+                                        case "cancel":
+                                            return Boolean.TRUE;
+                                        case "getDelay":
+                                            return ((TimeUnit) futureArgs[0]).convert(delayMs, TimeUnit.MILLISECONDS);
+                                        default:
+                                            return null;
+                                    }
+                                });
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private Client client() {
+        ClanChannel channel = (ClanChannel) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{ClanChannel.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("getName")) {
+                        return "Iron Foundry";
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        return (Client) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Client.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getClanChannel":
+                            return channel;
+                        case "getAccountHash":
+                            return 42L;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    /** Records each upload and answers from {@link #answers}. */
+    private class StubApi extends DropTrackerApi {
+        StubApi(DropTrackerConfig config, PluginExecutors executors) {
+            super(config, new Gson(), new OkHttpClient(), null, null, executors, null);
+        }
+
+        @Override
+        public CompletableFuture<ClanRelayResult> postClanRelayAsync(ClanRelayBatch batch) {
+            posted.add(batch);
+            ClanRelayResult answer = answers.poll();
+            return CompletableFuture.completedFuture(answer != null ? answer : ClanRelayResult.accepted(0));
+        }
+    }
+
+    /** The API and clan chat relaying switched on; everything else at its default. */
+    private static class TestConfig implements DropTrackerConfig {
+        @Override
+        public boolean useApi() {
+            return true;
+        }
+
+        @Override
+        public boolean relayClanChat() {
+            return true;
+        }
+
+        @Override
+        public void setPinnedEventId(int eventId) {
+        }
+
+        @Override
+        public void setLastVersionNotified(String versionNotified) {
+        }
+
+        @Override
+        public void setLastAccountName(String accountName) {
+        }
+
+        @Override
+        public void setCustomApiEndpoint(String customApiEndpoint) {
+        }
+
+        @Override
+        public void setLastAccountHash(String accountHash) {
+        }
+    }
+}
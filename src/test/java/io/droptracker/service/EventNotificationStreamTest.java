@@ -0,0 +1,364 @@
+package io.droptracker.service;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.droptracker.DropTrackerConfig;
+import io.droptracker.api.DropTrackerApi;
+import io.droptracker.models.submissions.ValidSubmission;
+import net.runelite.api.Client;
+import net.runelite.api.Player;
+import okhttp3.OkHttpClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The cycle chain of {@link EventNotificationService} choosing between the
+ * event stream and the long-poll, against an in-process stub of both
+ * endpoints. The timer is driven by hand: each test runs the cycle the
+ * service scheduled, whatever its delay, and watches which endpoint it hit.
+ */
+public class EventNotificationStreamTest {
+
+    private final Gson gson = new Gson();
+    private final OkHttpClient httpClient = new OkHttpClient();
+    private final PluginExecutors apiExecutors = new PluginExecutors();
+    private final ExecutorService serverThreads = Executors.newCachedThreadPool();
+    private final BlockingQueue<Scheduled> scheduled = new LinkedBlockingQueue<>();
+    private final BlockingQueue<Boolean> pushed = new LinkedBlockingQueue<>();
+    private final AtomicInteger streamRequests = new AtomicInteger();
+    private final AtomicInteger notificationRequests = new AtomicInteger();
+    private final AtomicInteger checks = new AtomicInteger();
+    private final List<String> resumedFrom = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private HttpServer server;
+    private volatile int streamStatus = 200;
+    private volatile String streamBody = "";
+    private volatile boolean holdStream;
+
+    private SubmissionManager submissions;
+    private EventNotificationService service;
+
+    /** A cycle the service asked the executor to run. */
+    private static class Scheduled {
+        private final Runnable task;
+        private final long delayMs;
+
+        Scheduled(Runnable task, long delayMs) {
+            this.task = task;
+            this.delayMs = delayMs;
+        }
+
+        void run() {
+            task.run();
+        }
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/stream", this::serveStream);
+        server.createContext("/notifications", exchange -> {
+            notificationRequests.incrementAndGet();
+            byte[] body = "{\"active_event\":false,\"notifications\":[]}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+            exchange.close();
+        });
+        server.setExecutor(serverThreads);
+        server.start();
+
+        TestConfig config = new TestConfig();
+        StubApi api = new StubApi(config, gson, httpClient, apiExecutors,
+                "http://127.0.0.1:" + server.getAddress().getPort(), checks);
+        Client client = client();
+        submissions = new SubmissionManager(config, api, null, gson, httpClient, client, null, null, null, null) {
+            @Override
+            public void setStatusesPushed(boolean statusesPushed) {
+                super.setStatusesPushed(statusesPushed);
+                pushed.add(statusesPushed);
+            }
+        };
+        ClanRelayService clanRelay = new ClanRelayService(client, config, api, null, submissions, null);
+        service = new EventNotificationService(config, api, null, client, executor(), null,
+                clanRelay, submissions, gson);
+    }
+
+    @After
+    public void tearDown() {
+        service.stop();
+        release.countDown();
+        server.stop(0);
+        serverThreads.shutdownNow();
+        apiExecutors.shutDown();
+    }
+
+    private void serveStream(HttpExchange exchange) throws IOException {
+        streamRequests.incrementAndGet();
+        resumedFrom.add(String.valueOf(exchange.getRequestHeaders().getFirst("Last-Event-ID")));
+        try {
+            if (streamStatus != 200) {
+                exchange.sendResponseHeaders(streamStatus, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(streamBody.getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                if (holdStream) {
+                    release.await(5, TimeUnit.SECONDS);
+                }
+            }
+        } catch (IOException | InterruptedException ignored) {
+            // The client hung up first.
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /** The next cycle the service scheduled, once the previous one has handed the chain on. */
+    private Scheduled next() throws InterruptedException {
+        Scheduled next = scheduled.poll(5, TimeUnit.SECONDS);
+        assertTrue("no cycle was scheduled", next != null);
+        return next;
+    }
+
+    @Test
+    public void serverWithoutAStreamLongPollsForTheSession() throws Exception {
+        streamStatus = 404;
+        service.start();
+        next().run();
+
+        Scheduled fallback = next();
+        assertEquals(0, fallback.delayMs);
+        fallback.run();
+        next().run();
+        next();
+        assertEquals(1, streamRequests.get());
+        assertEquals(2, notificationRequests.get());
+    }
+
+    @Test
+    public void rejectedIdentityKeepsTryingTheStream() throws Exception {
+        // A 401 or 403 is no sign the server lacks the stream.
+        streamStatus = 401;
+        service.start();
+        next().run();
+        next().run();
+
+        streamStatus = 403;
+        next().run();
+        next();
+        assertEquals(3, streamRequests.get());
+        assertEquals(0, notificationRequests.get());
+    }
+
+    @Test
+    public void repeatedFailuresLongPollForTenMinutes() throws Exception {
+        streamStatus = 503;
+        service.start();
+        next().run();
+        next().run();
+        long before = System.currentTimeMillis();
+        next().run();
+
+        Scheduled fallback = next();
+        long after = System.currentTimeMillis();
+        assertEquals(0, fallback.delayMs);
+        long tenMinutes = TimeUnit.MINUTES.toMillis(EventNotificationService.STREAM_FALLBACK_MINUTES);
+        assertEquals(10, EventNotificationService.STREAM_FALLBACK_MINUTES);
+        long until = service.streamFallbackUntilMs();
+        assertTrue(until >= before + tenMinutes && until <= after + tenMinutes);
+
+        fallback.run();
+        next().run();
+        next();
+        assertEquals(3, streamRequests.get());
+        assertEquals(2, notificationRequests.get());
+    }
+
+    @Test
+    public void emptyCleanClosesCountAsFailures() throws Exception {
+        // Accepted and closed straight away, with not even a hello.
+        service.start();
+        next().run();
+        Scheduled retry = next();
+        assertTrue(retry.delayMs >= 5000);
+        retry.run();
+        next().run();
+
+        Scheduled fallback = next();
+        assertEquals(0, fallback.delayMs);
+        assertTrue(service.streamFallbackUntilMs() > System.currentTimeMillis());
+        fallback.run();
+        next();
+        assertEquals(3, streamRequests.get());
+        assertEquals(1, notificationRequests.get());
+    }
+
+    @Test
+    public void serverRetryIsFlooredToTheMinimum() throws Exception {
+        streamBody = "retry: 0\nid: 5\nevent: hello\ndata: {\"types\":[]}\n\n";
+        service.start();
+        next().run();
+
+        assertEquals(EventNotificationService.STREAM_MIN_RECONNECT_MS, next().delayMs);
+        assertEquals(0, service.streamFallbackUntilMs());
+    }
+
+    @Test
+    public void reconnectSendsTheLastMessageId() throws Exception {
+        streamBody = "id: 5\nevent: hello\ndata: {\"types\":[]}\n\n";
+        service.start();
+        next().run();
+
+        // The server closed the stream cleanly; the reconnect resumes after id 5.
+        next().run();
+        next();
+        assertEquals(Arrays.asList("null", "5"), resumedFrom);
+    }
+
+    @Test
+    public void pushedStatusesStopTheCheckPolling() throws Exception {
+        ValidSubmission submission = new ValidSubmission();
+        submission.setUuid("a-1");
+        submissions.addSubmissionToMemory(submission);
+        streamBody = "event: hello\ndata: {\"types\":[\"submission_status\"]}\n\n";
+        holdStream = true;
+        service.start();
+        next().run();
+
+        assertEquals(Boolean.TRUE, pushed.poll(5, TimeUnit.SECONDS));
+        // One catch-up /check when the stream opens, then none while it pushes.
+        assertEquals(1, checks.get());
+        submissions.checkPendingStatuses();
+        assertEquals(1, checks.get());
+
+        // The stream ends; /check covers the gap until the next one opens.
+        release.countDown();
+        assertEquals(Boolean.FALSE, pushed.poll(5, TimeUnit.SECONDS));
+        submissions.checkPendingStatuses();
+        assertEquals(2, checks.get());
+    }
+
+    /** Records what the service schedules instead of running it; see {@link #next()}. */
+    private ScheduledExecutorService executor() {
+        return (ScheduledExecutorService) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{ScheduledExecutorService.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("schedule") && args[0] instanceof Runnable) {
+                        scheduled.add(new Scheduled((Runnable) args[0], ((TimeUnit) args[2]).toMillis((Long) args[1])));
+                        return Proxy.newProxyInstance(getClass().getClassLoader(),
+                                new Class<?>[]{ScheduledFuture.class}, (future, futureMethod, futureArgs) ->
+                                        futureMethod.getName().equals("cancel") ? Boolean.TRUE : null);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private Client client() {
+        Player player = (Player) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Player.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("getName")) {
+                        return "Zezima";
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        return (Client) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Client.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getLocalPlayer":
+                            return player;
+                        case "getAccountHash":
+                            return 42L;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    /** The API pointed at the stub, with /check counted rather than sent. */
+    private static class StubApi extends DropTrackerApi {
+        private final String url;
+        private final AtomicInteger checks;
+
+        StubApi(DropTrackerConfig config, Gson gson, OkHttpClient httpClient, PluginExecutors executors,
+                String url, AtomicInteger checks) {
+            super(config, gson, httpClient, null, null, executors, null);
+            this.url = url;
+            this.checks = checks;
+        }
+
+        @Override
+        public String getApiUrl() {
+            return url;
+        }
+
+        @Override
+        public CompletableFuture<Map<String, Boolean>> checkSubmissionsProcessedAsync(List<String> uuids) {
+            checks.incrementAndGet();
+            return CompletableFuture.completedFuture(Collections.emptyMap());
+        }
+    }
+
+    /** The API and event notifications switched on; everything else at its default. */
+    private static class TestConfig implements DropTrackerConfig {
+        @Override
+        public boolean useApi() {
+            return true;
+        }
+
+        @Override
+        public boolean eventNotifications() {
+            return true;
+        }
+
+        @Override
+        public void setPinnedEventId(int eventId) {
+        }
+
+        @Override
+        public void setLastVersionNotified(String versionNotified) {
+        }
+
+        @Override
+        public void setLastAccountName(String accountName) {
+        }
+
+        @Override
+        public void setCustomApiEndpoint(String customApiEndpoint) {
+        }
+
+        @Override
+        public void setLastAccountHash(String accountHash) {
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package io.droptracker.service;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.droptracker.models.api.EventState;
+import io.droptracker.util.JsonPatch;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Replays a synthetic event session against {@link EventStateModel}: the
+ * "server" keeps the authoritative document and sends each change as a
+ * patch, and after every step the client's state must match a full fetch
+ * of the server's.
+ */
+public class EventStateModelTest {
+
+    private static final String SESSION_START = "{\"version\":1,\"events\":[{"
+        + "\"event\":{\"id\":7,\"name\":\"Autumn Bingo\",\"kind\":\"bingo\",\"has_bingo\":true},"
+        + "\"team\":{\"id\":3,\"name\":\"Red\",\"score\":10,\"rank\":2,\"team_count\":4},"
+        + "\"focus_task\":{\"id\":11,\"label\":\"Dragon bones\",\"have\":2,\"need\":5,\"source\":\"board\"},"
+        + "\"tasks_completed\":1,\"tasks_total\":3,"
+        + "\"tasks\":["
+        + "{\"id\":10,\"label\":\"Zulrah kc\",\"type\":\"kc\",\"points\":5,\"have\":50,\"need\":50,\"completed\":true},"
+        + "{\"id\":11,\"label\":\"Dragon bones\",\"type\":\"item\",\"points\":5,\"have\":2,\"need\":5,\"completed\":false},"
+        + "{\"id\":12,\"label\":\"Pet\",\"type\":\"item\",\"points\":20,\"have\":0,\"need\":1,\"completed\":false}],"
+        + "\"members\":[{\"name\":\"Alpha\"},{\"name\":\"Bravo\"}],\"members_total\":2,"
+        + "\"standings\":[{\"team_id\":1,\"score\":15},{\"team_id\":3,\"score\":10}]}],"
+        + "\"screenshot_item_ids\":[536,12934]}";
+
+    private final Gson gson = new Gson();
+    private final EventStateModel model = new EventStateModel(gson);
+
+    private JsonObject server = json(SESSION_START);
+
+    private static JsonObject json(String text) {
+        return JsonParser.parseString(text).getAsJsonObject();
+    }
+
+    /** Applies {@code ops} on the server and returns the patch response it would send. */
+    private JsonObject change(String ops) {
+        long base = server.get("version").getAsLong();
+        JsonArray patch = JsonParser.parseString(ops).getAsJsonArray();
+        JsonArray withVersion = patch.deepCopy();
+        JsonObject bump = new JsonObject();
+        bump.addProperty("op", "replace");
+        bump.addProperty("path", "/version");
+        bump.addProperty("value", base + 1);
+        withVersion.add(bump);
+        server = JsonPatch.apply(server, withVersion).getAsJsonObject();
+        JsonObject response = new JsonObject();
+        response.addProperty("base_version", base);
+        response.addProperty("version", base + 1);
+        response.add("patch", patch);
+        return response;
+    }
+
+    private void assertInSync() {
+        JsonElement expected = gson.toJsonTree(gson.fromJson(server, EventState.class));
+        assertEquals(expected, gson.toJsonTree(model.getState()));
+        assertEquals(server.get("version").getAsLong(), model.getVersion());
+    }
+
+    @Test
+    public void sessionReplaysToTheServersState() {
+        assertEquals(EventStateModel.Outcome.APPLIED, model.apply(server.deepCopy()));
+        assertInSync();
+
+        // A drop counts toward the focus task.
+        assertEquals(EventStateModel.Outcome.APPLIED, model.apply(change("["
+            + "{\"op\":\"replace\",\"path\":\"/events/0/focus_task/have\",\"value\":3},"
+            + "{\"op\":\"replace\",\"path\":\"/events/0/tasks/1/have\",\"value\":3}]")));
+        assertInSync();
+
+        // The task completes: focus moves on, the score and standings follow.
+        assertEquals(EventStateModel.Outcome.APPLIED, model.apply(change("["
+            + "{\"op\":\"replace\",\"path\":\"/events/0/tasks/1/have\",\"value\":5},"
+            + "{\"op\":\"replace\",\"path\":\"/events/0/tasks/1/completed\",\"value\":true},"
+            + "{\"op\":\"replace\",\"path\":\"/events/0/tasks_completed\",\"value\":2},"
+            + "{\"op\":\"replace\",\"path\":\"/events/0/focus_task\",\"value\":"
+            + "{\"id\":12,\"label\":\"Pet\",\"have\":0,\"need\":1,\"source\":\"board\"}},"
+            + "{\"op\":\"replace\",\"path\":\"/events/0/team/score\",\"value\":15},"
+            + "{\"op\":\"replace\",\"path\":\"/events/0/team/rank\",\"value\":1},"
+            + "{\"op\":\"replace\",\"path\":\"/events/0/standings/1/score\",\"value\":15},"
+            + "{\"op\":\"remove\",\"path\":\"/screenshot_item_ids/0\"}]")));
+        assertInSync();
+        EventState.Entry entry = model.getState().getEvents().get(0);
+        assertEquals(12, entry.getFocusTask().getId());
+        assertEquals(15, entry.getTeam().getScore());
+
+        // Roster churn: one joins at the front, one leaves.
+        assertEquals(EventStateModel.Outcome.APPLIED, model.apply(change("["
+            + "{\"op\":\"add\",\"path\":\"/events/0/members/0\",\"value\":{\"name\":\"Charlie\"}},"
+            + "{\"op\":\"remove\",\"path\":\"/events/0/members/2\"},"
+            + "{\"op\":\"add\",\"path\":\"/events/0/members/-\",\"value\":{\"name\":\"Delta\"}},"
+            + "{\"op\":\"replace\",\"path\":\"/events/0/members_total\",\"value\":3}]")));
+        assertInSync();
+
+        // A quiet interval still moves the version on.
+        assertEquals(EventStateModel.Outcome.UNCHANGED, model.apply(change("[]")));
+        assertInSync();
+
+        // The event ends server-side.
+        assertEquals(EventStateModel.Outcome.APPLIED, model.apply(change("["
+            + "{\"op\":\"remove\",\"path\":\"/events/0\"},"
+            + "{\"op\":\"replace\",\"path\":\"/screenshot_item_ids\",\"value\":[]}]")));
+        assertInSync();
+        assertTrue(model.getState().getEvents().isEmpty());
+    }
+
+    @Test
+    public void replayedPatchIsUnchanged() {
+        model.apply(server.deepCopy());
+        JsonObject patch = change("[{\"op\":\"replace\",\"path\":\"/events/0/team/score\",\"value\":11}]");
+        assertEquals(EventStateModel.Outcome.APPLIED, model.apply(patch));
+        assertEquals(EventStateModel.Outcome.UNCHANGED, model.apply(patch));
+        assertInSync();
+    }
+
+    @Test
+    public void missedVersionIsAGap() {
+        model.apply(server.deepCopy());
+        change("[{\"op\":\"replace\",\"path\":\"/events/0/team/score\",\"value\":11}]");
+        JsonObject second = change("[{\"op\":\"replace\",\"path\":\"/events/0/team/score\",\"value\":12}]");
+
+        assertEquals(EventStateModel.Outcome.GAP, model.apply(second));
+        // The copy is untouched, and a full fetch closes the gap.
+        assertEquals(1, model.getVersion());
+        assertEquals(EventStateModel.Outcome.APPLIED, model.apply(server.deepCopy()));
+        assertInSync();
+    }
+
+    @Test
+    public void patchWithoutACopyIsAGap() {
+        JsonObject patch = change("[{\"op\":\"replace\",\"path\":\"/events/0/team/score\",\"value\":11}]");
+        assertEquals(EventStateModel.Outcome.GAP, model.apply(patch));
+        assertNull(model.getState());
+    }
+
+    @Test
+    public void patchThatDoesNotFitDropsTheCopy() {
+        model.apply(server.deepCopy());
+        JsonObject bad = json("{\"base_version\":1,\"version\":2,\"patch\":["
+            + "{\"op\":\"replace\",\"path\":\"/events/0/team/score\",\"value\":11},"
+            + "{\"op\":\"replace\",\"path\":\"/events/4/team/score\",\"value\":11}]}");
+
+        assertEquals(EventStateModel.Outcome.GAP, model.apply(bad));
+        assertEquals(-1, model.getVersion());
+        // Still showing the last good state until the full fetch lands.
+        assertEquals(10, model.getState().getEvents().get(0).getTeam().getScore());
+    }
+
+    @Test
+    public void unversionedServerIsTakenAsItIs() {
+        JsonObject legacy = json(SESSION_START);
+        legacy.remove("version");
+
+        assertEquals(EventStateModel.Outcome.APPLIED, model.apply(legacy));
+        assertEquals(-1, model.getVersion());
+        assertEquals("Autumn Bingo", model.getState().getEvents().get(0).getEvent().getName());
+    }
+
+    @Test
+    public void patchingDoesNotTouchTheResponse() {
+        JsonObject full = server.deepCopy();
+        model.apply(full);
+        model.apply(change("[{\"op\":\"replace\",\"path\":\"/events/0/team/score\",\"value\":11}]"));
+        assertEquals(json(SESSION_START), full);
+    }
+}
@@ -0,0 +1,140 @@
+package io.droptracker.service;
+
+import com.google.gson.Gson;
+import io.droptracker.models.api.EventState;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * The {@link EventTaskPrefs} cache: each key is read from config once, writes
+ * go through without a re-read, and only a {@code ConfigChanged} for one of
+ * its keys (or a profile switch) sends the next read back to config.
+ */
+public class EventTaskPrefsTest {
+
+    private final StoredPrefs prefs = new StoredPrefs();
+
+    /** Prefs over a map instead of ConfigManager, counting the reads that reach it. */
+    private static class StoredPrefs extends EventTaskPrefs {
+        private final Map<String, String> config = new HashMap<>();
+        private final Map<String, Integer> reads = new HashMap<>();
+
+        StoredPrefs() {
+            super(null);
+        }
+
+        @Override
+        String read(String key) {
+            reads.merge(key, 1, Integer::sum);
+            return config.get(key);
+        }
+
+        @Override
+        void write(String key, String value) {
+            config.put(key, value);
+        }
+
+        @Override
+        void unset(String key) {
+            config.remove(key);
+        }
+
+        int reads(String key) {
+            return reads.getOrDefault(key, 0);
+        }
+    }
+
+    private static EventState.Entry entry(String tasks) {
+        return new Gson().fromJson("{\"event\":{\"id\":7,\"name\":\"Bingo\",\"kind\":\"bingo\"},"
+            + "\"tasks\":" + tasks + "}", EventState.Entry.class);
+    }
+
+    @Test
+    public void eachKeyIsReadOnce() {
+        prefs.config.put("hiddenTasks_7", "3,4");
+        prefs.config.put("pinnedTasks_7", "5");
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(new LinkedHashSet<>(Arrays.asList(3, 4)), prefs.hidden(7));
+            assertEquals(Collections.singleton(5), prefs.pinned(7));
+            assertEquals(0, prefs.tracked(7));
+        }
+        assertEquals(1, prefs.reads("hiddenTasks_7"));
+        assertEquals(1, prefs.reads("pinnedTasks_7"));
+        // An absent key is remembered as absent, not looked up again.
+        assertEquals(1, prefs.reads("trackedTask_7"));
+    }
+
+    @Test
+    public void writesGoThroughWithoutARead() {
+        EventState.Entry entry = entry("[{\"id\":3,\"label\":\"Vorkath heads\"},{\"id\":4,\"label\":\"Zulrah\"}]");
+        prefs.togglePin(entry, 3);
+        prefs.toggleHidden(entry, 4);
+
+        assertEquals(Collections.singleton(3), prefs.pinned(7));
+        assertEquals(3, prefs.tracked(7));
+        assertEquals("3", prefs.config.get("pinnedTasks_7"));
+        assertEquals("3", prefs.config.get("trackedTask_7"));
+        assertEquals("4", prefs.config.get("hiddenTasks_7"));
+
+        prefs.togglePin(entry, 3);
+        assertEquals(Collections.emptySet(), prefs.pinned(7));
+        assertEquals(0, prefs.tracked(7));
+        assertEquals("0", prefs.config.get("pinnedTasks_7"));
+        assertNull(prefs.config.get("trackedTask_7"));
+        // Only the first look at each key went to config.
+        assertEquals(1, prefs.reads("pinnedTasks_7"));
+        assertEquals(1, prefs.reads("hiddenTasks_7"));
+    }
+
+    @Test
+    public void configChangedForAKeyRereadsIt() {
+        prefs.config.put("hiddenTasks_7", "3");
+        assertEquals(Collections.singleton(3), prefs.hidden(7));
+
+        // Edited elsewhere: the cache holds until the ConfigChanged arrives.
+        prefs.config.put("hiddenTasks_7", "3,4");
+        assertEquals(Collections.singleton(3), prefs.hidden(7));
+        prefs.invalidate("hiddenTasks_7");
+        assertEquals(new LinkedHashSet<>(Arrays.asList(3, 4)), prefs.hidden(7));
+        assertEquals(2, prefs.reads("hiddenTasks_7"));
+    }
+
+    @Test
+    public void otherKeysLeaveTheCacheAlone() {
+        prefs.config.put("hiddenTasks_7", "3");
+        prefs.hidden(7);
+        prefs.hidden(8);
+
+        prefs.invalidate("eventHudDetail");
+        prefs.invalidate("hiddenTasks_8");
+        prefs.hidden(7);
+        prefs.hidden(8);
+        assertEquals(1, prefs.reads("hiddenTasks_7"));
+        assertEquals(2, prefs.reads("hiddenTasks_8"));
+    }
+
+    @Test
+    public void profileSwitchRereadsEverything() {
+        prefs.config.put("hiddenTasks_7", "3");
+        prefs.config.put("trackedTask_7", "5");
+        prefs.hidden(7);
+        prefs.tracked(7);
+
+        prefs.config.put("hiddenTasks_7", "6");
+        prefs.config.remove("trackedTask_7");
+        prefs.invalidateAll();
+        assertEquals(Collections.singleton(6), prefs.hidden(7));
+        assertEquals(0, prefs.tracked(7));
+        assertEquals(2, prefs.reads("hiddenTasks_7"));
+        assertEquals(2, prefs.reads("trackedTask_7"));
+    }
+}
@@ -0,0 +1,91 @@
+package io.droptracker.service;
+
+import com.google.gson.Gson;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * {@link OutfitRegistry} must remember uploaded outfits across restarts, keep
+ * accounts apart, and stay bounded.
+ */
+public class OutfitRegistryTest {
+
+    private final Gson gson = new Gson();
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempDirectory("outfits").resolve("outfits_1.json");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(file.getParent());
+    }
+
+    @Test
+    public void uploadedOutfitsSurviveARestart() {
+        OutfitRegistry registry = OutfitRegistry.load(file, "1", gson);
+        registry.record("a1b2", "hash-a");
+        registry.record("c3d4", "hash-c");
+        registry.save(file, gson);
+
+        OutfitRegistry restarted = OutfitRegistry.load(file, "1", gson);
+        assertEquals("hash-a", restarted.contentHash("a1b2"));
+        assertEquals("hash-c", restarted.contentHash("c3d4"));
+    }
+
+    @Test
+    public void anotherAccountsFileIsIgnored() {
+        OutfitRegistry main = OutfitRegistry.load(file, "1", gson);
+        main.record("a1b2", "hash-a");
+        main.save(file, gson);
+
+        OutfitRegistry alt = OutfitRegistry.load(file, "2", gson);
+        assertNull(alt.contentHash("a1b2"));
+        assertEquals(0, alt.size());
+    }
+
+    @Test
+    public void forgottenOutfitIsGoneAfterSave() {
+        OutfitRegistry registry = OutfitRegistry.load(file, "1", gson);
+        registry.record("a1b2", "hash-a");
+        registry.forget("a1b2");
+        registry.save(file, gson);
+
+        assertNull(OutfitRegistry.load(file, "1", gson).contentHash("a1b2"));
+    }
+
+    @Test
+    public void leastRecentlyUsedOutfitIsEvicted() {
+        OutfitRegistry registry = new OutfitRegistry("1");
+        for (int i = 0; i < OutfitRegistry.MAX_OUTFITS; i++) {
+            registry.record("outfit-" + i, "hash-" + i);
+        }
+        // Wearing the oldest again keeps it; the next oldest goes instead.
+        registry.contentHash("outfit-0");
+        registry.record("new", "hash-new");
+        registry.save(file, gson);
+
+        OutfitRegistry restarted = OutfitRegistry.load(file, "1", gson);
+        assertEquals(OutfitRegistry.MAX_OUTFITS, restarted.size());
+        assertEquals("hash-0", restarted.contentHash("outfit-0"));
+        assertNull(restarted.contentHash("outfit-1"));
+        assertEquals("hash-new", restarted.contentHash("new"));
+    }
+
+    @Test
+    public void unreadableFileStartsEmpty() throws IOException {
+        Files.write(file, "{not json".getBytes());
+        assertEquals(0, OutfitRegistry.load(file, "1", gson).size());
+    }
+}
@@ -0,0 +1,125 @@
+package io.droptracker.service;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link PluginExecutors} must keep its queues bounded, turn overflow and
+ * shutdown into failed futures rather than exceptions at the call site, and
+ * come back after the plugin is re-enabled.
+ */
+public class PluginExecutorsTest {
+
+    private final PluginExecutors executors = new PluginExecutors(1, 1, 1, 1);
+
+    @After
+    public void tearDown() {
+        executors.shutDown();
+    }
+
+    @Test
+    public void tasksRunOnNamedPoolThreads() throws Exception {
+        assertTrue(executors.supplyIo(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS)
+                .startsWith("DropTracker-io-"));
+        assertTrue(executors.supplyCpu(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS)
+                .startsWith("DropTracker-cpu-"));
+    }
+
+    @Test
+    public void fullQueueRejectsIntoTheFuture() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> running = executors.runIo(() -> await(release));
+        waitForActive();
+        CompletableFuture<Void> queued = executors.runIo(() -> { });
+        CompletableFuture<Void> overflow = executors.runIo(() -> { });
+
+        assertRejected(overflow);
+        PluginExecutors.Stats stats = executors.getIoStats();
+        assertEquals(1, stats.getQueued());
+        assertEquals(1, stats.getRejected());
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+        // The future completes inside the task, a moment before the pool counts it.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executors.getIoStats().getCompleted() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(2, executors.getIoStats().getCompleted());
+    }
+
+    @Test
+    public void queueWaitIsMeasured() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        executors.runIo(() -> await(release));
+        waitForActive();
+        CompletableFuture<Void> queued = executors.runIo(() -> { });
+        Thread.sleep(100);
+        release.countDown();
+        queued.get(5, TimeUnit.SECONDS);
+
+        assertTrue(executors.getIoStats().getMaxQueueWaitMs() >= 50);
+    }
+
+    @Test
+    public void failingTaskFailsOnlyItsFuture() throws Exception {
+        CompletableFuture<Object> failed = executors.supplyCpu(() -> {
+            throw new IllegalStateException("boom");
+        });
+        try {
+            failed.get(5, TimeUnit.SECONDS);
+            fail("expected the task's exception");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertEquals(Integer.valueOf(7), executors.supplyCpu(() -> 7).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void restartsAfterShutDown() throws Exception {
+        executors.shutDown();
+        assertRejected(executors.runIo(() -> { }));
+        assertRejected(executors.runCpu(() -> { }));
+
+        executors.startUp();
+        executors.runIo(() -> { }).get(5, TimeUnit.SECONDS);
+        executors.runCpu(() -> { }).get(5, TimeUnit.SECONDS);
+    }
+
+    private void waitForActive() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executors.getIoStats().getActiveThreads() == 0) {
+            assertTrue("task never started", System.nanoTime() < deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void assertRejected(CompletableFuture<?> future) throws Exception {
+        assertTrue(future.isCompletedExceptionally());
+        try {
+            future.get();
+            fail("expected a rejection");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package io.droptracker.service;
+
+import io.droptracker.models.AchievementDiaryArea;
+import io.droptracker.models.StateSnapshot;
+import io.droptracker.models.api.Manifest;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Drives {@link StateCollector} against a fake client whose reads advance a
+ * fake clock, so per-slice work is deterministic: each slice must stop at its
+ * budget, and sections that are not dirty must not be read again at all.
+ */
+public class StateCollectorTest {
+
+    private static final long QUEST_READ_NANOS = 40_000L;
+    private static final long DIARY_READ_NANOS = 60_000L;
+    private static final long BUDGET_NANOS = 1_000_000L;
+
+    private long now;
+    private FakeReads reads;
+    private StateCollector collector;
+    private Manifest manifest;
+
+    @Before
+    public void setUp() {
+        now = 0;
+        reads = new FakeReads();
+        collector = new StateCollector(() -> now);
+
+        manifest = new Manifest();
+        List<Integer> questIds = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            questIds.add(i);
+        }
+        manifest.setQuestIds(questIds);
+        manifest.setCombatAchievementVarps(Arrays.asList(3116, 3117));
+        List<Manifest.CombatAchievementTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            Manifest.CombatAchievementTask task = new Manifest.CombatAchievementTask();
+            task.setVarbit(10_000 + i);
+            tasks.add(task);
+        }
+        manifest.setCombatAchievementTasks(tasks);
+    }
+
+    private StateSnapshot runToCompletion(StateCollector.Job job, List<Long> perSliceNanos) {
+        while (!job.isDone()) {
+            long start = now;
+            job.step(BUDGET_NANOS);
+            perSliceNanos.add(now - start);
+        }
+        StateSnapshot snapshot = new StateSnapshot();
+        job.complete(snapshot);
+        return snapshot;
+    }
+
+    @Test
+    public void coldCollectionIsSlicedWithinBudget() {
+        List<Long> slices = new ArrayList<>();
+        StateSnapshot snapshot = runToCompletion(collector.begin(reads, manifest), slices);
+
+        assertTrue("expected the work to span several slices", slices.size() > 5);
+        for (long spent : slices) {
+            // A slice may overshoot by at most the one unit that crossed the deadline.
+            assertTrue("slice took " + spent + "ns", spent <= BUDGET_NANOS + DIARY_READ_NANOS);
+        }
+        assertEquals(200, reads.questReads);
+        assertEquals(200, snapshot.getQuests().size());
+        assertEquals(AchievementDiaryArea.values().length, reads.diaryReads);
+        assertEquals(AchievementDiaryArea.values().length * 4, snapshot.getDiaryTiers().size());
+        assertEquals(300, snapshot.getCompletedCombatAchievementTasks().size());
+        assertEquals(2, snapshot.getCombatAchievementVarps().size());
+    }
+
+    @Test
+    public void cleanSectionsAreServedFromCache() {
+        runToCompletion(collector.begin(reads, manifest), new ArrayList<>());
+        reads.reset();
+
+        List<Long> slices = new ArrayList<>();
+        StateSnapshot snapshot = runToCompletion(collector.begin(reads, manifest), slices);
+
+        assertEquals(0, reads.questReads);
+        assertEquals(0, reads.diaryReads);
+        assertEquals(0, reads.varbitReads);
+        assertEquals(1, slices.size());
+        // Cached values still reach the snapshot.
+        assertEquals(200, snapshot.getQuests().size());
+        assertEquals(300, snapshot.getCompletedCombatAchievementTasks().size());
+    }
+
+    @Test
+    public void onlyDirtySectionIsReRead() {
+        runToCompletion(collector.begin(reads, manifest), new ArrayList<>());
+        reads.reset();
+
+        collector.markDirty(StateCollector.Section.COMBAT_ACHIEVEMENTS);
+        runToCompletion(collector.begin(reads, manifest), new ArrayList<>());
+
+        assertEquals(0, reads.questReads);
+        assertEquals(0, reads.diaryReads);
+        assertEquals(600, reads.varbitReads);
+    }
+
+    @Test
+    public void intervalSyncReadsOnlyDirtySections() {
+        runToCompletion(collector.begin(reads, manifest), new ArrayList<>());
+        reads.reset();
+
+        StateSyncService.markForSource(collector, "interval");
+        runToCompletion(collector.begin(reads, manifest), new ArrayList<>());
+        assertEquals(0, reads.questReads);
+        assertEquals(0, reads.diaryReads);
+        assertEquals(0, reads.varbitReads);
+
+        StateSyncService.markForSource(collector, "login");
+        runToCompletion(collector.begin(reads, manifest), new ArrayList<>());
+        assertEquals(200, reads.questReads);
+        assertEquals(AchievementDiaryArea.values().length, reads.diaryReads);
+    }
+
+    @Test
+    public void combatAchievementsWaitForManifest() {
+        StateSnapshot snapshot = runToCompletion(collector.begin(reads, null), new ArrayList<>());
+        assertTrue(snapshot.getCombatAchievementVarps().isEmpty());
+        assertTrue(collector.isDirty(StateCollector.Section.COMBAT_ACHIEVEMENTS));
+        assertFalse(collector.isDirty(StateCollector.Section.DIARIES));
+    }
+
+    @Test
+    public void abandonedJobLeavesSectionsDirty() {
+        StateCollector.Job job = collector.begin(reads, manifest);
+        job.step(BUDGET_NANOS);
+        job.abandon();
+
+        assertTrue(collector.isDirty(StateCollector.Section.QUESTS));
+        assertTrue(collector.isDirty(StateCollector.Section.DIARIES));
+    }
+
+    /** A client whose reads cost fake time and are counted. */
+    private final class FakeReads implements StateCollector.Reads {
+        int questReads;
+        int diaryReads;
+        int varbitReads;
+
+        void reset() {
+            questReads = 0;
+            diaryReads = 0;
+            varbitReads = 0;
+        }
+
+        @Override
+        public Map<String, Integer> skills() {
+            now += 5_000L;
+            return Collections.singletonMap("Attack", 13_034_431);
+        }
+
+        @Override
+        public int questState(int questId) {
+            questReads++;
+            now += QUEST_READ_NANOS;
+            return questId % 3;
+        }
+
+        @Override
+        public int varp(int varpId) {
+            now += 1_000L;
+            return -1;
+        }
+
+        @Override
+        public int varbit(int varbitId) {
+            varbitReads++;
+            now += 500L;
+            return varbitId % 2;
+        }
+
+        @Override
+        public int[] diaryTiers(AchievementDiaryArea area) {
+            diaryReads++;
+            now += DIARY_READ_NANOS;
+            return new int[]{11, 10, 9, 6};
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package io.droptracker.service;
+
+import com.google.gson.Gson;
+import io.droptracker.models.StateSnapshot;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Delta computation and persistence in {@link StateMirror}: only acknowledged
+ * state becomes the baseline, deltas carry just the changed entries, and the
+ * mirrored collection log outlives a restart.
+ */
+public class StateMirrorTest {
+
+    private static final String ACCOUNT = "123456789";
+
+    private final Gson gson = new Gson();
+
+    private static StateSnapshot snapshot(int attackXp, int questState, int... items) {
+        StateSnapshot snapshot = new StateSnapshot();
+        snapshot.setAccountHash(ACCOUNT);
+        snapshot.setCombatLevel(100);
+        Map<String, Integer> skills = new HashMap<>();
+        skills.put("Attack", attackXp);
+        skills.put("Defence", 1_000);
+        snapshot.setSkills(skills);
+        Map<Integer, Integer> quests = new HashMap<>();
+        quests.put(1, questState);
+        quests.put(2, 2);
+        snapshot.setQuests(quests);
+        snapshot.setCompletedCombatAchievementTasks(Arrays.asList(10_000, 10_001));
+        snapshot.setDiaryTiers(Arrays.asList(new StateSnapshot.DiaryTier(0, 0, 11), new StateSnapshot.DiaryTier(0, 1, 4)));
+        Map<Integer, Integer> clog = new HashMap<>();
+        for (int item : items) {
+            clog.put(item, 1);
+        }
+        snapshot.setItems(clog);
+        return snapshot;
+    }
+
+    @Test
+    public void firstUploadIsFull() {
+        StateMirror mirror = new StateMirror(ACCOUNT);
+        StateSnapshot merged = mirror.merge(snapshot(500, 1, 4151));
+        assertSame(merged, mirror.toUpload(merged));
+        assertNull(merged.getBaselineId());
+    }
+
+    @Test
+    public void deltaCarriesOnlyChangedEntries() {
+        StateMirror mirror = new StateMirror(ACCOUNT);
+        mirror.acknowledge(mirror.merge(snapshot(500, 1, 4151)), "b1");
+
+        StateSnapshot next = snapshot(900, 2, 11802);
+        next.setDiaryTiers(Arrays.asList(new StateSnapshot.DiaryTier(0, 0, 11), new StateSnapshot.DiaryTier(0, 1, 5)));
+        next.setCompletedCombatAchievementTasks(Arrays.asList(10_000, 10_001, 10_002));
+        StateSnapshot delta = mirror.toUpload(mirror.merge(next));
+
+        assertEquals("b1", delta.getBaselineId());
+        assertEquals(Collections.singletonMap("Attack", 900), delta.getSkills());
+        assertEquals(Collections.singletonMap(1, 2), delta.getQuests());
+        assertEquals(Collections.singletonList(10_002), delta.getCompletedCombatAchievementTasks());
+        assertEquals(1, delta.getDiaryTiers().size());
+        assertEquals(5, delta.getDiaryTiers().get(0).getCompletedCount());
+        // Only the newly seen item; the mirrored one is already on the server.
+        assertEquals(Collections.singletonMap(11802, 1), delta.getItems());
+        assertEquals(Integer.valueOf(100), delta.getCombatLevel());
+    }
+
+    @Test
+    public void unchangedStateSendsNothing() {
+        StateMirror mirror = new StateMirror(ACCOUNT);
+        mirror.acknowledge(mirror.merge(snapshot(500, 1, 4151)), "b1");
+        // Items from earlier sessions are not re-read, but the mirror supplies them.
+        assertNull(mirror.toUpload(mirror.merge(snapshot(500, 1))));
+    }
+
+    @Test
+    public void rejectedBaselineFallsBackToFullWithMirroredItems() {
+        StateMirror mirror = new StateMirror(ACCOUNT);
+        StateSnapshot first = snapshot(500, 1, 4151);
+        first.setClogComplete(true);
+        mirror.acknowledge(mirror.merge(first), "b1");
+
+        StateSnapshot merged = mirror.merge(snapshot(600, 1));
+        mirror.rejectBaseline();
+        StateSnapshot full = mirror.toUpload(merged);
+
+        assertNull(full.getBaselineId());
+        assertEquals(2, full.getSkills().size());
+        assertEquals(Collections.singletonMap(4151, 1), full.getItems());
+        assertTrue(full.isClogComplete());
+    }
+
+    @Test
+    public void unacknowledgedChangesAreResent() {
+        StateMirror mirror = new StateMirror(ACCOUNT);
+        mirror.acknowledge(mirror.merge(snapshot(500, 1)), "b1");
+
+        // Upload of this one fails: the mirror is not told about it.
+        mirror.toUpload(mirror.merge(snapshot(700, 1)));
+
+        StateSnapshot delta = mirror.toUpload(mirror.merge(snapshot(700, 1)));
+        assertEquals(Collections.singletonMap("Attack", 700), delta.getSkills());
+    }
+
+    @Test
+    public void mirrorSurvivesRestart() throws IOException {
+        Path dir = Files.createTempDirectory("state-mirror");
+        Path file = dir.resolve("state_" + ACCOUNT + ".json");
+        try {
+            StateMirror mirror = new StateMirror(ACCOUNT);
+            mirror.acknowledge(mirror.merge(snapshot(500, 1, 4151, 11802)), "b7");
+            mirror.save(file, gson);
+
+            StateMirror restored = StateMirror.load(file, ACCOUNT, gson);
+            assertEquals("b7", restored.getBaselineId());
+            assertNull(restored.toUpload(restored.merge(snapshot(500, 1))));
+
+            restored.rejectBaseline();
+            StateSnapshot full = restored.toUpload(restored.merge(snapshot(500, 1)));
+            assertEquals(2, full.getItems().size());
+            assertTrue(full.getItems().containsKey(4151));
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    @Test
+    public void otherAccountsMirrorIsIgnored() throws IOException {
+        Path dir = Files.createTempDirectory("state-mirror");
+        Path file = dir.resolve("state.json");
+        try {
+            StateMirror mirror = new StateMirror(ACCOUNT);
+            mirror.acknowledge(mirror.merge(snapshot(500, 1, 4151)), "b1");
+            mirror.save(file, gson);
+
+            StateMirror other = StateMirror.load(file, "987", gson);
+            assertNull(other.getBaselineId());
+            assertFalse(other.merge(snapshot(500, 1)).getItems().containsKey(4151));
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(dir);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package io.droptracker.ui.overlays;
+
+import com.google.gson.Gson;
+import io.droptracker.DropTrackerConfig;
+import io.droptracker.models.EventDisplayMode;
+import io.droptracker.models.api.EventState;
+import io.droptracker.service.EventNotificationService;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * {@link EventHudOverlay} paints its card and nudges once and redraws them
+ * from the cached images, frame after frame, until the display version or
+ * the font render context moves. Frames are drawn into a plain image.
+ */
+public class EventHudOverlayTest {
+
+    private final Gson gson = new Gson();
+    private final EventState.Entry entry = gson.fromJson("{\"event\":{\"id\":7,\"name\":\"Bingo\",\"kind\":\"bingo\"},"
+            + "\"team\":{\"id\":3,\"name\":\"Red\",\"score\":40,\"rank\":1,\"team_count\":4},"
+            + "\"tasks_completed\":3,\"tasks_total\":25}", EventState.Entry.class);
+
+    private EventNotificationService service;
+    private EventHudOverlay overlay;
+
+    @Before
+    public void setUp() {
+        TestConfig config = new TestConfig();
+        service = new EventNotificationService(config, null, null, null, null, null, null, null, gson) {
+            @Override
+            public EventState.Entry hudEntry() {
+                return entry;
+            }
+        };
+        overlay = new EventHudOverlay(config, service, null, null);
+    }
+
+    private static Graphics2D screen() {
+        return new BufferedImage(400, 400, BufferedImage.TYPE_INT_ARGB).createGraphics();
+    }
+
+    @Test
+    public void unchangedStateRedrawsTheSameCard() {
+        Graphics2D screen = screen();
+        overlay.render(screen);
+        BufferedImage card = overlay.cachedHud();
+        assertNotNull(card);
+
+        overlay.render(screen);
+        overlay.render(screen());
+        assertSame(card, overlay.cachedHud());
+    }
+
+    @Test
+    public void displayVersionRepaintsTheCard() {
+        Graphics2D screen = screen();
+        overlay.render(screen);
+        BufferedImage card = overlay.cachedHud();
+
+        service.onConfigChanged("eventHudDetail");
+        overlay.render(screen);
+        assertNotSame(card, overlay.cachedHud());
+        card = overlay.cachedHud();
+
+        overlay.render(screen);
+        assertSame(card, overlay.cachedHud());
+    }
+
+    @Test
+    public void fontRenderContextRepaintsTheCard() {
+        overlay.render(screen());
+        BufferedImage card = overlay.cachedHud();
+
+        Graphics2D fractional = screen();
+        fractional.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+        overlay.render(fractional);
+        assertNotSame(card, overlay.cachedHud());
+    }
+
+    @Test
+    public void nudgesAreRepaintedOnlyWithTheFontRenderContext() {
+        EventNotificationService.Toast toast = new EventNotificationService.Toast("Task complete",
+                "Red finished Vorkath heads", null, System.currentTimeMillis());
+        service.getToasts().add(toast);
+        Graphics2D screen = screen();
+        overlay.render(screen);
+        BufferedImage nudge = overlay.cachedNudge(toast);
+        assertNotNull(nudge);
+
+        // A new state repaints the card, not the pop-ups hanging off it.
+        service.onConfigChanged("eventHudDetail");
+        overlay.render(screen);
+        assertSame(nudge, overlay.cachedNudge(toast));
+
+        Graphics2D fractional = screen();
+        fractional.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+        overlay.render(fractional);
+        assertNotSame(nudge, overlay.cachedNudge(toast));
+    }
+
+    /** Event notifications on the Enhanced display; everything else at its default. */
+    static class TestConfig implements DropTrackerConfig {
+        @Override
+        public EventDisplayMode eventDisplayMode() {
+            return EventDisplayMode.ENHANCED;
+        }
+
+        @Override
+        public void setPinnedEventId(int eventId) {
+        }
+
+        @Override
+        public void setLastVersionNotified(String versionNotified) {
+        }
+
+        @Override
+        public void setLastAccountName(String accountName) {
+        }
+
+        @Override
+        public void setCustomApiEndpoint(String customApiEndpoint) {
+        }
+
+        @Override
+        public void setLastAccountHash(String accountHash) {
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package io.droptracker.ui.overlays;
+
+import com.google.gson.Gson;
+import io.droptracker.models.api.EventNotification;
+import io.droptracker.service.EventNotificationService;
+import io.droptracker.service.EventNotificationService.Toast;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * {@link EventToastOverlay} paints each pop-up once and redraws it from the
+ * cached card while it fades, until the font render context moves.
+ */
+public class EventToastOverlayTest {
+
+    private EventNotificationService service;
+    private EventToastOverlay overlay;
+
+    @Before
+    public void setUp() {
+        EventHudOverlayTest.TestConfig config = new EventHudOverlayTest.TestConfig();
+        service = new EventNotificationService(config, null, null, null, null, null, null, null, new Gson());
+        overlay = new EventToastOverlay(config, service, null);
+    }
+
+    private static Graphics2D screen() {
+        return new BufferedImage(400, 400, BufferedImage.TYPE_INT_ARGB).createGraphics();
+    }
+
+    private Toast toast(String title, EventNotification.Priority priority) {
+        Toast toast = new Toast(title, "Red finished Vorkath heads", null, System.currentTimeMillis(),
+                priority, null);
+        service.getToasts().add(toast);
+        return toast;
+    }
+
+    @Test
+    public void eachCardIsPaintedOnce() {
+        Toast first = toast("Task complete", EventNotification.Priority.HIGH);
+        Graphics2D screen = screen();
+        overlay.render(screen);
+        BufferedImage card = overlay.cachedCard(first);
+        assertNotNull(card);
+
+        // A second pop-up arriving paints its own card and leaves the first alone.
+        Toast second = toast("Progress", EventNotification.Priority.LOW);
+        overlay.render(screen);
+        overlay.render(screen());
+        assertSame(card, overlay.cachedCard(first));
+        assertNotNull(overlay.cachedCard(second));
+    }
+
+    @Test
+    public void fontRenderContextRepaintsTheCards() {
+        Toast toast = toast("Task complete", EventNotification.Priority.NORMAL);
+        overlay.render(screen());
+        BufferedImage card = overlay.cachedCard(toast);
+
+        Graphics2D fractional = screen();
+        fractional.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+        overlay.render(fractional);
+        assertNotNull(overlay.cachedCard(toast));
+        assertNotSame(card, overlay.cachedCard(toast));
+    }
+}
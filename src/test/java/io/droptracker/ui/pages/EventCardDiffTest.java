@@ -0,0 +1,71 @@
+package io.droptracker.ui.pages;
+
+import com.google.gson.Gson;
+import io.droptracker.models.api.EventState;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class EventCardDiffTest {
+
+    private final Gson gson = new Gson();
+
+    private EventState.Entry entry(String task, String standings) {
+        return gson.fromJson("{\"event\":{\"id\":7,\"name\":\"Bingo\",\"kind\":\"bingo\"},"
+            + "\"team\":{\"id\":3,\"score\":40,\"rank\":1,\"team_count\":4},"
+            + "\"tasks_completed\":1,\"tasks_total\":2,"
+            + "\"tasks\":[{\"id\":1,\"label\":\"Done\",\"completed\":true}," + task + "],"
+            + "\"standings\":" + standings + "}", EventState.Entry.class);
+    }
+
+    private static final String STANDINGS = "[{\"team_id\":3,\"name\":\"Red\",\"score\":40,\"rank\":1}]";
+
+    private static String task(String fields) {
+        return "{\"id\":2,\"label\":\"Vorkath heads\",\"icon_path\":\"npcdb/8061.png\"," + fields + "}";
+    }
+
+    @Test
+    public void progressMovesTheRowButNotTheCard() {
+        EventState.Entry before = entry(task("\"have\":2,\"need\":10"), STANDINGS);
+        EventState.Entry after = entry(task("\"have\":3,\"need\":10"), STANDINGS);
+
+        assertEquals(EventCardDiff.shape(before), EventCardDiff.shape(after));
+        assertNotEquals(EventCardDiff.rowState(before.getTasks().get(1)),
+            EventCardDiff.rowState(after.getTasks().get(1)));
+    }
+
+    @Test
+    public void obtainedRequirementMovesTheRowButNotTheCard() {
+        EventState.Entry before = entry(task("\"requirements\":[{\"name\":\"Dragon bones\"}]"), STANDINGS);
+        EventState.Entry after = entry(task("\"requirements\":[{\"name\":\"Dragon bones\",\"obtained\":true}]"),
+            STANDINGS);
+
+        assertEquals(EventCardDiff.shape(before), EventCardDiff.shape(after));
+        assertNotEquals(EventCardDiff.rowState(before.getTasks().get(1)),
+            EventCardDiff.rowState(after.getTasks().get(1)));
+    }
+
+    @Test
+    public void completionAndStandingsChangeTheCard() {
+        String shape = EventCardDiff.shape(entry(task("\"have\":2,\"need\":10"), STANDINGS));
+
+        assertNotEquals(shape,
+            EventCardDiff.shape(entry(task("\"have\":10,\"need\":10,\"completed\":true"), STANDINGS)));
+        assertNotEquals(shape, EventCardDiff.shape(entry(task("\"have\":2,\"need\":10"),
+            "[{\"team_id\":3,\"name\":\"Red\",\"score\":45,\"rank\":1}]")));
+        assertNotEquals(shape,
+            EventCardDiff.shape(entry("{\"id\":2,\"label\":\"Vorkath heads\",\"have\":2,\"need\":10}",
+                STANDINGS)));
+    }
+
+    @Test
+    public void fieldsDoNotRunTogether() {
+        EventState.TaskInfo a = gson.fromJson("{\"id\":1,\"badge\":\"ab\",\"value\":\"c\"}",
+            EventState.TaskInfo.class);
+        EventState.TaskInfo b = gson.fromJson("{\"id\":1,\"badge\":\"a\",\"value\":\"bc\"}",
+            EventState.TaskInfo.class);
+
+        assertNotEquals(EventCardDiff.rowState(a), EventCardDiff.rowState(b));
+    }
+}
@@ -0,0 +1,114 @@
+package io.droptracker.ui.pages;
+
+import io.droptracker.models.submissions.SubmissionStatus;
+import io.droptracker.models.submissions.ValidSubmission;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class SubmissionFeedModelTest {
+
+    private final SubmissionFeedModel model = new SubmissionFeedModel();
+    private final List<String> events = new ArrayList<>();
+
+    @Before
+    public void listen() {
+        model.addListDataListener(new ListDataListener() {
+            @Override
+            public void intervalAdded(ListDataEvent e) {
+                events.add("add " + e.getIndex0());
+            }
+
+            @Override
+            public void intervalRemoved(ListDataEvent e) {
+                events.add("remove " + e.getIndex0());
+            }
+
+            @Override
+            public void contentsChanged(ListDataEvent e) {
+                events.add("change " + e.getIndex0());
+            }
+        });
+    }
+
+    private static ValidSubmission submission(String item) {
+        ValidSubmission submission = new ValidSubmission();
+        submission.setItemName(item);
+        return submission;
+    }
+
+    @Test
+    public void newestComesFirst() {
+        ValidSubmission first = submission("Abyssal whip");
+        ValidSubmission second = submission("Dragon pickaxe");
+
+        model.sync(Arrays.asList(first, second));
+
+        assertEquals(2, model.getSize());
+        assertSame(second, model.getElementAt(0));
+        assertSame(first, model.getElementAt(1));
+    }
+
+    @Test
+    public void newSubmissionIsOneInsertAtTheTop() {
+        ValidSubmission first = submission("Abyssal whip");
+        model.sync(Arrays.asList(first));
+        events.clear();
+
+        ValidSubmission second = submission("Dragon pickaxe");
+        model.sync(Arrays.asList(first, second));
+
+        assertEquals(Arrays.asList("add 0"), events);
+        assertSame(second, model.getElementAt(0));
+    }
+
+    @Test
+    public void statusChangeRepaintsOnlyThatRow() {
+        ValidSubmission first = submission("Abyssal whip");
+        ValidSubmission second = submission("Dragon pickaxe");
+        List<ValidSubmission> submissions = Arrays.asList(first, second);
+        model.sync(submissions);
+        events.clear();
+
+        first.setStatus(SubmissionStatus.SENT);
+        model.sync(submissions);
+        model.sync(submissions);
+
+        assertEquals(Arrays.asList("change 1"), events);
+    }
+
+    @Test
+    public void dismissedSubmissionIsRemoved() {
+        ValidSubmission first = submission("Abyssal whip");
+        ValidSubmission second = submission("Dragon pickaxe");
+        model.sync(Arrays.asList(first, second));
+        events.clear();
+
+        model.sync(Arrays.asList(second));
+
+        assertEquals(Arrays.asList("remove 1"), events);
+        assertSame(second, model.getElementAt(0));
+    }
+
+    @Test
+    public void rowsAreKeyedByInstanceNotValue() {
+        // Equal by value, as two identical drops in a row would be.
+        ValidSubmission first = submission("Bones");
+        ValidSubmission second = submission("Bones");
+        second.setTimeReceived(first.getTimeReceived());
+        model.sync(Arrays.asList(first, second));
+
+        model.sync(Arrays.asList(second));
+
+        assertEquals(1, model.getSize());
+        assertSame(second, model.getElementAt(0));
+    }
+}
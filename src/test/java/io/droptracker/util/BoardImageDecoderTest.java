@@ -0,0 +1,102 @@
+package io.droptracker.util;
+
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BoardImageDecoderTest {
+
+    private static final int SOURCE_WIDTH = 4000;
+    private static final int SOURCE_HEIGHT = 3000;
+
+    /** A lootboard-sized PNG: 36 MB of pixels once decoded whole. */
+    private static byte[] largePng;
+
+    @BeforeClass
+    public static void encodeLargeBoard() throws IOException {
+        BufferedImage board = new BufferedImage(SOURCE_WIDTH, SOURCE_HEIGHT, BufferedImage.TYPE_3BYTE_BGR);
+        Graphics2D g = board.createGraphics();
+        g.setColor(new Color(0x2b2b2b));
+        g.fillRect(0, 0, SOURCE_WIDTH, SOURCE_HEIGHT);
+        g.setColor(new Color(0xff981f));
+        for (int x = 0; x < SOURCE_WIDTH; x += 200) {
+            g.fillRect(x, 0, 100, SOURCE_HEIGHT);
+        }
+        g.dispose();
+        largePng = png(board);
+        // Decode once so class loading and reader lookup don't count against the test below.
+        BoardImageDecoder.decode(png(new BufferedImage(8, 8, BufferedImage.TYPE_3BYTE_BGR)), 4, 4, null);
+    }
+
+    private static byte[] png(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void subsamplingLeavesAtLeastTheDisplaySize() {
+        assertEquals(1, BoardImageDecoder.subsampling(800, 600, 1600, 900));
+        assertEquals(3, BoardImageDecoder.subsampling(4000, 3000, 1600, 900));
+        assertTrue((4000 + 2) / 3 >= BoardImageDecoder.displaySize(4000, 3000, 1600, 900).width);
+        assertTrue((3000 + 2) / 3 >= BoardImageDecoder.displaySize(4000, 3000, 1600, 900).height);
+    }
+
+    @Test
+    public void decodesToTheDisplaySize() throws IOException {
+        BufferedImage image = BoardImageDecoder.decode(largePng, 1600, 900, null);
+
+        assertEquals(1200, image.getWidth());
+        assertEquals(900, image.getHeight());
+        // The stripes survive the subsampling: orange at the left edge, grey past the first stripe.
+        assertEquals(0xff981f, image.getRGB(5, 450) & 0xffffff);
+        assertEquals(0x2b2b2b, image.getRGB(45, 450) & 0xffffff);
+    }
+
+    @Test
+    public void smallImagesAreNotEnlarged() throws IOException {
+        byte[] small = png(new BufferedImage(300, 200, BufferedImage.TYPE_3BYTE_BGR));
+
+        BufferedImage image = BoardImageDecoder.decode(small, 1600, 900, null);
+
+        assertEquals(300, image.getWidth());
+        assertEquals(200, image.getHeight());
+    }
+
+    @Test
+    public void nonImageBytesDecodeToNull() throws IOException {
+        assertNull(BoardImageDecoder.decode("<html>502 Bad Gateway</html>".getBytes(), 1600, 900, null));
+    }
+
+    @Test
+    public void peakDecodeMemoryFollowsTheDisplaySizeNotTheSource() throws IOException {
+        Assume.assumeTrue("per-thread allocation counts are unavailable",
+            ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue("per-thread allocation counts are unavailable", threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long fullDecodeBytes = (long) SOURCE_WIDTH * SOURCE_HEIGHT * 3;
+        long thread = Thread.currentThread().getId();
+
+        long before = threads.getThreadAllocatedBytes(thread);
+        BufferedImage image = BoardImageDecoder.decode(largePng, 1000, 1000, null);
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        // Everything allocated, not just what is live at once: a bound on the peak.
+        // A step of 4 decodes 1000x750 directly, 2.25 MB of pixels.
+        assertEquals(1000, image.getWidth());
+        assertTrue("decode allocated " + allocated + " bytes", allocated < fullDecodeBytes / 6);
+    }
+}
@@ -0,0 +1,74 @@
+package io.droptracker.util;
+
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class DecodedImageCacheTest {
+
+    private static BufferedImage argb(int size) {
+        return new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    @Test
+    public void weighsPixelBytesNotEntries() {
+        assertEquals(32 * 32 * 4, DecodedImageCache.weigh(argb(32)));
+        assertEquals(32 * 32, DecodedImageCache.weigh(new BufferedImage(32, 32, BufferedImage.TYPE_BYTE_INDEXED)));
+    }
+
+    @Test
+    public void oneLargeImageEvictsManySmallOnes() {
+        DecodedImageCache cache = new DecodedImageCache(256 * 256 * 4);
+        for (int i = 0; i < 50; i++) {
+            cache.put("icon/" + i, argb(32));
+        }
+        assertNotNull(cache.get("icon/0"));
+
+        cache.put("board", argb(256));
+
+        assertNotNull(cache.get("board"));
+        assertNull(cache.get("icon/0"));
+        assertEquals(256 * 256 * 4, cache.usedBytes());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedFirst() {
+        DecodedImageCache cache = new DecodedImageCache(3 * 32 * 32 * 4);
+        cache.put("a", argb(32));
+        cache.put("b", argb(32));
+        cache.put("c", argb(32));
+        cache.get("a");
+
+        cache.put("d", argb(32));
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+    }
+
+    @Test
+    public void keepsTheNewestEntryEvenOverBudget() {
+        DecodedImageCache cache = new DecodedImageCache(100);
+        cache.put("board", argb(64));
+
+        assertNotNull(cache.get("board"));
+    }
+
+    @Test
+    public void invalidateDropsScaledVariantsToo() {
+        DecodedImageCache cache = new DecodedImageCache(1 << 20);
+        cache.put("npcdb/1.png", argb(64));
+        cache.put(DecodedImageCache.variantKey("npcdb/1.png", 20), argb(20));
+        cache.put("npcdb/1.png.bak", argb(8));
+
+        cache.invalidate("npcdb/1.png");
+
+        assertNull(cache.get("npcdb/1.png"));
+        assertNull(cache.get(DecodedImageCache.variantKey("npcdb/1.png", 20)));
+        assertNotNull(cache.get("npcdb/1.png.bak"));
+        assertEquals(8 * 8 * 4, cache.usedBytes());
+    }
+}
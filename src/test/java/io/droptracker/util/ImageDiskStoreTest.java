@@ -0,0 +1,117 @@
+package io.droptracker.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ImageDiskStoreTest {
+
+    private Path dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("image-disk-store");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Test
+    public void roundTripsBytesAndValidators() {
+        ImageDiskStore store = new ImageDiskStore(dir, 1 << 20);
+        byte[] png = {(byte) 0x89, 'P', 'N', 'G', 1, 2, 3};
+
+        store.write("npcdb/2215.png", "\"abc\"", "Mon, 01 Jan 2024 00:00:00 GMT", png);
+        ImageDiskStore.Entry entry = store.read("npcdb/2215.png");
+
+        assertArrayEquals(png, entry.getBytes());
+        assertEquals("\"abc\"", entry.getEtag());
+        assertEquals("Mon, 01 Jan 2024 00:00:00 GMT", entry.getLastModified());
+        assertTrue(System.currentTimeMillis() - entry.getValidatedAtMs() < 60_000);
+    }
+
+    @Test
+    public void missingValidatorsReadBackAsNull() {
+        ImageDiskStore store = new ImageDiskStore(dir, 1 << 20);
+        store.write("skills/attack.png", null, null, new byte[]{1});
+
+        ImageDiskStore.Entry entry = store.read("skills/attack.png");
+
+        assertNull(entry.getEtag());
+        assertNull(entry.getLastModified());
+        assertNull(store.read("skills/defence.png"));
+    }
+
+    @Test
+    public void touchMarksTheCopyValidatedNow() {
+        ImageDiskStore store = new ImageDiskStore(dir, 1 << 20);
+        store.write("a.png", null, null, new byte[]{1});
+        File[] files = dir.toFile().listFiles();
+        assertTrue(files[0].setLastModified(System.currentTimeMillis() - 48L * 3600_000));
+
+        store.touch("a.png");
+
+        assertTrue(System.currentTimeMillis() - store.read("a.png").getValidatedAtMs() < 60_000);
+    }
+
+    @Test
+    public void firstWriteTrimsOldestFilesToTheBudget() {
+        ImageDiskStore previous = new ImageDiskStore(dir, 1 << 20);
+        for (int i = 0; i < 4; i++) {
+            previous.write("old/" + i + ".png", null, null, new byte[1000]);
+        }
+        File[] files = dir.toFile().listFiles();
+        for (int i = 0; i < files.length; i++) {
+            assertTrue(files[i].setLastModified(1_000_000L * (i + 1)));
+        }
+
+        ImageDiskStore store = new ImageDiskStore(dir, 2500);
+        store.write("new.png", null, null, new byte[10]);
+
+        // The newest two old files fit alongside the new one.
+        assertEquals(3, dir.toFile().listFiles((d, name) -> name.endsWith(".img")).length);
+    }
+
+    @Test
+    public void writesPastTheBudgetTrimTheOldest() {
+        ImageDiskStore store = new ImageDiskStore(dir, 2500);
+        store.write("a.png", null, null, new byte[1000]);
+        age(1_000_000L);
+        store.write("b.png", null, null, new byte[1000]);
+        age(2_000_000L);
+        assertNotNull(store.read("a.png"));
+
+        // Long after the session's first write, the third file still tips the total over.
+        store.write("c.png", null, null, new byte[1000]);
+
+        assertNull(store.read("a.png"));
+        assertNotNull(store.read("b.png"));
+        assertNotNull(store.read("c.png"));
+    }
+
+    /** Back-dates the files written since the last call, so the trim order is not down to clock ticks. */
+    private void age(long modifiedMs) {
+        for (File file : dir.toFile().listFiles((d, name) -> name.endsWith(".img"))) {
+            if (file.lastModified() > 1_000_000_000L) {
+                assertTrue(file.setLastModified(modifiedMs));
+            }
+        }
+    }
+}
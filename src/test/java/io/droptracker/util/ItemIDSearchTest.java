@@ -67,4 +67,20 @@ public class ItemIDSearchTest {
         search.populate(new HashMap<>(), new HashSet<>());
         assertNull(search.findItemId("Twisted bow"));
     }
+
+    @Test
+    public void closeNamesResolveToTheUnnotedItem() {
+        ItemIDSearch search = new ItemIDSearch();
+        Map<Integer, String> namesById = new HashMap<>();
+        namesById.put(4151, "Abyssal whip");
+        namesById.put(4152, "Abyssal whip");
+        Map<Integer, Integer> notedToBase = new HashMap<>();
+        notedToBase.put(4152, 4151);
+
+        search.populate(namesById, notedToBase);
+
+        assertEquals(Integer.valueOf(4151), search.findClosestItemId("abyssal whip", 0.7));
+        assertEquals(Integer.valueOf(4151), search.findClosestItemId("Abysal whip", 0.5));
+        assertNull(search.findClosestItemId("Dragon claws", 0.7));
+    }
 }
@@ -0,0 +1,87 @@
+package io.droptracker.util;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Query semantics of {@link ItemNameIndex}: case-insensitive prefix scans,
+ * trigram fuzzy ranking and noted-id resolution.
+ */
+public class ItemNameIndexTest {
+
+    private static ItemNameIndex sample() {
+        Map<Integer, String> names = new HashMap<>();
+        names.put(4151, "Abyssal whip");
+        names.put(4152, "Abyssal whip");
+        names.put(13265, "Abyssal dagger");
+        names.put(11802, "Armadyl godsword");
+        names.put(20997, "Twisted bow");
+        names.put(12924, "Toxic blowpipe (empty)");
+        Map<Integer, Integer> notes = new HashMap<>();
+        notes.put(4152, 4151);
+        return ItemNameIndex.build(names, notes);
+    }
+
+    @Test
+    public void exactLookupIsCaseSensitive() {
+        ItemNameIndex index = sample();
+        assertEquals(Integer.valueOf(4151), index.exact("Abyssal whip"));
+        assertNull(index.exact("abyssal whip"));
+        assertEquals(Integer.valueOf(4151), index.ignoreCase("  ABYSSAL WHIP "));
+    }
+
+    @Test
+    public void prefixReturnsNameOrderedMatches() {
+        List<ItemNameIndex.Match> hits = sample().prefix("aby", 10);
+        assertEquals(2, hits.size());
+        assertEquals("Abyssal dagger", hits.get(0).name);
+        assertEquals("Abyssal whip", hits.get(1).name);
+        assertEquals(4151, hits.get(1).id);
+    }
+
+    @Test
+    public void prefixHonoursLimitAndMisses() {
+        ItemNameIndex index = sample();
+        assertEquals(1, index.prefix("a", 1).size());
+        assertTrue(index.prefix("zulrah", 10).isEmpty());
+        assertTrue(index.prefix("", 10).isEmpty());
+    }
+
+    @Test
+    public void fuzzyToleratesTypos() {
+        List<ItemNameIndex.Match> hits = sample().fuzzy("twistd bow", 3, 0.3);
+        assertFalse(hits.isEmpty());
+        assertEquals(20997, hits.get(0).id);
+    }
+
+    @Test
+    public void fuzzyRespectsMinimumScore() {
+        assertTrue(sample().fuzzy("dragon claws", 5, 0.7).isEmpty());
+    }
+
+    @Test
+    public void resolvesNotedIds() {
+        ItemNameIndex index = sample();
+        assertTrue(index.isNoted(4152));
+        assertEquals(4151, index.unnoted(4152));
+        assertEquals(4151, index.unnoted(4151));
+        assertEquals(20997, index.unnoted(20997));
+    }
+
+    @Test
+    public void emptyIndexAnswersNothing() {
+        ItemNameIndex index = ItemNameIndex.build(Collections.emptyMap(), Collections.emptyMap());
+        assertNull(index.exact("Coins"));
+        assertTrue(index.prefix("co", 5).isEmpty());
+        assertTrue(index.fuzzy("coins", 5, 0.1).isEmpty());
+    }
+}
@@ -0,0 +1,115 @@
+package io.droptracker.util;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link JsonPatch}: the add/remove/replace subset the server sends for
+ * {@code /event_state}, applied in place, and every path it cannot follow
+ * refused rather than guessed at.
+ */
+public class JsonPatchTest {
+
+    private static JsonElement json(String text) {
+        return JsonParser.parseString(text);
+    }
+
+    private static JsonElement patch(String document, String ops) {
+        return JsonPatch.apply(json(document), json(ops).getAsJsonArray());
+    }
+
+    private static void assertRefused(String document, String ops) {
+        try {
+            patch(document, ops);
+            fail("expected the patch to be refused: " + ops);
+        } catch (IllegalArgumentException expected) {
+            // The caller re-fetches the whole document.
+        }
+    }
+
+    @Test
+    public void addSetsMembersAndInsertsElements() {
+        JsonElement patched = patch("{\"team\":{\"points\":5},\"tasks\":[1,3]}", "["
+                + "{\"op\":\"add\",\"path\":\"/team/rank\",\"value\":2},"
+                + "{\"op\":\"add\",\"path\":\"/tasks/1\",\"value\":2},"
+                + "{\"op\":\"add\",\"path\":\"/tasks/-\",\"value\":4},"
+                + "{\"op\":\"add\",\"path\":\"/tasks/4\",\"value\":5}]");
+        assertEquals(json("{\"team\":{\"points\":5,\"rank\":2},\"tasks\":[1,2,3,4,5]}"), patched);
+    }
+
+    @Test
+    public void addOverwritesAnExistingMember() {
+        assertEquals(json("{\"points\":7}"), patch("{\"points\":5}",
+                "[{\"op\":\"add\",\"path\":\"/points\",\"value\":7}]"));
+    }
+
+    @Test
+    public void removeDropsMembersAndShiftsElements() {
+        JsonElement patched = patch("{\"team\":{\"points\":5,\"rank\":2},\"tasks\":[1,2,3]}", "["
+                + "{\"op\":\"remove\",\"path\":\"/team/rank\"},"
+                + "{\"op\":\"remove\",\"path\":\"/tasks/0\"}]");
+        assertEquals(json("{\"team\":{\"points\":5},\"tasks\":[2,3]}"), patched);
+    }
+
+    @Test
+    public void replaceChangesExistingValues() {
+        JsonElement patched = patch("{\"events\":[{\"id\":1,\"name\":\"Bingo\"}]}", "["
+                + "{\"op\":\"replace\",\"path\":\"/events/0/name\",\"value\":\"Bingo 2\"},"
+                + "{\"op\":\"replace\",\"path\":\"/events/0/id\",\"value\":{\"nested\":true}}]");
+        assertEquals(json("{\"events\":[{\"id\":{\"nested\":true},\"name\":\"Bingo 2\"}]}"), patched);
+    }
+
+    @Test
+    public void emptyPathReplacesTheWholeDocument() {
+        assertEquals(json("{\"fresh\":1}"), patch("{\"old\":1}",
+                "[{\"op\":\"replace\",\"path\":\"\",\"value\":{\"fresh\":1}}]"));
+    }
+
+    @Test
+    public void escapedTokensNameTheirMembers() {
+        assertEquals(json("{\"a/b\":2,\"m~n\":3}"), patch("{\"a/b\":1,\"m~n\":1}", "["
+                + "{\"op\":\"replace\",\"path\":\"/a~1b\",\"value\":2},"
+                + "{\"op\":\"replace\",\"path\":\"/m~0n\",\"value\":3}]"));
+    }
+
+    @Test
+    public void patchValuesAreCopiedIn() {
+        JsonArray ops = json("[{\"op\":\"add\",\"path\":\"/team\",\"value\":{\"points\":5}}]").getAsJsonArray();
+        JsonElement patched = JsonPatch.apply(json("{}"), ops);
+        ops.get(0).getAsJsonObject().getAsJsonObject("value").addProperty("points", 9);
+        assertEquals(json("{\"team\":{\"points\":5}}"), patched);
+    }
+
+    @Test
+    public void badPathsAreRefused() {
+        String document = "{\"team\":{\"points\":5},\"tasks\":[1,2]}";
+        // Missing parents, members and elements.
+        assertRefused(document, "[{\"op\":\"add\",\"path\":\"/nope/points\",\"value\":1}]");
+        assertRefused(document, "[{\"op\":\"replace\",\"path\":\"/team/rank\",\"value\":1}]");
+        assertRefused(document, "[{\"op\":\"remove\",\"path\":\"/team/rank\"}]");
+        assertRefused(document, "[{\"op\":\"replace\",\"path\":\"/tasks/2\",\"value\":1}]");
+        assertRefused(document, "[{\"op\":\"add\",\"path\":\"/tasks/3\",\"value\":1}]");
+        assertRefused(document, "[{\"op\":\"remove\",\"path\":\"/tasks/-\"}]");
+        // Malformed indices and pointers.
+        assertRefused(document, "[{\"op\":\"remove\",\"path\":\"/tasks/01\"}]");
+        assertRefused(document, "[{\"op\":\"remove\",\"path\":\"/tasks/-1\"}]");
+        assertRefused(document, "[{\"op\":\"remove\",\"path\":\"tasks/0\"}]");
+        // A path that runs through a scalar.
+        assertRefused(document, "[{\"op\":\"add\",\"path\":\"/team/points/x\",\"value\":1}]");
+    }
+
+    @Test
+    public void malformedOperationsAreRefused() {
+        String document = "{\"a\":1}";
+        assertRefused(document, "[{\"op\":\"move\",\"from\":\"/a\",\"path\":\"/b\"}]");
+        assertRefused(document, "[{\"op\":\"add\",\"path\":\"/b\"}]");
+        assertRefused(document, "[{\"path\":\"/a\"}]");
+        assertRefused(document, "[{\"op\":\"remove\",\"path\":\"\"}]");
+        assertRefused(document, "[\"remove /a\"]");
+    }
+}
@@ -0,0 +1,111 @@
+package io.droptracker.util;
+
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.Okio;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RemoteImageCacheTest {
+
+    private static final int MAX_BYTES = 64 << 10;
+
+    /** A chunked body: no length up front, however much it goes on to send. */
+    private static ResponseBody chunked(InputStream in) {
+        return ResponseBody.create(null, -1, Okio.buffer(Okio.source(in)));
+    }
+
+    @Test
+    public void bodiesWithinTheCapAreRead() throws IOException {
+        byte[] bytes = new byte[MAX_BYTES];
+        bytes[MAX_BYTES - 1] = 7;
+
+        assertArrayEquals(bytes, RemoteImageCache.readBounded(
+            ResponseBody.create(null, MAX_BYTES, new Buffer().write(bytes)), MAX_BYTES));
+        assertArrayEquals(bytes, RemoteImageCache.readBounded(
+            chunked(new ByteArrayInputStream(bytes)), MAX_BYTES));
+    }
+
+    @Test
+    public void declaredOversizedBodiesAreNotRead() throws IOException {
+        Buffer source = new Buffer().write(new byte[16]);
+
+        assertNull(RemoteImageCache.readBounded(ResponseBody.create(null, MAX_BYTES + 1L, source), MAX_BYTES));
+        assertEquals(16, source.size());
+    }
+
+    @Test
+    public void chunkedBodiesAreAbandonedPastTheCap() throws IOException {
+        Endless endless = new Endless();
+
+        assertNull(RemoteImageCache.readBounded(chunked(endless), MAX_BYTES));
+        // One buffer segment past the cap at most, not the whole stream.
+        assertTrue(endless.read <= MAX_BYTES + 1 + 8192);
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void imagesUpToTheLimitAreDecoded() throws IOException {
+        BufferedImage image = RemoteImageCache.decode(png(512, 32));
+        assertNotNull(image);
+        assertEquals(512, image.getWidth());
+        assertEquals(32, image.getHeight());
+    }
+
+    @Test
+    public void oversizedOrUnreadableImagesAreRejected() throws IOException {
+        assertNull(RemoteImageCache.decode(png(513, 1)));
+        assertNull(RemoteImageCache.decode(png(1, 513)));
+        assertNull(RemoteImageCache.decode(new byte[]{'n', 'o', 't', ' ', 'a', 'n', ' ', 'i', 'm', 'a', 'g', 'e'}));
+    }
+
+    @Test
+    public void headerDimensionsAreCheckedBeforeDecoding() throws IOException {
+        // A one-pixel PNG whose header claims 60000x60000: decoding it would
+        // mean allocating a buffer of over ten gigabytes.
+        byte[] bytes = png(1, 1);
+        ByteBuffer header = ByteBuffer.wrap(bytes);
+        header.putInt(16, 60_000).putInt(20, 60_000);
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 12, 17);
+        header.putInt(29, (int) crc.getValue());
+
+        assertNull(RemoteImageCache.decode(bytes));
+    }
+
+    /** A body that never ends, counting what is read of it. */
+    private static class Endless extends InputStream {
+        private long read;
+
+        @Override
+        public int read() {
+            read++;
+            return 0;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            read += len;
+            return len;
+        }
+    }
+}